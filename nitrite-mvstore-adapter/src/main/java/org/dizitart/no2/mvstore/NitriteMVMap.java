@@ -20,6 +20,7 @@ import org.dizitart.no2.common.RecordStream;
 import org.dizitart.no2.common.tuples.Pair;
 import org.dizitart.no2.store.NitriteMap;
 import org.dizitart.no2.store.NitriteStore;
+import org.h2.mvstore.Cursor;
 import org.h2.mvstore.MVMap;
 import org.h2.mvstore.MVStore;
 
@@ -154,6 +155,36 @@ class NitriteMVMap<Key, Value> implements NitriteMap<Key, Value> {
         return () -> new ReverseIterator<>(mvMap);
     }
 
+    @Override
+    public RecordStream<Pair<Key, Value>> entries(Key from, boolean fromInclusive,
+                                                  Key to, boolean toInclusive,
+                                                  boolean reverse) {
+        // mv cursor bounds are inclusive, so resolve the exclusive bounds to
+        // their nearest keys before opening the cursor
+        Key lower = from == null || fromInclusive ? from : mvMap.higherKey(from);
+        Key upper = to == null || toInclusive ? to : mvMap.lowerKey(to);
+        if ((from != null && lower == null) || (to != null && upper == null)) {
+            return RecordStream.empty();
+        }
+
+        return () -> new Iterator<>() {
+            final Cursor<Key, Value> cursor = reverse
+                ? mvMap.cursor(upper, lower, true)
+                : mvMap.cursor(lower, upper, false);
+
+            @Override
+            public boolean hasNext() {
+                return cursor.hasNext();
+            }
+
+            @Override
+            public Pair<Key, Value> next() {
+                Key key = cursor.next();
+                return new Pair<>(key, cursor.getValue());
+            }
+        };
+    }
+
     @Override
     public Key firstKey() {
         return mvMap.firstKey();
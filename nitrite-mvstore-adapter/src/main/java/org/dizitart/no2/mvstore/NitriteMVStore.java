@@ -66,7 +66,7 @@ public class NitriteMVStore extends AbstractNitriteStore<MVStoreConfig> {
 
     @Override
     public boolean hasUnsavedChanges() {
-        return mvStore != null && mvStore.hasUnsavedChanges();
+        return mvStore != null && (mvStore.hasUnsavedChanges() || lastModifiedTracker.hasPendingChanges());
     }
 
     @Override
@@ -76,12 +76,16 @@ public class NitriteMVStore extends AbstractNitriteStore<MVStoreConfig> {
 
     @Override
     public void commit() {
+        lastModifiedTracker.flush();
         mvStore.commit();
         alert(StoreEvents.Commit);
     }
 
     @Override
     public void close() {
+        // write pending last modified time of the maps
+        lastModifiedTracker.close();
+
         // close nitrite maps
         for (NitriteMap<?, ?> nitriteMap : nitriteMapRegistry.values()) {
             nitriteMap.close();
@@ -141,6 +145,7 @@ public class NitriteMVStore extends AbstractNitriteStore<MVStoreConfig> {
         mvStore.removeMap(mvMap);
         getCatalog().remove(name);
         nitriteMapRegistry.remove(name);
+        lastModifiedTracker.forget(name);
     }
 
     @Override
@@ -135,7 +135,7 @@ public abstract class BaseCollectionTest {
         }
     }
 
-    private void openDb() {
+    protected void openDb() {
         MVStoreModuleBuilder builder = MVStoreModule.withConfig();
 
         if (isCompressed) {
@@ -23,6 +23,7 @@ import org.dizitart.no2.collection.DocumentCursor;
 import org.dizitart.no2.collection.NitriteCollection;
 import org.dizitart.no2.common.SortOrder;
 import org.dizitart.no2.exceptions.FilterException;
+import org.dizitart.no2.index.IndexLayout;
 import org.dizitart.no2.index.IndexOptions;
 import org.dizitart.no2.index.IndexType;
 import org.junit.Test;
@@ -627,4 +628,36 @@ public class CollectionFindBySingleFieldIndexTest extends BaseCollectionTest {
 
         assertArrayEquals(nonIndexedResult, indexedResult);
     }
+
+    @Test
+    public void testMigrateBitmapLayout() {
+        if (inMemory) {
+            return;
+        }
+
+        NitriteCollection nitriteCollection = db.getCollection("testMigrateBitmapLayout");
+        nitriteCollection.createIndex(IndexOptions.indexOptions(IndexType.NON_UNIQUE), "tier");
+        for (int i = 0; i < 300; i++) {
+            nitriteCollection.insert(Document.createDocument("tier", i % 3));
+        }
+
+        nitriteCollection.createIndex(IndexOptions.indexOptions(IndexType.NON_UNIQUE, IndexLayout.BITMAP), "tier");
+        db.close();
+        openDb();
+        nitriteCollection = db.getCollection("testMigrateBitmapLayout");
+        assertEquals(100, nitriteCollection.find(where("tier").eq(1)).size());
+        assertEquals(200, nitriteCollection.find(where("tier").gt(0)).size());
+        assertFalse(db.getStore().hasMap("$nitrite_index|testMigrateBitmapLayout|tier|NonUnique"));
+        assertTrue(db.getStore().hasMap("$nitrite_index|testMigrateBitmapLayout|tier|NonUnique|Bitmap"));
+
+        nitriteCollection.insert(Document.createDocument("tier", 1));
+        nitriteCollection.createIndex(IndexOptions.indexOptions(IndexType.NON_UNIQUE, IndexLayout.POSTING_LIST), "tier");
+        db.close();
+        openDb();
+        nitriteCollection = db.getCollection("testMigrateBitmapLayout");
+        assertEquals(101, nitriteCollection.find(where("tier").eq(1)).size());
+        assertEquals(201, nitriteCollection.find(where("tier").gt(0)).size());
+        assertTrue(db.getStore().hasMap("$nitrite_index|testMigrateBitmapLayout|tier|NonUnique"));
+        assertFalse(db.getStore().hasMap("$nitrite_index|testMigrateBitmapLayout|tier|NonUnique|Bitmap"));
+    }
 }
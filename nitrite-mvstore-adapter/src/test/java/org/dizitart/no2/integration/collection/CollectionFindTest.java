@@ -17,6 +17,7 @@
 
 package org.dizitart.no2.integration.collection;
 
+import org.dizitart.no2.Nitrite;
 import org.dizitart.no2.collection.Document;
 import org.dizitart.no2.collection.DocumentCursor;
 import org.dizitart.no2.collection.NitriteCollection;
@@ -26,6 +27,7 @@ import org.dizitart.no2.exceptions.IndexingException;
 import org.dizitart.no2.exceptions.ValidationException;
 import org.dizitart.no2.index.IndexOptions;
 import org.dizitart.no2.index.IndexType;
+import org.dizitart.no2.mvstore.MVStoreModule;
 import org.joda.time.DateTime;
 import org.junit.Test;
 
@@ -34,6 +36,8 @@ import java.text.ParseException;
 import java.util.*;
 import java.util.stream.Collectors;
 
+import static org.dizitart.no2.integration.TestUtil.deleteDb;
+import static org.dizitart.no2.integration.TestUtil.getRandomTempDbFile;
 import static org.dizitart.no2.integration.TestUtil.isSorted;
 import static org.dizitart.no2.collection.Document.createDocument;
 import static org.dizitart.no2.collection.FindOptions.*;
@@ -850,4 +854,65 @@ public class CollectionFindTest extends BaseCollectionTest {
         assertFalse(idIter.hasNext());
         assertEquals(cursor.size(), 0);
     }
+
+    @Test
+    public void testSortSpilledToStore() {
+        String filePath = getRandomTempDbFile();
+        Nitrite sortDb = Nitrite.builder()
+            .loadModule(MVStoreModule.withConfig().filePath(filePath).build())
+            .sortBufferSize(10)
+            .openOrCreate();
+        try {
+            NitriteCollection collection = sortDb.getCollection("spilled-sort");
+            for (int i = 0; i < 100; i++) {
+                collection.insert(createDocument("seq", i).put("score", (i * 37) % 100));
+            }
+
+            List<Integer> scores = collection.find(orderBy("score", SortOrder.Descending)).toList()
+                .stream().map(document -> document.get("score", Integer.class)).collect(Collectors.toList());
+            assertEquals(100, scores.size());
+            assertTrue(isSorted(scores, false));
+
+            // the runs are removed from the store as they are merged
+            String runMapName = SORT_RUN_PREFIX + INTERNAL_NAME_SEPARATOR + "spilled-sort";
+            assertTrue(sortDb.getStore().openMap(runMapName, Long.class, Document.class).isEmpty());
+
+            collection.find(orderBy("score", SortOrder.Ascending)).iterator().next();
+            collection.close();
+            assertFalse(sortDb.getStore().hasMap(runMapName));
+        } finally {
+            sortDb.close();
+            deleteDb(filePath);
+        }
+    }
+
+    @Test
+    public void testSortOnReadOnlyStore() {
+        String filePath = getRandomTempDbFile();
+        Nitrite sortDb = Nitrite.builder()
+            .loadModule(MVStoreModule.withConfig().filePath(filePath).build())
+            .openOrCreate();
+        NitriteCollection collection = sortDb.getCollection("read-only-sort");
+        for (int i = 0; i < 100; i++) {
+            collection.insert(createDocument("seq", i).put("score", (i * 37) % 100));
+        }
+        sortDb.close();
+
+        sortDb = Nitrite.builder()
+            .loadModule(MVStoreModule.withConfig().filePath(filePath).readOnly(true).build())
+            .sortBufferSize(10)
+            .openOrCreate();
+        try {
+            // the runs can not be written, so the documents are sorted in memory
+            collection = sortDb.getCollection("read-only-sort");
+            List<Integer> scores = collection.find(orderBy("score", SortOrder.Ascending)).toList()
+                .stream().map(document -> document.get("score", Integer.class)).collect(Collectors.toList());
+            assertEquals(100, scores.size());
+            assertTrue(isSorted(scores, true));
+            assertFalse(sortDb.getStore().hasMap(SORT_RUN_PREFIX + INTERNAL_NAME_SEPARATOR + "read-only-sort"));
+        } finally {
+            sortDb.close();
+            deleteDb(filePath);
+        }
+    }
 }
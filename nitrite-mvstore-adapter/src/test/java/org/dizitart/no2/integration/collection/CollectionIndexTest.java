@@ -23,17 +23,22 @@ import org.dizitart.no2.collection.NitriteCollection;
 import org.dizitart.no2.common.WriteResult;
 import org.dizitart.no2.filters.Filter;
 import org.dizitart.no2.index.IndexDescriptor;
+import org.dizitart.no2.index.IndexOptions;
 import org.dizitart.no2.index.IndexType;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Calendar;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.GregorianCalendar;
 import java.util.Random;
 import java.util.concurrent.Callable;
 
 import static org.dizitart.no2.collection.Document.createDocument;
 import static org.dizitart.no2.common.util.DocumentUtils.isSimilar;
 import static org.dizitart.no2.filters.FluentFilter.where;
+import static org.dizitart.no2.index.IndexExpression.*;
 import static org.dizitart.no2.index.IndexOptions.indexOptions;
 import static org.junit.Assert.*;
 
@@ -300,4 +305,60 @@ public class CollectionIndexTest extends BaseCollectionTest {
         collection.createIndex(indexOptions(IndexType.NON_UNIQUE), "third");
         assertEquals(collection.find(where("third").eq(null)).size(), 2);
     }
+
+    @Test
+    public void testPartialIndexReopen() {
+        if (inMemory) {
+            return;
+        }
+
+        NitriteCollection collection = db.getCollection("partial-index");
+        IndexOptions indexOptions = indexOptions(IndexType.NON_UNIQUE);
+        indexOptions.setPartialFilter(where("status").eq("PENDING"));
+        collection.createIndex(indexOptions, "priority");
+        collection.insert(createDocument("status", "PENDING").put("priority", 1));
+        collection.insert(createDocument("status", "DONE").put("priority", 1));
+        db.close();
+
+        // the filter of the index outlives the database
+        openDb();
+        collection = db.getCollection("partial-index");
+        IndexDescriptor indexDescriptor = collection.listIndices().iterator().next();
+        assertEquals(Collections.singletonMap("status", "PENDING"), indexDescriptor.getPartialFilter());
+
+        collection.insert(createDocument("status", "PENDING").put("priority", 1));
+        DocumentCursor cursor = collection.find(Filter.and(where("status").eq("PENDING"),
+            where("priority").eq(1)));
+        assertEquals(2, cursor.size());
+        assertEquals(indexDescriptor, cursor.getFindPlan().getIndexDescriptor());
+    }
+
+    @Test
+    public void testExpressionIndexReopen() {
+        if (inMemory) {
+            return;
+        }
+
+        NitriteCollection collection = db.getCollection("expression-index");
+        collection.createIndex(indexOptions(IndexType.UNIQUE, lower("email")), lower("email").getName());
+        collection.createIndex(indexOptions(IndexType.NON_UNIQUE, year("createdAt")), year("createdAt").getName());
+        collection.insert(createDocument("email", "User@Example.com")
+            .put("createdAt", new GregorianCalendar(2021, Calendar.JUNE, 15).getTime()));
+        db.close();
+
+        // the expressions are kept with the descriptors of the indexes
+        openDb();
+        collection = db.getCollection("expression-index");
+        for (IndexDescriptor indexDescriptor : collection.listIndices()) {
+            String field = indexDescriptor.getFields().getEncodedName();
+            assertEquals(field.equals("lower(email)") ? lower("email") : year("createdAt"),
+                indexDescriptor.getExpression(field));
+        }
+
+        collection.insert(createDocument("email", "Other@Example.com"));
+        DocumentCursor cursor = collection.find(where(lower("email")).eq("other@example.com"));
+        assertEquals(1, cursor.size());
+        assertNotNull(cursor.getFindPlan().getIndexDescriptor());
+        assertEquals(1, collection.find(where(year("createdAt")).eq(2021)).size());
+    }
 }
@@ -17,13 +17,20 @@
 
 package org.dizitart.no2.mvstore;
 
+import org.dizitart.no2.common.RecordStream;
+import org.dizitart.no2.common.tuples.Pair;
+import org.dizitart.no2.index.fulltext.LevenshteinAutomaton;
 import org.h2.mvstore.MVMap;
+import org.h2.mvstore.MVStore;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
 
-import static org.junit.Assert.assertFalse;
-import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
 
 @SuppressWarnings("unchecked")
@@ -61,5 +68,77 @@ public class NitriteMVMapTest {
         assertTrue((new NitriteMVMap<>(objectObjectMap, null)).isEmpty());
         verify(objectObjectMap).isEmpty();
     }
-}
 
+    @Test
+    public void testRangeEntries() {
+        MVStore mvStore = new MVStore.Builder().open();
+        try {
+            MVMap<Integer, String> mvMap = mvStore.openMap("test");
+            for (int i = 1; i <= 5; i++) {
+                mvMap.put(i, "Value" + i);
+            }
+
+            NitriteMVMap<Integer, String> nitriteMVMap = new NitriteMVMap<>(mvMap, null);
+            assertEquals(Arrays.asList(2, 3, 4), keys(nitriteMVMap.entries(2, true, 4, true, false)));
+            assertEquals(Collections.singletonList(3), keys(nitriteMVMap.entries(2, false, 4, false, false)));
+            assertEquals(Arrays.asList(4, 3, 2), keys(nitriteMVMap.entries(2, true, 4, true, true)));
+            assertEquals(Arrays.asList(3), keys(nitriteMVMap.entries(2, false, 4, false, true)));
+            assertEquals(Arrays.asList(4, 5), keys(nitriteMVMap.entries(3, false, null, false, false)));
+            assertEquals(Arrays.asList(2, 1), keys(nitriteMVMap.entries(null, false, 3, false, true)));
+            assertEquals(Arrays.asList(5, 4, 3, 2, 1), keys(nitriteMVMap.entries(null, false, null, false, true)));
+            assertTrue(keys(nitriteMVMap.entries(4, true, 2, true, false)).isEmpty());
+            assertTrue(keys(nitriteMVMap.entries(4, true, 2, true, true)).isEmpty());
+            assertTrue(keys(nitriteMVMap.entries(3, false, 4, false, false)).isEmpty());
+            assertTrue(keys(nitriteMVMap.entries(5, false, null, false, false)).isEmpty());
+            assertEquals("Value2", nitriteMVMap.entries(2, true, 2, true, false).firstOrNull().getSecond());
+        } finally {
+            mvStore.close();
+        }
+    }
+
+    @Test
+    public void testPrefixEntries() {
+        MVStore mvStore = new MVStore.Builder().open();
+        try {
+            MVMap<String, Integer> mvMap = mvStore.openMap("test");
+            List<String> terms = Arrays.asList("fo", "foo", "food", "fool", "for", "fop", "bar", "fz");
+            for (int i = 0; i < terms.size(); i++) {
+                mvMap.put(terms.get(i), i);
+            }
+
+            NitriteMVMap<String, Integer> nitriteMVMap = new NitriteMVMap<>(mvMap, null);
+            List<String> keys = nitriteMVMap.prefixEntries("foo").toList().stream()
+                .map(Pair::getFirst).collect(Collectors.toList());
+            assertEquals(Arrays.asList("foo", "food", "fool"), keys);
+            assertEquals(6, nitriteMVMap.prefixEntries("fo").size());
+            assertTrue(nitriteMVMap.prefixEntries("fox").isEmpty());
+        } finally {
+            mvStore.close();
+        }
+    }
+
+    @Test
+    public void testMatchingEntries() {
+        MVStore mvStore = new MVStore.Builder().open();
+        try {
+            MVMap<String, Integer> mvMap = mvStore.openMap("test");
+            List<String> terms = Arrays.asList("fo", "foo", "food", "fool", "for", "fop", "bar", "fz");
+            for (int i = 0; i < terms.size(); i++) {
+                mvMap.put(terms.get(i), i);
+            }
+
+            NitriteMVMap<String, Integer> nitriteMVMap = new NitriteMVMap<>(mvMap, null);
+            LevenshteinAutomaton automaton = new LevenshteinAutomaton("fox", 1);
+            List<String> keys = nitriteMVMap.matchingEntries(automaton::accepts, automaton::next)
+                .toList().stream().map(Pair::getFirst).collect(Collectors.toList());
+            assertEquals(Arrays.asList("fo", "foo", "fop", "for"), keys);
+            assertTrue(nitriteMVMap.matchingEntries(key -> false, key -> null).isEmpty());
+        } finally {
+            mvStore.close();
+        }
+    }
+
+    private List<Integer> keys(RecordStream<Pair<Integer, String>> entries) {
+        return entries.toList().stream().map(Pair::getFirst).collect(Collectors.toList());
+    }
+}
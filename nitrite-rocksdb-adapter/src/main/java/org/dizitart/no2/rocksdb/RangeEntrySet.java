@@ -0,0 +1,153 @@
+package org.dizitart.no2.rocksdb;
+
+import org.dizitart.no2.common.tuples.Pair;
+import org.dizitart.no2.rocksdb.formatter.ObjectFormatter;
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksIterator;
+import org.rocksdb.util.BytewiseComparator;
+
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A range of entries of a rocksdb column family, scanned by a
+ * single {@link RocksIterator} which is positioned once at the
+ * start of the range.
+ *
+ * @since 4.3
+ * @author Anindya Chatterjee
+ */
+class RangeEntrySet<K, V> implements Iterable<Pair<K, V>> {
+    private final ObjectFormatter objectFormatter;
+    private final RocksDB rocksDB;
+    private final ColumnFamilyHandle columnFamilyHandle;
+    private final BytewiseComparator bytewiseComparator;
+    private final Class<?> keyType;
+    private final Class<?> valueType;
+    private final K from;
+    private final boolean fromInclusive;
+    private final K to;
+    private final boolean toInclusive;
+    private final boolean reverse;
+
+    public RangeEntrySet(RocksDB rocksDB, ColumnFamilyHandle columnFamilyHandle,
+                         ObjectFormatter objectFormatter, BytewiseComparator bytewiseComparator,
+                         Class<?> keyType, Class<?> valueType,
+                         K from, boolean fromInclusive, K to, boolean toInclusive,
+                         boolean reverse) {
+        this.rocksDB = rocksDB;
+        this.columnFamilyHandle = columnFamilyHandle;
+        this.objectFormatter = objectFormatter;
+        this.bytewiseComparator = bytewiseComparator;
+        this.keyType = keyType;
+        this.valueType = valueType;
+        this.from = from;
+        this.fromInclusive = fromInclusive;
+        this.to = to;
+        this.toInclusive = toInclusive;
+        this.reverse = reverse;
+    }
+
+    @Override
+    public Iterator<Pair<K, V>> iterator() {
+        return new RangeIterator();
+    }
+
+    private class RangeIterator implements Iterator<Pair<K, V>> {
+        private final RocksIterator rawIterator;
+        private final ByteBuffer endKey;
+        private Pair<K, V> nextEntry;
+
+        public RangeIterator() {
+            rawIterator = rocksDB.newIterator(columnFamilyHandle);
+            K end = reverse ? from : to;
+            endKey = end == null ? null : ByteBuffer.wrap(objectFormatter.encodeKey(end));
+
+            K start = reverse ? to : from;
+            if (start == null) {
+                if (reverse) {
+                    rawIterator.seekToLast();
+                } else {
+                    rawIterator.seekToFirst();
+                }
+            } else {
+                byte[] startKey = objectFormatter.encodeKey(start);
+                if (reverse) {
+                    rawIterator.seekForPrev(startKey);
+                } else {
+                    rawIterator.seek(startKey);
+                }
+
+                // skip the start key itself for an exclusive bound
+                boolean inclusive = reverse ? toInclusive : fromInclusive;
+                if (!inclusive) {
+                    ByteBuffer startBuffer = ByteBuffer.wrap(startKey);
+                    while (rawIterator.isValid()
+                        && bytewiseComparator.compare(ByteBuffer.wrap(rawIterator.key()), startBuffer) == 0) {
+                        move();
+                    }
+                }
+            }
+            nextEntry = fetch();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextEntry != null;
+        }
+
+        @Override
+        public Pair<K, V> next() {
+            if (nextEntry == null) {
+                throw new NoSuchElementException();
+            }
+
+            Pair<K, V> entry = nextEntry;
+            move();
+            nextEntry = fetch();
+            return entry;
+        }
+
+        @SuppressWarnings("unchecked")
+        private Pair<K, V> fetch() {
+            try {
+                if (rawIterator.isValid()) {
+                    byte[] rawKey = rawIterator.key();
+                    if (withinEnd(rawKey)) {
+                        K key = (K) objectFormatter.decodeKey(rawKey, keyType);
+                        V value = (V) objectFormatter.decode(rawIterator.value(), valueType);
+                        return new Pair<>(key, value);
+                    }
+                }
+            } catch (AssertionError e) {
+                // iterator has been invalidated
+            }
+
+            rawIterator.close();
+            return null;
+        }
+
+        private boolean withinEnd(byte[] key) {
+            if (endKey == null) return true;
+
+            // the end of the range is checked in the same bytewise order the
+            // iterator has been positioned in and the map navigates in
+            int cmp = bytewiseComparator.compare(ByteBuffer.wrap(key), endKey);
+            if (reverse) {
+                return fromInclusive ? cmp >= 0 : cmp > 0;
+            } else {
+                return toInclusive ? cmp <= 0 : cmp < 0;
+            }
+        }
+
+        private void move() {
+            if (reverse) {
+                rawIterator.prev();
+            } else {
+                rawIterator.next();
+            }
+        }
+    }
+}
@@ -7,6 +7,7 @@ import org.dizitart.no2.common.RecordStream;
 import org.dizitart.no2.common.tuples.Pair;
 import org.dizitart.no2.exceptions.NitriteIOException;
 import org.dizitart.no2.rocksdb.formatter.ObjectFormatter;
+import org.dizitart.no2.rocksdb.formatter.OrderedStringKeyFormatter;
 import org.dizitart.no2.store.NitriteMap;
 import org.dizitart.no2.store.NitriteStore;
 import org.rocksdb.ColumnFamilyHandle;
@@ -17,7 +18,12 @@ import org.rocksdb.util.BytewiseComparator;
 import java.nio.ByteBuffer;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+import java.util.stream.StreamSupport;
 
+import static org.dizitart.no2.common.Constants.INDEX_PREFIX;
+import static org.dizitart.no2.common.Constants.INTERNAL_NAME_SEPARATOR;
 import static org.dizitart.no2.common.util.ValidationUtils.notNull;
 
 /**
@@ -38,6 +44,7 @@ public class RocksDBMap<K, V> implements NitriteMap<K, V> {
     private ObjectFormatter objectFormatter;
     private ColumnFamilyHandle columnFamilyHandle;
     private BytewiseComparator bytewiseComparator;
+    private boolean orderedStringKeys;
 
     @Getter @Setter
     private Class<?> keyType;
@@ -224,6 +231,44 @@ public class RocksDBMap<K, V> implements NitriteMap<K, V> {
             objectFormatter, getKeyType(), getValueType(), true));
     }
 
+    @Override
+    public RecordStream<Pair<K, V>> entries(K from, boolean fromInclusive,
+                                            K to, boolean toInclusive,
+                                            boolean reverse) {
+        return RecordStream.fromIterable(new RangeEntrySet<>(rocksDB, columnFamilyHandle,
+            objectFormatter, bytewiseComparator, getKeyType(), getValueType(),
+            from, fromInclusive, to, toInclusive, reverse));
+    }
+
+    @Override
+    public RecordStream<Pair<K, V>> prefixEntries(String prefix) {
+        if (orderedStringKeys) {
+            return NitriteMap.super.prefixEntries(prefix);
+        }
+
+        // the string keys of this map are not in their natural order, so
+        // the keys with a common prefix are not adjacent in the store
+        return () -> StreamSupport.stream(entries().spliterator(), false)
+            .filter(pair -> pair.getFirst() instanceof String
+                && ((String) pair.getFirst()).startsWith(prefix))
+            .iterator();
+    }
+
+    @Override
+    public RecordStream<Pair<K, V>> matchingEntries(Predicate<String> matcher,
+                                                    UnaryOperator<String> seeker) {
+        if (orderedStringKeys) {
+            return NitriteMap.super.matchingEntries(matcher, seeker);
+        }
+
+        // the string keys of this map are not in their natural order, so
+        // the store can not seek to the next key which could match
+        return () -> StreamSupport.stream(entries().spliterator(), false)
+            .filter(pair -> pair.getFirst() instanceof String
+                && matcher.test((String) pair.getFirst()))
+            .iterator();
+    }
+
     @Override
     @SuppressWarnings({"unchecked"})
     public K firstKey() {
@@ -397,6 +442,13 @@ public class RocksDBMap<K, V> implements NitriteMap<K, V> {
         this.closedFlag = new AtomicBoolean(false);
         this.droppedFlag = new AtomicBoolean(false);
         this.objectFormatter = store.getStoreConfig().objectFormatter();
+        // the string keys of an index, like the terms of a full-text index,
+        // are written in order so that they can be seeked by prefix, while
+        // the other maps keep the encoding they have always been written in
+        this.orderedStringKeys = getName().startsWith(INDEX_PREFIX + INTERNAL_NAME_SEPARATOR);
+        if (orderedStringKeys) {
+            this.objectFormatter = new OrderedStringKeyFormatter(objectFormatter);
+        }
         this.columnFamilyHandle = reference.getOrCreateColumnFamily(getName());
         this.rocksDB = reference.getRocksDB();
         this.bytewiseComparator = this.reference.getDbComparator();
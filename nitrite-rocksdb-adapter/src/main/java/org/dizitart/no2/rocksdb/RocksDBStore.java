@@ -71,6 +71,7 @@ public class RocksDBStore extends AbstractNitriteStore<RocksDBConfig> {
 
     @Override
     public void commit() {
+        lastModifiedTracker.flush();
         alert(StoreEvents.Commit);
     }
 
@@ -78,6 +79,9 @@ public class RocksDBStore extends AbstractNitriteStore<RocksDBConfig> {
     public void close() {
         try {
             if (!closed.get()) {
+                // write pending last modified time of the maps
+                lastModifiedTracker.close();
+
                 // close nitrite maps
                 for (NitriteMap<?, ?> nitriteMap : nitriteMapRegistry.values()) {
                     nitriteMap.close();
@@ -135,6 +139,7 @@ public class RocksDBStore extends AbstractNitriteStore<RocksDBConfig> {
         reference.dropColumnFamily(mapName);
         getCatalog().remove(mapName);
         nitriteMapRegistry.remove(mapName);
+        lastModifiedTracker.forget(mapName);
     }
 
     @Override
@@ -173,6 +178,13 @@ public class RocksDBStore extends AbstractNitriteStore<RocksDBConfig> {
         return "RocksDB/" + getRocksDbVersion();
     }
 
+    @Override
+    public int getIndexKeyFormat() {
+        // the keys of an index are written in the order of their values, where
+        // the first format wrote them with java serialization and kryo
+        return 2;
+    }
+
     private void initEventBus() {
         if (getStoreConfig().eventListeners() != null) {
             for (StoreEventListener eventListener : getStoreConfig().eventListeners()) {
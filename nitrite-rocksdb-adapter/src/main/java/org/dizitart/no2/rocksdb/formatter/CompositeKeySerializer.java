@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.rocksdb.formatter;
+
+import com.esotericsoftware.kryo.kryo5.Kryo;
+import com.esotericsoftware.kryo.kryo5.io.Input;
+import com.esotericsoftware.kryo.kryo5.io.Output;
+import org.dizitart.no2.collection.NitriteId;
+import org.dizitart.no2.common.DBValue;
+import org.dizitart.no2.exceptions.NitriteIOException;
+import org.dizitart.no2.index.CompositeKey;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An order preserving key serializer for {@link CompositeKey}.
+ * <p>
+ * RocksDB orders the keys bytewise, so each value of the key is written
+ * by the {@link OrderedKeyCodec}. The values are followed by a marker, which
+ * is lower than any type tag for a lower bound, higher than any type tag for
+ * an upper bound and in between for an entry, and the {@link NitriteId} of
+ * the entry.
+ *
+ * @author Anindya Chatterjee
+ * @since 4.3
+ */
+class CompositeKeySerializer extends KryoKeySerializer<CompositeKey> {
+    private static final byte LOWER_BOUND = 0x00;
+    private static final byte ENTRY = (byte) 0x80;
+    private static final byte UPPER_BOUND = (byte) 0xFF;
+
+    @Override
+    public void write(Kryo kryo, Output output, CompositeKey object) {
+        writeKey(kryo, output, object);
+    }
+
+    @Override
+    public CompositeKey read(Kryo kryo, Input input, Class<? extends CompositeKey> type) {
+        return readKey(kryo, input, CompositeKey.class);
+    }
+
+    @Override
+    public void writeKey(Kryo kryo, Output output, CompositeKey object) {
+        for (DBValue value : object.getValues()) {
+            OrderedKeyCodec.writeValue(output, value);
+        }
+
+        NitriteId nitriteId = object.getNitriteId();
+        if (object.isLowerBound()) {
+            output.writeByte(LOWER_BOUND);
+        } else if (object.isUpperBound()) {
+            output.writeByte(UPPER_BOUND);
+        } else {
+            output.writeByte(ENTRY);
+            OrderedKeyCodec.writeOrdered(output, Long.parseLong(nitriteId.getIdValue()));
+        }
+    }
+
+    @Override
+    public CompositeKey readKey(Kryo kryo, Input input, Class<CompositeKey> type) {
+        List<DBValue> values = new ArrayList<>();
+        byte tag = input.readByte();
+        while (tag != ENTRY) {
+            if (tag == LOWER_BOUND || tag == UPPER_BOUND) {
+                throw new NitriteIOException("Bound of a composite key can not be read");
+            }
+            values.add(OrderedKeyCodec.readValue(input, tag));
+            tag = input.readByte();
+        }
+
+        long idValue = OrderedKeyCodec.readOrdered(input);
+        return CompositeKey.of(values, NitriteId.createId(Long.toString(idValue)));
+    }
+}
@@ -69,8 +69,7 @@ public class KryoObjectFormatter implements ObjectFormatter {
     public <T> byte[] encodeKey(T object) {
         if (object == null) return DB_NULL;
 
-        Class<?> clazz = object.getClass();
-        KryoKeySerializer<T> serializer = (KryoKeySerializer<T>) keySerializerRegistry.get(clazz);
+        KryoKeySerializer<T> serializer = (KryoKeySerializer<T>) findKeySerializer(object.getClass());
         if (serializer == null) {
             return encode(object);
         }
@@ -101,7 +100,7 @@ public class KryoObjectFormatter implements ObjectFormatter {
     public <T> T decodeKey(byte[] bytes, Class<T> type) {
         if (Arrays.equals(bytes, DB_NULL)) return null;
 
-        KryoKeySerializer<T> serializer = (KryoKeySerializer<T>) keySerializerRegistry.get(type);
+        KryoKeySerializer<T> serializer = (KryoKeySerializer<T>) findKeySerializer(type);
         if (serializer == null) {
             return decode(bytes, type);
         }
@@ -127,6 +126,18 @@ public class KryoObjectFormatter implements ObjectFormatter {
         }
     }
 
+    private KryoKeySerializer<?> findKeySerializer(Class<?> type) {
+        // a subclass of a key type, like DBNull of DBValue, is
+        // encoded like its key type, so that it decodes as one
+        for (Class<?> clazz = type; clazz != null; clazz = clazz.getSuperclass()) {
+            KryoKeySerializer<?> serializer = keySerializerRegistry.get(clazz);
+            if (serializer != null) {
+                return serializer;
+            }
+        }
+        return null;
+    }
+
     private void registerInternalSerializers() {
         try {
             NitriteSerializers.registerAll(this);
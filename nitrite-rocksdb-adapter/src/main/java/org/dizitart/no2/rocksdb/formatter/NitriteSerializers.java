@@ -12,11 +12,17 @@ import org.dizitart.no2.collection.NitriteId;
 import org.dizitart.no2.common.meta.Attributes;
 import org.dizitart.no2.common.Fields;
 import org.dizitart.no2.common.tuples.Pair;
+import org.dizitart.no2.common.DBNull;
 import org.dizitart.no2.common.DBValue;
 import org.dizitart.no2.common.util.SpatialKey;
 import org.dizitart.no2.index.BoundingBox;
+import org.dizitart.no2.index.CompositeKey;
+import org.dizitart.no2.index.HashKey;
 import org.dizitart.no2.index.IndexDescriptor;
+import org.dizitart.no2.index.IndexExpression;
 import org.dizitart.no2.index.IndexMeta;
+import org.dizitart.no2.index.IndexStatistics;
+import org.dizitart.no2.index.NitriteIdBitmap;
 import org.dizitart.no2.store.UserCredential;
 
 import java.util.ArrayList;
@@ -99,17 +105,34 @@ public class NitriteSerializers {
             kryo.writeObject(output, object.getIndexDescriptor());
             output.writeString(object.getIndexMap());
             output.writeBoolean(object.getIsDirty().get());
+            // the options are an unmodifiable view, which kryo can not create
+            Map<String, Object> options = object.getIndexDescriptor().getOptions();
+            kryo.writeClassAndObject(output, options == null ? null : new HashMap<>(options));
+            kryo.writeClassAndObject(output, object.getStatistics());
+            kryo.writeClassAndObject(output, object.getKeyFormat());
         }
 
         @Override
+        @SuppressWarnings("unchecked")
         public IndexMeta read(Kryo kryo, Input input, Class<? extends IndexMeta> type) {
             IndexDescriptor indexDescriptor = kryo.readObject(input, IndexDescriptor.class);
             String indexMap = input.readString();
             boolean isDirty = input.readBoolean();
+            if (!input.end()) {
+                // index meta written before 4.3 does not have any options
+                indexDescriptor.setOptions((Map<String, Object>) kryo.readClassAndObject(input));
+            }
             IndexMeta indexMeta = new IndexMeta();
             indexMeta.setIndexDescriptor(indexDescriptor);
             indexMeta.setIndexMap(indexMap);
             indexMeta.setIsDirty(new AtomicBoolean(isDirty));
+            if (!input.end()) {
+                indexMeta.setStatistics((IndexStatistics) kryo.readClassAndObject(input));
+            }
+            if (!input.end()) {
+                // index meta written before 4.3 does not have the key format of its index
+                indexMeta.setKeyFormat((Integer) kryo.readClassAndObject(input));
+            }
             return indexMeta;
         }
     }
@@ -222,6 +245,59 @@ public class NitriteSerializers {
         }
     }
 
+    private static class NitriteIdBitmapSerializer extends Serializer<NitriteIdBitmap> {
+        @Override
+        public void write(Kryo kryo, Output output, NitriteIdBitmap bitmap) {
+            byte[] bytes = bitmap.toByteArray();
+            output.writeInt(bytes.length);
+            output.writeBytes(bytes);
+        }
+
+        @Override
+        public NitriteIdBitmap read(Kryo kryo, Input input, Class<? extends NitriteIdBitmap> type) {
+            int length = input.readInt();
+            return NitriteIdBitmap.fromByteArray(input.readBytes(length));
+        }
+    }
+
+    private static class DBValueSerializer extends KryoKeySerializer<DBValue> {
+        private final JavaSerializer javaSerializer = new JavaSerializer();
+
+        @Override
+        public void write(Kryo kryo, Output output, DBValue object) {
+            javaSerializer.write(kryo, output, object);
+        }
+
+        @Override
+        @SuppressWarnings({"rawtypes", "unchecked"})
+        public DBValue read(Kryo kryo, Input input, Class<? extends DBValue> type) {
+            // a null key is written by the default field serializer as a single
+            // null marker, which can never start a java serialization stream
+            if (input.position() < input.limit() && input.getBuffer()[input.position()] == Kryo.NULL) {
+                input.readByte();
+                return DBNull.getInstance();
+            }
+            return (DBValue) javaSerializer.read(kryo, input, (Class) type);
+        }
+
+        @Override
+        public void writeKey(Kryo kryo, Output output, DBValue object) {
+            // the keys of an index map are written in the order of their
+            // values, so that a range of an index is a range of the store
+            OrderedKeyCodec.writeValue(output, object);
+        }
+
+        @Override
+        public DBValue readKey(Kryo kryo, Input input, Class<DBValue> type) {
+            return OrderedKeyCodec.readValue(input);
+        }
+
+        @Override
+        public boolean registerToKryo() {
+            return true;
+        }
+    }
+
     public static void registerAll(KryoObjectFormatter kryoObjectFormatter) {
         kryoObjectFormatter.registerSerializer(NitriteId.class, new NitriteIdSerializer());
         kryoObjectFormatter.registerSerializer(Pair.class, new PairSerializer());
@@ -231,8 +307,13 @@ public class NitriteSerializers {
         kryoObjectFormatter.registerSerializer(UserCredential.class, new UserCredentialSerializer());
         kryoObjectFormatter.registerSerializer(Attributes.class, new AttributesSerializer());
         kryoObjectFormatter.registerSerializer(Fields.class, new FieldsSerializer());
-        kryoObjectFormatter.registerSerializer(DBValue.class, new JavaSerializer());
+        kryoObjectFormatter.registerSerializer(DBValue.class, new DBValueSerializer());
+        kryoObjectFormatter.registerSerializer(CompositeKey.class, new CompositeKeySerializer());
         kryoObjectFormatter.registerSerializer(BoundingBox.class, new BoundingBoxSerializer());
         kryoObjectFormatter.registerSerializer(SpatialKey.class, new SpatialKeySerializer());
+        kryoObjectFormatter.registerSerializer(IndexStatistics.class, new JavaSerializer());
+        kryoObjectFormatter.registerSerializer(NitriteIdBitmap.class, new NitriteIdBitmapSerializer());
+        kryoObjectFormatter.registerSerializer(HashKey.class, new JavaSerializer());
+        kryoObjectFormatter.registerSerializer(IndexExpression.class, new JavaSerializer());
     }
 }
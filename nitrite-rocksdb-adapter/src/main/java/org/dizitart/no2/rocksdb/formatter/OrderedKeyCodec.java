@@ -0,0 +1,293 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.rocksdb.formatter;
+
+import com.esotericsoftware.kryo.kryo5.io.Input;
+import com.esotericsoftware.kryo.kryo5.io.Output;
+import org.dizitart.no2.common.DBNull;
+import org.dizitart.no2.common.DBValue;
+import org.dizitart.no2.exceptions.NitriteIOException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+/**
+ * An order preserving encoding of the index key values.
+ * <p>
+ * RocksDB orders the keys bytewise, so each value is written as a type tag
+ * followed by a payload whose bytes sort in the same order as the values.
+ * Variable length payloads are escaped and terminated, so that a value never
+ * becomes a byte prefix of a larger value. The type tags are kept between
+ * {@code 0x01} and {@code 0x7F}, which leaves room for markers before and
+ * after any value.
+ * <p>
+ * Numbers, strings, booleans, characters and dates are order preserving. Any
+ * other comparable type is written with java serialization, where only the
+ * equality of the values is preserved.
+ *
+ * @author Anindya Chatterjee
+ * @since 4.3
+ */
+class OrderedKeyCodec {
+    private static final byte NULL = 0x01;
+    private static final byte BOOLEAN = 0x02;
+    private static final byte NUMBER = 0x03;
+    private static final byte CHARACTER = 0x04;
+    private static final byte STRING = 0x05;
+    private static final byte DATE = 0x06;
+    private static final byte OTHER = 0x7F;
+
+    private static final byte BYTE = 0x01;
+    private static final byte SHORT = 0x02;
+    private static final byte INTEGER = 0x03;
+    private static final byte LONG = 0x04;
+    private static final byte FLOAT = 0x05;
+    private static final byte DOUBLE = 0x06;
+    private static final byte BIG_INTEGER = 0x07;
+    private static final byte BIG_DECIMAL = 0x08;
+
+    private OrderedKeyCodec() {}
+
+    static void writeValue(Output output, DBValue dbValue) {
+        Comparable<?> value = dbValue.getValue();
+        if (dbValue instanceof DBNull || value == null) {
+            output.writeByte(NULL);
+        } else if (value instanceof Boolean) {
+            output.writeByte(BOOLEAN);
+            output.writeBoolean((Boolean) value);
+        } else if (value instanceof Number) {
+            output.writeByte(NUMBER);
+            writeNumber(output, (Number) value);
+        } else if (value instanceof Character) {
+            output.writeByte(CHARACTER);
+            writeOrdered(output, (Character) value);
+        } else if (value instanceof String) {
+            output.writeByte(STRING);
+            writeEscaped(output, encodeString((String) value));
+        } else if (value instanceof Date && value.getClass() == Date.class) {
+            output.writeByte(DATE);
+            writeOrdered(output, ((Date) value).getTime());
+        } else {
+            output.writeByte(OTHER);
+            writeEscaped(output, serialize(value));
+        }
+    }
+
+    static DBValue readValue(Input input) {
+        return readValue(input, input.readByte());
+    }
+
+    static DBValue readValue(Input input, byte tag) {
+        switch (tag) {
+            case NULL:
+                return DBNull.getInstance();
+            case BOOLEAN:
+                return new DBValue(input.readBoolean());
+            case NUMBER:
+                return new DBValue(readNumber(input));
+            case CHARACTER:
+                return new DBValue((char) readOrdered(input));
+            case STRING:
+                return new DBValue(decodeString(readEscaped(input)));
+            case DATE:
+                return new DBValue(new Date(readOrdered(input)));
+            case OTHER:
+                return new DBValue(deserialize(readEscaped(input)));
+            default:
+                throw new NitriteIOException("Unknown value type " + tag + " in key");
+        }
+    }
+
+    private static void writeNumber(Output output, Number number) {
+        // all numbers are ordered by their double value first, the exact
+        // value breaks the tie among the numbers with the same double value
+        long bits = Double.doubleToLongBits(number.doubleValue());
+        writeBytes(output, bits < 0 ? ~bits : bits ^ Long.MIN_VALUE);
+
+        if (number instanceof Byte) {
+            output.writeByte(BYTE);
+            writeOrdered(output, number.longValue());
+        } else if (number instanceof Short) {
+            output.writeByte(SHORT);
+            writeOrdered(output, number.longValue());
+        } else if (number instanceof Integer) {
+            output.writeByte(INTEGER);
+            writeOrdered(output, number.longValue());
+        } else if (number instanceof Long) {
+            output.writeByte(LONG);
+            writeOrdered(output, number.longValue());
+        } else if (number instanceof Float) {
+            output.writeByte(FLOAT);
+        } else if (number instanceof Double) {
+            output.writeByte(DOUBLE);
+        } else if (number instanceof BigInteger) {
+            output.writeByte(BIG_INTEGER);
+            writeEscaped(output, number.toString().getBytes(StandardCharsets.UTF_8));
+        } else if (number instanceof BigDecimal) {
+            output.writeByte(BIG_DECIMAL);
+            writeEscaped(output, number.toString().getBytes(StandardCharsets.UTF_8));
+        } else {
+            output.writeByte(OTHER);
+            writeEscaped(output, serialize(number));
+        }
+    }
+
+    private static Comparable<?> readNumber(Input input) {
+        long bits = readBytes(input);
+        double doubleValue = Double.longBitsToDouble(bits < 0 ? bits ^ Long.MIN_VALUE : ~bits);
+
+        byte type = input.readByte();
+        switch (type) {
+            case BYTE:
+                return (byte) readOrdered(input);
+            case SHORT:
+                return (short) readOrdered(input);
+            case INTEGER:
+                return (int) readOrdered(input);
+            case LONG:
+                return readOrdered(input);
+            case FLOAT:
+                return (float) doubleValue;
+            case DOUBLE:
+                return doubleValue;
+            case BIG_INTEGER:
+                return new BigInteger(new String(readEscaped(input), StandardCharsets.UTF_8));
+            case BIG_DECIMAL:
+                return new BigDecimal(new String(readEscaped(input), StandardCharsets.UTF_8));
+            case OTHER:
+                return deserialize(readEscaped(input));
+            default:
+                throw new NitriteIOException("Unknown number type " + type + " in key");
+        }
+    }
+
+    static byte[] encodeString(String value) {
+        // every utf-16 char is written as the utf-8 bytes of its code unit, a
+        // surrogate too, so the bytes sort in the order of String.compareTo,
+        // where utf-8 would put a supplementary character after U+FFFF
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                bytes.write(c);
+            } else if (c < 0x800) {
+                bytes.write(0xC0 | (c >> 6));
+                bytes.write(0x80 | (c & 0x3F));
+            } else {
+                bytes.write(0xE0 | (c >> 12));
+                bytes.write(0x80 | ((c >> 6) & 0x3F));
+                bytes.write(0x80 | (c & 0x3F));
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    static String decodeString(byte[] bytes) {
+        StringBuilder value = new StringBuilder(bytes.length);
+        int i = 0;
+        while (i < bytes.length) {
+            int b = bytes[i++] & 0xFF;
+            if (b < 0x80) {
+                value.append((char) b);
+            } else if (b < 0xE0) {
+                value.append((char) (((b & 0x1F) << 6) | (bytes[i++] & 0x3F)));
+            } else {
+                int c = ((b & 0x0F) << 12) | ((bytes[i++] & 0x3F) << 6);
+                value.append((char) (c | (bytes[i++] & 0x3F)));
+            }
+        }
+        return value.toString();
+    }
+
+    static void writeOrdered(Output output, long value) {
+        // flipping the sign bit orders the signed values bytewise
+        writeBytes(output, value ^ Long.MIN_VALUE);
+    }
+
+    static long readOrdered(Input input) {
+        return readBytes(input) ^ Long.MIN_VALUE;
+    }
+
+    private static void writeBytes(Output output, long value) {
+        // big-endian, so that the most significant byte is compared first
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            output.writeByte((byte) (value >>> shift));
+        }
+    }
+
+    private static long readBytes(Input input) {
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | (input.readByte() & 0xFF);
+        }
+        return value;
+    }
+
+    private static void writeEscaped(Output output, byte[] bytes) {
+        // 0x00 is escaped as 0x00 0xFF and the payload ends with 0x00 0x01,
+        // which sorts before any continuation of the payload
+        for (byte b : bytes) {
+            output.writeByte(b);
+            if (b == 0x00) {
+                output.writeByte((byte) 0xFF);
+            }
+        }
+        output.writeByte((byte) 0x00);
+        output.writeByte((byte) 0x01);
+    }
+
+    private static byte[] readEscaped(Input input) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        while (true) {
+            byte b = input.readByte();
+            if (b == 0x00) {
+                byte next = input.readByte();
+                if (next == 0x01) {
+                    return bytes.toByteArray();
+                }
+            }
+            bytes.write(b);
+        }
+    }
+
+    private static byte[] serialize(Object value) {
+        try (ByteArrayOutputStream bos = new ByteArrayOutputStream();
+             ObjectOutputStream oos = new ObjectOutputStream(bos)) {
+            oos.writeObject(value);
+            oos.flush();
+            return bos.toByteArray();
+        } catch (IOException e) {
+            throw new NitriteIOException("Failed to write key value " + value, e);
+        }
+    }
+
+    private static Comparable<?> deserialize(byte[] bytes) {
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return (Comparable<?>) ois.readObject();
+        } catch (IOException | ClassNotFoundException e) {
+            throw new NitriteIOException("Failed to read key value", e);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.rocksdb.formatter;
+
+import java.util.Arrays;
+
+import static org.dizitart.no2.rocksdb.Constants.DB_NULL;
+
+/**
+ * An {@link ObjectFormatter} which writes the string keys of a map in
+ * their natural order and leaves everything else to another formatter.
+ * <p>
+ * RocksDB orders the keys bytewise, so the terms of a full-text index with
+ * a common prefix are adjacent in the store only if the string keys are
+ * written in order. The other maps of a store keep the string keys of the
+ * formatter they were written with.
+ *
+ * @author Anindya Chatterjee
+ * @since 4.3
+ */
+public class OrderedStringKeyFormatter implements ObjectFormatter {
+    private final ObjectFormatter objectFormatter;
+
+    /**
+     * Instantiates a new {@link OrderedStringKeyFormatter}.
+     *
+     * @param objectFormatter the formatter of the values and other keys
+     */
+    public OrderedStringKeyFormatter(ObjectFormatter objectFormatter) {
+        this.objectFormatter = objectFormatter;
+    }
+
+    @Override
+    public <T> byte[] encode(T object) {
+        return objectFormatter.encode(object);
+    }
+
+    @Override
+    public <T> byte[] encodeKey(T object) {
+        if (object instanceof String) {
+            return OrderedKeyCodec.encodeString((String) object);
+        }
+        return objectFormatter.encodeKey(object);
+    }
+
+    @Override
+    public <T> T decode(byte[] bytes, Class<T> type) {
+        return objectFormatter.decode(bytes, type);
+    }
+
+    @Override
+    public <T> T decodeKey(byte[] bytes, Class<T> type) {
+        // the bytes of a string never hold the null marker
+        if (String.class.equals(type) && !Arrays.equals(bytes, DB_NULL)) {
+            return type.cast(OrderedKeyCodec.decodeString(bytes));
+        }
+        return objectFormatter.decodeKey(bytes, type);
+    }
+}
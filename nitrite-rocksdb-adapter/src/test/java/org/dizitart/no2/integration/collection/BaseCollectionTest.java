@@ -114,7 +114,7 @@ public abstract class BaseCollectionTest {
         }
     }
 
-    private void openDb() {
+    protected void openDb() {
         fstMarshaller.registerSerializer(DateTime.class, new JodaTimeKryoKeySerializer());
 
         RocksDBModule storeModule = RocksDBModule.withConfig()
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.integration.collection;
+
+import org.dizitart.no2.index.IndexDescriptor;
+import org.dizitart.no2.index.IndexLayout;
+import org.dizitart.no2.index.IndexType;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.dizitart.no2.filters.FluentFilter.where;
+import static org.dizitart.no2.index.IndexOptions.indexOptions;
+import static org.junit.Assert.*;
+
+public class CollectionCompositeKeyIndexTest extends BaseCollectionTest {
+
+    @Test
+    public void testMigrateLayout() {
+        insert();
+        collection.createIndex(indexOptions(IndexType.NON_UNIQUE), "lastName");
+        collection.createIndex(indexOptions(IndexType.NON_UNIQUE, IndexLayout.COMPOSITE_KEY), "lastName");
+        reopen();
+
+        // the migrated layout and its entries outlive the database
+        assertEquals(IndexLayout.COMPOSITE_KEY, findIndex("lastName").getLayout());
+        assertEquals(2, collection.find(where("lastName").eq("ln2")).size());
+        assertFalse(db.getStore().hasMap("$nitrite_index|test|lastName|NonUnique"));
+        assertEquals(3, indexMapSize("$nitrite_index|test|lastName|NonUnique|CompositeKey"));
+
+        collection.createIndex(indexOptions(IndexType.NON_UNIQUE, IndexLayout.POSTING_LIST), "lastName");
+        reopen();
+
+        assertEquals(IndexLayout.POSTING_LIST, findIndex("lastName").getLayout());
+        assertEquals(3, collection.find(where("lastName").gte("ln1")).size());
+        assertFalse(db.getStore().hasMap("$nitrite_index|test|lastName|NonUnique|CompositeKey"));
+        assertEquals(2, indexMapSize("$nitrite_index|test|lastName|NonUnique"));
+    }
+
+    private void reopen() {
+        db.close();
+        openDb();
+        collection = db.getCollection("test");
+    }
+
+    private IndexDescriptor findIndex(String... fields) {
+        for (IndexDescriptor indexDescriptor : collection.listIndices()) {
+            if (indexDescriptor.getFields().getFieldNames().equals(Arrays.asList(fields))) {
+                return indexDescriptor;
+            }
+        }
+        return null;
+    }
+
+    private long indexMapSize(String mapName) {
+        assertTrue(db.getStore().hasMap(mapName));
+        return db.getStore().openMap(mapName, Object.class, Object.class).size();
+    }
+}
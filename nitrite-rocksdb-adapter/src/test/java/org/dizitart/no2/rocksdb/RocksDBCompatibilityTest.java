@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.rocksdb;
+
+import org.dizitart.no2.Nitrite;
+import org.dizitart.no2.collection.NitriteCollection;
+import org.dizitart.no2.integration.TestUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.dizitart.no2.collection.Document.createDocument;
+import static org.dizitart.no2.filters.Filter.and;
+import static org.dizitart.no2.filters.FluentFilter.where;
+import static org.dizitart.no2.integration.TestUtil.deleteDb;
+import static org.dizitart.no2.integration.TestUtil.getRandomTempDbFile;
+import static org.junit.Assert.*;
+
+/**
+ * Opens a database written by an earlier 4.x release, which has a
+ * collection "users" of 20 documents and indexes on "email", "age",
+ * "notes" and ("name", "age"), with the credentials test-user/test-password.
+ */
+public class RocksDBCompatibilityTest {
+    private final String fileName = getRandomTempDbFile();
+    private Nitrite db;
+
+    @Before
+    public void setUp() throws IOException {
+        Path dbPath = Paths.get(fileName);
+        Files.createDirectories(dbPath);
+        try (InputStream stream = ClassLoader.getSystemResourceAsStream("no2-v4-rocksdb.zip")) {
+            assertNotNull(stream);
+            try (ZipInputStream zipStream = new ZipInputStream(stream)) {
+                ZipEntry entry;
+                while ((entry = zipStream.getNextEntry()) != null) {
+                    Files.copy(zipStream, dbPath.resolve(entry.getName()));
+                }
+            }
+        }
+        db = TestUtil.createDb(fileName, "test-user", "test-password");
+    }
+
+    @After
+    public void tearDown() {
+        if (db != null && !db.isClosed()) {
+            db.close();
+        }
+        deleteDb(fileName);
+    }
+
+    @Test
+    public void testReadVersion4Database() {
+        assertTrue(db.hasCollection("users"));
+        assertTrue(db.getDatabaseMetaData().getStoreVersion().startsWith("RocksDB/"));
+
+        NitriteCollection collection = db.getCollection("users");
+        assertEquals(20, collection.size());
+        assertEquals(4, collection.listIndices().size());
+        assertTrue(collection.hasIndex("name", "age"));
+    }
+
+    @Test
+    public void testRebuildVersion4Indexes() {
+        // the index keys of the earlier release are not ordered,
+        // so the indexes are built again as the collection opens
+        NitriteCollection collection = db.getCollection("users");
+        assertFalse(collection.isIndexing("age"));
+        assertEquals(8, collection.find(where("age").gte(26)).size());
+        assertEquals(1, collection.find(where("email").eq("user7@nitrite.org")).size());
+        assertEquals(10, collection.find(where("notes").text("fox")).size());
+        assertEquals(10, collection.find(where("notes").text("la*")).size());
+        assertEquals(1, collection.find(and(where("name").eq("user3"), where("age").eq(23))).size());
+
+        collection.insert(createDocument("name", "user20").put("age", 30)
+            .put("email", "user20@nitrite.org").put("notes", "quick cat"));
+        db.close();
+
+        // the rebuilt indexes are kept as they are
+        db = TestUtil.createDb(fileName, "test-user", "test-password");
+        collection = db.getCollection("users");
+        assertEquals(1, collection.find(where("age").gte(30)).size());
+        assertEquals(11, collection.find(where("notes").text("quick")).size());
+        assertEquals(21, collection.size());
+    }
+}
@@ -17,8 +17,21 @@
 
 package org.dizitart.no2.rocksdb;
 
+import org.dizitart.no2.Nitrite;
+import org.dizitart.no2.common.tuples.Pair;
+import org.dizitart.no2.index.fulltext.LevenshteinAutomaton;
+import org.dizitart.no2.integration.TestUtil;
+import org.dizitart.no2.store.NitriteMap;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.dizitart.no2.integration.TestUtil.deleteDb;
+import static org.dizitart.no2.integration.TestUtil.getRandomTempDbFile;
+import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.*;
 
 @SuppressWarnings("unchecked")
@@ -30,5 +43,37 @@ public class RocksDBMapTest {
         rocksDBMap.putIfAbsent("42", "42");
         verify(rocksDBMap).putIfAbsent(any(), any());
     }
-}
 
+    @Test
+    public void testMatchingEntriesWithSurrogatePairs() {
+        String fileName = getRandomTempDbFile();
+        Nitrite db = TestUtil.createDb(fileName);
+        try {
+            NitriteMap<String, Integer> termMap = db.getStore()
+                .openMap("$nitrite_index|test|body|Fulltext", String.class, Integer.class);
+            // a supplementary character is written as a surrogate pair, which sorts
+            // before the characters from U+E000 in the order of String
+            List<String> terms = Arrays.asList("\uD83D\uDE00", "\uD83D\uDE01", "\uE000", "\uFFFD");
+            for (int i = 0; i < terms.size(); i++) {
+                termMap.put(terms.get(i), i);
+            }
+
+            assertEquals(Collections.singletonList("\uD83D\uDE01"),
+                matchingTerms(termMap, new LevenshteinAutomaton("\uD83D\uDE01", 0)));
+            assertEquals(Arrays.asList("\uD83D\uDE00", "\uD83D\uDE01"),
+                matchingTerms(termMap, new LevenshteinAutomaton("\uD83D\uDE00", 1)));
+            assertEquals(2, termMap.prefixEntries("\uD83D").size());
+        } finally {
+            db.close();
+            deleteDb(fileName);
+        }
+    }
+
+    private List<String> matchingTerms(NitriteMap<String, Integer> termMap, LevenshteinAutomaton automaton) {
+        List<String> terms = new ArrayList<>();
+        for (Pair<String, Integer> entry : termMap.matchingEntries(automaton::accepts, automaton::next)) {
+            terms.add(entry.getFirst());
+        }
+        return terms;
+    }
+}
@@ -0,0 +1,79 @@
+package org.dizitart.no2.rocksdb.formatter;
+
+import org.dizitart.no2.collection.NitriteId;
+import org.dizitart.no2.common.DBNull;
+import org.dizitart.no2.common.DBValue;
+import org.dizitart.no2.index.CompositeKey;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class CompositeKeySerializerTest {
+    private final KryoObjectFormatter formatter = new KryoObjectFormatter();
+
+    @Test
+    public void testRoundTrip() {
+        CompositeKey key = CompositeKey.of(Arrays.asList(DBNull.getInstance(), new DBValue("a\u0000b"),
+            new DBValue(-5), new DBValue(2.5), new DBValue(10L), new DBValue(true),
+            new DBValue('c'), new DBValue(new Date(1000)), new DBValue(new BigDecimal("1.25"))),
+            NitriteId.createId("42"));
+
+        byte[] bytes = formatter.encodeKey(key);
+        CompositeKey decoded = formatter.decodeKey(bytes, CompositeKey.class);
+        assertEquals(0, key.compareTo(decoded));
+        assertEquals(key.getNitriteId(), decoded.getNitriteId());
+        assertEquals("a\u0000b", decoded.getValues().get(1).getValue());
+        assertEquals(-5, decoded.getValues().get(2).getValue());
+    }
+
+    @Test
+    public void testOrderPreserving() {
+        List<Comparable<?>> values = Arrays.asList(-100L, -1.5, -1, 0, 0.5, 1, 2L, 10, 1000.25, Long.MAX_VALUE);
+        assertOrdered(values);
+        assertOrdered(Arrays.asList("", "a", "a\u0000", "ab", "b", "ba"));
+    }
+
+    @Test
+    public void testBoundOrdering() {
+        List<DBValue> prefix = Collections.singletonList(new DBValue("a"));
+        CompositeKey entry = CompositeKey.of(Arrays.asList(new DBValue("a"), new DBValue(1)),
+            NitriteId.createId("1"));
+        CompositeKey next = CompositeKey.of(Arrays.asList(new DBValue("ab"), new DBValue(0)),
+            NitriteId.createId("1"));
+
+        assertTrue(compare(CompositeKey.lowerBound(prefix), entry) < 0);
+        assertTrue(compare(entry, CompositeKey.upperBound(prefix)) < 0);
+        assertTrue(compare(CompositeKey.upperBound(prefix), next) < 0);
+        assertTrue(compare(CompositeKey.of(Arrays.asList(new DBValue("a"), new DBValue(1)),
+            NitriteId.createId("2")), CompositeKey.upperBound(prefix)) < 0);
+    }
+
+    private void assertOrdered(List<Comparable<?>> values) {
+        List<CompositeKey> keys = new ArrayList<>();
+        for (Comparable<?> value : values) {
+            keys.add(CompositeKey.of(Collections.singletonList(new DBValue(value)), NitriteId.createId("1")));
+        }
+
+        for (int i = 1; i < keys.size(); i++) {
+            assertTrue(keys.get(i - 1) + " < " + keys.get(i), compare(keys.get(i - 1), keys.get(i)) < 0);
+        }
+    }
+
+    private int compare(CompositeKey first, CompositeKey second) {
+        // rocksdb compares the keys as unsigned bytes
+        byte[] a = formatter.encodeKey(first);
+        byte[] b = formatter.encodeKey(second);
+        for (int i = 0; i < Math.min(a.length, b.length); i++) {
+            int result = Integer.compare(a[i] & 0xFF, b[i] & 0xFF);
+            if (result != 0) return result;
+        }
+        return Integer.compare(a.length, b.length);
+    }
+}
@@ -1,8 +1,26 @@
 package org.dizitart.no2.rocksdb.formatter;
 
+import org.dizitart.no2.collection.NitriteId;
+import org.dizitart.no2.common.DBNull;
+import org.dizitart.no2.common.DBValue;
+import org.dizitart.no2.common.Fields;
+import org.dizitart.no2.index.HashKey;
+import org.dizitart.no2.index.IndexDescriptor;
+import org.dizitart.no2.index.IndexMap;
+import org.dizitart.no2.index.IndexMeta;
+import org.dizitart.no2.index.IndexStatistics;
+import org.dizitart.no2.index.IndexType;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 public class KryoObjectFormatterTest {
 
@@ -17,5 +35,67 @@ public class KryoObjectFormatterTest {
         assertEquals(1, (new KryoObjectFormatter()).encodeKey(null).length);
         assertEquals(6, (new KryoObjectFormatter()).<Object>encodeKey("object").length);
     }
-}
 
+    @Test
+    public void testDecodeNullIndexKey() {
+        KryoObjectFormatter objectFormatter = new KryoObjectFormatter();
+        byte[] nullKey = objectFormatter.encodeKey(DBNull.getInstance());
+        assertSame(DBNull.getInstance(), objectFormatter.decodeKey(nullKey, DBValue.class));
+
+        DBValue dbValue = objectFormatter.decodeKey(objectFormatter.encodeKey(new DBValue(42)), DBValue.class);
+        assertEquals(new DBValue(42), dbValue);
+    }
+
+    @Test
+    public void testIndexKeyOrder() {
+        // rocksdb compares the keys as unsigned bytes, which must
+        // agree with the order of the values of an index
+        KryoObjectFormatter objectFormatter = new KryoObjectFormatter();
+        List<DBValue> values = Arrays.asList(DBNull.getInstance(), new DBValue(-300), new DBValue(-1.5),
+            new DBValue(2), new DBValue(256L), new DBValue(70000), new DBValue("ab"), new DBValue("b"),
+            new DBValue("\uD83D\uDE00"), new DBValue("\uFFFD"));
+
+        for (int i = 1; i < values.size(); i++) {
+            byte[] lower = objectFormatter.encodeKey(values.get(i - 1));
+            byte[] higher = objectFormatter.encodeKey(values.get(i));
+            assertTrue(values.get(i - 1) + " < " + values.get(i), compareUnsigned(lower, higher) < 0);
+            assertEquals(values.get(i), objectFormatter.decodeKey(higher, DBValue.class));
+        }
+    }
+
+    @Test
+    public void testIndexMetaWithStatistics() {
+        TreeMap<DBValue, Object> navigableMap = new TreeMap<>();
+        for (int i = 0; i < 10; i++) {
+            navigableMap.put(new DBValue(i % 5), Collections.singletonList(NitriteId.newId()));
+        }
+
+        IndexMeta indexMeta = new IndexMeta();
+        indexMeta.setIndexDescriptor(new IndexDescriptor(IndexType.NON_UNIQUE, Fields.withNames("age"), "test"));
+        indexMeta.setIndexMap("$nitrite_index|test|age|NonUnique");
+        indexMeta.setIsDirty(new AtomicBoolean(false));
+        indexMeta.setStatistics(IndexStatistics.of(new IndexMap(navigableMap)));
+
+        KryoObjectFormatter objectFormatter = new KryoObjectFormatter();
+        IndexMeta decoded = objectFormatter.decode(objectFormatter.encode(indexMeta), IndexMeta.class);
+        assertEquals(5, decoded.getStatistics().getEntryCount());
+        assertEquals(5, decoded.getStatistics().getDistinctKeys());
+    }
+
+    @Test
+    public void testHashKey() {
+        KryoObjectFormatter objectFormatter = new KryoObjectFormatter();
+        HashKey hashKey = HashKey.of("user@nitrite.org");
+        HashKey decoded = objectFormatter.decodeKey(objectFormatter.encodeKey(hashKey), HashKey.class);
+        assertEquals(hashKey, decoded);
+        assertEquals(hashKey.getHash(), decoded.getHash());
+    }
+
+    private int compareUnsigned(byte[] a, byte[] b) {
+        for (int i = 0; i < Math.min(a.length, b.length); i++) {
+            int result = Integer.compare(a[i] & 0xFF, b[i] & 0xFF);
+            if (result != 0) return result;
+        }
+        return Integer.compare(a.length, b.length);
+    }
+}
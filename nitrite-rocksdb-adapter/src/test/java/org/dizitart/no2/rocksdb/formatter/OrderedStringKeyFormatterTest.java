@@ -0,0 +1,50 @@
+package org.dizitart.no2.rocksdb.formatter;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class OrderedStringKeyFormatterTest {
+
+    @Test
+    public void testStringKeyOrder() {
+        // the terms of a text index are seeked by their prefix, in the order
+        // of String, where a surrogate pair sorts before U+E000
+        ObjectFormatter objectFormatter = new OrderedStringKeyFormatter(new KryoObjectFormatter());
+        List<String> values = Arrays.asList("", "a", "ab", "abc", "abd", "b", "\u00e9", "\u4e2d",
+            "\uD83D", "\uD83D\uDE00", "\uE000", "\uFFFD");
+
+        for (int i = 1; i < values.size(); i++) {
+            byte[] lower = objectFormatter.encodeKey(values.get(i - 1));
+            byte[] higher = objectFormatter.encodeKey(values.get(i));
+            assertTrue(values.get(i - 1) + " < " + values.get(i), compareUnsigned(lower, higher) < 0);
+            assertEquals(values.get(i), objectFormatter.decodeKey(higher, String.class));
+        }
+        assertEquals("", objectFormatter.decodeKey(objectFormatter.encodeKey(""), String.class));
+        assertNull(objectFormatter.decodeKey(objectFormatter.encodeKey(null), String.class));
+    }
+
+    @Test
+    public void testOtherKeys() {
+        // any other key is written by the formatter of the store
+        KryoObjectFormatter kryoObjectFormatter = new KryoObjectFormatter();
+        ObjectFormatter objectFormatter = new OrderedStringKeyFormatter(kryoObjectFormatter);
+        assertArrayEquals(kryoObjectFormatter.encodeKey(42L), objectFormatter.encodeKey(42L));
+        assertArrayEquals(kryoObjectFormatter.encode("value"), objectFormatter.encode("value"));
+        assertEquals(Long.valueOf(42L), objectFormatter.decodeKey(objectFormatter.encodeKey(42L), Long.class));
+    }
+
+    private int compareUnsigned(byte[] a, byte[] b) {
+        for (int i = 0; i < Math.min(a.length, b.length); i++) {
+            int result = Integer.compare(a[i] & 0xFF, b[i] & 0xFF);
+            if (result != 0) return result;
+        }
+        return Integer.compare(a.length, b.length);
+    }
+}
@@ -82,6 +82,57 @@ public class NitriteBuilder {
         return this;
     }
 
+    /**
+     * Sets the maximum number of documents a sort, which can not be served
+     * by an index, holds in memory.
+     * <p>
+     * By default, such a sort reads all the documents in memory. With a
+     * buffer size, the documents are sorted in runs of that size, which are
+     * spilled to a map of the store and merged lazily while the cursor is
+     * read. This way a cursor of a disk based store can be sorted over a
+     * collection larger than the heap. The spilled documents are persisted
+     * in the database until they are merged, and a read-only store is
+     * always sorted in memory.
+     *
+     * @param sortBufferSize the number of documents, or 0 to sort in memory
+     * @return the NitriteBuilder instance
+     * @since 4.3.0
+     */
+    public NitriteBuilder sortBufferSize(int sortBufferSize) {
+        this.nitriteConfig.sortBufferSize(sortBufferSize);
+        return this;
+    }
+
+    /**
+     * Sets the interval between two sweeps of the documents expired
+     * in the time-to-live indexes of a collection. Defaults to a minute.
+     *
+     * @param ttlSweepInterval the interval in milliseconds, or 0 to never sweep
+     * @return the NitriteBuilder instance
+     * @see org.dizitart.no2.index.IndexType#TTL
+     * @since 4.3.0
+     */
+    public NitriteBuilder ttlSweepInterval(long ttlSweepInterval) {
+        this.nitriteConfig.ttlSweepInterval(ttlSweepInterval);
+        return this;
+    }
+
+    /**
+     * Sets the rate at which the expired documents of a time-to-live index
+     * are removed. Every sweep removes up to <code>maxRemovals</code>
+     * documents, <code>batchSize</code> documents at a time under the write
+     * lock of the collection. Defaults to batches of 1000 and 10000 removals.
+     *
+     * @param batchSize   the number of documents removed at a time
+     * @param maxRemovals the maximum number of documents removed in a sweep
+     * @return the NitriteBuilder instance
+     * @since 4.3.0
+     */
+    public NitriteBuilder ttlSweepRate(int batchSize, int maxRemovals) {
+        this.nitriteConfig.ttlSweepRate(batchSize, maxRemovals);
+        return this;
+    }
+
     /**
      * Registers an {@link EntityConverter} with the Nitrite database.
      * An {@link EntityConverter} is used to convert between an entity and a
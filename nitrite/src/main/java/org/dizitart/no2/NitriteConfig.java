@@ -28,6 +28,7 @@ import org.dizitart.no2.common.module.NitritePlugin;
 import org.dizitart.no2.common.module.PluginManager;
 import org.dizitart.no2.exceptions.IndexingException;
 import org.dizitart.no2.exceptions.InvalidOperationException;
+import org.dizitart.no2.exceptions.ValidationException;
 import org.dizitart.no2.index.NitriteIndexer;
 import org.dizitart.no2.migration.Migration;
 import org.dizitart.no2.store.NitriteStore;
@@ -85,6 +86,34 @@ public class NitriteConfig implements AutoCloseable {
      */
     private boolean repositoryTypeValidationDisabled = false;
 
+    @Getter
+    /**
+     * The maximum number of documents a blocking sort holds in memory,
+     * or 0 if sorts are never spilled to the store.
+     */
+    private int sortBufferSize = 0;
+
+    @Getter
+    /**
+     * The interval in milliseconds between two sweeps of the expired
+     * documents of a time-to-live index, or 0 if they are never swept.
+     */
+    private long ttlSweepInterval = 60000;
+
+    @Getter
+    /**
+     * The number of expired documents removed at a time, while
+     * holding the write lock of the collection.
+     */
+    private int ttlSweepBatchSize = 1000;
+
+    @Getter
+    /**
+     * The maximum number of expired documents of an index removed in a
+     * single sweep, the rest are removed in the following sweeps.
+     */
+    private int ttlSweepMaxRemovals = 10000;
+
     /**
      * Instantiates a new {@link NitriteConfig}.
      */
@@ -123,6 +152,78 @@ public class NitriteConfig implements AutoCloseable {
         this.repositoryTypeValidationDisabled = true;
     }
 
+    /**
+     * Sets the maximum number of documents a blocking sort holds in memory.
+     * A larger sort is done in sorted runs of this size, which are written
+     * to a map of the store and merged while the cursor is read.
+     * <p>
+     * The runs are written to the database itself, so a sort makes a disk
+     * based store grow and its runs are persisted with the data until they
+     * are merged. A read-only store is always sorted in memory.
+     *
+     * @param sortBufferSize the number of documents, or 0 to sort in memory
+     * @throws InvalidOperationException if the buffer size is attempted to be
+     *                                   changed after database initialization.
+     * @since 4.3
+     */
+    public void sortBufferSize(int sortBufferSize) {
+        if (configured) {
+            throw new InvalidOperationException("Cannot change the sort buffer size after database" +
+                    " initialization");
+        }
+
+        if (sortBufferSize < 0) {
+            throw new ValidationException("Sort buffer size must not be negative");
+        }
+        this.sortBufferSize = sortBufferSize;
+    }
+
+    /**
+     * Sets the interval between two sweeps of the expired documents
+     * of the time-to-live indexes of a collection.
+     *
+     * @param ttlSweepInterval the interval in milliseconds, or 0 to never sweep
+     * @throws InvalidOperationException if the interval is attempted to be
+     *                                   changed after database initialization.
+     * @since 4.3
+     */
+    public void ttlSweepInterval(long ttlSweepInterval) {
+        if (configured) {
+            throw new InvalidOperationException("Cannot change the ttl sweep interval after database" +
+                    " initialization");
+        }
+
+        if (ttlSweepInterval < 0) {
+            throw new ValidationException("Ttl sweep interval must not be negative");
+        }
+        this.ttlSweepInterval = ttlSweepInterval;
+    }
+
+    /**
+     * Sets the rate at which the expired documents of a time-to-live index
+     * are removed. A sweep removes up to <code>maxRemovals</code> documents,
+     * <code>batchSize</code> documents at a time, so that writers to the
+     * collection are held back by one batch at most.
+     *
+     * @param batchSize   the number of documents removed at a time
+     * @param maxRemovals the maximum number of documents removed in a sweep
+     * @throws InvalidOperationException if the rate is attempted to be
+     *                                   changed after database initialization.
+     * @since 4.3
+     */
+    public void ttlSweepRate(int batchSize, int maxRemovals) {
+        if (configured) {
+            throw new InvalidOperationException("Cannot change the ttl sweep rate after database" +
+                    " initialization");
+        }
+
+        if (batchSize <= 0 || maxRemovals <= 0) {
+            throw new ValidationException("Ttl sweep batch size and maximum removals must be positive");
+        }
+        this.ttlSweepBatchSize = batchSize;
+        this.ttlSweepMaxRemovals = maxRemovals;
+    }
+
     /**
      * Registers an {@link EntityConverter} with the Nitrite database.
      *
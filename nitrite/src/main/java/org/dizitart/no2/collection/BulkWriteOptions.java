@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.collection;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.dizitart.no2.exceptions.ValidationException;
+
+/**
+ * Represents options to configure a bulk insert operation.
+ *
+ * @author Anindya Chatterjee
+ * @see NitriteCollection#insertMany(Iterable, BulkWriteOptions)
+ * @since 4.3
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+public class BulkWriteOptions {
+    /**
+     * The default number of documents written in a single chunk.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 1000;
+
+    /**
+     * Indicates the maximum number of documents written, indexed and
+     * rolled back together as a single unit.
+     */
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+
+    /**
+     * Sets the number of documents to write in a single chunk.
+     *
+     * @param chunkSize the chunk size
+     * @throws ValidationException if {@code chunkSize} is not positive.
+     */
+    public void setChunkSize(int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new ValidationException("chunkSize must be greater than 0");
+        }
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Creates a new {@link BulkWriteOptions}.
+     *
+     * @param chunkSize the number of documents to write in a single chunk
+     * @return the {@link BulkWriteOptions}.
+     */
+    public static BulkWriteOptions bulkWriteOptions(int chunkSize) {
+        BulkWriteOptions options = new BulkWriteOptions();
+        options.setChunkSize(chunkSize);
+        return options;
+    }
+}
@@ -32,6 +32,7 @@ import org.dizitart.no2.exceptions.InvalidOperationException;
 import org.dizitart.no2.exceptions.NitriteIOException;
 import org.dizitart.no2.exceptions.NotIdentifiableException;
 import org.dizitart.no2.filters.Filter;
+import org.dizitart.no2.index.IndexDefinition;
 import org.dizitart.no2.index.IndexDescriptor;
 import org.dizitart.no2.index.IndexOptions;
 import org.dizitart.no2.index.IndexType;
@@ -40,6 +41,7 @@ import org.dizitart.no2.store.NitriteStore;
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.locks.Lock;
 
 import static org.dizitart.no2.collection.UpdateOptions.updateOptions;
@@ -101,6 +103,20 @@ class DefaultNitriteCollection implements NitriteCollection {
         }
     }
 
+    @Override
+    public WriteResult insertMany(Iterable<Document> documents, BulkWriteOptions bulkWriteOptions) {
+        notNull(documents, "a null document cannot be inserted");
+        notNull(bulkWriteOptions, "bulkWriteOptions cannot be null");
+
+        try {
+            writeLock.lock();
+            checkOpened();
+            return collectionOperations.insertMany(documents, bulkWriteOptions);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
     public WriteResult update(Document document, boolean insertIfAbsent) {
         notNull(document, "a null document cannot be used for update");
 
@@ -178,6 +194,19 @@ class DefaultNitriteCollection implements NitriteCollection {
         }
     }
 
+    public long count(Filter filter) {
+        try {
+            readLock.lock();
+            checkOpened();
+            if (filter == null || filter == Filter.ALL) {
+                return collectionOperations.getSize();
+            }
+            return collectionOperations.count(filter);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
     public void createIndex(IndexOptions indexOptions, String... fields) {
         notNull(fields, "fields cannot be null");
 
@@ -189,13 +218,25 @@ class DefaultNitriteCollection implements NitriteCollection {
             if (indexOptions == null) {
                 collectionOperations.createIndex(indexFields, IndexType.UNIQUE);
             } else {
-                collectionOperations.createIndex(indexFields, indexOptions.getIndexType());
+                collectionOperations.createIndex(indexFields, indexOptions);
             }
         } finally {
             writeLock.unlock();
         }
     }
 
+    public void createIndexes(List<IndexDefinition> indexDefinitions) {
+        notNull(indexDefinitions, "indexDefinitions cannot be null");
+
+        try {
+            writeLock.lock();
+            checkOpened();
+            collectionOperations.createIndexes(indexDefinitions);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
     public void rebuildIndex(String... fields) {
         notNull(fields, "fields cannot be null");
 
@@ -442,7 +483,8 @@ class DefaultNitriteCollection implements NitriteCollection {
         this.writeLock = lockService.getWriteLock(collectionName);
         this.nitriteStore = nitriteConfig.getNitriteStore();
         this.eventBus = new CollectionEventBus();
-        this.collectionOperations = new CollectionOperations(collectionName, nitriteMap, nitriteConfig, eventBus);
+        this.collectionOperations = new CollectionOperations(collectionName, nitriteMap, nitriteConfig, eventBus,
+            writeLock);
     }
 
     private void checkOpened() {
@@ -463,7 +505,13 @@ class DefaultNitriteCollection implements NitriteCollection {
 
         public void post(CollectionEventInfo<?> collectionEventInfo) {
             for (final CollectionEventListener listener : getListeners()) {
-                getEventExecutor().submit(() -> listener.onEvent(collectionEventInfo));
+                if (listener.acceptsBulkEvents()) {
+                    getEventExecutor().submit(() -> listener.onEvent(collectionEventInfo));
+                } else {
+                    for (CollectionEventInfo<?> eventInfo : CollectionEventInfo.unbundle(collectionEventInfo)) {
+                        getEventExecutor().submit(() -> listener.onEvent(eventInfo));
+                    }
+                }
             }
         }
     }
@@ -93,11 +93,31 @@ public class FindPlan {
      * */
     private List<FindPlan> subPlans;
 
+    /**
+     * Gets the plans of the other indexes, whose ids are
+     * intersected with the ids of the index scan.
+     *
+     * @since 4.3
+     * */
+    private List<FindPlan> intersectingPlans;
+
+    /**
+     * Indicates if a document may have more than one entry in the index of
+     * this plan, so that the index scan has to skip the ids it has already
+     * returned. It is <code>true</code> unless the statistics of the index
+     * tell that no document holds an array in the indexed field.
+     *
+     * @since 4.3
+     * */
+    private boolean multiKeyScan;
+
     /**
      * Instantiates a new {@link FindPlan}.
      */
     public FindPlan() {
         this.subPlans = new ArrayList<>();
+        this.intersectingPlans = new ArrayList<>();
         this.blockingSortOrder = new ArrayList<>();
+        this.multiKeyScan = true;
     }
 }
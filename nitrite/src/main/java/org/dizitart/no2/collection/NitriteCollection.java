@@ -31,6 +31,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+import static org.dizitart.no2.common.util.Iterables.chunksOf;
 import static org.dizitart.no2.common.util.ValidationUtils.containsNull;
 import static org.dizitart.no2.common.util.ValidationUtils.notNull;
 
@@ -110,6 +111,64 @@ public interface NitriteCollection extends PersistentCollection<Document> {
         return insert(documentList.toArray(new Document[0]));
     }
 
+    /**
+     * Inserts a large number of documents into the collection using the
+     * default {@link BulkWriteOptions}.
+     *
+     * @param documents the documents to insert.
+     * @return the result of write operation.
+     * @see #insertMany(Iterable, BulkWriteOptions)
+     * @since 4.3
+     */
+    default WriteResult insertMany(Iterable<Document> documents) {
+        return insertMany(documents, new BulkWriteOptions());
+    }
+
+    /**
+     * Inserts a large number of documents into the collection in chunks of
+     * {@link BulkWriteOptions#getChunkSize()} documents.
+     * <p>
+     * Unlike {@link #insert(Document, Document...)}, which stores, indexes and
+     * notifies for one document at a time, a bulk insert stores a whole chunk
+     * first, then updates each index for all documents of the chunk together and
+     * stamps all of them with the same modification time. It is the preferred way
+     * to load a large dataset into a collection, as each index is written with the
+     * entries of a whole chunk at a time, and a listener accepting bulk events is
+     * notified once per chunk instead of once per document.
+     * <p>
+     * Each chunk is inserted atomically - if any document of a chunk fails to be
+     * processed, inserted or indexed, none of the documents of that chunk will be
+     * present in the collection. Chunks inserted before the failing one remain intact.
+     * <p>
+     * NOTE: This operation will notify all {@link CollectionEventListener}
+     * instances registered to this collection with change type
+     * {@link EventType#BulkInsert} once per chunk, or with change type
+     * {@link EventType#Insert} once per document for the listeners which
+     * do not accept bulk events.
+     *
+     * @param documents        the documents to insert.
+     * @param bulkWriteOptions the bulk write options.
+     * @return the result of write operation.
+     * @throws ValidationException       if {@code documents} contains {@code null}.
+     * @throws UniqueConstraintException if the value of {@code _id} value clashes
+     *                                   with the id of another document in the collection,
+     *                                   or if an indexed field violates the unique
+     *                                   constraint in the collection.
+     * @since 4.3
+     */
+    default WriteResult insertMany(Iterable<Document> documents, BulkWriteOptions bulkWriteOptions) {
+        notNull(documents, "a null document cannot be inserted");
+        notNull(bulkWriteOptions, "bulkWriteOptions cannot be null");
+
+        List<NitriteId> nitriteIds = new ArrayList<>();
+        for (List<Document> chunk : chunksOf(documents, bulkWriteOptions.getChunkSize())) {
+            for (NitriteId nitriteId : insert(chunk.toArray(new Document[0]))) {
+                nitriteIds.add(nitriteId);
+            }
+        }
+        return nitriteIds::iterator;
+    }
+
     /**
      * Update documents in the collection.
      * <p>
@@ -248,6 +307,22 @@ public interface NitriteCollection extends PersistentCollection<Document> {
      */
     DocumentCursor find(Filter filter, FindOptions findOptions);
 
+    /**
+     * Counts the documents in the collection which match the filter.
+     *
+     * <p>
+     * NOTE: If the filter is fully answered by the indexes of the collection,
+     * the documents are counted from the indexes without reading them.
+     * </p>
+     *
+     * @param filter the filter to apply to select documents from collection.
+     * @return the number of selected documents.
+     * @since 4.3
+     */
+    default long count(Filter filter) {
+        return find(filter).size();
+    }
+
     /**
      * Gets a single element from the collection by its id. If no element
      * is found, it will return {@code null}.
@@ -19,6 +19,11 @@ package org.dizitart.no2.collection.events;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.dizitart.no2.collection.Document;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * Represents a collection event data.
@@ -66,4 +71,29 @@ public class CollectionEventInfo<T> {
     public CollectionEventInfo(EventType eventType) {
         this.eventType = eventType;
     }
+
+    /**
+     * Splits a {@link EventType#BulkInsert} event into one {@link EventType#Insert}
+     * event per inserted document, carrying the timestamp and originator of the
+     * bulk event. Any other event is returned as it is.
+     *
+     * @param eventInfo the event information
+     * @return the events to deliver to a listener which does not accept bulk events
+     * @see CollectionEventListener#acceptsBulkEvents()
+     * @since 4.3
+     */
+    @SuppressWarnings("unchecked")
+    public static List<CollectionEventInfo<?>> unbundle(CollectionEventInfo<?> eventInfo) {
+        if (eventInfo.getEventType() != EventType.BulkInsert) {
+            return Collections.singletonList(eventInfo);
+        }
+
+        List<Document> documents = (List<Document>) eventInfo.getItem();
+        List<CollectionEventInfo<?>> events = new ArrayList<>(documents.size());
+        for (Document document : documents) {
+            events.add(new CollectionEventInfo<>(document, EventType.Insert,
+                eventInfo.getTimestamp(), eventInfo.getOriginator()));
+        }
+        return events;
+    }
 }
@@ -22,6 +22,13 @@ import org.dizitart.no2.repository.ObjectRepository;
 /**
  * A listener which is able to listen to any changes in a
  * in a {@link NitriteCollection} or {@link ObjectRepository}.
+ * <p>
+ * The item of an {@link EventType#Insert}, {@link EventType#Update} or
+ * {@link EventType#Remove} event is the affected {@link org.dizitart.no2.collection.Document}.
+ * A bulk insert is delivered to a listener as one {@link EventType#Insert} event
+ * per document, unless the listener opts in to {@link EventType#BulkInsert}
+ * events via {@link #acceptsBulkEvents()}, in which case the item is the
+ * {@link java.util.List} of documents inserted in a single chunk.
  *
  * @author Anindya Chatterjee.
  * @since 4.0
@@ -34,4 +41,16 @@ public interface CollectionEventListener {
      * @param eventInfo the event information
      */
     void onEvent(CollectionEventInfo<?> eventInfo);
+
+    /**
+     * Indicates whether this listener accepts {@link EventType#BulkInsert}
+     * events, whose item is a list of documents. By default a listener
+     * receives one {@link EventType#Insert} event per document instead.
+     *
+     * @return {@code true} if this listener accepts bulk events
+     * @since 4.3
+     */
+    default boolean acceptsBulkEvents() {
+        return false;
+    }
 }
@@ -46,5 +46,34 @@ public enum EventType {
     /**
      * Indexing end event.
      */
-    IndexEnd
+    IndexEnd,
+
+    /**
+     * Bulk insert event. The item of the event is the list of
+     * documents inserted in a single chunk of a bulk write. It is
+     * only delivered to listeners which accept bulk events.
+     *
+     * @see CollectionEventListener#acceptsBulkEvents()
+     *
+     * @since 4.3
+     */
+    BulkInsert,
+
+    /**
+     * Indexing progress event of an index built in the background. The item
+     * of the event is the {@link org.dizitart.no2.index.IndexBuildProgress}
+     * of the build.
+     *
+     * @since 4.3
+     */
+    IndexProgress,
+
+    /**
+     * Expiry sweep event of a time-to-live index, posted after a sweep has
+     * removed expired documents. The item of the event is the
+     * {@link org.dizitart.no2.index.TtlSweepMetrics} of the sweep.
+     *
+     * @since 4.3
+     */
+    TtlSweep
 }
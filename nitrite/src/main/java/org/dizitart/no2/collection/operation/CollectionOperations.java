@@ -27,11 +27,15 @@ import org.dizitart.no2.common.event.EventBus;
 import org.dizitart.no2.common.processors.Processor;
 import org.dizitart.no2.common.processors.ProcessorChain;
 import org.dizitart.no2.filters.Filter;
+import org.dizitart.no2.index.IndexDefinition;
 import org.dizitart.no2.index.IndexDescriptor;
+import org.dizitart.no2.index.IndexOptions;
 import org.dizitart.no2.store.NitriteMap;
 import org.dizitart.no2.store.StoreCatalog;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
 
 /**
  * @author Anindya Chatterjee
@@ -42,19 +46,42 @@ public class CollectionOperations implements AutoCloseable {
     private final NitriteConfig nitriteConfig;
     private final NitriteMap<NitriteId, Document> nitriteMap;
     private final EventBus<CollectionEventInfo<?>, CollectionEventListener> eventBus;
+    private final Lock writeLock;
     private ProcessorChain processorChain;
     private IndexOperations indexOperations;
     private WriteOperations writeOperations;
     private ReadOperations readOperations;
+    private TtlSweeper ttlSweeper;
 
     public CollectionOperations(String collectionName,
                                 NitriteMap<NitriteId, Document> nitriteMap,
                                 NitriteConfig nitriteConfig,
                                 EventBus<CollectionEventInfo<?>, CollectionEventListener> eventBus) {
+        this(collectionName, nitriteMap, nitriteConfig, eventBus, null);
+    }
+
+    /**
+     * Instantiates a new {@link CollectionOperations} whose indexes can be
+     * built in the background, as they switch to ready under the
+     * <code>writeLock</code> of the collection.
+     *
+     * @param collectionName the collection name
+     * @param nitriteMap     the nitrite map
+     * @param nitriteConfig  the nitrite config
+     * @param eventBus       the event bus
+     * @param writeLock      the write lock of the collection
+     * @since 4.3
+     */
+    public CollectionOperations(String collectionName,
+                                NitriteMap<NitriteId, Document> nitriteMap,
+                                NitriteConfig nitriteConfig,
+                                EventBus<CollectionEventInfo<?>, CollectionEventListener> eventBus,
+                                Lock writeLock) {
         this.collectionName = collectionName;
         this.nitriteMap = nitriteMap;
         this.nitriteConfig = nitriteConfig;
         this.eventBus = eventBus;
+        this.writeLock = writeLock;
         initialize();
     }
 
@@ -64,6 +91,17 @@ public class CollectionOperations implements AutoCloseable {
 
     public void createIndex(Fields fields, String indexType) {
         indexOperations.createIndex(fields, indexType);
+        ttlSweeper.start();
+    }
+
+    public void createIndex(Fields fields, IndexOptions indexOptions) {
+        indexOperations.createIndex(fields, indexOptions);
+        ttlSweeper.start();
+    }
+
+    public void createIndexes(List<IndexDefinition> indexDefinitions) {
+        indexOperations.createIndexes(indexDefinitions);
+        ttlSweeper.start();
     }
 
     public IndexDescriptor findIndex(Fields fields) {
@@ -98,6 +136,10 @@ public class CollectionOperations implements AutoCloseable {
         return writeOperations.insert(documents);
     }
 
+    public WriteResult insertMany(Iterable<Document> documents, BulkWriteOptions bulkWriteOptions) {
+        return writeOperations.insertMany(documents, bulkWriteOptions);
+    }
+
     public WriteResult update(Filter filter, Document update, UpdateOptions updateOptions) {
         return writeOperations.update(filter, update, updateOptions);
     }
@@ -114,11 +156,17 @@ public class CollectionOperations implements AutoCloseable {
         return readOperations.find(filter, findOptions);
     }
 
+    public long count(Filter filter) {
+        return readOperations.count(filter);
+    }
+
     public Document getById(NitriteId nitriteId) {
         return readOperations.getById(nitriteId);
     }
 
     public void dropCollection() {
+        ttlSweeper.close();
+        readOperations.close();
         indexOperations.dropAllIndices();
         dropNitriteMap();
     }
@@ -136,9 +184,15 @@ public class CollectionOperations implements AutoCloseable {
     }
 
     public void close() {
+        if (ttlSweeper != null) {
+            ttlSweeper.close();
+        }
         if (indexOperations != null) {
             indexOperations.close();
         }
+        if (readOperations != null) {
+            readOperations.close();
+        }
         nitriteMap.close();
     }
 
@@ -149,13 +203,18 @@ public class CollectionOperations implements AutoCloseable {
 
     public void initialize() {
         this.processorChain = new ProcessorChain();
-        this.indexOperations = new IndexOperations(collectionName, nitriteConfig, nitriteMap, eventBus);
+        this.indexOperations = new IndexOperations(collectionName, nitriteConfig, nitriteMap, eventBus, writeLock);
         this.readOperations = new ReadOperations(collectionName, indexOperations,
             nitriteConfig, nitriteMap, processorChain);
 
         DocumentIndexWriter indexWriter = new DocumentIndexWriter(nitriteConfig, indexOperations);
         this.writeOperations = new WriteOperations(indexWriter, readOperations,
             nitriteMap, eventBus, processorChain);
+
+        // expired documents of an existing time-to-live index are swept from now on
+        this.ttlSweeper = new TtlSweeper(collectionName, nitriteConfig,
+            indexOperations, writeOperations, eventBus, writeLock);
+        this.ttlSweeper.start();
     }
 
     private void dropNitriteMap() {
@@ -21,10 +21,15 @@ import org.dizitart.no2.collection.Document;
 import org.dizitart.no2.common.FieldValues;
 import org.dizitart.no2.common.Fields;
 import org.dizitart.no2.common.util.DocumentUtils;
+import org.dizitart.no2.exceptions.IndexingException;
+import org.dizitart.no2.exceptions.UniqueConstraintException;
 import org.dizitart.no2.index.IndexDescriptor;
 import org.dizitart.no2.index.NitriteIndexer;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
 /**
  * @since 4.0
@@ -52,6 +57,49 @@ class DocumentIndexWriter {
         }
     }
 
+    void writeIndexEntries(List<Document> documents) {
+        Collection<IndexDescriptor> indexEntries = indexOperations.listIndexes();
+        if (indexEntries == null || documents.isEmpty()) return;
+
+        // index writes are grouped by index, so that each index is resolved
+        // once per batch instead of once per document
+        List<IndexDescriptor> writtenIndexes = new ArrayList<>();
+        for (IndexDescriptor indexDescriptor : indexEntries) {
+            Fields fields = indexDescriptor.getFields();
+            NitriteIndexer nitriteIndexer = nitriteConfig.findIndexer(indexDescriptor.getIndexType());
+
+            // if dirty index and currently indexing is not running, rebuild
+            // it in the background, the build takes care of the documents
+            if (indexOperations.shouldRebuildIndex(fields)) {
+                indexOperations.buildIndexOnline(indexDescriptor, true);
+            }
+
+            // a failed index is checked after the capture, as a build records
+            // its failure before it stops capturing the changes
+            List<Document> indexedDocuments = indexedDocuments(indexDescriptor, documents);
+            List<FieldValues> fieldValuesList = fieldValues(indexDescriptor, indexedDocuments);
+            if (indexedDocuments.isEmpty() || indexOperations.captureIndexChanges(indexDescriptor, fieldValuesList)
+                || indexOperations.isBuildFailed(fields) || nitriteIndexer == null) continue;
+
+            int count = 0;
+            try {
+                for (FieldValues fieldValues : fieldValuesList) {
+                    count++;
+                    nitriteIndexer.writeIndexEntry(fieldValues, indexDescriptor, nitriteConfig);
+                    indexOperations.recordIndexWrite(indexDescriptor, fieldValues);
+                }
+            } catch (UniqueConstraintException | IndexingException e) {
+                // undo the partially written index and all the indexes written before it
+                removeIndexEntries(indexDescriptor, indexedDocuments.subList(0, count));
+                for (IndexDescriptor writtenIndex : writtenIndexes) {
+                    removeIndexEntries(writtenIndex, indexedDocuments(writtenIndex, documents));
+                }
+                throw e;
+            }
+            writtenIndexes.add(indexDescriptor);
+        }
+    }
+
     void removeIndexEntry(Document document) {
         Collection<IndexDescriptor> indexEntries = indexOperations.listIndexes();
         if (indexEntries != null) {
@@ -69,10 +117,10 @@ class DocumentIndexWriter {
         // filter out the index which is not affected by the update
         if (indexEntries != null) {
             for (IndexDescriptor indexDescriptor : indexEntries) {
-                Fields fields = indexDescriptor.getFields();
-
-                // if the index is affected by the update
-                if (DocumentUtils.isAffectedByUpdate(fields, updatedFields)) {
+                // if the index is affected by the update, a partial index is also
+                // affected if a document may start or stop matching its filter
+                if (DocumentUtils.isAffectedByUpdate(indexDescriptor, updatedFields)
+                    || isPartialFilterAffected(indexDescriptor, updatedFields)) {
                     String indexType = indexDescriptor.getIndexType();
                     NitriteIndexer nitriteIndexer = nitriteConfig.findIndexer(indexType);
 
@@ -83,18 +131,68 @@ class DocumentIndexWriter {
         }
     }
 
+    private boolean isPartialFilterAffected(IndexDescriptor indexDescriptor, Document updatedFields) {
+        Map<String, Object> partialFilter = indexDescriptor.getPartialFilter();
+        if (partialFilter == null) return false;
+
+        for (String field : partialFilter.keySet()) {
+            if (updatedFields.containsKey(field)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<Document> indexedDocuments(IndexDescriptor indexDescriptor, List<Document> documents) {
+        if (!indexDescriptor.isPartialIndex()) return documents;
+
+        List<Document> indexedDocuments = new ArrayList<>();
+        for (Document document : documents) {
+            if (indexDescriptor.isIndexed(document)) {
+                indexedDocuments.add(document);
+            }
+        }
+        return indexedDocuments;
+    }
+
+    private List<FieldValues> fieldValues(IndexDescriptor indexDescriptor, List<Document> documents) {
+        List<FieldValues> fieldValuesList = new ArrayList<>(documents.size());
+        for (Document document : documents) {
+            fieldValuesList.add(DocumentUtils.getValues(document, indexDescriptor));
+        }
+        return fieldValuesList;
+    }
+
+    private void removeIndexEntries(IndexDescriptor indexDescriptor, List<Document> documents) {
+        NitriteIndexer nitriteIndexer = nitriteConfig.findIndexer(indexDescriptor.getIndexType());
+        if (nitriteIndexer != null) {
+            for (Document document : documents) {
+                FieldValues fieldValues = DocumentUtils.getValues(document, indexDescriptor);
+                nitriteIndexer.removeIndexEntry(fieldValues, indexDescriptor, nitriteConfig);
+                indexOperations.recordIndexRemove(indexDescriptor);
+            }
+        }
+    }
+
     private void writeIndexEntryInternal(IndexDescriptor indexDescriptor, Document document,
                                          NitriteIndexer nitriteIndexer) {
         if (indexDescriptor != null) {
             Fields fields = indexDescriptor.getFields();
-            FieldValues fieldValues = DocumentUtils.getValues(document, fields);
+            FieldValues fieldValues = DocumentUtils.getValues(document, indexDescriptor);
 
             // if dirty index and currently indexing is not running, rebuild
+            // it in the background, the build takes care of the current document
             if (indexOperations.shouldRebuildIndex(fields)) {
-                // rebuild will also take care of the current document
-                indexOperations.buildIndex(indexDescriptor, true);
-            } else if (nitriteIndexer != null) {
+                indexOperations.buildIndexOnline(indexDescriptor, true);
+            }
+
+            // a partial index has no entry of a document not matching its filter
+            if (!indexDescriptor.isIndexed(document)) return;
+
+            if (!indexOperations.captureIndexChange(indexDescriptor, fieldValues)
+                && !indexOperations.isBuildFailed(fields) && nitriteIndexer != null) {
                 nitriteIndexer.writeIndexEntry(fieldValues, indexDescriptor, nitriteConfig);
+                indexOperations.recordIndexWrite(indexDescriptor, fieldValues);
             }
         }
     }
@@ -103,14 +201,21 @@ class DocumentIndexWriter {
                                           NitriteIndexer nitriteIndexer) {
         if (indexDescriptor != null) {
             Fields fields = indexDescriptor.getFields();
-            FieldValues fieldValues = DocumentUtils.getValues(document, fields);
+            FieldValues fieldValues = DocumentUtils.getValues(document, indexDescriptor);
 
             // if dirty index and currently indexing is not running, rebuild
+            // it in the background, the build takes care of the current document
             if (indexOperations.shouldRebuildIndex(fields)) {
-                // rebuild will also take care of the current document
-                indexOperations.buildIndex(indexDescriptor, true);
-            } else if (nitriteIndexer != null) {
+                indexOperations.buildIndexOnline(indexDescriptor, true);
+            }
+
+            // a partial index has no entry of a document not matching its filter
+            if (!indexDescriptor.isIndexed(document)) return;
+
+            if (!indexOperations.captureIndexChange(indexDescriptor, fieldValues)
+                && !indexOperations.isBuildFailed(fields) && nitriteIndexer != null) {
                 nitriteIndexer.removeIndexEntry(fieldValues, indexDescriptor, nitriteConfig);
+                indexOperations.recordIndexRemove(indexDescriptor);
             }
         }
     }
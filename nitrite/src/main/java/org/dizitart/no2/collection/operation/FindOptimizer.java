@@ -17,6 +17,7 @@
 
 package org.dizitart.no2.collection.operation;
 
+import org.dizitart.no2.collection.Document;
 import org.dizitart.no2.collection.FindOptions;
 import org.dizitart.no2.collection.FindPlan;
 import org.dizitart.no2.common.SortOrder;
@@ -24,11 +25,15 @@ import org.dizitart.no2.common.tuples.Pair;
 import org.dizitart.no2.exceptions.FilterException;
 import org.dizitart.no2.filters.*;
 import org.dizitart.no2.index.IndexDescriptor;
+import org.dizitart.no2.index.IndexStatistics;
+import org.dizitart.no2.index.IndexType;
 
 import java.util.*;
+import java.util.function.Function;
 
 import static org.dizitart.no2.common.Constants.DOC_ID;
 import static org.dizitart.no2.common.util.Iterables.firstOrNull;
+import static org.dizitart.no2.common.util.ObjectUtils.deepEquals;
 import static org.dizitart.no2.filters.Filter.and;
 import static org.dizitart.no2.filters.Filter.or;
 
@@ -37,11 +42,33 @@ import static org.dizitart.no2.filters.Filter.or;
  * @author Anindya Chatterjee
  */
 class FindOptimizer {
+    // selectivity of a filter on a later field of a compound index,
+    // which the statistics of the index do not cover
+    private static final double EQUALS_SELECTIVITY = 0.1;
+    private static final double RANGE_SELECTIVITY = 1.0 / 3;
+
+    // an index is intersected with the chosen index scan only if its filters
+    // select at most this fraction of its entries
+    private static final double INTERSECTION_SELECTIVITY = 0.5;
+
+    // cost of fetching a document relative to reading an id from an index
+    private static final double FETCH_COST = 4;
+
+    private final Function<IndexDescriptor, IndexStatistics> statisticsProvider;
+
+    FindOptimizer() {
+        this(null);
+    }
+
+    FindOptimizer(Function<IndexDescriptor, IndexStatistics> statisticsProvider) {
+        this.statisticsProvider = statisticsProvider;
+    }
 
     public FindPlan optimize(Filter filter,
                              FindOptions findOptions,
                              Collection<IndexDescriptor> indexDescriptors) {
         FindPlan findPlan = createFilterPlan(indexDescriptors, filter);
+        readMultiKeyScan(findPlan);
         readSortOption(findOptions, findPlan);
         readLimitOption(findOptions, findPlan);
 
@@ -52,6 +79,61 @@ class FindOptimizer {
         return findPlan;
     }
 
+    private void readMultiKeyScan(FindPlan findPlan) {
+        IndexDescriptor indexDescriptor = findPlan.getIndexDescriptor();
+        if (indexDescriptor != null && statisticsProvider != null) {
+            // without the statistics, the index is assumed to hold arrays
+            IndexStatistics statistics = statisticsProvider.apply(indexDescriptor);
+            findPlan.setMultiKeyScan(statistics == null || statistics.isMultiKey());
+        }
+
+        for (FindPlan subPlan : findPlan.getSubPlans()) {
+            readMultiKeyScan(subPlan);
+        }
+        for (FindPlan intersectingPlan : findPlan.getIntersectingPlans()) {
+            readMultiKeyScan(intersectingPlan);
+        }
+    }
+
+    /**
+     * Checks if a projection of the results of a find plan can be read from
+     * the keys of its index alone, without reading any document. It is the
+     * case if all the filters are applied on the index, the results need no
+     * blocking sort and the projection only has the fields of the index.
+     *
+     * @param findPlan   the find plan
+     * @param projection the projection
+     * @return <code>true</code> if the index covers the projection
+     */
+    boolean isCovered(FindPlan findPlan, Document projection) {
+        IndexDescriptor indexDescriptor = findPlan.getIndexDescriptor();
+        if (projection == null
+            || indexDescriptor == null
+            || !findPlan.getSubPlans().isEmpty()
+            || findPlan.getByIdFilter() != null
+            || findPlan.getCollectionScanFilter() != null
+            || !findPlan.getIntersectingPlans().isEmpty()
+            || (findPlan.getBlockingSortOrder() != null && !findPlan.getBlockingSortOrder().isEmpty())) {
+            return false;
+        }
+
+        List<String> fieldNames = indexDescriptor.getFields().getFieldNames();
+        Set<String> projectedFields = projection.getFields();
+        if (!fieldNames.containsAll(projectedFields) || indexDescriptor.getExpressions() != null) {
+            // the value of an expression is not a field of the documents
+            return false;
+        }
+
+        if (projectedFields.contains(fieldNames.get(0))) {
+            // an array in the first field is indexed per element, so the
+            // field can be read from the index only if it never has one
+            IndexStatistics statistics = statisticsProvider == null ? null
+                : statisticsProvider.apply(indexDescriptor);
+            return statistics != null && !statistics.isMultiKey();
+        }
+        return true;
+    }
+
     private FindPlan createFilterPlan(Collection<IndexDescriptor> indexDescriptors, Filter filter) {
         if (filter instanceof AndFilter) {
             List<Filter> filters = flattenAndFilter((AndFilter) filter);
@@ -190,7 +272,8 @@ class FindOptimizer {
             for (IndexDescriptor indexDescriptor : indexDescriptors) {
 
                 // check the index type match between filter and index descriptor
-                if (anyFilter.supportedIndexType().equals(indexDescriptor.getIndexType())) {
+                if (anyFilter.supportedIndexType().equals(indexDescriptor.getIndexType())
+                    && isPartialFilterImplied(indexDescriptor, filters)) {
                     // choose the index descriptor and filters
                     findPlan.setIndexDescriptor(indexDescriptor);
                     indexScanFilters.addAll(indexOnlyFilters);
@@ -220,6 +303,8 @@ class FindOptimizer {
         NavigableMap<IndexDescriptor, List<ComparableFilter>> indexFilterMap = new TreeMap<>(Collections.reverseOrder());
 
         for (IndexDescriptor indexDescriptor : indexDescriptors) {
+            if (!isPartialFilterImplied(indexDescriptor, filters)) continue;
+
             List<String> fieldNames = indexDescriptor.getFields().getFieldNames();
 
             List<ComparableFilter> indexedFilters = new ArrayList<>();
@@ -228,7 +313,11 @@ class FindOptimizer {
                 for (Filter filter : filters) {
                     if (filter instanceof ComparableFilter) {
                         String filterFieldName = ((ComparableFilter) filter).getField();
-                        if (filterFieldName.equals(fieldName)) {
+                        // an expression index is only used by a filter on the same expression
+                        if (filterFieldName.equals(fieldName)
+                            && Objects.equals(indexDescriptor.getExpression(fieldName),
+                            ((ComparableFilter) filter).getExpression())
+                            && canScanIndex(indexDescriptor, (ComparableFilter) filter)) {
                             indexedFilters.add((ComparableFilter) filter);
                             matchFound = true;
                             break;
@@ -247,15 +336,164 @@ class FindOptimizer {
             }
         }
 
+        Map.Entry<IndexDescriptor, List<ComparableFilter>> cheapest = findCheapestIndex(indexFilterMap);
+        if (cheapest != null) {
+            indexScanFilters.addAll(cheapest.getValue());
+            findPlan.setIndexDescriptor(cheapest.getKey());
+        } else {
+            for (Map.Entry<IndexDescriptor, List<ComparableFilter>> entry : indexFilterMap.entrySet()) {
+                // consider the filter combination if it encompasses more fields
+                // than the previously selected filter
+                if (entry.getValue().size() > indexScanFilters.size()) {
+                    // maintain the order in set
+                    indexScanFilters.addAll(entry.getValue());
+                    findPlan.setIndexDescriptor(entry.getKey());
+                }
+            }
+        }
+
+        if (findPlan.getIndexDescriptor() != null) {
+            planForIndexIntersection(findPlan, indexScanFilters, indexFilterMap);
+        }
+    }
+
+    // a partial index has no entry of the documents not matching its filter, so it
+    // can be used only if the query finds no document other than those matching it
+    private boolean isPartialFilterImplied(IndexDescriptor indexDescriptor, List<Filter> filters) {
+        Map<String, Object> partialFilter = indexDescriptor.getPartialFilter();
+        if (partialFilter == null) return true;
+
+        for (Map.Entry<String, Object> entry : partialFilter.entrySet()) {
+            boolean implied = false;
+            for (Filter filter : filters) {
+                if (isPartialFilterCondition(entry, filter)) {
+                    implied = true;
+                    break;
+                }
+            }
+
+            if (!implied) return false;
+        }
+        return true;
+    }
+
+    private boolean isPartialFilterCondition(Map.Entry<String, Object> condition, Filter filter) {
+        if (filter instanceof EqualsFilter) {
+            EqualsFilter equalsFilter = (EqualsFilter) filter;
+            return equalsFilter.getField().equals(condition.getKey())
+                && deepEquals(equalsFilter.getValue(), condition.getValue());
+        }
+        return false;
+    }
+
+    // every document found by a partial index matches the conditions of its filter
+    private boolean isMatchedByIndex(FindPlan findPlan, Filter filter) {
+        IndexDescriptor indexDescriptor = findPlan.getIndexDescriptor();
+        Map<String, Object> partialFilter = indexDescriptor == null ? null : indexDescriptor.getPartialFilter();
+        if (partialFilter == null) return false;
+
+        for (Map.Entry<String, Object> entry : partialFilter.entrySet()) {
+            if (isPartialFilterCondition(entry, filter)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean canScanIndex(IndexDescriptor indexDescriptor, ComparableFilter filter) {
+        if (!filter.canScanIndex()) {
+            return false;
+        }
+
+        if (IndexType.HASH.equals(indexDescriptor.getIndexType())) {
+            // a hash index can only find exact values
+            return filter.getLookupValues() != null;
+        }
+        return true;
+    }
+
+    private void planForIndexIntersection(FindPlan findPlan, Set<ComparableFilter> indexScanFilters,
+                                          NavigableMap<IndexDescriptor, List<ComparableFilter>> indexFilterMap) {
+        // ids read by the chosen index scan are fetched from the collection,
+        // unless the scans of the other indexes rule them out beforehand
+        double drivingEntries = estimateIndexScan(findPlan.getIndexDescriptor(),
+            new ArrayList<>(indexScanFilters));
+        Set<ComparableFilter> indexedFilters = new HashSet<>(indexScanFilters);
+
+        for (Map.Entry<IndexDescriptor, List<ComparableFilter>> entry : indexFilterMap.entrySet()) {
+            IndexDescriptor indexDescriptor = entry.getKey();
+            List<ComparableFilter> filters = entry.getValue();
+
+            // a filter is answered by one index only
+            if (indexDescriptor.equals(findPlan.getIndexDescriptor())
+                || !Collections.disjoint(filters, indexedFilters)) {
+                continue;
+            }
+
+            if (isWorthIntersecting(indexDescriptor, filters, drivingEntries)) {
+                FindPlan intersectingPlan = new FindPlan();
+                intersectingPlan.setIndexDescriptor(indexDescriptor);
+                intersectingPlan.setIndexScanFilter(new IndexScanFilter(filters));
+                findPlan.getIntersectingPlans().add(intersectingPlan);
+                indexedFilters.addAll(filters);
+            }
+        }
+    }
+
+    private boolean isWorthIntersecting(IndexDescriptor indexDescriptor, List<ComparableFilter> filters,
+                                        double drivingEntries) {
+        IndexStatistics statistics = statisticsProvider == null ? null : statisticsProvider.apply(indexDescriptor);
+        if (statistics == null) {
+            // without statistics only an equality lookup is
+            // assumed to be selective enough
+            return filters.get(0) instanceof EqualsFilter;
+        }
+
+        // reading the ids of the index must rule out enough documents,
+        // and cost less than fetching the documents found so far
+        double entries = estimateEntries(statistics, filters);
+        return entries <= statistics.getEntryCount() * INTERSECTION_SELECTIVITY
+            && entries <= drivingEntries * FETCH_COST;
+    }
+
+    private double estimateIndexScan(IndexDescriptor indexDescriptor, List<ComparableFilter> filters) {
+        IndexStatistics statistics = statisticsProvider == null ? null : statisticsProvider.apply(indexDescriptor);
+        if (statistics == null || filters.isEmpty()) {
+            return Double.MAX_VALUE;
+        }
+        return estimateEntries(statistics, filters);
+    }
+
+    private Map.Entry<IndexDescriptor, List<ComparableFilter>> findCheapestIndex(
+        NavigableMap<IndexDescriptor, List<ComparableFilter>> indexFilterMap) {
+        if (statisticsProvider == null || indexFilterMap.size() < 2) return null;
+
+        Map.Entry<IndexDescriptor, List<ComparableFilter>> cheapest = null;
+        double lowestCost = Double.MAX_VALUE;
         for (Map.Entry<IndexDescriptor, List<ComparableFilter>> entry : indexFilterMap.entrySet()) {
-            // consider the filter combination if it encompasses more fields
-            // than the previously selected filter
-            if (entry.getValue().size() > indexScanFilters.size()) {
-                // maintain the order in set
-                indexScanFilters.addAll(entry.getValue());
-                findPlan.setIndexDescriptor(entry.getKey());
+            IndexStatistics statistics = statisticsProvider.apply(entry.getKey());
+            if (statistics == null) {
+                // indexes can not be compared without statistics
+                return null;
+            }
+
+            // the cost of an index scan is the number of documents it reads,
+            // on a tie the index ranked higher by cardinality is kept
+            double cost = estimateEntries(statistics, entry.getValue());
+            if (cost < lowestCost) {
+                lowestCost = cost;
+                cheapest = entry;
             }
         }
+        return cheapest;
+    }
+
+    private double estimateEntries(IndexStatistics statistics, List<ComparableFilter> filters) {
+        double entries = filters.get(0).estimateOnIndex(statistics);
+        for (int i = 1; i < filters.size(); i++) {
+            entries *= filters.get(i) instanceof EqualsFilter ? EQUALS_SELECTIVITY : RANGE_SELECTIVITY;
+        }
+        return entries;
     }
 
     private void planForCollectionScanningFilters(FindPlan findPlan, Set<ComparableFilter> indexScanFilters,
@@ -264,11 +502,17 @@ class FindOptimizer {
             // ignore the elected filters for index scan and
             // insert rest of the filters for column scan
             // NOTE: for byId filter, index scan filters will always be empty
-            if (!(filter instanceof ComparableFilter) || !indexScanFilters.contains(filter)) {
+            if (!(filter instanceof ComparableFilter) || !(indexScanFilters.contains(filter)
+                || isIntersected(findPlan, (ComparableFilter) filter)
+                || isMatchedByIndex(findPlan, filter))) {
                 // ignore the byId filter (if any) for column scan
                 if (filter != findPlan.getByIdFilter()) {
                     columnScanFilters.add(filter);
                 }
+            } else if (isUnverifiedPhrase(findPlan, filter)) {
+                // the index only finds the documents having all the words
+                // of the phrase, so their order is checked on each document
+                columnScanFilters.add(((TextFilter) filter).phraseFilter());
             }
         }
 
@@ -279,6 +523,29 @@ class FindOptimizer {
         }
     }
 
+    private boolean isIntersected(FindPlan findPlan, ComparableFilter filter) {
+        for (FindPlan intersectingPlan : findPlan.getIntersectingPlans()) {
+            if (intersectingPlan.getIndexScanFilter().getFilters().contains(filter)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isUnverifiedPhrase(FindPlan findPlan, Filter filter) {
+        if (!(filter instanceof TextFilter) || !((TextFilter) filter).isPhraseSearch()) {
+            return false;
+        }
+
+        IndexDescriptor indexDescriptor = findPlan.getIndexDescriptor();
+        for (FindPlan intersectingPlan : findPlan.getIntersectingPlans()) {
+            if (intersectingPlan.getIndexScanFilter().getFilters().contains(filter)) {
+                indexDescriptor = intersectingPlan.getIndexDescriptor();
+            }
+        }
+        return indexDescriptor == null || !indexDescriptor.isPositional();
+    }
+
     private void validateCollectionScanFilters(Collection<Filter> filters) {
         for (Filter filter : filters) {
             if (filter instanceof IndexOnlyFilter) {
@@ -302,7 +569,9 @@ class FindOptimizer {
                 boolean canUseIndex = false;
                 Map<String, Boolean> indexScanOrder = new HashMap<>();
 
-                if (indexedFieldNames.size() >= findSortSpec.size()) {
+                // a hash index keeps no order of its values
+                if (indexedFieldNames.size() >= findSortSpec.size()
+                    && !IndexType.HASH.equals(indexDescriptor.getIndexType())) {
                     // if all fields of the sort spec is covered by index, then only
                     // sorting can take help of index
 
@@ -310,8 +579,10 @@ class FindOptimizer {
                     for (int i = 0; i < length; i++) {
                         String indexFieldName = indexedFieldNames.get(i);
                         Pair<String, SortOrder> findPair = findSortSpec.get(i);
-                        if (!indexFieldName.equals(findPair.getFirst())) {
-                            // field mismatch in sort spec, can't use index for sorting
+                        if (!indexFieldName.equals(findPair.getFirst())
+                            || indexDescriptor.getExpression(indexFieldName) != null) {
+                            // field mismatch in sort spec, or the index holds the value
+                            // of an expression, can't use index for sorting
                             canUseIndex = false;
                             break;
                         } else {
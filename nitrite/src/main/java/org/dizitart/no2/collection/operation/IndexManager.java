@@ -19,13 +19,25 @@ package org.dizitart.no2.collection.operation;
 
 import org.dizitart.no2.NitriteConfig;
 import org.dizitart.no2.common.Fields;
+import org.dizitart.no2.exceptions.IndexingException;
+import org.dizitart.no2.filters.AndFilter;
+import org.dizitart.no2.filters.EqualsFilter;
+import org.dizitart.no2.filters.Filter;
+import org.dizitart.no2.index.ComparableIndexer;
 import org.dizitart.no2.index.IndexDescriptor;
+import org.dizitart.no2.index.IndexExpression;
+import org.dizitart.no2.index.IndexLayout;
 import org.dizitart.no2.index.IndexMeta;
+import org.dizitart.no2.index.IndexOptions;
+import org.dizitart.no2.index.IndexStatistics;
+import org.dizitart.no2.index.IndexType;
 import org.dizitart.no2.index.NitriteIndexer;
+import org.dizitart.no2.store.LastModifiedTracker;
 import org.dizitart.no2.store.NitriteMap;
 import org.dizitart.no2.store.NitriteStore;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.dizitart.no2.common.util.IndexUtils.deriveIndexMapName;
@@ -40,6 +52,10 @@ public class IndexManager implements AutoCloseable {
     private final NitriteStore<?> nitriteStore;
     private final String collectionName;
     private final NitriteMap<Fields, IndexMeta> indexMetaMap;
+    private final Map<Fields, IndexStatistics> statisticsCache;
+    private final Set<Fields> unsavedStatistics;
+    private final Set<Fields> dirtyIndexes;
+    private final Runnable statisticsWriter;
     private Collection<IndexDescriptor> indexDescriptorCache;
 
     public IndexManager(String collectionName, NitriteConfig nitriteConfig) {
@@ -47,7 +63,18 @@ public class IndexManager implements AutoCloseable {
         this.nitriteConfig = nitriteConfig;
         this.nitriteStore = nitriteConfig.getNitriteStore();
         this.indexMetaMap = getIndexMetaMap();
+        this.statisticsCache = new ConcurrentHashMap<>();
+        this.unsavedStatistics = ConcurrentHashMap.newKeySet();
+        this.dirtyIndexes = ConcurrentHashMap.newKeySet();
+        this.statisticsWriter = this::saveStatistics;
         initialize();
+
+        // the statistics updated by the writes are kept in memory
+        // and written along with the last modified time of the maps
+        LastModifiedTracker lastModifiedTracker = nitriteStore.getLastModifiedTracker();
+        if (lastModifiedTracker != null) {
+            lastModifiedTracker.addFlushHook(statisticsWriter);
+        }
     }
 
     public boolean hasIndexDescriptor(Fields fields) {
@@ -87,9 +114,18 @@ public class IndexManager implements AutoCloseable {
     }
 
     @Override
-    public void close() {
+    public synchronized void close() {
+        LastModifiedTracker lastModifiedTracker = nitriteStore.getLastModifiedTracker();
+        if (lastModifiedTracker != null) {
+            lastModifiedTracker.removeFlushHook(statisticsWriter);
+        }
+
         // close all index maps
         if (!indexMetaMap.isClosed() && !indexMetaMap.isDropped()) {
+            // persist the entry counts updated since the last flush
+            saveStatistics();
+            statisticsCache.clear();
+
             Iterable<IndexMeta> indexMetas = indexMetaMap.values();
             for (IndexMeta indexMeta : indexMetas) {
                 if (indexMeta != null && indexMeta.getIndexDescriptor() != null) {
@@ -104,7 +140,7 @@ public class IndexManager implements AutoCloseable {
         }
     }
 
-    public void clearAll() {
+    public synchronized void clearAll() {
         // close all index maps
         if (!indexMetaMap.isClosed() && !indexMetaMap.isDropped()) {
             Iterable<IndexMeta> indexMetas = indexMetaMap.values();
@@ -115,9 +151,58 @@ public class IndexManager implements AutoCloseable {
                     indexMap.clear();
                 }
             }
+
+            // statistics of the empty indexes are collected again on next find
+            for (Fields fields : statisticsCache.keySet()) {
+                saveStatistics(fields, null);
+            }
+            statisticsCache.clear();
+            unsavedStatistics.clear();
         }
     }
 
+    /**
+     * Gets the statistics of an index, as of the last time they were
+     * collected, or <code>null</code> if they were never collected.
+     * The statistics of all indexes are read once as the collection
+     * opens, so that a write never reads the index meta.
+     *
+     * @param fields the fields of the index
+     * @return the index statistics
+     * @since 4.3
+     */
+    IndexStatistics getStatistics(Fields fields) {
+        return statisticsCache.get(fields);
+    }
+
+    /**
+     * Replaces the statistics of an index. They are stored in its
+     * index meta on the next flush of the store, or on close.
+     *
+     * @param fields     the fields of the index
+     * @param statistics the index statistics
+     * @since 4.3
+     */
+    void updateStatistics(Fields fields, IndexStatistics statistics) {
+        if (statistics != null) {
+            statisticsCache.put(fields, statistics);
+        } else {
+            statisticsCache.remove(fields);
+        }
+        unsavedStatistics.add(fields);
+    }
+
+    /**
+     * Marks the statistics of an index as changed by a write,
+     * to be stored on the next flush of the store, or on close.
+     *
+     * @param fields the fields of the index
+     * @since 4.3
+     */
+    void statisticsModified(Fields fields) {
+        unsavedStatistics.add(fields);
+    }
+
     /**
      * Is dirty index boolean.
      *
@@ -125,8 +210,17 @@ public class IndexManager implements AutoCloseable {
      * @return the boolean
      */
     boolean isDirtyIndex(Fields fields) {
-        IndexMeta meta = indexMetaMap.get(fields);
-        return meta != null && meta.getIsDirty().get();
+        return dirtyIndexes.contains(fields);
+    }
+
+    /**
+     * Indicates if any index of the collection is dirty.
+     *
+     * @return the boolean
+     * @since 4.3
+     */
+    boolean hasDirtyIndex() {
+        return !dirtyIndexes.isEmpty();
     }
 
     /**
@@ -146,18 +240,47 @@ public class IndexManager implements AutoCloseable {
     /**
      * Create index descriptor index descriptor.
      *
-     * @param fields    the fields
-     * @param indexType the index type
+     * @param fields       the fields
+     * @param indexOptions the index options
      * @return the index descriptor
      */
-    IndexDescriptor createIndexDescriptor(Fields fields, String indexType) {
+    IndexDescriptor createIndexDescriptor(Fields fields, IndexOptions indexOptions) {
+        String indexType = indexOptions.getIndexType();
         validateIndexRequest(fields, indexType);
+        String layout = indexOptions.getLayout();
+        if (layout == null && fields.getFieldNames().size() > 1 && isComparableIndex(indexType)) {
+            // new compound indexes are stored as flat composite keys
+            layout = IndexLayout.COMPOSITE_KEY;
+        }
+        validateIndexLayout(fields, indexType, layout);
+        if (indexOptions.isSubstringSearch() && !IndexType.FULL_TEXT.equals(indexType)) {
+            throw new IndexingException("Substring search is not supported on " + indexType
+                + " index on " + fields);
+        }
+        if (indexOptions.isScored() && !IndexType.FULL_TEXT.equals(indexType)) {
+            throw new IndexingException("Scoring is not supported on " + indexType
+                + " index on " + fields);
+        }
+        if (indexOptions.isPositional() && !IndexType.FULL_TEXT.equals(indexType)) {
+            throw new IndexingException("Term positions are not supported on " + indexType
+                + " index on " + fields);
+        }
+        List<IndexExpression> expressions = indexExpressions(indexOptions);
+        validateIndexExpressions(fields, expressions);
+
         IndexDescriptor index = new IndexDescriptor(indexType, fields, collectionName);
+        index.setLayout(layout);
+        index.setPartialFilter(partialFilterValues(indexOptions.getPartialFilter()));
+        index.setSubstringSearch(indexOptions.isSubstringSearch());
+        index.setScored(indexOptions.isScored());
+        index.setPositional(indexOptions.isPositional());
+        index.setExpressions(expressions);
 
         IndexMeta indexMeta = new IndexMeta();
         indexMeta.setIndexDescriptor(index);
         indexMeta.setIsDirty(new AtomicBoolean(false));
         indexMeta.setIndexMap(deriveIndexMapName(index));
+        indexMeta.setKeyFormat(nitriteStore.getIndexKeyFormat());
 
         indexMetaMap.put(fields, indexMeta);
 
@@ -170,7 +293,7 @@ public class IndexManager implements AutoCloseable {
      *
      * @param fields the fields
      */
-    void dropIndexDescriptor(Fields fields) {
+    synchronized void dropIndexDescriptor(Fields fields) {
         IndexMeta meta = indexMetaMap.get(fields);
         if (meta != null && meta.getIndexDescriptor() != null) {
             String indexMapName = meta.getIndexMap();
@@ -179,11 +302,36 @@ public class IndexManager implements AutoCloseable {
         }
 
         indexMetaMap.remove(fields);
+        statisticsCache.remove(fields);
+        unsavedStatistics.remove(fields);
+        dirtyIndexes.remove(fields);
         updateIndexDescriptorCache();
     }
 
-    void dropIndexMeta() {
+    synchronized void dropIndexMeta() {
         indexMetaMap.drop();
+        statisticsCache.clear();
+        unsavedStatistics.clear();
+        dirtyIndexes.clear();
+    }
+
+    /**
+     * Lists the indexes written in another key format than the
+     * one of the store, which have to be built again.
+     *
+     * @return the index descriptors
+     * @since 4.3
+     */
+    List<IndexDescriptor> listOutdatedIndexDescriptors() {
+        List<IndexDescriptor> indexDescriptors = new ArrayList<>();
+        for (IndexMeta indexMeta : indexMetaMap.values()) {
+            // an index written before the key format was recorded is of the first format
+            int keyFormat = indexMeta.getKeyFormat() == null ? 1 : indexMeta.getKeyFormat();
+            if (indexMeta.getIndexDescriptor() != null && keyFormat != nitriteStore.getIndexKeyFormat()) {
+                indexDescriptors.add(indexMeta.getIndexDescriptor());
+            }
+        }
+        return indexDescriptors;
     }
 
     /**
@@ -191,8 +339,37 @@ public class IndexManager implements AutoCloseable {
      *
      * @param fields the fields
      */
-    void beginIndexing(Fields fields) {
-        markDirty(fields, true);
+    synchronized void beginIndexing(Fields fields) {
+        IndexMeta meta = indexMetaMap.get(fields);
+        if (meta != null && meta.getIndexDescriptor() != null) {
+            // an index is written from scratch in the key format of the store
+            boolean failed = meta.getIndexDescriptor().getBuildError() != null;
+            meta.getIsDirty().set(true);
+            meta.setKeyFormat(nitriteStore.getIndexKeyFormat());
+            meta.getIndexDescriptor().setBuildError(null);
+            indexMetaMap.put(fields, meta);
+            dirtyIndexes.add(fields);
+            if (failed) {
+                updateIndexDescriptorCache();
+            }
+        }
+    }
+
+    /**
+     * Records the error of a failed index build. The index stays dirty
+     * and reports the error through its descriptor.
+     *
+     * @param fields     the fields
+     * @param buildError the error of the build
+     * @since 4.3
+     */
+    synchronized void failIndexing(Fields fields, String buildError) {
+        IndexMeta meta = indexMetaMap.get(fields);
+        if (meta != null && meta.getIndexDescriptor() != null) {
+            meta.getIndexDescriptor().setBuildError(buildError);
+            indexMetaMap.put(fields, meta);
+            updateIndexDescriptorCache();
+        }
     }
 
     /**
@@ -205,13 +382,55 @@ public class IndexManager implements AutoCloseable {
     }
 
     private void initialize() {
+        for (IndexMeta indexMeta : indexMetaMap.values()) {
+            if (indexMeta.getIndexDescriptor() == null) continue;
+
+            Fields fields = indexMeta.getIndexDescriptor().getFields();
+            if (indexMeta.getIsDirty().get()) {
+                dirtyIndexes.add(fields);
+            }
+            if (indexMeta.getStatistics() != null) {
+                statisticsCache.put(fields, indexMeta.getStatistics());
+            }
+        }
         updateIndexDescriptorCache();
     }
 
-    private void markDirty(Fields fields, boolean dirty) {
+    // the index meta is read, changed and written back, which the flush
+    // hook also does from the scheduler thread, so these are synchronized
+    private synchronized void markDirty(Fields fields, boolean dirty) {
         IndexMeta meta = indexMetaMap.get(fields);
         if (meta != null && meta.getIndexDescriptor() != null) {
             meta.getIsDirty().set(dirty);
+            indexMetaMap.put(fields, meta);
+            if (dirty) {
+                dirtyIndexes.add(fields);
+            } else {
+                dirtyIndexes.remove(fields);
+            }
+        }
+    }
+
+    private synchronized void saveStatistics() {
+        if (unsavedStatistics.isEmpty() || nitriteStore.isReadOnly()
+            || indexMetaMap.isClosed() || indexMetaMap.isDropped()) return;
+
+        for (Fields fields : new ArrayList<>(unsavedStatistics)) {
+            // removed before it is written, so that a write
+            // recorded meanwhile marks it unsaved again
+            unsavedStatistics.remove(fields);
+            IndexStatistics statistics = statisticsCache.get(fields);
+
+            // a copy is written, as the writes keep changing the cached one
+            saveStatistics(fields, statistics == null ? null : statistics.copy());
+        }
+    }
+
+    private void saveStatistics(Fields fields, IndexStatistics statistics) {
+        IndexMeta meta = indexMetaMap.get(fields);
+        if (meta != null && meta.getIndexDescriptor() != null) {
+            meta.setStatistics(statistics);
+            indexMetaMap.put(fields, meta);
         }
     }
 
@@ -228,4 +447,100 @@ public class IndexManager implements AutoCloseable {
         NitriteIndexer indexer = nitriteConfig.findIndexer(indexType);
         indexer.validateIndex(fields);
     }
+
+    /**
+     * Gets the field values an equality filter, or an and of equality
+     * filters, requires of a document. These are persisted with the
+     * descriptor of a partial index.
+     *
+     * @param partialFilter the filter of a partial index
+     * @return the field values, or {@code null} if there is no filter
+     */
+    static Map<String, Object> partialFilterValues(Filter partialFilter) {
+        if (partialFilter == null) return null;
+
+        Map<String, Object> values = new LinkedHashMap<>();
+        collectPartialFilterValues(partialFilter, values);
+        return values;
+    }
+
+    /**
+     * Gets the expressions of an index, which are persisted with its descriptor.
+     *
+     * @param indexOptions the options of the index
+     * @return the expressions, or {@code null} if only fields are indexed
+     */
+    static List<IndexExpression> indexExpressions(IndexOptions indexOptions) {
+        List<IndexExpression> expressions = indexOptions.getExpressions();
+        return expressions == null || expressions.isEmpty() ? null : expressions;
+    }
+
+    private static void collectPartialFilterValues(Filter filter, Map<String, Object> values) {
+        if (filter instanceof AndFilter) {
+            for (Filter subFilter : ((AndFilter) filter).getFilters()) {
+                collectPartialFilterValues(subFilter, values);
+            }
+        } else if (filter instanceof EqualsFilter) {
+            EqualsFilter equalsFilter = (EqualsFilter) filter;
+            Object value = equalsFilter.getValue();
+            if (value != null && !(value instanceof Comparable)) {
+                throw new IndexingException("Partial filter value " + value + " is not comparable");
+            }
+            if (values.containsKey(equalsFilter.getField())) {
+                throw new IndexingException("Partial filter has more than one condition on "
+                    + equalsFilter.getField());
+            }
+            values.put(equalsFilter.getField(), value);
+        } else {
+            throw new IndexingException("Partial filter " + filter
+                + " is not supported, only an equality filter or an and of them is supported");
+        }
+    }
+
+    private void validateIndexExpressions(Fields fields, List<IndexExpression> expressions) {
+        if (expressions == null) return;
+
+        Set<String> names = new HashSet<>();
+        for (IndexExpression expression : expressions) {
+            if (expression == null) {
+                throw new IndexingException("Index expression cannot be null");
+            }
+            expression.validate();
+            if (!fields.getFieldNames().contains(expression.getName())) {
+                throw new IndexingException("Index expression " + expression
+                    + " is not a field of the index on " + fields);
+            }
+            if (!names.add(expression.getName())) {
+                throw new IndexingException("Index expression " + expression + " is defined more than once");
+            }
+        }
+    }
+
+    private void validateIndexLayout(Fields fields, String indexType, String layout) {
+        if (layout == null || IndexLayout.POSTING_LIST.equals(layout)) return;
+
+        if (IndexLayout.BITMAP.equals(layout)) {
+            // a bitmap holds the ids of a key in a single field
+            // non-unique, full-text or hash index
+            if (fields.getFieldNames().size() > 1
+                || !(IndexType.NON_UNIQUE.equals(indexType) || IndexType.FULL_TEXT.equals(indexType)
+                || IndexType.HASH.equals(indexType))) {
+                throw new IndexingException(layout + " layout is not supported on " + indexType
+                    + " index on " + fields);
+            }
+            return;
+        }
+
+        if (!IndexLayout.COMPOSITE_KEY.equals(layout)) {
+            throw new IndexingException("Unknown index layout " + layout);
+        }
+
+        if (!isComparableIndex(indexType)) {
+            throw new IndexingException(layout + " layout is not supported on " + indexType + " index");
+        }
+    }
+
+    private boolean isComparableIndex(String indexType) {
+        return nitriteConfig.findIndexer(indexType) instanceof ComparableIndexer;
+    }
 }
@@ -1,5 +1,6 @@
 package org.dizitart.no2.collection.operation;
 
+import lombok.extern.slf4j.Slf4j;
 import org.dizitart.no2.NitriteConfig;
 import org.dizitart.no2.collection.Document;
 import org.dizitart.no2.collection.NitriteId;
@@ -12,77 +13,262 @@ import org.dizitart.no2.common.event.EventBus;
 import org.dizitart.no2.common.tuples.Pair;
 import org.dizitart.no2.common.util.DocumentUtils;
 import org.dizitart.no2.exceptions.IndexingException;
+import org.dizitart.no2.exceptions.NitriteException;
+import org.dizitart.no2.index.IndexBuildProgress;
+import org.dizitart.no2.index.IndexDefinition;
 import org.dizitart.no2.index.IndexDescriptor;
+import org.dizitart.no2.index.IndexOptions;
+import org.dizitart.no2.index.IndexStatistics;
+import org.dizitart.no2.index.IndexType;
 import org.dizitart.no2.index.NitriteIndexer;
 import org.dizitart.no2.store.NitriteMap;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
 
+import static org.dizitart.no2.common.Constants.INDEX_BUILD_THREAD_NAME;
 import static org.dizitart.no2.common.concurrent.ThreadPoolManager.runAsync;
+import static org.dizitart.no2.common.concurrent.ThreadPoolManager.threadFactory;
 
 /**
  * @author Anindya Chatterjee
  * @since 1.0
  */
+@Slf4j(topic = "nitrite")
 class IndexOperations implements AutoCloseable {
+    private static final int INDEX_BUILD_BATCH_SIZE = 1000;
+    private static final int INDEX_BUILD_PARTITION_SIZE = 250;
+    private static final long INDEX_PROGRESS_INTERVAL = 1000;
+    private static final int MAX_CATCH_UP_ROUNDS = 10;
+    private static final long BUILD_LOCK_POLL_MILLIS = 100;
+
     private final String collectionName;
     private final NitriteConfig nitriteConfig;
     private final NitriteMap<NitriteId, Document> nitriteMap;
     private final EventBus<CollectionEventInfo<?>, CollectionEventListener> eventBus;
     private final Map<Fields, AtomicBoolean> indexBuildTracker;
+    private final Map<Fields, OnlineIndexBuild> onlineBuilds;
+    private final Map<OnlineIndexBuild, Thread> buildThreads;
+    private final Set<Fields> failedBuilds;
+    private final Map<Fields, Future<?>> statisticsRefreshes;
+    private final Lock writeLock;
     private IndexManager indexManager;
 
     IndexOperations(String collectionName, NitriteConfig nitriteConfig,
                     NitriteMap<NitriteId, Document> nitriteMap,
                     EventBus<CollectionEventInfo<?>, CollectionEventListener> eventBus) {
+        this(collectionName, nitriteConfig, nitriteMap, eventBus, null);
+    }
+
+    // the write lock of the collection lets an index built in the background
+    // switch to ready while no write is half done
+    IndexOperations(String collectionName, NitriteConfig nitriteConfig,
+                    NitriteMap<NitriteId, Document> nitriteMap,
+                    EventBus<CollectionEventInfo<?>, CollectionEventListener> eventBus,
+                    Lock writeLock) {
         this.collectionName = collectionName;
         this.nitriteConfig = nitriteConfig;
         this.nitriteMap = nitriteMap;
         this.eventBus = eventBus;
+        this.writeLock = writeLock;
         this.indexBuildTracker = new ConcurrentHashMap<>();
+        this.onlineBuilds = new ConcurrentHashMap<>();
+        this.buildThreads = new ConcurrentHashMap<>();
+        this.failedBuilds = ConcurrentHashMap.newKeySet();
+        this.statisticsRefreshes = new ConcurrentHashMap<>();
         this.indexManager = new IndexManager(collectionName, nitriteConfig);
+
+        // a build failed before the collection was closed is not retried on its own
+        for (IndexDescriptor indexDescriptor : indexManager.getIndexDescriptors()) {
+            if (indexDescriptor.getBuildError() != null) {
+                failedBuilds.add(indexDescriptor.getFields());
+            }
+        }
+
+        // the keys of an index written in an older key format of
+        // the store can not be read, so the index is built again
+        List<IndexDescriptor> outdated = indexManager.listOutdatedIndexDescriptors();
+        if (!outdated.isEmpty()) {
+            buildIndexes(outdated, true);
+        }
     }
 
     @Override
     public void close() {
+        // a build still running reads the store, so it is stopped and waited
+        // for before the store can be closed, even if its index is ready
+        for (OnlineIndexBuild onlineBuild : buildThreads.keySet()) {
+            onlineBuild.cancel();
+        }
+        for (Thread thread : buildThreads.values()) {
+            if (thread == Thread.currentThread()) continue;
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        awaitStatisticsRefreshes();
         indexManager.close();
     }
 
     void createIndex(Fields fields, String indexType) {
+        createIndex(fields, IndexOptions.indexOptions(indexType));
+    }
+
+    void createIndex(Fields fields, IndexOptions indexOptions) {
+        IndexDescriptor indexDescriptor = prepareIndex(fields, indexOptions);
+        if (indexDescriptor == null) return;
+
+        if (indexOptions.isBackground()) {
+            buildIndexOnline(indexDescriptor, false);
+        } else {
+            buildIndex(indexDescriptor, false);
+        }
+    }
+
+    void createIndexes(List<IndexDefinition> indexDefinitions) {
+        Set<Fields> definedFields = new HashSet<>();
+        for (IndexDefinition indexDefinition : indexDefinitions) {
+            if (!definedFields.add(indexDefinition.getFields())) {
+                throw new IndexingException("Index defined more than once on fields: "
+                    + indexDefinition.getFields());
+            }
+        }
+
+        List<IndexDescriptor> indexDescriptors = new ArrayList<>();
+        try {
+            for (IndexDefinition indexDefinition : indexDefinitions) {
+                IndexOptions indexOptions = indexDefinition.getIndexOptions() == null
+                    ? IndexOptions.indexOptions(IndexType.UNIQUE) : indexDefinition.getIndexOptions();
+                IndexDescriptor indexDescriptor = prepareIndex(indexDefinition.getFields(), indexOptions);
+                if (indexDescriptor != null) {
+                    indexDescriptors.add(indexDescriptor);
+                }
+            }
+        } catch (NitriteException e) {
+            // do not leave behind the descriptors of indexes which are never built
+            for (IndexDescriptor indexDescriptor : indexDescriptors) {
+                indexManager.dropIndexDescriptor(indexDescriptor.getFields());
+            }
+            throw e;
+        }
+
+        if (!indexDescriptors.isEmpty()) {
+            buildIndexes(indexDescriptors, false);
+        }
+    }
+
+    // returns the descriptor of the index to build, or null if the index already exists
+    private IndexDescriptor prepareIndex(Fields fields, IndexOptions indexOptions) {
+        String indexType = indexOptions.getIndexType();
         IndexDescriptor indexDescriptor = indexManager.findExactIndexDescriptor(fields);
         if (indexDescriptor == null) {
             // if no index create index
-            indexDescriptor = indexManager.createIndexDescriptor(fields, indexType);
-        } else {
-            // if index already there check if it is of same type, if not throw exception
-            if (!indexDescriptor.getIndexType().equals(indexType)) {
-                throw new IndexingException("Index already exists on fields: " + fields
-                    + " with type " + indexDescriptor.getIndexType());
-            } else {
-                // if index is of same type, return
-                return;
-            }
+            return indexManager.createIndexDescriptor(fields, indexOptions);
         }
 
-        buildIndex(indexDescriptor, false);
+        // if index already there check if it is of same type, if not throw exception
+        if (!indexDescriptor.getIndexType().equals(indexType)) {
+            throw new IndexingException("Index already exists on fields: " + fields
+                + " with type " + indexDescriptor.getIndexType());
+        } else if ((indexOptions.getLayout() == null
+            || indexDescriptor.getLayout().equals(indexOptions.getLayout()))
+            && Objects.equals(indexDescriptor.getPartialFilter(),
+            IndexManager.partialFilterValues(indexOptions.getPartialFilter()))
+            && indexDescriptor.isSubstringSearch() == indexOptions.isSubstringSearch()
+            && indexDescriptor.isScored() == indexOptions.isScored()
+            && indexDescriptor.isPositional() == indexOptions.isPositional()
+            && Objects.equals(indexDescriptor.getExpressions(), IndexManager.indexExpressions(indexOptions))
+            && !failedBuilds.contains(fields)) {
+            // if index is of same type and options, nothing to build
+            return null;
+        }
+
+        // if index is of same type but different options, or its build has
+        // failed, migrate the index by dropping it and building it again
+        dropIndex(fields);
+        return indexManager.createIndexDescriptor(fields, indexOptions);
     }
 
     // call to this method is already synchronized, only one thread per field
     // can access it only if rebuild is already not running for that field
     void buildIndex(IndexDescriptor indexDescriptor, boolean rebuild) {
-        final Fields fields = indexDescriptor.getFields();
-        if (getBuildFlag(fields).compareAndSet(false, true)) {
-            buildIndexInternal(indexDescriptor, rebuild);
+        buildIndexes(Collections.singletonList(indexDescriptor), rebuild);
+    }
+
+    void buildIndexes(List<IndexDescriptor> indexDescriptors, boolean rebuild) {
+        List<IndexDescriptor> flagged = new ArrayList<>();
+        for (IndexDescriptor indexDescriptor : indexDescriptors) {
+            if (!getBuildFlag(indexDescriptor.getFields()).compareAndSet(false, true)) {
+                for (IndexDescriptor descriptor : flagged) {
+                    getBuildFlag(descriptor.getFields()).set(false);
+                }
+                throw new IndexingException("Index build already in progress on fields: "
+                    + indexDescriptor.getFields());
+            }
+            flagged.add(indexDescriptor);
+        }
+
+        for (IndexDescriptor indexDescriptor : indexDescriptors) {
+            failedBuilds.remove(indexDescriptor.getFields());
+        }
+
+        buildIndexInternal(indexDescriptors, rebuild);
+        for (IndexDescriptor indexDescriptor : indexDescriptors) {
+            refreshStatistics(indexDescriptor);
+        }
+    }
+
+    // builds the index on another thread, writes to the collection are kept in
+    // a catch-up log of the build until the build has replayed all of them
+    void buildIndexOnline(IndexDescriptor indexDescriptor, boolean rebuild) {
+        if (writeLock == null) {
+            // without the write lock of the collection the
+            // build cannot switch to ready safely
+            buildIndex(indexDescriptor, rebuild);
             return;
         }
-        throw new IndexingException("Index build already in progress on fields: " + indexDescriptor.getFields());
+
+        Fields fields = indexDescriptor.getFields();
+        if (!getBuildFlag(fields).compareAndSet(false, true)) {
+            throw new IndexingException("Index build already in progress on fields: " + fields);
+        }
+
+        failedBuilds.remove(fields);
+        OnlineIndexBuild onlineBuild = new OnlineIndexBuild(indexDescriptor);
+        onlineBuilds.put(fields, onlineBuild);
+
+        alert(EventType.IndexStart, fields);
+        indexManager.beginIndexing(fields);
+        if (rebuild) {
+            awaitStatisticsRefresh(fields);
+            NitriteIndexer nitriteIndexer = nitriteConfig.findIndexer(indexDescriptor.getIndexType());
+            nitriteIndexer.dropIndex(indexDescriptor, nitriteConfig);
+        }
+
+        Thread thread = threadFactory(INDEX_BUILD_THREAD_NAME).newThread(() -> runOnlineBuild(onlineBuild));
+        buildThreads.put(onlineBuild, thread);
+        thread.start();
+    }
+
+    // returns true if the index is being built in the background, in which
+    // case the change is replayed by the build instead of written now
+    boolean captureIndexChange(IndexDescriptor indexDescriptor, FieldValues fieldValues) {
+        OnlineIndexBuild onlineBuild = onlineBuilds.get(indexDescriptor.getFields());
+        return onlineBuild != null && onlineBuild.capture(fieldValues);
+    }
+
+    boolean captureIndexChanges(IndexDescriptor indexDescriptor, List<FieldValues> fieldValuesList) {
+        OnlineIndexBuild onlineBuild = onlineBuilds.get(indexDescriptor.getFields());
+        return onlineBuild != null && onlineBuild.captureAll(fieldValuesList);
     }
 
     void dropIndex(Fields fields) {
@@ -92,12 +278,14 @@ class IndexOperations implements AutoCloseable {
 
         IndexDescriptor indexDescriptor = findIndexDescriptor(fields);
         if (indexDescriptor != null) {
+            awaitStatisticsRefresh(fields);
             String indexType = indexDescriptor.getIndexType();
             NitriteIndexer nitriteIndexer = nitriteConfig.findIndexer(indexType);
             nitriteIndexer.dropIndex(indexDescriptor, nitriteConfig);
 
             indexManager.dropIndexDescriptor(fields);
             indexBuildTracker.remove(fields);
+            failedBuilds.remove(fields);
         } else {
             throw new IndexingException("Index does not exist on fields: " + fields);
         }
@@ -110,6 +298,9 @@ class IndexOperations implements AutoCloseable {
             }
         }
 
+        // a refresh is waited for here, not by a drop running on the same pool
+        awaitStatisticsRefreshes();
+
         // we can drop all indices in parallel
         List<Future<?>> futures = new ArrayList<>();
         for (IndexDescriptor index : listIndexes()) {
@@ -140,6 +331,7 @@ class IndexOperations implements AutoCloseable {
             }
         }
 
+        awaitStatisticsRefreshes();
         indexManager.clearAll();
         indexBuildTracker.clear();
     }
@@ -159,12 +351,76 @@ class IndexOperations implements AutoCloseable {
         return indexManager.getIndexDescriptors();
     }
 
+    // the indexes a query can use, an index being built or whose build
+    // has failed is dirty, as it misses entries, and is left out
+    Collection<IndexDescriptor> listQueryableIndexes() {
+        Collection<IndexDescriptor> indexDescriptors = listIndexes();
+        if (indexDescriptors == null
+            || (onlineBuilds.isEmpty() && !indexManager.hasDirtyIndex())) return indexDescriptors;
+
+        List<IndexDescriptor> queryableIndexes = new ArrayList<>();
+        for (IndexDescriptor indexDescriptor : indexDescriptors) {
+            Fields fields = indexDescriptor.getFields();
+            if (!onlineBuilds.containsKey(fields) && !indexManager.isDirtyIndex(fields)) {
+                queryableIndexes.add(indexDescriptor);
+            }
+        }
+        return queryableIndexes;
+    }
+
     IndexDescriptor findIndexDescriptor(Fields field) {
         return indexManager.findExactIndexDescriptor(field);
     }
 
     boolean shouldRebuildIndex(Fields fields) {
-        return indexManager.isDirtyIndex(fields) && !getBuildFlag(fields).get();
+        // a failed build is not retried until the index is rebuilt explicitly
+        return indexManager.isDirtyIndex(fields) && !getBuildFlag(fields).get()
+            && !failedBuilds.contains(fields);
+    }
+
+    // a failed index is not written, as it is built from scratch again
+    boolean isBuildFailed(Fields fields) {
+        return failedBuilds.contains(fields);
+    }
+
+    // statistics are collected again in background once the index has
+    // changed enough since the last time they were collected, meanwhile
+    // the query is planned with the statistics as they are
+    IndexStatistics findIndexStatistics(IndexDescriptor indexDescriptor) {
+        Fields fields = indexDescriptor.getFields();
+        if (getBuildFlag(fields).get() || indexManager.isDirtyIndex(fields)) {
+            // the index is being built
+            return null;
+        }
+
+        IndexStatistics statistics = indexManager.getStatistics(fields);
+        if (statistics == null || statistics.isStale()) {
+            refreshStatisticsAsync(indexDescriptor);
+        }
+        return statistics;
+    }
+
+    void recordIndexWrite(IndexDescriptor indexDescriptor, FieldValues fieldValues) {
+        IndexStatistics statistics = indexManager.getStatistics(indexDescriptor.getFields());
+        if (statistics != null) {
+            statistics.recordWrite();
+            indexManager.statisticsModified(indexDescriptor.getFields());
+
+            // an array in the first field is indexed once per element
+            Object firstValue = fieldValues.getValues().isEmpty() ? null
+                : fieldValues.getValues().get(0).getSecond();
+            if (firstValue instanceof Iterable || (firstValue != null && firstValue.getClass().isArray())) {
+                statistics.recordMultiKey();
+            }
+        }
+    }
+
+    void recordIndexRemove(IndexDescriptor indexDescriptor) {
+        IndexStatistics statistics = indexManager.getStatistics(indexDescriptor.getFields());
+        if (statistics != null) {
+            statistics.recordRemove();
+            indexManager.statisticsModified(indexDescriptor.getFields());
+        }
     }
 
     private AtomicBoolean getBuildFlag(Fields field) {
@@ -176,32 +432,325 @@ class IndexOperations implements AutoCloseable {
         return flag;
     }
 
-    private void buildIndexInternal(IndexDescriptor indexDescriptor, boolean rebuild) {
-        Fields fields = indexDescriptor.getFields();
+    private void buildIndexInternal(List<IndexDescriptor> indexDescriptors, boolean rebuild) {
         try {
-            alert(EventType.IndexStart, fields);
-            // first put dirty marker
-            indexManager.beginIndexing(fields);
-
-            String indexType = indexDescriptor.getIndexType();
-            NitriteIndexer nitriteIndexer = nitriteConfig.findIndexer(indexType);
+            for (IndexDescriptor indexDescriptor : indexDescriptors) {
+                alert(EventType.IndexStart, indexDescriptor.getFields());
+                // first put dirty marker
+                indexManager.beginIndexing(indexDescriptor.getFields());
 
-            // if rebuild drop existing index
-            if (rebuild) {
-                nitriteIndexer.dropIndex(indexDescriptor, nitriteConfig);
+                // if rebuild drop existing index
+                if (rebuild) {
+                    awaitStatisticsRefresh(indexDescriptor.getFields());
+                    NitriteIndexer nitriteIndexer = nitriteConfig.findIndexer(indexDescriptor.getIndexType());
+                    nitriteIndexer.dropIndex(indexDescriptor, nitriteConfig);
+                }
             }
 
+            // the collection is scanned once for all the indexes, and
+            // every batch of documents is fed to each index in parallel
+            List<Document> batch = new ArrayList<>(INDEX_BUILD_BATCH_SIZE);
             for (Pair<NitriteId, Document> entry : nitriteMap.entries()) {
-                Document document = entry.getSecond();
-                FieldValues fieldValues = DocumentUtils.getValues(document, indexDescriptor.getFields());
-                nitriteIndexer.writeIndexEntry(fieldValues, indexDescriptor, nitriteConfig);
+                batch.add(entry.getSecond());
+                if (batch.size() == INDEX_BUILD_BATCH_SIZE) {
+                    writeIndexEntries(indexDescriptors, batch);
+                    batch = new ArrayList<>(INDEX_BUILD_BATCH_SIZE);
+                }
+            }
+
+            if (!batch.isEmpty()) {
+                writeIndexEntries(indexDescriptors, batch);
             }
         } finally {
             // remove dirty marker to denote indexing completed successfully
             // if dirty marker is found in any index, it needs to be rebuilt
-            indexManager.endIndexing(fields);
-            getBuildFlag(fields).set(false);
+            for (IndexDescriptor indexDescriptor : indexDescriptors) {
+                Fields fields = indexDescriptor.getFields();
+                indexManager.endIndexing(fields);
+                getBuildFlag(fields).set(false);
+                alert(EventType.IndexEnd, fields);
+            }
+        }
+    }
+
+    private void writeIndexEntries(List<IndexDescriptor> indexDescriptors, List<Document> documents) {
+        // the field values of a batch are read by several tasks, each on its
+        // own partition of the documents, and every index is then written by
+        // a single task, as its posting lists are updated read-modify-write
+        List<List<Document>> partitions = partition(documents);
+        List<List<List<FieldValues>>> partitionValues = new ArrayList<>(partitions.size());
+        for (int i = 0; i < partitions.size(); i++) {
+            partitionValues.add(new ArrayList<>(indexDescriptors.size()));
+        }
+
+        if (partitions.size() == 1) {
+            readFieldValues(indexDescriptors, partitions.get(0), partitionValues.get(0));
+        } else {
+            List<Future<?>> futures = new ArrayList<>(partitions.size());
+            for (int i = 0; i < partitions.size(); i++) {
+                List<Document> partition = partitions.get(i);
+                List<List<FieldValues>> values = partitionValues.get(i);
+                futures.add(runAsync(() -> readFieldValues(indexDescriptors, partition, values)));
+            }
+            awaitAll(futures);
+        }
+
+        List<List<FieldValues>> indexValues = new ArrayList<>(indexDescriptors.size());
+        for (int i = 0; i < indexDescriptors.size(); i++) {
+            // the partitions are joined in their scan order
+            List<FieldValues> fieldValuesList = new ArrayList<>(documents.size());
+            for (List<List<FieldValues>> values : partitionValues) {
+                fieldValuesList.addAll(values.get(i));
+            }
+            indexValues.add(fieldValuesList);
+        }
+
+        if (indexDescriptors.size() == 1) {
+            writeFieldValues(indexDescriptors.get(0), indexValues.get(0));
+            return;
+        }
+
+        // an index is written by one task at a time, so the
+        // indexes need not guard against concurrent writes
+        List<Future<?>> futures = new ArrayList<>(indexDescriptors.size());
+        for (int i = 0; i < indexDescriptors.size(); i++) {
+            IndexDescriptor indexDescriptor = indexDescriptors.get(i);
+            List<FieldValues> fieldValuesList = indexValues.get(i);
+            futures.add(runAsync(() -> writeFieldValues(indexDescriptor, fieldValuesList)));
+        }
+        awaitAll(futures);
+    }
+
+    private List<List<Document>> partition(List<Document> documents) {
+        int size = documents.size();
+        int count = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(),
+            size / INDEX_BUILD_PARTITION_SIZE));
+        List<List<Document>> partitions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            partitions.add(documents.subList(i * size / count, (i + 1) * size / count));
+        }
+        return partitions;
+    }
+
+    private void readFieldValues(List<IndexDescriptor> indexDescriptors, List<Document> documents,
+                                 List<List<FieldValues>> values) {
+        for (IndexDescriptor indexDescriptor : indexDescriptors) {
+            values.add(readFieldValues(indexDescriptor, documents));
+        }
+    }
+
+    private void awaitAll(List<Future<?>> futures) {
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IndexingException("Index build interrupted", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof NitriteException) {
+                    throw (NitriteException) e.getCause();
+                }
+                throw new IndexingException("Failed to build indexes", e.getCause());
+            }
+        }
+    }
+
+    private void writeIndexEntries(IndexDescriptor indexDescriptor, List<Document> documents) {
+        writeFieldValues(indexDescriptor, readFieldValues(indexDescriptor, documents));
+    }
+
+    private List<FieldValues> readFieldValues(IndexDescriptor indexDescriptor, List<Document> documents) {
+        List<FieldValues> fieldValuesList = new ArrayList<>(documents.size());
+        for (Document document : documents) {
+            // a partial index leaves out the documents not matching its filter
+            if (indexDescriptor.isIndexed(document)) {
+                fieldValuesList.add(DocumentUtils.getValues(document, indexDescriptor));
+            }
+        }
+        return fieldValuesList;
+    }
+
+    private void writeFieldValues(IndexDescriptor indexDescriptor, List<FieldValues> fieldValuesList) {
+        if (fieldValuesList.isEmpty()) return;
+
+        NitriteIndexer nitriteIndexer = nitriteConfig.findIndexer(indexDescriptor.getIndexType());
+        nitriteIndexer.writeIndexEntries(fieldValuesList, indexDescriptor, nitriteConfig);
+    }
+
+    private void runOnlineBuild(OnlineIndexBuild onlineBuild) {
+        IndexDescriptor indexDescriptor = onlineBuild.getIndexDescriptor();
+        Fields fields = indexDescriptor.getFields();
+        boolean ready = false;
+        String buildError = "Index build was stopped";
+        try {
+            long startTime = System.currentTimeMillis();
+            long lastProgressTime = startTime;
+            long totalCount = nitriteMap.size();
+            long indexedCount = 0;
+
+            List<Document> batch = new ArrayList<>(INDEX_BUILD_BATCH_SIZE);
+            for (Pair<NitriteId, Document> entry : nitriteMap.entries()) {
+                if (onlineBuild.isCancelled()) return;
+
+                batch.add(entry.getSecond());
+                if (batch.size() == INDEX_BUILD_BATCH_SIZE) {
+                    writeIndexEntries(indexDescriptor, batch);
+                    indexedCount += batch.size();
+                    batch = new ArrayList<>(INDEX_BUILD_BATCH_SIZE);
+
+                    long now = System.currentTimeMillis();
+                    if (now - lastProgressTime >= INDEX_PROGRESS_INTERVAL) {
+                        alertProgress(fields, indexedCount, totalCount, now - startTime);
+                        lastProgressTime = now;
+                    }
+                }
+            }
+
+            if (!batch.isEmpty()) {
+                writeIndexEntries(indexDescriptor, batch);
+                indexedCount += batch.size();
+            }
+
+            // replay the changes written during the scan while the writers still
+            // run, until few enough are left to replay with the writers held back
+            for (int round = 0; round < MAX_CATCH_UP_ROUNDS
+                && onlineBuild.pending() > INDEX_BUILD_BATCH_SIZE; round++) {
+                if (onlineBuild.isCancelled()) return;
+                catchUp(onlineBuild);
+            }
+
+            // the lock is polled, as the collection may be closed
+            // while holding it and waiting for this build to stop
+            while (!writeLock.tryLock(BUILD_LOCK_POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (onlineBuild.isCancelled()) return;
+            }
+            try {
+                if (onlineBuild.isCancelled()) return;
+
+                catchUp(onlineBuild);
+                onlineBuild.markReady();
+                onlineBuilds.remove(fields);
+                indexManager.endIndexing(fields);
+                getBuildFlag(fields).set(false);
+                ready = true;
+            } finally {
+                writeLock.unlock();
+            }
+
+            alertProgress(fields, Math.max(indexedCount, totalCount), totalCount,
+                System.currentTimeMillis() - startTime);
+            if (!onlineBuild.isCancelled()) {
+                refreshStatistics(indexDescriptor);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            buildError = "Index build was interrupted";
+            log.error("Index build on fields " + fields + " of " + collectionName + " was interrupted", e);
+        } catch (Exception e) {
+            buildError = e.getMessage() == null ? e.toString() : e.getMessage();
+            log.error("Failed to build index on fields " + fields + " of " + collectionName, e);
+        } finally {
+            if (!ready) {
+                // the index stays dirty, so that no query uses it, and the failure is
+                // recorded before the build is gone, so that no write reaches the index
+                if (!onlineBuild.isCancelled()) {
+                    failedBuilds.add(fields);
+                    indexManager.failIndexing(fields, buildError);
+                }
+                onlineBuilds.remove(fields);
+                getBuildFlag(fields).set(false);
+            }
             alert(EventType.IndexEnd, fields);
+            buildThreads.remove(onlineBuild);
+        }
+    }
+
+    private void catchUp(OnlineIndexBuild onlineBuild) {
+        IndexDescriptor indexDescriptor = onlineBuild.getIndexDescriptor();
+        NitriteIndexer nitriteIndexer = nitriteConfig.findIndexer(indexDescriptor.getIndexType());
+
+        // the scan may have seen any version of a changed document, so all the
+        // logged versions are removed and the current version is indexed again
+        Set<NitriteId> changedIds = new LinkedHashSet<>();
+        for (FieldValues fieldValues : onlineBuild.drain()) {
+            nitriteIndexer.removeIndexEntry(fieldValues, indexDescriptor, nitriteConfig);
+            changedIds.add(fieldValues.getNitriteId());
+        }
+
+        List<Document> documents = new ArrayList<>();
+        for (NitriteId nitriteId : changedIds) {
+            Document document = nitriteMap.get(nitriteId);
+            if (document != null) {
+                documents.add(document);
+            }
+        }
+
+        if (!documents.isEmpty()) {
+            writeIndexEntries(indexDescriptor, documents);
+        }
+    }
+
+    private void alertProgress(Fields fields, long indexedCount, long totalCount, long elapsedMillis) {
+        CollectionEventInfo<IndexBuildProgress> eventInfo = new CollectionEventInfo<>();
+        eventInfo.setItem(new IndexBuildProgress(fields, indexedCount, totalCount, elapsedMillis));
+        eventInfo.setTimestamp(System.currentTimeMillis());
+        eventInfo.setEventType(EventType.IndexProgress);
+        if (eventBus != null) {
+            eventBus.post(eventInfo);
+        }
+    }
+
+    private IndexStatistics refreshStatistics(IndexDescriptor indexDescriptor) {
+        NitriteIndexer nitriteIndexer = nitriteConfig.findIndexer(indexDescriptor.getIndexType());
+        IndexStatistics statistics = nitriteIndexer.computeStatistics(indexDescriptor, nitriteConfig);
+        if (statistics != null) {
+            indexManager.updateStatistics(indexDescriptor.getFields(), statistics);
+        }
+        return statistics;
+    }
+
+    // the index is scanned by one refresh at a time, which is waited
+    // for before the index is dropped or the collection is closed
+    private void refreshStatisticsAsync(IndexDescriptor indexDescriptor) {
+        Fields fields = indexDescriptor.getFields();
+        FutureTask<?> refresh = new FutureTask<>(() -> {
+            try {
+                if (findIndexDescriptor(fields) != null) {
+                    refreshStatistics(indexDescriptor);
+                }
+            } catch (Exception e) {
+                log.warn("Failed to collect statistics of index on fields " + fields
+                    + " of " + collectionName, e);
+            }
+        }, null);
+
+        if (statisticsRefreshes.putIfAbsent(fields, refresh) == null) {
+            runAsync(() -> {
+                try {
+                    refresh.run();
+                } finally {
+                    statisticsRefreshes.remove(fields, refresh);
+                }
+            });
+        }
+    }
+
+    private void awaitStatisticsRefresh(Fields fields) {
+        Future<?> future = statisticsRefreshes.get(fields);
+        if (future == null) return;
+
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // the failure is logged by the refresh
+        }
+    }
+
+    private void awaitStatisticsRefreshes() {
+        for (Fields fields : new ArrayList<>(statisticsRefreshes.keySet())) {
+            awaitStatisticsRefresh(fields);
         }
     }
 
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.collection.operation;
+
+import lombok.Getter;
+import org.dizitart.no2.common.FieldValues;
+import org.dizitart.no2.index.IndexDescriptor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The state of an index being built in the background. The changes
+ * written to the collection meanwhile are kept in a catch-up log, which
+ * the build replays once it has scanned the collection.
+ *
+ * @author Anindya Chatterjee
+ * @since 4.3
+ */
+class OnlineIndexBuild {
+    @Getter
+    private final IndexDescriptor indexDescriptor;
+    private List<FieldValues> catchUpLog;
+    private boolean ready;
+    private volatile boolean cancelled;
+
+    OnlineIndexBuild(IndexDescriptor indexDescriptor) {
+        this.indexDescriptor = indexDescriptor;
+        this.catchUpLog = new ArrayList<>();
+    }
+
+    // returns false once the build is ready, as the
+    // change must then be written to the index itself
+    synchronized boolean capture(FieldValues fieldValues) {
+        if (ready) return false;
+        catchUpLog.add(fieldValues);
+        return true;
+    }
+
+    // captures all the changes of a batch or none of them, so that a build
+    // getting ready midway never leaves a part of the batch to be written
+    synchronized boolean captureAll(List<FieldValues> fieldValuesList) {
+        if (ready) return false;
+        catchUpLog.addAll(fieldValuesList);
+        return true;
+    }
+
+    synchronized List<FieldValues> drain() {
+        List<FieldValues> changes = catchUpLog;
+        catchUpLog = new ArrayList<>();
+        return changes;
+    }
+
+    synchronized int pending() {
+        return catchUpLog.size();
+    }
+
+    synchronized void markReady() {
+        ready = true;
+    }
+
+    void cancel() {
+        cancelled = true;
+    }
+
+    boolean isCancelled() {
+        return cancelled;
+    }
+}
@@ -23,15 +23,21 @@ import org.dizitart.no2.common.streams.*;
 import org.dizitart.no2.common.tuples.Pair;
 import org.dizitart.no2.filters.*;
 import org.dizitart.no2.index.IndexDescriptor;
+import org.dizitart.no2.index.IndexStatistics;
+import org.dizitart.no2.index.NitriteIdBitmap;
 import org.dizitart.no2.index.NitriteIndexer;
 import org.dizitart.no2.common.processors.ProcessorChain;
 import org.dizitart.no2.store.NitriteMap;
+import org.dizitart.no2.store.NitriteStore;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
 
+import static org.dizitart.no2.common.Constants.INTERNAL_NAME_SEPARATOR;
+import static org.dizitart.no2.common.Constants.SORT_RUN_PREFIX;
 import static org.dizitart.no2.common.tuples.Pair.pair;
 
 /**
@@ -39,12 +45,16 @@ import static org.dizitart.no2.common.tuples.Pair.pair;
  * @since 1.0
  */
 class ReadOperations {
+    // a heap can not hold more than an int number of documents
+    private static final long MAX_TOP_K = Integer.MAX_VALUE;
+
     private final String collectionName;
     private final NitriteConfig nitriteConfig;
     private final NitriteMap<NitriteId, Document> nitriteMap;
     private final FindOptimizer findOptimizer;
     private final IndexOperations indexOperations;
     private final ProcessorChain processorChain;
+    private NitriteMap<Long, Document> sortRunMap;
 
     ReadOperations(String collectionName,
                    IndexOperations indexOperations,
@@ -55,7 +65,7 @@ class ReadOperations {
         this.nitriteConfig = nitriteConfig;
         this.collectionName = collectionName;
         this.indexOperations = indexOperations;
-        this.findOptimizer = new FindOptimizer();
+        this.findOptimizer = new FindOptimizer(indexOperations::findIndexStatistics);
         this.processorChain = processorChain;
     }
 
@@ -65,11 +75,42 @@ class ReadOperations {
         }
 
         prepareFilter(filter);
-        Collection<IndexDescriptor> indexDescriptors = indexOperations.listIndexes();
+        Collection<IndexDescriptor> indexDescriptors = indexOperations.listQueryableIndexes();
         FindPlan findPlan = findOptimizer.optimize(filter, findOptions, indexDescriptors);
         return createCursor(findPlan);
     }
 
+    public long count(Filter filter) {
+        if (filter == null) {
+            filter = Filter.ALL;
+        }
+
+        prepareFilter(filter);
+        Collection<IndexDescriptor> indexDescriptors = indexOperations.listQueryableIndexes();
+        FindPlan findPlan = findOptimizer.optimize(filter, null, indexDescriptors);
+
+        if (isCountedByIndex(findPlan) && findPlan.getIntersectingPlans().isEmpty()) {
+            IndexDescriptor indexDescriptor = findPlan.getIndexDescriptor();
+            IndexStatistics statistics = indexOperations.findIndexStatistics(indexDescriptor);
+            if (statistics != null && !statistics.isMultiKey()) {
+                // no document is indexed under more than one key, so the
+                // sizes of the index entries add up to the count
+                NitriteIndexer indexer = nitriteConfig.findIndexer(indexDescriptor.getIndexType());
+                return indexer.countByFilter(findPlan, nitriteConfig);
+            }
+        }
+
+        RecordStream<NitriteId> nitriteIds = indexedIds(findPlan);
+        if (nitriteIds != null) {
+            // the ids are counted without reading the documents
+            return countOf(nitriteIds);
+        }
+
+        // the documents are only read to be filtered, they are
+        // neither copied nor passed through the processors
+        return countOf(findSuitableStream(findPlan));
+    }
+
     Document getById(NitriteId nitriteId) {
         Document document = nitriteMap.get(nitriteId);
         if (processorChain != null) {
@@ -78,6 +119,14 @@ class ReadOperations {
         return document;
     }
 
+    // drops the runs of the sorts whose cursors were not read to the end
+    synchronized void close() {
+        if (sortRunMap != null) {
+            sortRunMap.drop();
+            sortRunMap = null;
+        }
+    }
+
     private void prepareFilter(Filter filter) {
         if (filter instanceof NitriteFilter) {
             NitriteFilter nitriteFilter = (NitriteFilter) filter;
@@ -110,9 +159,23 @@ class ReadOperations {
         RecordStream<Pair<NitriteId, Document>> recordStream = findSuitableStream(findPlan);
         DocumentStream cursor = new DocumentStream(recordStream, processorChain);
         cursor.setFindPlan(findPlan);
+        cursor.setCoveredScan(projection -> coveredStream(findPlan, projection));
         return cursor;
     }
 
+    private RecordStream<Pair<NitriteId, Document>> coveredStream(FindPlan findPlan, Document projection) {
+        if (!findOptimizer.isCovered(findPlan, projection)) return null;
+
+        NitriteIndexer indexer = nitriteConfig.findIndexer(findPlan.getIndexDescriptor().getIndexType());
+        RecordStream<Pair<NitriteId, Document>> indexEntries = indexer.streamEntriesByFilter(findPlan, nitriteConfig);
+        if (indexEntries == null) return null;
+
+        if (findPlan.getLimit() != null || findPlan.getSkip() != null) {
+            indexEntries = BoundedStream.bound(skipOf(findPlan), limitOf(findPlan), indexEntries);
+        }
+        return new CoveredStream(indexEntries, projection.getFields(), nitriteMap);
+    }
+
     private RecordStream<Pair<NitriteId, Document>> findSuitableStream(FindPlan findPlan) {
         RecordStream<Pair<NitriteId, Document>> rawStream;
 
@@ -147,7 +210,18 @@ class ReadOperations {
                 if (indexDescriptor != null) {
                     // get optimized filter
                     NitriteIndexer indexer = nitriteConfig.findIndexer(indexDescriptor.getIndexType());
-                    LinkedHashSet<NitriteId> nitriteIds = indexer.findByFilter(findPlan, nitriteConfig);
+                    RecordStream<NitriteId> nitriteIds = indexer.streamByFilter(findPlan, nitriteConfig);
+
+                    if (!findPlan.getIntersectingPlans().isEmpty()) {
+                        // only the ids found by all the other indexes are fetched
+                        nitriteIds = new IntersectedStream(nitriteIds, intersectingIds(findPlan));
+                    }
+
+                    if (isBoundedByIndex(findPlan)) {
+                        // every id from the index is a result, so skip and limit
+                        // are applied on the ids before any document is read
+                        nitriteIds = BoundedStream.bound(skipOf(findPlan), limitOf(findPlan), nitriteIds);
+                    }
 
                     // create indexed stream from optimized filter
                     rawStream = new IndexedStream(nitriteIds, nitriteMap);
@@ -164,16 +238,106 @@ class ReadOperations {
         // sort and bound stage
         if (rawStream != null) {
             if (findPlan.getBlockingSortOrder() != null && !findPlan.getBlockingSortOrder().isEmpty()) {
-                rawStream = new SortedDocumentStream(findPlan, rawStream);
+                int sortBufferSize = nitriteConfig.getSortBufferSize();
+                long maxTopK = sortBufferSize > 0 ? sortBufferSize : MAX_TOP_K;
+                if (findPlan.getLimit() != null && skipOf(findPlan) < maxTopK - findPlan.getLimit()) {
+                    // only the first skip + limit documents of the sort order are returned
+                    rawStream = new TopKDocumentStream(findPlan, skipOf(findPlan) + findPlan.getLimit(), rawStream);
+                } else {
+                    // a read-only store can not hold the runs, so it is sorted in memory
+                    boolean spilled = sortBufferSize > 0 && !nitriteMap.getStore().isReadOnly();
+                    rawStream = new SortedDocumentStream(findPlan, rawStream, sortBufferSize,
+                        spilled ? getSortRunMap() : null);
+                }
             }
 
-            if (findPlan.getLimit() != null || findPlan.getSkip() != null) {
-                long limit = findPlan.getLimit() == null ? Long.MAX_VALUE : findPlan.getLimit();
-                long skip = findPlan.getSkip() == null ? 0 : findPlan.getSkip();
-                rawStream = new BoundedStream<>(skip, limit, rawStream);
+            if ((findPlan.getLimit() != null || findPlan.getSkip() != null) && !isBoundedByIndex(findPlan)) {
+                rawStream = new BoundedStream<>(skipOf(findPlan), limitOf(findPlan), rawStream);
             }
         }
 
         return rawStream;
     }
+
+    private RecordStream<NitriteId> indexedIds(FindPlan findPlan) {
+        if (!findPlan.getSubPlans().isEmpty()) {
+            // an id found by more than one sub plan is counted once
+            NitriteIdBitmap union = new NitriteIdBitmap();
+            for (FindPlan subPlan : findPlan.getSubPlans()) {
+                RecordStream<NitriteId> subIds = indexedIds(subPlan);
+                if (subIds == null) return null;
+                subIds.forEach(union::add);
+            }
+            return RecordStream.fromIterable(union);
+        }
+
+        if (findPlan.getByIdFilter() != null && findPlan.getCollectionScanFilter() == null) {
+            NitriteId nitriteId = NitriteId.createId((String) findPlan.getByIdFilter().getValue());
+            return nitriteMap.containsKey(nitriteId) ? RecordStream.single(nitriteId) : RecordStream.empty();
+        }
+
+        if (isCountedByIndex(findPlan)) {
+            NitriteIndexer indexer = nitriteConfig.findIndexer(findPlan.getIndexDescriptor().getIndexType());
+            RecordStream<NitriteId> nitriteIds = indexer.streamByFilter(findPlan, nitriteConfig);
+            if (!findPlan.getIntersectingPlans().isEmpty()) {
+                nitriteIds = new IntersectedStream(nitriteIds, intersectingIds(findPlan));
+            }
+            return nitriteIds;
+        }
+        return null;
+    }
+
+    private boolean isCountedByIndex(FindPlan findPlan) {
+        return findPlan.getSubPlans().isEmpty()
+            && findPlan.getByIdFilter() == null
+            && findPlan.getIndexDescriptor() != null
+            && findPlan.getCollectionScanFilter() == null;
+    }
+
+    private long countOf(RecordStream<?> recordStream) {
+        long count = 0;
+        if (recordStream != null) {
+            for (Object ignored : recordStream) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private List<Supplier<? extends Set<NitriteId>>> intersectingIds(FindPlan findPlan) {
+        List<Supplier<? extends Set<NitriteId>>> intersectingIds = new ArrayList<>();
+        for (FindPlan intersectingPlan : findPlan.getIntersectingPlans()) {
+            NitriteIndexer indexer = nitriteConfig.findIndexer(intersectingPlan.getIndexDescriptor().getIndexType());
+            intersectingIds.add(() -> indexer.findByFilter(intersectingPlan, nitriteConfig));
+        }
+        return intersectingIds;
+    }
+
+    private boolean isBoundedByIndex(FindPlan findPlan) {
+        return findPlan.getSubPlans().isEmpty()
+            && findPlan.getByIdFilter() == null
+            && findPlan.getIndexDescriptor() != null
+            && findPlan.getCollectionScanFilter() == null
+            && (findPlan.getBlockingSortOrder() == null || findPlan.getBlockingSortOrder().isEmpty())
+            && (findPlan.getLimit() != null || findPlan.getSkip() != null);
+    }
+
+    private long limitOf(FindPlan findPlan) {
+        return findPlan.getLimit() == null ? Long.MAX_VALUE : findPlan.getLimit();
+    }
+
+    private long skipOf(FindPlan findPlan) {
+        return findPlan.getSkip() == null ? 0 : findPlan.getSkip();
+    }
+
+    private synchronized NitriteMap<Long, Document> getSortRunMap() {
+        if (sortRunMap == null) {
+            NitriteStore<?> nitriteStore = nitriteMap.getStore();
+            sortRunMap = nitriteStore.openMap(SORT_RUN_PREFIX + INTERNAL_NAME_SEPARATOR + collectionName,
+                Long.class, Document.class);
+            // the runs left by a sort before the last close are never read
+            sortRunMap.clear();
+        }
+        return sortRunMap;
+    }
 }
@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.collection.operation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.dizitart.no2.NitriteConfig;
+import org.dizitart.no2.collection.NitriteId;
+import org.dizitart.no2.collection.events.CollectionEventInfo;
+import org.dizitart.no2.collection.events.CollectionEventListener;
+import org.dizitart.no2.collection.events.EventType;
+import org.dizitart.no2.common.concurrent.ThreadPoolManager;
+import org.dizitart.no2.common.event.EventBus;
+import org.dizitart.no2.index.IndexDescriptor;
+import org.dizitart.no2.index.IndexType;
+import org.dizitart.no2.index.TtlIndexer;
+import org.dizitart.no2.index.TtlSweepMetrics;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+
+import static org.dizitart.no2.common.Constants.TTL_SWEEP_THREAD_NAME;
+
+/**
+ * Removes the expired documents of the time-to-live indexes of a collection
+ * periodically. A sweep walks an index in time order and removes the expired
+ * documents by their ids in batches, each batch under the write lock of the
+ * collection.
+ *
+ * @author Anindya Chatterjee
+ * @since 4.3
+ */
+@Slf4j(topic = "nitrite")
+class TtlSweeper implements AutoCloseable {
+    private final String collectionName;
+    private final NitriteConfig nitriteConfig;
+    private final IndexOperations indexOperations;
+    private final WriteOperations writeOperations;
+    private final EventBus<CollectionEventInfo<?>, CollectionEventListener> eventBus;
+    private final Lock writeLock;
+    private final AtomicLong totalRemovedCount;
+    private final Object lock;
+    private volatile ScheduledExecutorService scheduler;
+    private volatile boolean closed;
+
+    TtlSweeper(String collectionName, NitriteConfig nitriteConfig,
+               IndexOperations indexOperations, WriteOperations writeOperations,
+               EventBus<CollectionEventInfo<?>, CollectionEventListener> eventBus,
+               Lock writeLock) {
+        this.collectionName = collectionName;
+        this.nitriteConfig = nitriteConfig;
+        this.indexOperations = indexOperations;
+        this.writeOperations = writeOperations;
+        this.eventBus = eventBus;
+        this.writeLock = writeLock;
+        this.totalRemovedCount = new AtomicLong();
+        this.lock = new Object();
+    }
+
+    // starts the periodic sweep, if the collection has a time-to-live index
+    void start() {
+        // without the write lock of the collection, expired
+        // documents can not be removed safely in background
+        if (writeLock == null || nitriteConfig.getTtlSweepInterval() <= 0
+            || scheduler != null || findTtlIndexes().isEmpty()) return;
+
+        synchronized (lock) {
+            if (scheduler != null || closed) return;
+
+            long interval = nitriteConfig.getTtlSweepInterval();
+            scheduler = ThreadPoolManager.getScheduledThreadPool(1, TTL_SWEEP_THREAD_NAME);
+            scheduler.scheduleWithFixedDelay(() -> {
+                try {
+                    sweep(System.currentTimeMillis());
+                } catch (Exception e) {
+                    log.error("Error while removing expired documents of " + collectionName, e);
+                }
+            }, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // removes the documents expired before the time from all the time-to-live indexes
+    long sweep(long expiryTime) {
+        long removedCount = 0;
+        for (IndexDescriptor indexDescriptor : findTtlIndexes()) {
+            if (closed) break;
+            removedCount += sweep(indexDescriptor, expiryTime);
+        }
+        return removedCount;
+    }
+
+    @Override
+    public void close() {
+        ScheduledExecutorService executor;
+        synchronized (lock) {
+            closed = true;
+            executor = scheduler;
+            scheduler = null;
+        }
+
+        if (executor != null) {
+            ThreadPoolManager.shutdownThreadPool(executor);
+        }
+    }
+
+    private long sweep(IndexDescriptor indexDescriptor, long expiryTime) {
+        // an index being built does not have all the expired documents yet
+        if (indexOperations.isIndexing(indexDescriptor.getFields())) return 0;
+
+        TtlIndexer ttlIndexer = (TtlIndexer) nitriteConfig.findIndexer(IndexType.TTL);
+        int batchSize = nitriteConfig.getTtlSweepBatchSize();
+        int maxRemovals = nitriteConfig.getTtlSweepMaxRemovals();
+
+        long startTime = System.currentTimeMillis();
+        long removedCount = 0;
+        long sweptCount = 0;
+        boolean rateLimited = false;
+        while (!closed) {
+            // the limit counts the ids found, so that ids which no longer
+            // have a document can not keep a sweep running
+            if (sweptCount >= maxRemovals) {
+                rateLimited = true;
+                break;
+            }
+
+            int limit = (int) Math.min(batchSize, maxRemovals - sweptCount);
+            List<NitriteId> nitriteIds = new ArrayList<>(limit);
+
+            // the lock is released between the batches to let the writers in
+            writeLock.lock();
+            try {
+                Iterator<NitriteId> iterator = ttlIndexer.findExpiredIds(indexDescriptor,
+                    expiryTime, nitriteConfig).iterator();
+                while (iterator.hasNext() && nitriteIds.size() < limit) {
+                    nitriteIds.add(iterator.next());
+                }
+
+                if (!nitriteIds.isEmpty()) {
+                    removedCount += writeOperations.remove(nitriteIds).getAffectedCount();
+                }
+            } finally {
+                writeLock.unlock();
+            }
+
+            sweptCount += nitriteIds.size();
+            if (nitriteIds.size() < limit) break;
+        }
+
+        if (removedCount > 0) {
+            long totalCount = totalRemovedCount.addAndGet(removedCount);
+            log.debug("Removed {} expired documents of {} from {}", removedCount,
+                indexDescriptor.getFields(), collectionName);
+            alert(new TtlSweepMetrics(indexDescriptor.getFields(), removedCount, totalCount,
+                System.currentTimeMillis() - startTime, rateLimited));
+        }
+        return removedCount;
+    }
+
+    private List<IndexDescriptor> findTtlIndexes() {
+        List<IndexDescriptor> ttlIndexes = new ArrayList<>();
+        Collection<IndexDescriptor> indexDescriptors = indexOperations.listIndexes();
+        if (indexDescriptors != null) {
+            for (IndexDescriptor indexDescriptor : indexDescriptors) {
+                if (IndexType.TTL.equals(indexDescriptor.getIndexType())) {
+                    ttlIndexes.add(indexDescriptor);
+                }
+            }
+        }
+        return ttlIndexes;
+    }
+
+    private void alert(TtlSweepMetrics metrics) {
+        CollectionEventInfo<TtlSweepMetrics> eventInfo = new CollectionEventInfo<>();
+        eventInfo.setItem(metrics);
+        eventInfo.setTimestamp(System.currentTimeMillis());
+        eventInfo.setEventType(EventType.TtlSweep);
+        if (eventBus != null) {
+            eventBus.post(eventInfo);
+        }
+    }
+}
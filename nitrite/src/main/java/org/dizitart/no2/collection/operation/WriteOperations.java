@@ -17,6 +17,7 @@
 package org.dizitart.no2.collection.operation;
 
 import lombok.extern.slf4j.Slf4j;
+import org.dizitart.no2.collection.BulkWriteOptions;
 import org.dizitart.no2.collection.Document;
 import org.dizitart.no2.collection.DocumentCursor;
 import org.dizitart.no2.collection.NitriteId;
@@ -33,9 +34,13 @@ import org.dizitart.no2.filters.Filter;
 import org.dizitart.no2.store.NitriteMap;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 import static org.dizitart.no2.common.Constants.*;
+import static org.dizitart.no2.common.util.Iterables.chunksOf;
+import static org.dizitart.no2.common.util.ValidationUtils.notNull;
 
 /**
  * @author Anindya Chatterjee
@@ -122,6 +127,22 @@ class WriteOperations {
         return result;
     }
 
+    WriteResult insertMany(Iterable<Document> documents, BulkWriteOptions bulkWriteOptions) {
+        List<NitriteId> nitriteIds = new ArrayList<>();
+        for (List<Document> chunk : chunksOf(documents, bulkWriteOptions.getChunkSize())) {
+            for (Document document : chunk) {
+                notNull(document, "a null document cannot be inserted");
+            }
+            insertChunk(chunk, nitriteIds);
+        }
+
+        WriteResultImpl result = new WriteResultImpl();
+        result.setNitriteIds(nitriteIds);
+
+        log.debug("Returning write result {} for collection {}", result, nitriteMap.getName());
+        return result;
+    }
+
     WriteResult update(Filter filter, Document update, UpdateOptions updateOptions) {
         DocumentCursor cursor = readOperations.find(filter, null);
 
@@ -257,9 +278,24 @@ class WriteOperations {
         return result;
     }
 
+    // removes the documents by their ids, without reading them through a cursor
+    WriteResult remove(Collection<NitriteId> nitriteIds) {
+        WriteResultImpl result = new WriteResultImpl();
+        for (NitriteId nitriteId : nitriteIds) {
+            CollectionEventInfo<Document> eventInfo = removeAndCreateEvent(nitriteId, result);
+            if (eventInfo != null) {
+                alert(eventInfo);
+            }
+        }
+        return result;
+    }
+
     private CollectionEventInfo<Document> removeAndCreateEvent(Document document, WriteResultImpl writeResult) {
-        NitriteId nitriteId = document.getId();
-        document = nitriteMap.remove(nitriteId);
+        return removeAndCreateEvent(document.getId(), writeResult);
+    }
+
+    private CollectionEventInfo<Document> removeAndCreateEvent(NitriteId nitriteId, WriteResultImpl writeResult) {
+        Document document = nitriteMap.remove(nitriteId);
         if (document != null) {
             long removedAt = System.currentTimeMillis();
             documentIndexWriter.removeIndexEntry(document);
@@ -281,6 +317,81 @@ class WriteOperations {
         return null;
     }
 
+    private void insertChunk(List<Document> documents, List<NitriteId> nitriteIds) {
+        log.debug("Total {} document(s) to be inserted in a chunk in {}", documents.size(), nitriteMap.getName());
+
+        long time = System.currentTimeMillis();
+        String originator = null;
+        List<NitriteId> chunkIds = new ArrayList<>(documents.size());
+        List<Document> newDocuments = new ArrayList<>(documents.size());
+        List<Document> processedDocuments = new ArrayList<>(documents.size());
+
+        for (int i = 0; i < documents.size(); i++) {
+            Document newDoc = documents.get(i).clone();
+            NitriteId nitriteId = newDoc.getId();
+            String source = newDoc.getSource();
+            originator = i == 0 || (originator != null && originator.equals(source)) ? source : null;
+
+            if (!REPLICATOR.contentEquals(newDoc.getSource())) {
+                newDoc.remove(DOC_SOURCE);
+                newDoc.put(DOC_REVISION, 1);
+                newDoc.put(DOC_MODIFIED, time);
+            } else {
+                newDoc.remove(DOC_SOURCE);
+            }
+
+            // every document is processed before the first one is stored, so
+            // that a failing processor leaves nothing of the chunk behind
+            chunkIds.add(nitriteId);
+            newDocuments.add(newDoc);
+            processedDocuments.add(processorChain.processBeforeWrite(newDoc.clone()));
+        }
+
+        List<Document> storedDocuments = new ArrayList<>(processedDocuments.size());
+        try {
+            for (int i = 0; i < processedDocuments.size(); i++) {
+                NitriteId nitriteId = chunkIds.get(i);
+                Document processed = processedDocuments.get(i);
+                Document already = nitriteMap.putIfAbsent(nitriteId, processed);
+                if (already != null) {
+                    throw new UniqueConstraintException("Document with id " + nitriteId + " already exists" +
+                        " in " + nitriteMap.getName());
+                }
+                storedDocuments.add(processed);
+            }
+        } catch (RuntimeException e) {
+            // all or nothing for a chunk, undo the documents inserted so far
+            removeAll(storedDocuments);
+            throw e;
+        }
+
+        try {
+            documentIndexWriter.writeIndexEntries(processedDocuments);
+        } catch (UniqueConstraintException | IndexingException e) {
+            log.error("Error while writing index entries for a chunk of documents in {}",
+                nitriteMap.getName(), e);
+            removeAll(processedDocuments);
+            throw e;
+        }
+
+        for (Document document : processedDocuments) {
+            nitriteIds.add(document.getId());
+        }
+
+        CollectionEventInfo<List<Document>> eventInfo = new CollectionEventInfo<>();
+        eventInfo.setItem(Collections.unmodifiableList(newDocuments));
+        eventInfo.setTimestamp(time);
+        eventInfo.setEventType(EventType.BulkInsert);
+        eventInfo.setOriginator(originator);
+        alert(eventInfo);
+    }
+
+    private void removeAll(List<Document> documents) {
+        for (Document document : documents) {
+            nitriteMap.remove(document.getId());
+        }
+    }
+
     private void alert(CollectionEventInfo<?> changedItem) {
         log.debug("Alerting event listeners for action : {} in {}", changedItem.getEventType(), nitriteMap.getName());
         if (eventBus != null) {
@@ -68,6 +68,11 @@ public class Constants {
      */
     public static final String INDEX_PREFIX = "$nitrite_index";
 
+    /**
+     * The constant SORT_RUN_PREFIX.
+     */
+    public static final String SORT_RUN_PREFIX = "$nitrite_sort_run";
+
     /**
      * The constant INTERNAL_NAME_SEPARATOR.
      */
@@ -109,6 +114,7 @@ public class Constants {
     public static final List<String> RESERVED_NAMES = Arrays.asList(
             INDEX_META_PREFIX,
             INDEX_PREFIX,
+            SORT_RUN_PREFIX,
             INTERNAL_NAME_SEPARATOR,
             USER_MAP,
             OBJECT_STORE_NAME_SEPARATOR,
@@ -233,6 +239,21 @@ public class Constants {
      */
     public static final String SYNC_THREAD_NAME = "Sync." + NO2;
 
+    /**
+     * The constant SCHEDULER_THREAD_NAME.
+     */
+    public static final String SCHEDULER_THREAD_NAME = "Scheduler." + NO2;
+
+    /**
+     * The constant INDEX_BUILD_THREAD_NAME.
+     */
+    public static final String INDEX_BUILD_THREAD_NAME = "IndexBuild." + NO2;
+
+    /**
+     * The constant TTL_SWEEP_THREAD_NAME.
+     */
+    public static final String TTL_SWEEP_THREAD_NAME = "TtlSweep." + NO2;
+
     /**
      * The initial schema version of Nitrite database.
      */
@@ -23,6 +23,7 @@ import org.dizitart.no2.collection.events.EventAware;
 import org.dizitart.no2.collection.events.EventType;
 import org.dizitart.no2.common.meta.AttributesAware;
 import org.dizitart.no2.common.processors.Processor;
+import org.dizitart.no2.index.IndexDefinition;
 import org.dizitart.no2.index.IndexDescriptor;
 import org.dizitart.no2.index.IndexOptions;
 import org.dizitart.no2.index.IndexType;
@@ -30,6 +31,7 @@ import org.dizitart.no2.repository.ObjectRepository;
 import org.dizitart.no2.store.NitriteStore;
 
 import java.util.Collection;
+import java.util.List;
 
 
 /**
@@ -86,6 +88,24 @@ public interface PersistentCollection<T> extends EventAware, AttributesAware, Au
      */
     void createIndex(IndexOptions indexOptions, String... fields);
 
+    /**
+     * Creates the indexes of the {@code indexDefinitions}, if not already exist.
+     * The documents of the collection are read once and fed to all the new
+     * indexes, instead of being read once for every index.
+     *
+     * @param indexDefinitions the definitions of the indexes to create.
+     * @throws org.dizitart.no2.exceptions.IndexingException if an index already exists on the fields
+     *                                                       with a different type.
+     * @see IndexDefinition
+     * @since 4.3
+     */
+    default void createIndexes(List<IndexDefinition> indexDefinitions) {
+        for (IndexDefinition indexDefinition : indexDefinitions) {
+            createIndex(indexDefinition.getIndexOptions(),
+                indexDefinition.getFields().getFieldNames().toArray(new String[0]));
+        }
+    }
+
     /**
      * Rebuilds index on the {@code fields} if it exists.
      *
@@ -22,6 +22,7 @@ import java.util.List;
 import java.util.concurrent.*;
 
 import static org.dizitart.no2.common.Constants.DAEMON_THREAD_NAME;
+import static org.dizitart.no2.common.Constants.SCHEDULER_THREAD_NAME;
 
 /**
  * A factory class for creating {@link ExecutorService}.
@@ -34,6 +35,7 @@ public class ThreadPoolManager {
     private final static List<ExecutorService> threadPools;
     private final static ExecutorService commonPool;
     private final static Object lock;
+    private static ScheduledExecutorService commonScheduler;
 
     static {
         threadPools = new CopyOnWriteArrayList<>();
@@ -109,6 +111,26 @@ public class ThreadPoolManager {
         return commonPool.submit(runnable);
     }
 
+    /**
+     * Runs a task periodically on the common scheduler, a single daemon
+     * thread shared by all the stores of the process. The task should be
+     * short, as it holds up the other tasks of the scheduler meanwhile.
+     *
+     * @param runnable the runnable task
+     * @param delay    the delay between the end of a run and the start of the next
+     * @param unit     the time unit of the delay
+     * @return the future, which is cancelled to stop the task
+     * @since 4.3
+     */
+    public static ScheduledFuture<?> scheduleWithFixedDelay(Runnable runnable, long delay, TimeUnit unit) {
+        synchronized (lock) {
+            if (commonScheduler == null || commonScheduler.isShutdown()) {
+                commonScheduler = getScheduledThreadPool(1, SCHEDULER_THREAD_NAME);
+            }
+            return commonScheduler.scheduleWithFixedDelay(runnable, delay, delay, unit);
+        }
+    }
+
     /**
      * Shuts down all thread pools.
      */
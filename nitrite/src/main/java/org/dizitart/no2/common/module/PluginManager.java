@@ -194,6 +194,18 @@ public class PluginManager implements AutoCloseable {
             loadPlugin(plugin);
         }
 
+        if (!indexerMap.containsKey(IndexType.HASH)) {
+            log.debug("Loading default hash indexer");
+            NitritePlugin plugin = new HashIndexer();
+            loadPlugin(plugin);
+        }
+
+        if (!indexerMap.containsKey(IndexType.TTL)) {
+            log.debug("Loading default ttl indexer");
+            NitritePlugin plugin = new TtlIndexer();
+            loadPlugin(plugin);
+        }
+
         if (nitriteMapper == null) {
             log.debug("Loading mappable mapper");
             NitritePlugin plugin = new SimpleNitriteMapper();
@@ -48,6 +48,29 @@ public class BoundedStream<Key, Value> implements RecordStream<Pair<Key, Value>>
         this.recordStream = recordStream;
     }
 
+    /**
+     * Bounds a stream of any kind of records, e.g. the ids found by an index
+     * scan, so that the records past the limit are never read from the source.
+     *
+     * @param <T>          the type of the records
+     * @param skip         the number of records to skip
+     * @param limit        the maximum number of records to return
+     * @param recordStream the record stream
+     * @return the bounded stream
+     * @since 4.3
+     */
+    public static <T> RecordStream<T> bound(Long skip, Long limit, RecordStream<T> recordStream) {
+        if (skip < 0) {
+            throw new ValidationException("skip parameter must not be negative");
+        }
+        if (limit < 0) {
+            throw new ValidationException("limit parameter must not be negative");
+        }
+
+        return () -> new BoundedIterator<>(recordStream == null ? Collections.emptyIterator()
+            : recordStream.iterator(), skip, limit);
+    }
+
     @Override
     public Iterator<Pair<Key, Value>> iterator() {
         Iterator<Pair<Key, Value>> iterator = recordStream == null ? Collections.emptyIterator()
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.common.streams;
+
+import org.dizitart.no2.collection.Document;
+import org.dizitart.no2.collection.NitriteId;
+import org.dizitart.no2.common.RecordStream;
+import org.dizitart.no2.common.tuples.Pair;
+import org.dizitart.no2.store.NitriteMap;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+
+/**
+ * A stream of the documents of a covered query, which are made of the
+ * values read from an index instead of the documents of the collection.
+ * As an index does not tell a <code>null</code> value from a missing
+ * field, a document is still read from the collection if any projected
+ * field has no value in the index.
+ *
+ * @author Anindya Chatterjee
+ * @since 4.3
+ */
+public class CoveredStream implements RecordStream<Pair<NitriteId, Document>> {
+    private final RecordStream<Pair<NitriteId, Document>> indexEntries;
+    private final Collection<String> projectedFields;
+    private final NitriteMap<NitriteId, Document> nitriteMap;
+
+    /**
+     * Instantiates a new {@link CoveredStream}.
+     *
+     * @param indexEntries    the ids and the indexed values from the index scan
+     * @param projectedFields the projected fields
+     * @param nitriteMap      the collection map
+     */
+    public CoveredStream(RecordStream<Pair<NitriteId, Document>> indexEntries,
+                         Collection<String> projectedFields,
+                         NitriteMap<NitriteId, Document> nitriteMap) {
+        this.indexEntries = indexEntries;
+        this.projectedFields = projectedFields;
+        this.nitriteMap = nitriteMap;
+    }
+
+    @Override
+    public Iterator<Pair<NitriteId, Document>> iterator() {
+        Iterator<Pair<NitriteId, Document>> iterator = indexEntries == null ? Collections.emptyIterator()
+            : indexEntries.iterator();
+        return new CoveredIterator(iterator, projectedFields, nitriteMap);
+    }
+
+    private static class CoveredIterator implements Iterator<Pair<NitriteId, Document>> {
+        private final Iterator<Pair<NitriteId, Document>> iterator;
+        private final Collection<String> projectedFields;
+        private final NitriteMap<NitriteId, Document> nitriteMap;
+
+        CoveredIterator(Iterator<Pair<NitriteId, Document>> iterator,
+                        Collection<String> projectedFields,
+                        NitriteMap<NitriteId, Document> nitriteMap) {
+            this.iterator = iterator;
+            this.projectedFields = projectedFields;
+            this.nitriteMap = nitriteMap;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return iterator.hasNext();
+        }
+
+        @Override
+        public Pair<NitriteId, Document> next() {
+            Pair<NitriteId, Document> entry = iterator.next();
+            Document indexedValues = entry.getSecond();
+            for (String field : projectedFields) {
+                if (!indexedValues.containsField(field)) {
+                    // the value is null or missing in the document
+                    NitriteId nitriteId = entry.getFirst();
+                    return new Pair<>(nitriteId, nitriteMap.get(nitriteId));
+                }
+            }
+            return entry;
+        }
+    }
+}
@@ -21,6 +21,7 @@ import org.dizitart.no2.collection.Document;
 import org.dizitart.no2.collection.NitriteId;
 import org.dizitart.no2.common.RecordStream;
 import org.dizitart.no2.common.tuples.Pair;
+import org.dizitart.no2.index.NitriteIdBitmap;
 
 import java.util.*;
 
@@ -50,7 +51,9 @@ public class DistinctStream implements RecordStream<Pair<NitriteId, Document>> {
 
         public DistinctStreamIterator(Iterator<Pair<NitriteId, Document>> iterator) {
             this.iterator = iterator;
-            this.scannedIds = new HashSet<>(); // fastest lookup for ids - O(1)
+            // ids are remembered in a compressed bitmap, which is far
+            // smaller than a hash set for a large result
+            this.scannedIds = new NitriteIdBitmap();
         }
 
         @Override
@@ -70,8 +73,7 @@ public class DistinctStream implements RecordStream<Pair<NitriteId, Document>> {
         private boolean setNextId() {
             while (iterator.hasNext()) {
                 final Pair<NitriteId, Document> pair = iterator.next();
-                if (!scannedIds.contains(pair.getFirst())) {
-                    scannedIds.add(pair.getFirst());
+                if (scannedIds.add(pair.getFirst())) {
                     nextPair = pair;
                     nextPairSet = true;
                     return true;
@@ -59,7 +59,8 @@ public class DocumentSorter implements Comparator<Pair<NitriteId, Document>> {
                 } else if (value1 != null && (value2 == null || value2 instanceof DBNull)) {
                     result = 1;
                 } else if (value1 == null) {
-                    result = -1;
+                    // both values are null
+                    result = 0;
                 } else {
 
                     // validate comparable
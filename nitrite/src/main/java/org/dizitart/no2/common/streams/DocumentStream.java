@@ -32,6 +32,7 @@ import org.dizitart.no2.common.processors.ProcessorChain;
 
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.function.Function;
 
 /**
  * @since 4.0
@@ -44,6 +45,13 @@ public class DocumentStream implements DocumentCursor {
     @Getter @Setter
     private FindPlan findPlan;
 
+    /**
+     * Creates the stream of a projection from the index of the find plan,
+     * or returns <code>null</code> if the index does not cover the projection.
+     */
+    @Setter
+    private Function<Document, RecordStream<Pair<NitriteId, Document>>> coveredScan;
+
     public DocumentStream(RecordStream<Pair<NitriteId, Document>> recordStream,
                           ProcessorChain processorChain) {
         this.recordStream = recordStream;
@@ -53,6 +61,13 @@ public class DocumentStream implements DocumentCursor {
     @Override
     public RecordStream<Document> project(Document projection) {
         validateProjection(projection);
+        if (coveredScan != null) {
+            // the projected fields are read from the index, if it has them all
+            RecordStream<Pair<NitriteId, Document>> coveredStream = coveredScan.apply(projection);
+            if (coveredStream != null) {
+                return new ProjectedDocumentStream(coveredStream, projection, processorChain);
+            }
+        }
         return new ProjectedDocumentStream(recordStream, projection, processorChain);
     }
 
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.common.streams;
+
+import org.dizitart.no2.collection.NitriteId;
+import org.dizitart.no2.common.RecordStream;
+import org.dizitart.no2.index.NitriteIdBitmap;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * A stream of the ids of an index scan, which only returns the ids
+ * also found by the scans of some other indexes. The order of the
+ * ids of the first scan is preserved.
+ *
+ * @author Anindya Chatterjee
+ * @since 4.3
+ */
+public class IntersectedStream implements RecordStream<NitriteId> {
+    private final RecordStream<NitriteId> nitriteIds;
+    private final List<Supplier<? extends Set<NitriteId>>> intersectingIds;
+
+    /**
+     * Instantiates a new {@link IntersectedStream}.
+     *
+     * @param nitriteIds      the ids of the driving index scan
+     * @param intersectingIds the ids of the other index scans
+     */
+    public IntersectedStream(RecordStream<NitriteId> nitriteIds,
+                             List<Supplier<? extends Set<NitriteId>>> intersectingIds) {
+        this.nitriteIds = nitriteIds;
+        this.intersectingIds = intersectingIds;
+    }
+
+    @Override
+    public Iterator<NitriteId> iterator() {
+        Set<NitriteId> intersection = intersect();
+        if (intersection != null && intersection.isEmpty()) {
+            // no id is found by all the other scans, so the
+            // driving scan need not be read at all
+            return Collections.emptyIterator();
+        }
+
+        Iterator<NitriteId> iterator = nitriteIds == null ? Collections.emptyIterator()
+            : nitriteIds.iterator();
+        if (intersection == null) {
+            return iterator;
+        }
+        return new IntersectedIterator(iterator, intersection);
+    }
+
+    private Set<NitriteId> intersect() {
+        if (intersectingIds == null || intersectingIds.isEmpty()) return null;
+
+        List<NitriteIdBitmap> bitmaps = new ArrayList<>();
+        for (Supplier<? extends Set<NitriteId>> supplier : intersectingIds) {
+            Set<NitriteId> ids = supplier.get();
+            if (ids == null || ids.isEmpty()) {
+                return Collections.emptySet();
+            }
+            bitmaps.add(ids instanceof NitriteIdBitmap ? (NitriteIdBitmap) ids : new NitriteIdBitmap(ids));
+        }
+
+        // intersect the bitmaps starting from the smallest one
+        bitmaps.sort(Comparator.comparingInt(Set::size));
+        NitriteIdBitmap intersection = bitmaps.get(0);
+        for (int i = 1; i < bitmaps.size() && !intersection.isEmpty(); i++) {
+            intersection = NitriteIdBitmap.and(intersection, bitmaps.get(i));
+        }
+        return intersection;
+    }
+
+    private static class IntersectedIterator implements Iterator<NitriteId> {
+        private final Iterator<NitriteId> iterator;
+        private final Set<NitriteId> intersection;
+        private NitriteId nextId;
+        private boolean nextIdSet = false;
+
+        public IntersectedIterator(Iterator<NitriteId> iterator, Set<NitriteId> intersection) {
+            this.iterator = iterator;
+            this.intersection = intersection;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextIdSet || setNextId();
+        }
+
+        @Override
+        public NitriteId next() {
+            if (!nextIdSet && !setNextId()) {
+                throw new NoSuchElementException();
+            }
+            nextIdSet = false;
+            return nextId;
+        }
+
+        private boolean setNextId() {
+            while (iterator.hasNext()) {
+                final NitriteId nitriteId = iterator.next();
+                if (intersection.contains(nitriteId)) {
+                    nextId = nitriteId;
+                    nextIdSet = true;
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
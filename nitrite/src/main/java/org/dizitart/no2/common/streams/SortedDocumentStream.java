@@ -23,23 +23,60 @@ import org.dizitart.no2.collection.NitriteId;
 import org.dizitart.no2.common.RecordStream;
 import org.dizitart.no2.common.tuples.Pair;
 import org.dizitart.no2.common.util.Iterables;
+import org.dizitart.no2.exceptions.NitriteIOException;
+import org.dizitart.no2.store.NitriteMap;
 
-import java.util.Collections;
-import java.util.Iterator;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
+ * A stream which sorts all the documents of another stream.
+ * <p>
+ * With a buffer size, at most that many documents are sorted in memory
+ * at a time. Each full buffer is sorted and written to a run map of the
+ * store as a sorted run, so the documents are written in the format and
+ * with the encryption of the store, and the runs are merged lazily while
+ * the stream is iterated. A document is removed from the run map as soon
+ * as it is read, and the runs of a stream which is not read to the end
+ * stay in the run map until its owner drops it.
+ *
  * @since 4.0
  * @author Anindya Chatterjee.
  */
 public class SortedDocumentStream implements RecordStream<Pair<NitriteId, Document>> {
+    // the keys of the runs of all the sorts sharing a run map never overlap
+    private static final AtomicLong RUN_KEYS = new AtomicLong();
+    private static final String RUN_ID = "id";
+    private static final String RUN_DOCUMENT = "document";
+
     private final FindPlan findPlan;
     private final RecordStream<Pair<NitriteId, Document>> recordStream;
+    private final int bufferSize;
+    private final NitriteMap<Long, Document> runMap;
 
     public SortedDocumentStream(FindPlan findPlan,
                                 RecordStream<Pair<NitriteId, Document>> recordStream) {
+        this(findPlan, recordStream, 0, null);
+    }
+
+    /**
+     * Instantiates a new sorted document stream which spills to a run map.
+     *
+     * @param findPlan     the find plan holding the sort order
+     * @param recordStream the record stream to sort
+     * @param bufferSize   the maximum number of documents to sort in memory,
+     *                     0 to sort all documents in memory
+     * @param runMap       the map the sorted runs are written to, it is
+     *                     only used if the buffer size is not 0
+     * @since 4.3
+     */
+    public SortedDocumentStream(FindPlan findPlan,
+                                RecordStream<Pair<NitriteId, Document>> recordStream,
+                                int bufferSize, NitriteMap<Long, Document> runMap) {
         this.findPlan = findPlan;
         this.recordStream = recordStream;
+        this.bufferSize = runMap == null ? 0 : bufferSize;
+        this.runMap = runMap;
     }
 
     @Override
@@ -49,9 +86,148 @@ public class SortedDocumentStream implements RecordStream<Pair<NitriteId, Docume
         DocumentSorter documentSorter = new DocumentSorter(findPlan.getCollator(),
             findPlan.getBlockingSortOrder());
 
-        List<Pair<NitriteId, Document>> recordList = Iterables.toList(recordStream);
-        Collections.sort(recordList, documentSorter);
+        if (bufferSize <= 0) {
+            List<Pair<NitriteId, Document>> recordList = Iterables.toList(recordStream);
+            Collections.sort(recordList, documentSorter);
+            return recordList.iterator();
+        }
+
+        List<SortedRun> runs = new ArrayList<>();
+        List<Pair<NitriteId, Document>> buffer = new ArrayList<>();
+        try {
+            for (Pair<NitriteId, Document> record : recordStream) {
+                buffer.add(record);
+                if (buffer.size() >= bufferSize) {
+                    Collections.sort(buffer, documentSorter);
+                    runs.add(SortedRun.write(runMap, buffer));
+                    buffer.clear();
+                }
+            }
+        } catch (RuntimeException e) {
+            for (SortedRun run : runs) {
+                run.delete();
+            }
+            throw e;
+        }
+
+        // the last run is never written, it is merged from memory
+        Collections.sort(buffer, documentSorter);
+        if (runs.isEmpty()) {
+            return buffer.iterator();
+        }
+
+        List<Iterator<Pair<NitriteId, Document>>> sources = new ArrayList<>(runs);
+        sources.add(buffer.iterator());
+        return new MergeIterator(sources, documentSorter);
+    }
+
+    private static class SortedRun implements Iterator<Pair<NitriteId, Document>> {
+        private final NitriteMap<Long, Document> runMap;
+        private final long firstKey;
+        private final long size;
+        private long position;
+
+        private SortedRun(NitriteMap<Long, Document> runMap, long firstKey, long size) {
+            this.runMap = runMap;
+            this.firstKey = firstKey;
+            this.size = size;
+        }
+
+        static SortedRun write(NitriteMap<Long, Document> runMap, List<Pair<NitriteId, Document>> records) {
+            SortedRun run = new SortedRun(runMap, RUN_KEYS.getAndAdd(records.size()), records.size());
+            try {
+                for (int i = 0; i < records.size(); i++) {
+                    // the id of a record is kept, as the document may not hold it
+                    Pair<NitriteId, Document> record = records.get(i);
+                    Document entry = Document.createDocument(RUN_ID, record.getFirst().getIdValue())
+                        .put(RUN_DOCUMENT, record.getSecond());
+                    runMap.put(run.firstKey + i, entry);
+                }
+                return run;
+            } catch (RuntimeException e) {
+                run.delete();
+                throw e;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return position < size;
+        }
+
+        @Override
+        public Pair<NitriteId, Document> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            Document entry = runMap.remove(firstKey + position++);
+            if (entry == null) {
+                delete();
+                throw new NitriteIOException("Failed to read sorted run, the run map has been dropped");
+            }
+            NitriteId nitriteId = NitriteId.createId(entry.get(RUN_ID, String.class));
+            return new Pair<>(nitriteId, entry.get(RUN_DOCUMENT, Document.class));
+        }
+
+        void delete() {
+            for (; position < size; position++) {
+                runMap.remove(firstKey + position);
+            }
+        }
+    }
+
+    private static class MergeIterator implements Iterator<Pair<NitriteId, Document>> {
+        private final List<Iterator<Pair<NitriteId, Document>>> sources;
+        private final PriorityQueue<Head> heads;
+
+        MergeIterator(List<Iterator<Pair<NitriteId, Document>>> sources,
+                      DocumentSorter documentSorter) {
+            this.sources = sources;
+
+            // equal documents are taken from the earlier run first, which
+            // keeps the merge as stable as the in-memory sort
+            this.heads = new PriorityQueue<>(sources.size(), (h1, h2) -> {
+                int result = documentSorter.compare(h1.record, h2.record);
+                return result != 0 ? result : Integer.compare(h1.source, h2.source);
+            });
+
+            for (int i = 0; i < sources.size(); i++) {
+                advance(i);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !heads.isEmpty();
+        }
+
+        @Override
+        public Pair<NitriteId, Document> next() {
+            Head head = heads.poll();
+            if (head == null) {
+                throw new NoSuchElementException();
+            }
+
+            advance(head.source);
+            return head.record;
+        }
+
+        private void advance(int source) {
+            Iterator<Pair<NitriteId, Document>> iterator = sources.get(source);
+            if (iterator.hasNext()) {
+                heads.add(new Head(iterator.next(), source));
+            }
+        }
+    }
+
+    private static class Head {
+        private final Pair<NitriteId, Document> record;
+        private final int source;
 
-        return recordList.iterator();
+        Head(Pair<NitriteId, Document> record, int source) {
+            this.record = record;
+            this.source = source;
+        }
     }
 }
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.common.streams;
+
+import org.dizitart.no2.collection.Document;
+import org.dizitart.no2.collection.FindPlan;
+import org.dizitart.no2.collection.NitriteId;
+import org.dizitart.no2.common.RecordStream;
+import org.dizitart.no2.common.tuples.Pair;
+
+import java.util.*;
+
+/**
+ * A sorted stream which keeps only the first <code>k</code> documents
+ * of the sort order in memory. It is used instead of a full sort when
+ * a find operation is sorted and limited, and the sort is not served by
+ * an index.
+ * <p>
+ * The documents are kept in a bounded max-heap, so the stream reads its
+ * source once with <code>O(n log k)</code> comparisons. Documents which
+ * compare equal keep their order in the source, same as a stable sort.
+ *
+ * @author Anindya Chatterjee
+ * @since 4.3
+ */
+public class TopKDocumentStream implements RecordStream<Pair<NitriteId, Document>> {
+    private final FindPlan findPlan;
+    private final long k;
+    private final RecordStream<Pair<NitriteId, Document>> recordStream;
+
+    /**
+     * Instantiates a new top-k document stream.
+     *
+     * @param findPlan     the find plan holding the sort order
+     * @param k            the number of documents to keep
+     * @param recordStream the record stream to sort
+     */
+    public TopKDocumentStream(FindPlan findPlan, long k,
+                              RecordStream<Pair<NitriteId, Document>> recordStream) {
+        this.findPlan = findPlan;
+        this.k = k;
+        this.recordStream = recordStream;
+    }
+
+    @Override
+    public Iterator<Pair<NitriteId, Document>> iterator() {
+        if (recordStream == null || k <= 0) return Collections.emptyIterator();
+
+        DocumentSorter documentSorter = new DocumentSorter(findPlan.getCollator(),
+            findPlan.getBlockingSortOrder());
+        Comparator<Ranked> order = (r1, r2) -> {
+            int result = documentSorter.compare(r1.record, r2.record);
+            return result != 0 ? result : Long.compare(r1.sequence, r2.sequence);
+        };
+
+        // the head of the heap is the last of the documents kept so far
+        PriorityQueue<Ranked> heap = new PriorityQueue<>(11, order.reversed());
+        long sequence = 0;
+        for (Pair<NitriteId, Document> record : recordStream) {
+            if (heap.size() < k) {
+                heap.add(new Ranked(record, sequence));
+            } else if (documentSorter.compare(record, heap.peek().record) < 0) {
+                // a record equal to the head comes later in the source, so it
+                // is ranked after the head and can be dropped as well
+                heap.poll();
+                heap.add(new Ranked(record, sequence));
+            }
+            sequence++;
+        }
+
+        List<Ranked> rankedList = new ArrayList<>(heap);
+        Collections.sort(rankedList, order);
+
+        List<Pair<NitriteId, Document>> recordList = new ArrayList<>(rankedList.size());
+        for (Ranked ranked : rankedList) {
+            recordList.add(ranked.record);
+        }
+        return recordList.iterator();
+    }
+
+    private static class Ranked {
+        private final Pair<NitriteId, Document> record;
+        private final long sequence;
+
+        Ranked(Pair<NitriteId, Document> record, long sequence) {
+            this.record = record;
+            this.sequence = sequence;
+        }
+    }
+}
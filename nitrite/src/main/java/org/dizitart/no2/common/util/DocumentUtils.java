@@ -22,6 +22,8 @@ import org.dizitart.no2.common.Fields;
 import org.dizitart.no2.common.tuples.Pair;
 import org.dizitart.no2.filters.Filter;
 import org.dizitart.no2.common.mapper.NitriteMapper;
+import org.dizitart.no2.index.IndexDescriptor;
+import org.dizitart.no2.index.IndexExpression;
 
 import java.util.ArrayList;
 import java.util.Objects;
@@ -78,9 +80,40 @@ public class DocumentUtils {
         return fieldValues;
     }
 
-    public static boolean isAffectedByUpdate(Fields fields, Document updatedFields) {
-        for (String field : fields.getFieldNames()) {
-            if (updatedFields.containsKey(field)) {
+    /**
+     * Gets the values of a document for an index. The value of an
+     * expression of the index is computed from the document.
+     *
+     * @param document        the document
+     * @param indexDescriptor the index descriptor
+     * @return the field values
+     * @see IndexExpression
+     * @since 4.3
+     */
+    public static FieldValues getValues(Document document, IndexDescriptor indexDescriptor) {
+        if (indexDescriptor.getExpressions() == null) {
+            return getValues(document, indexDescriptor.getFields());
+        }
+
+        FieldValues fieldValues = new FieldValues();
+        fieldValues.setNitriteId(document.getId());
+        fieldValues.setFields(indexDescriptor.getFields());
+        fieldValues.setValues(new ArrayList<>());
+
+        for (String field : indexDescriptor.getFields().getFieldNames()) {
+            IndexExpression expression = indexDescriptor.getExpression(field);
+            Object value = expression == null ? document.get(field) : expression.evaluate(document);
+            fieldValues.getValues().add(new Pair<>(field, value));
+        }
+
+        return fieldValues;
+    }
+
+    public static boolean isAffectedByUpdate(IndexDescriptor indexDescriptor, Document updatedFields) {
+        for (String field : indexDescriptor.getFields().getFieldNames()) {
+            // the value of an expression changes with the field it is computed from
+            IndexExpression expression = indexDescriptor.getExpression(field);
+            if (updatedFields.containsKey(expression == null ? field : expression.getField())) {
                 return true;
             }
         }
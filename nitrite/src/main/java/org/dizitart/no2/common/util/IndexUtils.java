@@ -18,6 +18,7 @@
 package org.dizitart.no2.common.util;
 
 import org.dizitart.no2.index.IndexDescriptor;
+import org.dizitart.no2.index.IndexLayout;
 
 import static org.dizitart.no2.common.Constants.*;
 
@@ -29,13 +30,20 @@ public class IndexUtils {
     private IndexUtils() {}
 
     public static String deriveIndexMapName(IndexDescriptor descriptor) {
-        return INDEX_PREFIX +
+        String mapName = INDEX_PREFIX +
             INTERNAL_NAME_SEPARATOR +
             descriptor.getCollectionName() +
             INTERNAL_NAME_SEPARATOR +
             descriptor.getFields().getEncodedName() +
             INTERNAL_NAME_SEPARATOR +
             descriptor.getIndexType();
+
+        // the default layout keeps the map name of the earlier releases
+        String layout = descriptor.getLayout();
+        if (IndexLayout.POSTING_LIST.equals(layout)) {
+            return mapName;
+        }
+        return mapName + INTERNAL_NAME_SEPARATOR + layout;
     }
 
     public static String deriveIndexMetaMapName(String collectionName) {
@@ -104,6 +104,41 @@ public class Iterables {
         return count;
     }
 
+    /**
+     * Splits an {@link Iterable} into consecutive lists of {@code chunkSize}
+     * items, the last one possibly shorter. The items are read lazily, one
+     * chunk at a time.
+     *
+     * @param <T>       the type of the items
+     * @param iterable  the iterable
+     * @param chunkSize the number of items in a chunk
+     * @return the chunks
+     * @since 4.3
+     */
+    public static <T> Iterable<List<T>> chunksOf(Iterable<T> iterable, int chunkSize) {
+        return () -> new Iterator<List<T>>() {
+            private final Iterator<T> iterator = iterable.iterator();
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public List<T> next() {
+                if (!iterator.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+
+                List<T> chunk = new ArrayList<>(chunkSize);
+                while (iterator.hasNext() && chunk.size() < chunkSize) {
+                    chunk.add(iterator.next());
+                }
+                return chunk;
+            }
+        };
+    }
+
     @SuppressWarnings({"unchecked", "rawtypes"})
     static Object[] toArray(Iterable iterable) {
         if (iterable instanceof Collection) {
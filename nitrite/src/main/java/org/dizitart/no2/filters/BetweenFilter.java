@@ -27,6 +27,11 @@ class BetweenFilter<T> extends AndFilter {
 
     public BetweenFilter(String field, Bound<T> bound) {
         super(getRhs(field, bound), getLhs(field, bound));
+
+        // the upper bound filter is the one picked up for index scan, let it
+        // scan the whole range in one pass from the lower bound
+        SortingAwareFilter upperBoundFilter = (SortingAwareFilter) getFilters().get(0);
+        upperBoundFilter.setLowerBoundFilter((SortingAwareFilter) getFilters().get(1));
     }
 
     private static <T> Filter getRhs(String field, Bound<T> bound) {
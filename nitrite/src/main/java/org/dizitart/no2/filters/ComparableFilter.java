@@ -16,9 +16,14 @@
 
 package org.dizitart.no2.filters;
 
+import org.dizitart.no2.collection.Document;
+import org.dizitart.no2.common.tuples.Pair;
 import org.dizitart.no2.exceptions.FilterException;
 import org.dizitart.no2.index.IndexMap;
+import org.dizitart.no2.index.IndexStatistics;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -58,4 +63,79 @@ public abstract class ComparableFilter extends FieldBasedFilter {
      * @return the object
      */
     public abstract List<?> applyOnIndex(IndexMap indexMap);
+
+    /**
+     * Lazily applies this filter on a nitrite index. Each value of the result
+     * is either a nitrite id, a list of nitrite ids or a sub map of a compound
+     * index. Filters which can walk the index in order should override it, by
+     * default the result of {@link #applyOnIndex(IndexMap)} is returned.
+     *
+     * @param indexMap the index map
+     * @return the values from the index
+     * @since 4.3
+     */
+    public Iterable<?> scanIndex(IndexMap indexMap) {
+        return applyOnIndex(indexMap);
+    }
+
+    /**
+     * Lazily applies this filter on a nitrite index like {@link #scanIndex(IndexMap)},
+     * but keeps the key of each selected entry along with its value, so that a
+     * covered query can read the indexed values without reading the documents.
+     * By default, every entry of the index map is tested against a document
+     * holding only the key of the entry.
+     *
+     * @param indexMap the index map
+     * @return the selected entries of the index map
+     * @since 4.3
+     */
+    public Iterable<? extends Pair<Comparable<?>, ?>> scanIndexEntries(IndexMap indexMap) {
+        List<Pair<Comparable<?>, ?>> entries = new ArrayList<>();
+        for (Pair<Comparable<?>, ?> entry : indexMap.entries()) {
+            Document document = Document.createDocument(getField(), entry.getFirst());
+            if (apply(new Pair<>(null, document))) {
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Estimates how many entries of an index this filter selects, if the
+     * filter is on the first field of the index. The query planner uses it
+     * to choose the cheapest index. By default, all entries are assumed to
+     * be selected.
+     *
+     * @param statistics the statistics of the index
+     * @return the estimated number of entries
+     * @since 4.3
+     */
+    public double estimateOnIndex(IndexStatistics statistics) {
+        return statistics.getEntryCount();
+    }
+
+    /**
+     * Gets the values an index lookup has to find for this filter, if the
+     * filter only selects the entries equal to some values. An index which
+     * can only find exact values, like a hash index, answers only such
+     * filters. By default, a filter selects a range of entries.
+     *
+     * @return the values to look up, or <code>null</code> if the filter selects a range
+     * @since 4.3
+     */
+    public Collection<Comparable<?>> getLookupValues() {
+        return null;
+    }
+
+    /**
+     * Indicates if the query planner can answer this filter with an index
+     * scan. A filter which is only evaluated on the documents keeps the
+     * query on a collection scan, even if its field is indexed.
+     *
+     * @return <code>true</code> if the filter can be answered by an index
+     * @since 4.3
+     */
+    public boolean canScanIndex() {
+        return true;
+    }
 }
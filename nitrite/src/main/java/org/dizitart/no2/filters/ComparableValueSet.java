@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2017-2020. Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dizitart.no2.filters;
+
+import java.lang.reflect.Array;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * The values of an in or a not-in filter, matched the same way an index
+ * finds them. Two values match if they are of the same type and compare
+ * as equal, which is how the {@link org.dizitart.no2.common.DBValue} keys
+ * of an index tell the values apart, unlike {@link Object#equals(Object)}
+ * which does not match {@code 1.0} and {@code 1.00} as big decimals. An
+ * array or iterable field value matches if any of its items matches, as
+ * each item is a key of its own in a multikey index.
+ *
+ * @author Anindya Chatterjee
+ * @since 4.3
+ */
+class ComparableValueSet {
+    private final Map<Class<?>, NavigableSet<Comparable<?>>> valuesByType;
+    private final boolean containsNull;
+
+    ComparableValueSet(Comparable<?>... values) {
+        this.valuesByType = new HashMap<>();
+        boolean hasNull = false;
+        for (Comparable<?> value : values) {
+            if (value == null) {
+                hasNull = true;
+            } else {
+                valuesByType.computeIfAbsent(value.getClass(), type -> new TreeSet<>()).add(value);
+            }
+        }
+        this.containsNull = hasNull;
+    }
+
+    /**
+     * Checks if a field value matches any of the values.
+     *
+     * @param fieldValue the field value
+     * @return {@code true} if the field value matches.
+     */
+    boolean matches(Object fieldValue) {
+        if (fieldValue == null) {
+            return containsNull;
+        }
+
+        if (fieldValue instanceof Iterable) {
+            for (Object item : (Iterable<?>) fieldValue) {
+                if (contains(item)) return true;
+            }
+            return false;
+        }
+
+        if (fieldValue.getClass().isArray()) {
+            for (int i = 0; i < Array.getLength(fieldValue); i++) {
+                if (contains(Array.get(fieldValue, i))) return true;
+            }
+            return false;
+        }
+
+        return contains(fieldValue);
+    }
+
+    /**
+     * Checks if an index key is one of the values.
+     *
+     * @param key the index key
+     * @return {@code true} if the key is one of the values.
+     */
+    boolean contains(Object key) {
+        if (key == null) {
+            return containsNull;
+        }
+
+        NavigableSet<Comparable<?>> values = valuesByType.get(key.getClass());
+        return values != null && values.contains(key);
+    }
+}
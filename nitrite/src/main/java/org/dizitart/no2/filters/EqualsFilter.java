@@ -20,8 +20,11 @@ import org.dizitart.no2.collection.Document;
 import org.dizitart.no2.collection.NitriteId;
 import org.dizitart.no2.common.tuples.Pair;
 import org.dizitart.no2.index.IndexMap;
+import org.dizitart.no2.index.IndexStatistics;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 import static org.dizitart.no2.common.util.ObjectUtils.deepEquals;
@@ -37,7 +40,7 @@ public class EqualsFilter extends ComparableFilter {
     @Override
     public boolean apply(Pair<NitriteId, Document> element) {
         Document document = element.getSecond();
-        Object fieldValue = document.get(getField());
+        Object fieldValue = getFieldValue(document);
         return deepEquals(fieldValue, getValue());
     }
 
@@ -52,11 +55,41 @@ public class EqualsFilter extends ComparableFilter {
             return ((List<?>) value);
         }
 
+        if (value instanceof Collection) {
+            // ids of a bitmap index
+            return new ArrayList<>((Collection<?>) value);
+        }
+
         List<Object> result = new ArrayList<>();
         result.add(value);
         return result;
     }
 
+    @Override
+    public Iterable<? extends Pair<Comparable<?>, ?>> scanIndexEntries(IndexMap indexMap) {
+        Comparable<?> key = (Comparable<?>) getValue();
+        Object value = indexMap.get(key);
+        if (value == null) {
+            return Collections.emptyList();
+        }
+        return Collections.singletonList(new Pair<>(key, value));
+    }
+
+    @Override
+    public double estimateOnIndex(IndexStatistics statistics) {
+        return statistics.estimateEquals(getValue());
+    }
+
+    @Override
+    public Collection<Comparable<?>> getLookupValues() {
+        Object value = getValue();
+        if (value != null && !(value instanceof Comparable)) {
+            // an index never holds such a value
+            return null;
+        }
+        return Collections.singletonList((Comparable<?>) value);
+    }
+
     @Override
     public String toString() {
         return "(" + getField() + " == " + getValue() + ")";
@@ -20,10 +20,14 @@ import lombok.AccessLevel;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
+import org.dizitart.no2.collection.Document;
 import org.dizitart.no2.collection.NitriteId;
 import org.dizitart.no2.common.mapper.NitriteMapper;
 import org.dizitart.no2.exceptions.ValidationException;
+import org.dizitart.no2.index.IndexExpression;
+import org.dizitart.no2.index.IndexMap;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.NavigableMap;
 
@@ -41,6 +45,16 @@ import static org.dizitart.no2.common.util.ValidationUtils.notNull;
 public abstract class FieldBasedFilter extends NitriteFilter {
     private String field;
 
+    /**
+     * The expression the value of the field is computed with, if the
+     * filter is on an expression instead of a field of the documents.
+     *
+     * @param expression the expression
+     * @return the expression, or {@code null} if the filter is on a field.
+     * @since 4.3
+     */
+    private IndexExpression expression;
+
     @Getter(AccessLevel.NONE)
     private Object value;
 
@@ -80,6 +94,18 @@ public abstract class FieldBasedFilter extends NitriteFilter {
         return value;
     }
 
+    /**
+     * Gets the value of the field of a document the filter is applied on,
+     * which is computed from the document if the filter is on an expression.
+     *
+     * @param document the document
+     * @return the value
+     * @since 4.3
+     */
+    protected Object getFieldValue(Document document) {
+        return expression == null ? document.get(field) : expression.evaluate(document);
+    }
+
     /**
      * Validates the search term for a given field and value.
      *
@@ -97,21 +123,21 @@ public abstract class FieldBasedFilter extends NitriteFilter {
      * Process values after index scanning.
      *
      * @param value      the value
-     * @param subMap     the sub map
+     * @param subMap     the sub maps, either {@link NavigableMap} or {@link IndexMap}
      * @param nitriteIds the nitrite ids
      */
     @SuppressWarnings("unchecked")
     protected void processIndexValue(Object value,
-                                     List<NavigableMap<Comparable<?>, Object>> subMap,
+                                     List<Object> subMap,
                                      List<NitriteId> nitriteIds) {
-        if (value instanceof List) {
-            // if it is list then add it directly to nitrite ids
-            List<NitriteId> result = (List<NitriteId>) value;
+        if (value instanceof Collection) {
+            // if it is a list or a bitmap then add it directly to nitrite ids
+            Collection<NitriteId> result = (Collection<NitriteId>) value;
             nitriteIds.addAll(result);
         }
 
-        if (value instanceof NavigableMap) {
-            subMap.add((NavigableMap<Comparable<?>, Object>) value);
+        if (value instanceof NavigableMap || value instanceof IndexMap) {
+            subMap.add(value);
         }
     }
 }
@@ -16,6 +16,11 @@
 
 package org.dizitart.no2.filters;
 
+import org.dizitart.no2.exceptions.FilterException;
+import org.dizitart.no2.index.IndexExpression;
+
+import static org.dizitart.no2.common.util.ValidationUtils.notNull;
+
 /**
  * A fluent api for the {@link NitriteFilter}.
  *
@@ -29,6 +34,7 @@ public final class FluentFilter {
     public static FluentFilter $ = where("$");
 
     private String field;
+    private IndexExpression expression;
 
     private FluentFilter() {
     }
@@ -45,6 +51,21 @@ public final class FluentFilter {
         return filter;
     }
 
+    /**
+     * Creates a new {@link FluentFilter} instance on the value of an expression.
+     * A query on the expression uses an index on the same expression.
+     *
+     * @param expression the expression to filter on
+     * @return a new {@link FluentFilter} instance on the expression
+     * @since 4.3
+     */
+    public static FluentFilter where(IndexExpression expression) {
+        notNull(expression, "expression cannot be null");
+        FluentFilter filter = where(expression.getName());
+        filter.expression = expression;
+        return filter;
+    }
+
     /**
      * Creates an equality filter that matches documents where the value of a 
      * field equals the specified value.
@@ -53,7 +74,7 @@ public final class FluentFilter {
      * @return a {@link NitriteFilter} instance representing the equality filter.
      */
     public NitriteFilter eq(Object value) {
-        return new EqualsFilter(field, value);
+        return on(new EqualsFilter(field, value));
     }
 
     /**
@@ -64,7 +85,7 @@ public final class FluentFilter {
      * @return a {@link NitriteFilter} instance.
      */
     public NitriteFilter notEq(Object value) {
-        return new NotEqualsFilter(field, value);
+        return on(new NotEqualsFilter(field, value));
     }
 
     /**
@@ -75,7 +96,7 @@ public final class FluentFilter {
      * @return the NitriteFilter instance representing the greater than filter.
      */
     public NitriteFilter gt(Comparable<?> value) {
-        return new GreaterThanFilter(field, value);
+        return on(new GreaterThanFilter(field, value));
     }
 
     /**
@@ -86,7 +107,7 @@ public final class FluentFilter {
      * @return a filter that matches documents where the value of the field is greater than or equal to the specified value.
      */
     public NitriteFilter gte(Comparable<?> value) {
-        return new GreaterEqualFilter(field, value);
+        return on(new GreaterEqualFilter(field, value));
     }
 
     /**
@@ -97,7 +118,7 @@ public final class FluentFilter {
      * @return a filter that matches documents where the value of the field is less than the specified value.
      */
     public NitriteFilter lt(Comparable<?> value) {
-        return new LesserThanFilter(field, value);
+        return on(new LesserThanFilter(field, value));
     }
 
     /**
@@ -108,7 +129,7 @@ public final class FluentFilter {
      * @return a filter that matches documents where the value of the field is less than or equal to the specified value.
      */
     public NitriteFilter lte(Comparable<?> value) {
-        return new LesserEqualFilter(field, value);
+        return on(new LesserEqualFilter(field, value));
     }
 
     /**
@@ -121,7 +142,7 @@ public final class FluentFilter {
      * between the specified lower and upper bounds.
      */
     public NitriteFilter between(Comparable<?> lowerBound, Comparable<?> upperBound) {
-        return new BetweenFilter<>(field, new BetweenFilter.Bound<>(lowerBound, upperBound));
+        return on(new BetweenFilter<>(field, new BetweenFilter.Bound<>(lowerBound, upperBound)));
     }
 
     /**
@@ -135,7 +156,7 @@ public final class FluentFilter {
      * between the given lower and upper bounds.
      */
     public NitriteFilter between(Comparable<?> lowerBound, Comparable<?> upperBound, boolean inclusive) {
-        return new BetweenFilter<>(field, new BetweenFilter.Bound<>(lowerBound, upperBound, inclusive));
+        return on(new BetweenFilter<>(field, new BetweenFilter.Bound<>(lowerBound, upperBound, inclusive)));
     }
 
 
@@ -152,9 +173,9 @@ public final class FluentFilter {
      */
     public NitriteFilter between(Comparable<?> lowerBound, Comparable<?> upperBound,
                           boolean lowerInclusive, boolean upperInclusive) {
-        return new BetweenFilter<>(field,
+        return on(new BetweenFilter<>(field,
             new BetweenFilter.Bound<>(lowerBound, upperBound, lowerInclusive, upperInclusive
-        ));
+        )));
     }
 
     /**
@@ -166,7 +187,36 @@ public final class FluentFilter {
      * @see org.dizitart.no2.index.fulltext.TextTokenizer
      */
     public NitriteFilter text(String value) {
-        return new TextFilter(field, value);
+        return on(new TextFilter(field, value));
+    }
+
+    /**
+     * Creates a filter which performs a typo-tolerant search for a word on the
+     * content of the fields indexed with a full-text index. A document matches
+     * if it has a word within an edit distance of 1 of a {@code value} of up to
+     * 5 characters, or within an edit distance of 2 of a longer {@code value}.
+     *
+     * @param value the word to search for
+     * @return the fuzzy text filter
+     * @since 4.3
+     */
+    public NitriteFilter fuzzy(String value) {
+        return fuzzy(value, value != null && value.length() > 5 ? 2 : 1);
+    }
+
+    /**
+     * Creates a filter which performs a typo-tolerant search for a word on the
+     * content of the fields indexed with a full-text index. A document matches
+     * if it has a word within {@code maxEdits} insertions, deletions or
+     * substitutions of a character of the {@code value}.
+     *
+     * @param value    the word to search for
+     * @param maxEdits the maximum edit distance, either 1 or 2
+     * @return the fuzzy text filter
+     * @since 4.3
+     */
+    public NitriteFilter fuzzy(String value, int maxEdits) {
+        return on(new FuzzyFilter(field, value, maxEdits));
     }
 
     /**
@@ -178,7 +228,7 @@ public final class FluentFilter {
      * matches the specified regular expression pattern
      */
     public NitriteFilter regex(String value) {
-        return new RegexFilter(field, value);
+        return on(new RegexFilter(field, value));
     }
 
     /**
@@ -188,7 +238,7 @@ public final class FluentFilter {
      * @return the filter object representing the filter
      */
     public NitriteFilter in(Comparable<?>... values) {
-        return new InFilter(field, values);
+        return on(new InFilter(field, values));
     }
 
     /**
@@ -198,7 +248,7 @@ public final class FluentFilter {
      * @return a filter that matches documents where the value of the field is not in the specified array of values
      */
     public NitriteFilter notIn(Comparable<?>... values) {
-        return new NotInFilter(field, values);
+        return on(new NotInFilter(field, values));
     }
 
     /**
@@ -210,6 +260,23 @@ public final class FluentFilter {
      * specified filter
      */
     public NitriteFilter elemMatch(Filter filter) {
+        if (expression != null) {
+            throw new FilterException("elemMatch filter is not supported on expression " + expression);
+        }
         return new ElementMatchFilter(field, filter);
     }
+
+    // a filter on an expression computes the value from the document
+    private NitriteFilter on(NitriteFilter filter) {
+        if (expression != null) {
+            if (filter instanceof FieldBasedFilter) {
+                ((FieldBasedFilter) filter).setExpression(expression);
+            } else if (filter instanceof AndFilter) {
+                for (Filter bound : ((AndFilter) filter).getFilters()) {
+                    ((FieldBasedFilter) bound).setExpression(expression);
+                }
+            }
+        }
+        return filter;
+    }
 }
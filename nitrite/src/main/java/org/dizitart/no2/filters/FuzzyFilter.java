@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.filters;
+
+import org.dizitart.no2.collection.Document;
+import org.dizitart.no2.collection.NitriteId;
+import org.dizitart.no2.common.tuples.Pair;
+import org.dizitart.no2.exceptions.FilterException;
+import org.dizitart.no2.index.fulltext.LevenshteinAutomaton;
+import org.dizitart.no2.store.NitriteMap;
+
+import java.util.*;
+
+import static org.dizitart.no2.common.util.StringUtils.stringTokenizer;
+import static org.dizitart.no2.common.util.ValidationUtils.notNull;
+
+/**
+ * A full-text filter which finds the documents having a word within
+ * a maximum edit distance of the search term.
+ * <p>
+ * The terms of the full-text index are intersected with a
+ * {@link LevenshteinAutomaton} of the search term, so only the terms
+ * around the matching ones are read from the index. The documents
+ * having a closer term are ranked higher.
+ *
+ * @author Anindya Chatterjee
+ * @since 4.3
+ */
+class FuzzyFilter extends TextFilter {
+    private final int maxEdits;
+
+    FuzzyFilter(String field, String value, int maxEdits) {
+        super(field, value);
+        if (maxEdits < 1 || maxEdits > 2) {
+            throw new FilterException("Fuzzy search only supports an edit distance of 1 or 2");
+        }
+        this.maxEdits = maxEdits;
+    }
+
+    @Override
+    public boolean apply(Pair<NitriteId, Document> element) {
+        Object docValue = getFieldValue(element.getSecond());
+        if (!(docValue instanceof String)) {
+            throw new FilterException("Text filter can not be applied on non string field " + getField());
+        }
+
+        LevenshteinAutomaton automaton = new LevenshteinAutomaton(searchTerm(), maxEdits);
+        StringTokenizer tokenizer = stringTokenizer(((String) docValue).toLowerCase());
+        while (tokenizer.hasMoreTokens()) {
+            if (automaton.accepts(tokenizer.nextToken())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean isPhraseSearch() {
+        return false;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public LinkedHashSet<NitriteId> applyOnTextIndex(NitriteMap<String, Collection<?>> indexMap, long limit) {
+        LevenshteinAutomaton automaton = new LevenshteinAutomaton(searchTerm(), maxEdits);
+
+        Map<NitriteId, Integer> scoreMap = new HashMap<>();
+        for (Pair<String, Collection<?>> entry : indexMap.matchingEntries(automaton::accepts, automaton::next)) {
+            // a closer term scores higher
+            int score = maxEdits + 1 - automaton.distance(entry.getFirst());
+            for (NitriteId id : (Collection<NitriteId>) entry.getSecond()) {
+                scoreMap.merge(id, score, Math::max);
+            }
+        }
+        return rankedIds(scoreMap, limit);
+    }
+
+    @Override
+    public String toString() {
+        return "(" + getField() + " fuzzy " + getValue() + "~" + maxEdits + ")";
+    }
+
+    private String searchTerm() {
+        notNull(getField(), "field cannot be null");
+        notNull(getStringValue(), "search term cannot be null");
+
+        StringTokenizer tokenizer = stringTokenizer(getStringValue());
+        if (tokenizer.countTokens() != 1) {
+            throw new FilterException("Fuzzy search can only be applied on a single word");
+        }
+        return tokenizer.nextToken().toLowerCase();
+    }
+}
@@ -19,13 +19,11 @@ package org.dizitart.no2.filters;
 import org.dizitart.no2.collection.Document;
 import org.dizitart.no2.collection.NitriteId;
 import org.dizitart.no2.common.tuples.Pair;
-import org.dizitart.no2.common.util.Comparables;
 import org.dizitart.no2.exceptions.FilterException;
 import org.dizitart.no2.index.IndexMap;
+import org.dizitart.no2.index.IndexStatistics;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.NavigableMap;
 
 import static org.dizitart.no2.common.util.Numbers.compare;
 
@@ -42,7 +40,7 @@ class GreaterEqualFilter extends SortingAwareFilter {
     public boolean apply(Pair<NitriteId, Document> element) {
         Comparable comparable = getComparable();
         Document document = element.getSecond();
-        Object fieldValue = document.get(getField());
+        Object fieldValue = getFieldValue(document);
         if (fieldValue != null) {
             if (fieldValue instanceof Number && comparable instanceof Number) {
                 return compare((Number) fieldValue, (Number) comparable) >= 0;
@@ -58,43 +56,23 @@ class GreaterEqualFilter extends SortingAwareFilter {
     }
 
     @Override
-    @SuppressWarnings({"unchecked", "rawtypes"})
     public List<?> applyOnIndex(IndexMap indexMap) {
-        Comparable comparable = getComparable();
-        List<NavigableMap<Comparable<?>, Object>> subMaps = new ArrayList<>();
+        return scanRange(indexMap, getComparable(), true, null, false);
+    }
 
-        // maintain the find sorting order
-        List<NitriteId> nitriteIds = new ArrayList<>();
+    @Override
+    public Iterable<?> scanIndex(IndexMap indexMap) {
+        return rangeValues(indexMap, getComparable(), true, null, false);
+    }
 
-        if (isReverseScan()) {
-            // if reverse scan is required, then start from the last key
-            Comparable lastKey = indexMap.lastKey();
-            while(lastKey != null && Comparables.compare(lastKey, comparable) >= 0) {
-                // get the starting value, it can be a navigable-map (compound index)
-                // or list (single field index)
-                Object value = indexMap.get(lastKey);
-                processIndexValue(value, subMaps, nitriteIds);
-                lastKey = indexMap.lowerKey(lastKey);
-            }
-        } else {
-            Comparable ceilingKey = indexMap.ceilingKey(comparable);
-            while (ceilingKey != null) {
-                // get the starting value, it can be a navigable-map (compound index)
-                // or list (single field index)
-                Object value = indexMap.get(ceilingKey);
-                processIndexValue(value, subMaps, nitriteIds);
-                ceilingKey = indexMap.higherKey(ceilingKey);
-            }
-        }
+    @Override
+    public Iterable<? extends Pair<Comparable<?>, ?>> scanIndexEntries(IndexMap indexMap) {
+        return rangeEntries(indexMap, getComparable(), true, null, false);
+    }
 
-        if (!subMaps.isEmpty()) {
-            // if sub-map is populated then filtering on compound index, return sub-map
-            return subMaps;
-        } else {
-            // else it is filtering on either single field index,
-            // or it is a terminal filter on compound index, return only nitrite-ids
-            return nitriteIds;
-        }
+    @Override
+    public double estimateOnIndex(IndexStatistics statistics) {
+        return statistics.estimateRange(getValue(), true, null, false);
     }
 
     @Override
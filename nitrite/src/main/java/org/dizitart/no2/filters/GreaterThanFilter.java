@@ -19,13 +19,11 @@ package org.dizitart.no2.filters;
 import org.dizitart.no2.collection.Document;
 import org.dizitart.no2.collection.NitriteId;
 import org.dizitart.no2.common.tuples.Pair;
-import org.dizitart.no2.common.util.Comparables;
 import org.dizitart.no2.exceptions.FilterException;
 import org.dizitart.no2.index.IndexMap;
+import org.dizitart.no2.index.IndexStatistics;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.NavigableMap;
 
 import static org.dizitart.no2.common.util.Numbers.compare;
 
@@ -43,7 +41,7 @@ class GreaterThanFilter extends SortingAwareFilter {
     public boolean apply(Pair<NitriteId, Document> element) {
         Comparable comparable = getComparable();
         Document document = element.getSecond();
-        Object fieldValue = document.get(getField());
+        Object fieldValue = getFieldValue(document);
         if (fieldValue != null) {
             if (fieldValue instanceof Number && comparable instanceof Number) {
                 return compare((Number) fieldValue, (Number) comparable) > 0;
@@ -59,40 +57,23 @@ class GreaterThanFilter extends SortingAwareFilter {
     }
 
     @Override
-    @SuppressWarnings({"unchecked", "rawtypes"})
     public List<?> applyOnIndex(IndexMap indexMap) {
-        Comparable comparable = getComparable();
-        List<NavigableMap<Comparable<?>, Object>> subMaps = new ArrayList<>();
-        List<NitriteId> nitriteIds = new ArrayList<>();
+        return scanRange(indexMap, getComparable(), false, null, false);
+    }
 
-        if (isReverseScan()) {
-            Comparable lastKey = indexMap.lastKey();
-            while (lastKey != null && Comparables.compare(lastKey, comparable) > 0) {
-                // get the starting value, it can be a navigable-map (compound index)
-                // or list (single field index)
-                Object value = indexMap.get(lastKey);
-                processIndexValue(value, subMaps, nitriteIds);
-                lastKey = indexMap.lowerKey(lastKey);
-            }
-        } else {
-            Comparable higherKey = indexMap.higherKey(comparable);
-            while (higherKey != null) {
-                // get the starting value, it can be a navigable-map (compound index)
-                // or list (single field index)
-                Object value = indexMap.get(higherKey);
-                processIndexValue(value, subMaps, nitriteIds);
-                higherKey = indexMap.higherKey(higherKey);
-            }
-        }
+    @Override
+    public Iterable<?> scanIndex(IndexMap indexMap) {
+        return rangeValues(indexMap, getComparable(), false, null, false);
+    }
 
-        if (!subMaps.isEmpty()) {
-            // if sub-map is populated then filtering on compound index, return sub-map
-            return subMaps;
-        } else {
-            // else it is filtering on either single field index,
-            // or it is a terminal filter on compound index, return only nitrite-ids
-            return nitriteIds;
-        }
+    @Override
+    public Iterable<? extends Pair<Comparable<?>, ?>> scanIndexEntries(IndexMap indexMap) {
+        return rangeEntries(indexMap, getComparable(), false, null, false);
+    }
+
+    @Override
+    public double estimateOnIndex(IndexStatistics statistics) {
+        return statistics.estimateRange(getValue(), false, null, false);
     }
 
     @Override
@@ -16,11 +16,15 @@
 
 package org.dizitart.no2.filters;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import org.dizitart.no2.collection.Document;
 import org.dizitart.no2.collection.NitriteId;
+import org.dizitart.no2.common.DBNull;
+import org.dizitart.no2.common.DBValue;
 import org.dizitart.no2.common.tuples.Pair;
 import org.dizitart.no2.index.IndexMap;
+import org.dizitart.no2.index.IndexStatistics;
 
 import java.util.*;
 
@@ -29,33 +33,50 @@ import java.util.*;
  */
 @Getter
 class InFilter extends ComparableArrayFilter {
+    /**
+     * The largest number of values which are looked up in the index one by
+     * one, a longer list is matched by a single scan over the index.
+     */
+    static final int POINT_LOOKUP_THRESHOLD = 256;
+
     private final Set<Comparable<?>> comparableSet;
+    @Getter(AccessLevel.NONE)
+    private final ComparableValueSet valueSet;
 
     InFilter(String field, Comparable<?>... values) {
         super(field, values);
         this.comparableSet = new HashSet<>();
         Collections.addAll(this.comparableSet, values);
+        this.valueSet = new ComparableValueSet(values);
     }
 
     @Override
     public boolean apply(Pair<NitriteId, Document> element) {
+        // matched like the index matches, so that a document is
+        // found the same way with or without an index on the field
         Document document = element.getSecond();
-        Object fieldValue = document.get(getField());
-
-        if (fieldValue instanceof Comparable) {
-            Comparable<?> comparable = (Comparable<?>) fieldValue;
-            return comparableSet.contains(comparable);
-        }
-        return false;
+        return valueSet.matches(getFieldValue(document));
     }
 
+    @Override
     public List<?> applyOnIndex(IndexMap indexMap) {
-        List<NavigableMap<Comparable<?>, Object>> subMap = new ArrayList<>();
+        List<Object> subMap = new ArrayList<>();
         List<NitriteId> nitriteIds = new ArrayList<>();
 
-        for (Pair<Comparable<?>, ?> entry : indexMap.entries()) {
-            if (comparableSet.contains(entry.getFirst())) {
-                processIndexValue(entry.getSecond(), subMap, nitriteIds);
+        List<DBValue> probes = sortedProbes(indexMap.isReverseScan());
+        if (probes != null && probes.size() <= POINT_LOOKUP_THRESHOLD) {
+            // look up each value in the index order, so that
+            // the results are merged in the same order as a scan
+            for (DBValue probe : probes) {
+                Comparable<?> key = probe instanceof DBNull ? null : probe.getValue();
+                processIndexValue(indexMap.get(key), subMap, nitriteIds);
+            }
+        } else {
+            // too many values to look up one by one, scan the whole index instead
+            for (Pair<Comparable<?>, ?> entry : indexMap.entries()) {
+                if (valueSet.contains(entry.getFirst())) {
+                    processIndexValue(entry.getSecond(), subMap, nitriteIds);
+                }
             }
         }
 
@@ -69,8 +90,60 @@ class InFilter extends ComparableArrayFilter {
         }
     }
 
+    @Override
+    public Iterable<? extends Pair<Comparable<?>, ?>> scanIndexEntries(IndexMap indexMap) {
+        List<Pair<Comparable<?>, ?>> entries = new ArrayList<>();
+
+        List<DBValue> probes = sortedProbes(indexMap.isReverseScan());
+        if (probes != null && probes.size() <= POINT_LOOKUP_THRESHOLD) {
+            for (DBValue probe : probes) {
+                Comparable<?> key = probe instanceof DBNull ? null : probe.getValue();
+                Object value = indexMap.get(key);
+                if (value != null) {
+                    entries.add(new Pair<>(key, value));
+                }
+            }
+        } else {
+            for (Pair<Comparable<?>, ?> entry : indexMap.entries()) {
+                if (valueSet.contains(entry.getFirst())) {
+                    entries.add(entry);
+                }
+            }
+        }
+        return entries;
+    }
+
+    @Override
+    public double estimateOnIndex(IndexStatistics statistics) {
+        double estimate = 0;
+        for (Comparable<?> comparable : comparableSet) {
+            estimate += statistics.estimateEquals(comparable);
+        }
+        return Math.min(estimate, statistics.getEntryCount());
+    }
+
+    @Override
+    public Collection<Comparable<?>> getLookupValues() {
+        return Collections.unmodifiableSet(comparableSet);
+    }
+
     @Override
     public String toString() {
         return "(" + getField() + " in " + Arrays.toString((Comparable<?>[]) getValue()) + ")";
     }
+
+    private List<DBValue> sortedProbes(boolean reverse) {
+        List<DBValue> probes = new ArrayList<>(comparableSet.size());
+        for (Comparable<?> comparable : comparableSet) {
+            probes.add(comparable == null ? DBNull.getInstance() : new DBValue(comparable));
+        }
+
+        try {
+            probes.sort(reverse ? Comparator.reverseOrder() : Comparator.naturalOrder());
+        } catch (ClassCastException e) {
+            // values are not mutually comparable, so they can not be looked up in order
+            return null;
+        }
+        return probes;
+    }
 }
@@ -19,13 +19,11 @@ package org.dizitart.no2.filters;
 import org.dizitart.no2.collection.Document;
 import org.dizitart.no2.collection.NitriteId;
 import org.dizitart.no2.common.tuples.Pair;
-import org.dizitart.no2.common.util.Comparables;
 import org.dizitart.no2.exceptions.FilterException;
 import org.dizitart.no2.index.IndexMap;
+import org.dizitart.no2.index.IndexStatistics;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.NavigableMap;
 
 import static org.dizitart.no2.common.util.Numbers.compare;
 
@@ -42,7 +40,7 @@ class LesserEqualFilter extends SortingAwareFilter {
     public boolean apply(Pair<NitriteId, Document> element) {
         Comparable comparable = getComparable();
         Document document = element.getSecond();
-        Object fieldValue = document.get(getField());
+        Object fieldValue = getFieldValue(document);
         if (fieldValue != null) {
             if (fieldValue instanceof Number && comparable instanceof Number) {
                 return compare((Number) fieldValue, (Number) comparable) <= 0;
@@ -58,40 +56,23 @@ class LesserEqualFilter extends SortingAwareFilter {
     }
 
     @Override
-    @SuppressWarnings({"unchecked", "rawtypes"})
     public List<?> applyOnIndex(IndexMap indexMap) {
-        Comparable comparable = getComparable();
-        List<NavigableMap<Comparable<?>, Object>> subMap = new ArrayList<>();
-        List<NitriteId> nitriteIds = new ArrayList<>();
+        return scanUpTo(indexMap, true);
+    }
 
-        if (isReverseScan()) {
-            Comparable floorKey = indexMap.floorKey(comparable);
-            while (floorKey != null) {
-                // get the starting value, it can be a navigable-map (compound index)
-                // or list (single field index)
-                Object value = indexMap.get(floorKey);
-                processIndexValue(value, subMap, nitriteIds);
-                floorKey = indexMap.lowerKey(floorKey);
-            }
-        } else {
-            Comparable firstKey = indexMap.firstKey();
-            while (firstKey != null && Comparables.compare(firstKey, comparable) <= 0) {
-                // get the starting value, it can be a navigable-map (compound index)
-                // or list (single field index)
-                Object value = indexMap.get(firstKey);
-                processIndexValue(value, subMap, nitriteIds);
-                firstKey = indexMap.higherKey(firstKey);
-            }
-        }
+    @Override
+    public Iterable<?> scanIndex(IndexMap indexMap) {
+        return valuesUpTo(indexMap, true);
+    }
 
-        if (!subMap.isEmpty()) {
-            // if sub-map is populated then filtering on compound index, return sub-map
-            return subMap;
-        } else {
-            // else it is filtering on either single field index,
-            // or it is a terminal filter on compound index, return only nitrite-ids
-            return nitriteIds;
-        }
+    @Override
+    public Iterable<? extends Pair<Comparable<?>, ?>> scanIndexEntries(IndexMap indexMap) {
+        return entriesUpTo(indexMap, true);
+    }
+
+    @Override
+    public double estimateOnIndex(IndexStatistics statistics) {
+        return estimateUpTo(statistics, true);
     }
 
     @Override
@@ -4,10 +4,10 @@ import org.dizitart.no2.collection.Document;
 import org.dizitart.no2.collection.NitriteId;
 import org.dizitart.no2.common.tuples.Pair;
 import org.dizitart.no2.index.IndexMap;
+import org.dizitart.no2.index.IndexStatistics;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.NavigableMap;
 
 import static org.dizitart.no2.common.util.ObjectUtils.deepEquals;
 
@@ -22,12 +22,12 @@ class NotEqualsFilter extends ComparableFilter {
     @Override
     public boolean apply(Pair<NitriteId, Document> element) {
         Document document = element.getSecond();
-        Object fieldValue = document.get(getField());
+        Object fieldValue = getFieldValue(document);
         return !deepEquals(fieldValue, getValue());
     }
 
     public List<?> applyOnIndex(IndexMap indexMap) {
-        List<NavigableMap<Comparable<?>, Object>> subMap = new ArrayList<>();
+        List<Object> subMap = new ArrayList<>();
         List<NitriteId> nitriteIds = new ArrayList<>();
 
         for (Pair<Comparable<?>, ?> entry : indexMap.entries()) {
@@ -46,6 +46,22 @@ class NotEqualsFilter extends ComparableFilter {
         }
     }
 
+    @Override
+    public Iterable<? extends Pair<Comparable<?>, ?>> scanIndexEntries(IndexMap indexMap) {
+        List<Pair<Comparable<?>, ?>> entries = new ArrayList<>();
+        for (Pair<Comparable<?>, ?> entry : indexMap.entries()) {
+            if (!deepEquals(getValue(), entry.getFirst())) {
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+
+    @Override
+    public double estimateOnIndex(IndexStatistics statistics) {
+        return Math.max(0, statistics.getEntryCount() - statistics.estimateEquals(getValue()));
+    }
+
     @Override
     public String toString() {
         return "(" + getField() + " != " + getValue() + ")";
@@ -16,6 +16,7 @@
 
 package org.dizitart.no2.filters;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import org.dizitart.no2.collection.Document;
 import org.dizitart.no2.collection.NitriteId;
@@ -30,31 +31,29 @@ import java.util.*;
 @Getter
 class NotInFilter extends ComparableArrayFilter {
     private final Set<Comparable<?>> comparableSet;
+    @Getter(AccessLevel.NONE)
+    private final ComparableValueSet valueSet;
 
     NotInFilter(String field, Comparable<?>... values) {
         super(field, values);
         this.comparableSet = new HashSet<>();
         Collections.addAll(this.comparableSet, values);
+        this.valueSet = new ComparableValueSet(values);
     }
 
     @Override
     public boolean apply(Pair<NitriteId, Document> element) {
         Document document = element.getSecond();
-        Object fieldValue = document.get(getField());
-
-        if (fieldValue instanceof Comparable) {
-            Comparable<?> comparable = (Comparable<?>) fieldValue;
-            return !comparableSet.contains(comparable);
-        }
-        return true;
+        return !valueSet.matches(getFieldValue(document));
     }
 
+    @Override
     public List<?> applyOnIndex(IndexMap indexMap) {
-        List<NavigableMap<Comparable<?>, Object>> subMap = new ArrayList<>();
+        List<Object> subMap = new ArrayList<>();
         List<NitriteId> nitriteIds = new ArrayList<>();
 
         for (Pair<Comparable<?>, ?> entry : indexMap.entries()) {
-            if (!comparableSet.contains(entry.getFirst())) {
+            if (!valueSet.contains(entry.getFirst())) {
                 processIndexValue(entry.getSecond(), subMap, nitriteIds);
             }
         }
@@ -69,6 +68,15 @@ class NotInFilter extends ComparableArrayFilter {
         }
     }
 
+    @Override
+    public boolean canScanIndex() {
+        // a document with an array field is in the index under each of its
+        // items, so the items not in the list would still find a document
+        // having one of the values, and the complement is read from the
+        // collection instead
+        return false;
+    }
+
     @Override
     public String toString() {
         return "(" + getField() + " not in " + Arrays.toString((Comparable<?>[]) getValue()) + ")";
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.filters;
+
+import org.dizitart.no2.collection.Document;
+import org.dizitart.no2.collection.NitriteId;
+import org.dizitart.no2.common.tuples.Pair;
+
+/**
+ * Checks the order of the words of a phrase on a document found
+ * by a full-text index which does not keep the term positions.
+ *
+ * @author Anindya Chatterjee
+ * @since 4.3
+ */
+class PhraseFilter extends FieldBasedFilter {
+    private final TextFilter textFilter;
+
+    PhraseFilter(TextFilter textFilter) {
+        super(textFilter.getField(), textFilter.getValue());
+        this.textFilter = textFilter;
+        setExpression(textFilter.getExpression());
+    }
+
+    @Override
+    public boolean apply(Pair<NitriteId, Document> element) {
+        Document document = element.getSecond();
+        return textFilter.containsPhrase(getFieldValue(document));
+    }
+
+    @Override
+    public String toString() {
+        return "(" + getField() + " phrase " + getValue() + ")";
+    }
+}
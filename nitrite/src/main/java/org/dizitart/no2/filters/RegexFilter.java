@@ -38,7 +38,7 @@ class RegexFilter extends FieldBasedFilter {
     @Override
     public boolean apply(Pair<NitriteId, Document> element) {
         Document document = element.getSecond();
-        Object fieldValue = document.get(getField());
+        Object fieldValue = getFieldValue(document);
         if (fieldValue != null) {
             if (fieldValue instanceof String) {
                 Matcher matcher = pattern.matcher((String) fieldValue);
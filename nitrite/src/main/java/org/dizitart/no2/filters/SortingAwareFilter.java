@@ -1,7 +1,16 @@
 package org.dizitart.no2.filters;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
+import org.dizitart.no2.collection.NitriteId;
+import org.dizitart.no2.common.tuples.Pair;
+import org.dizitart.no2.index.IndexMap;
+import org.dizitart.no2.index.IndexStatistics;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 
 @Getter
 @Setter
@@ -12,6 +21,14 @@ public abstract class SortingAwareFilter extends ComparableFilter {
      */
     private boolean reverseScan;
 
+    /**
+     * The filter on the lower end of the range, if this filter is
+     * the upper end of a between filter.
+     */
+    @Getter(AccessLevel.PACKAGE)
+    @Setter(AccessLevel.PACKAGE)
+    private SortingAwareFilter lowerBoundFilter;
+
     /**
      * Instantiates a new SortingAwareFilter.
      *
@@ -21,4 +38,156 @@ public abstract class SortingAwareFilter extends ComparableFilter {
     public SortingAwareFilter(String field, Object value) {
         super(field, value);
     }
+
+    /**
+     * Scans a range of keys of the index map in a single pass, honoring the
+     * scan order of the filter. A <code>null</code> bound means the range is
+     * unbounded on that side.
+     *
+     * @param indexMap      the index map
+     * @param from          the lower bound of the range
+     * @param fromInclusive if the lower bound is included in the range
+     * @param to            the upper bound of the range
+     * @param toInclusive   if the upper bound is included in the range
+     * @return the list of sub maps or nitrite ids in the range
+     * @since 4.3
+     */
+    protected List<?> scanRange(IndexMap indexMap,
+                                Comparable<?> from, boolean fromInclusive,
+                                Comparable<?> to, boolean toInclusive) {
+        List<Object> subMaps = new ArrayList<>();
+        List<NitriteId> nitriteIds = new ArrayList<>();
+
+        for (Object value : rangeValues(indexMap, from, fromInclusive, to, toInclusive)) {
+            // the value can be a navigable-map (compound index)
+            // or list (single field index)
+            processIndexValue(value, subMaps, nitriteIds);
+        }
+
+        if (!subMaps.isEmpty()) {
+            // if sub-map is populated then filtering on compound index, return sub-map
+            return subMaps;
+        } else {
+            // else it is filtering on either single field index,
+            // or it is a terminal filter on compound index, return only nitrite-ids
+            return nitriteIds;
+        }
+    }
+
+    /**
+     * Lazily walks a range of keys of the index map in the scan order of
+     * the filter. The index is read only as far as the result is iterated.
+     *
+     * @param indexMap      the index map
+     * @param from          the lower bound of the range
+     * @param fromInclusive if the lower bound is included in the range
+     * @param to            the upper bound of the range
+     * @param toInclusive   if the upper bound is included in the range
+     * @return the values of the index entries in the range
+     * @since 4.3
+     */
+    protected Iterable<?> rangeValues(IndexMap indexMap,
+                                      Comparable<?> from, boolean fromInclusive,
+                                      Comparable<?> to, boolean toInclusive) {
+        Iterable<? extends Pair<Comparable<?>, ?>> entries
+            = rangeEntries(indexMap, from, fromInclusive, to, toInclusive);
+
+        return () -> {
+            Iterator<? extends Pair<Comparable<?>, ?>> iterator = entries.iterator();
+            return new Iterator<Object>() {
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public Object next() {
+                    return iterator.next().getSecond();
+                }
+            };
+        };
+    }
+
+    /**
+     * Lazily walks the entries in a range of keys of the index map in the
+     * scan order of the filter.
+     *
+     * @param indexMap      the index map
+     * @param from          the lower bound of the range
+     * @param fromInclusive if the lower bound is included in the range
+     * @param to            the upper bound of the range
+     * @param toInclusive   if the upper bound is included in the range
+     * @return the index entries in the range
+     * @since 4.3
+     */
+    protected Iterable<? extends Pair<Comparable<?>, ?>> rangeEntries(IndexMap indexMap,
+                                                                      Comparable<?> from, boolean fromInclusive,
+                                                                      Comparable<?> to, boolean toInclusive) {
+        indexMap.setReverseScan(isReverseScan());
+        return indexMap.entries(from, fromInclusive, to, toInclusive);
+    }
+
+    /**
+     * Scans the index up to the upper bound, starting from the lower bound
+     * of a between filter, if any.
+     *
+     * @param indexMap    the index map
+     * @param toInclusive if the upper bound is included in the range
+     * @return the list of sub maps or nitrite ids in the range
+     * @since 4.3
+     */
+    List<?> scanUpTo(IndexMap indexMap, boolean toInclusive) {
+        Comparable<?> from = lowerBound();
+        return scanRange(indexMap, from, from != null && isLowerBoundInclusive(), getComparable(), toInclusive);
+    }
+
+    /**
+     * Lazily walks the index up to the upper bound, starting from the lower
+     * bound of a between filter, if any.
+     *
+     * @param indexMap    the index map
+     * @param toInclusive if the upper bound is included in the range
+     * @return the values of the index entries in the range
+     * @since 4.3
+     */
+    Iterable<?> valuesUpTo(IndexMap indexMap, boolean toInclusive) {
+        Comparable<?> from = lowerBound();
+        return rangeValues(indexMap, from, from != null && isLowerBoundInclusive(), getComparable(), toInclusive);
+    }
+
+    /**
+     * Lazily walks the entries of the index up to the upper bound, starting
+     * from the lower bound of a between filter, if any.
+     *
+     * @param indexMap    the index map
+     * @param toInclusive if the upper bound is included in the range
+     * @return the index entries in the range
+     * @since 4.3
+     */
+    Iterable<? extends Pair<Comparable<?>, ?>> entriesUpTo(IndexMap indexMap, boolean toInclusive) {
+        Comparable<?> from = lowerBound();
+        return rangeEntries(indexMap, from, from != null && isLowerBoundInclusive(), getComparable(), toInclusive);
+    }
+
+    /**
+     * Estimates the entries of the index up to the upper bound, starting
+     * from the lower bound of a between filter, if any.
+     *
+     * @param statistics  the statistics of the index
+     * @param toInclusive if the upper bound is included in the range
+     * @return the estimated number of entries
+     * @since 4.3
+     */
+    double estimateUpTo(IndexStatistics statistics, boolean toInclusive) {
+        Comparable<?> from = lowerBoundFilter == null ? null : (Comparable<?>) lowerBoundFilter.getValue();
+        return statistics.estimateRange(from, from != null && isLowerBoundInclusive(), getValue(), toInclusive);
+    }
+
+    private Comparable<?> lowerBound() {
+        return lowerBoundFilter == null ? null : lowerBoundFilter.getComparable();
+    }
+
+    private boolean isLowerBoundInclusive() {
+        return lowerBoundFilter instanceof GreaterEqualFilter;
+    }
 }
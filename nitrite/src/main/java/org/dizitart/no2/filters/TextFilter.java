@@ -22,11 +22,17 @@ import org.dizitart.no2.collection.NitriteId;
 import org.dizitart.no2.common.tuples.Pair;
 import org.dizitart.no2.exceptions.FilterException;
 import org.dizitart.no2.index.IndexMap;
+import org.dizitart.no2.index.NitriteIdBitmap;
+import org.dizitart.no2.index.TermDictionary;
+import org.dizitart.no2.index.TermPositions;
+import org.dizitart.no2.index.TextScorer;
+import org.dizitart.no2.index.fulltext.EnglishTextTokenizer;
 import org.dizitart.no2.index.fulltext.TextTokenizer;
 import org.dizitart.no2.store.NitriteMap;
 
 import java.util.*;
 
+import static org.dizitart.no2.common.util.ObjectUtils.convertToObjectArray;
 import static org.dizitart.no2.common.util.StringUtils.stringTokenizer;
 import static org.dizitart.no2.common.util.ValidationUtils.notNull;
 
@@ -37,6 +43,9 @@ import static org.dizitart.no2.common.util.ValidationUtils.notNull;
 @Setter
 public class TextFilter extends StringFilter {
     private TextTokenizer textTokenizer;
+    private TermDictionary termDictionary;
+    private TextScorer textScorer;
+    private TermPositions termPositions;
 
     /**
      * Instantiates a new Text filter.
@@ -53,7 +62,10 @@ public class TextFilter extends StringFilter {
         notNull(getField(), "field cannot be null");
         notNull(getStringValue(), "search term cannot be null");
         String searchString = getStringValue();
-        Object docValue = element.getSecond().get(getField());
+        Object docValue = getFieldValue(element.getSecond());
+        if (isPhraseSearch()) {
+            return containsPhrase(docValue);
+        }
 
         if (!(docValue instanceof String)) {
             throw new FilterException("Text filter can not be applied on non string field " + getField());
@@ -73,31 +85,77 @@ public class TextFilter extends StringFilter {
         return "(" + getField() + " like " + getValue() + ")";
     }
 
+    /**
+     * Indicates if this filter searches for a phrase, which is a search
+     * term enclosed in double quotes. A phrase only matches the documents
+     * having all of its words next to each other and in the same order.
+     *
+     * @return {@code true} if this filter searches for a phrase
+     * @since 4.3
+     */
+    public boolean isPhraseSearch() {
+        String searchString = getStringValue();
+        return searchString != null && searchString.length() > 2
+            && searchString.startsWith("\"") && searchString.endsWith("\"");
+    }
+
+    /**
+     * Gets a filter which checks the order of the words of the phrase
+     * on a document, for a full-text index without term positions.
+     *
+     * @return the phrase filter
+     * @since 4.3
+     */
+    public Filter phraseFilter() {
+        return new PhraseFilter(this);
+    }
+
     /**
      * Apply this filter on text index.
      *
      * @param indexMap the index map
      * @return the linked hash set
      */
-    public LinkedHashSet<NitriteId> applyOnTextIndex(NitriteMap<String, List<?>> indexMap) {
+    public LinkedHashSet<NitriteId> applyOnTextIndex(NitriteMap<String, Collection<?>> indexMap) {
+        return applyOnTextIndex(indexMap, Long.MAX_VALUE);
+    }
+
+    /**
+     * Apply this filter on text index. A search for words returns only the
+     * <code>limit</code> best ranked ids, which are found with a bounded
+     * heap instead of sorting all the matching ids.
+     *
+     * @param indexMap the index map
+     * @param limit    the maximum number of ranked ids to return
+     * @return the linked hash set
+     * @since 4.3
+     */
+    public LinkedHashSet<NitriteId> applyOnTextIndex(NitriteMap<String, Collection<?>> indexMap, long limit) {
         notNull(getField(), "field cannot be null");
         notNull(getStringValue(), "search term cannot be null");
         String searchString = getStringValue();
 
-        if (searchString.startsWith("*") || searchString.endsWith("*")) {
+        if (isPhraseSearch()) {
+            return searchPhrase(indexMap, phraseOf(searchString));
+        } else if (searchString.startsWith("*") || searchString.endsWith("*")) {
             return searchByWildCard(indexMap, searchString);
         } else {
-            return searchExactByIndex(indexMap, searchString);
+            return searchExactByIndex(indexMap, searchString, limit);
         }
     }
 
     @SuppressWarnings("unchecked")
-    private LinkedHashSet<NitriteId> searchExactByIndex(NitriteMap<String, List<?>> indexMap, String searchString) {
+    private LinkedHashSet<NitriteId> searchExactByIndex(NitriteMap<String, Collection<?>> indexMap,
+                                                        String searchString, long limit) {
 
         Set<String> words = textTokenizer.tokenize(searchString);
+        if (textScorer != null) {
+            return rankedIds(textScorer.score(words), limit);
+        }
+
         Map<NitriteId, Integer> scoreMap = new HashMap<>();
         for (String word : words) {
-            List<NitriteId> nitriteIds = (List<NitriteId>) indexMap.get(word);
+            Collection<NitriteId> nitriteIds = (Collection<NitriteId>) indexMap.get(word);
             if (nitriteIds != null) {
                 for (NitriteId id : nitriteIds) {
                     scoreMap.merge(id, 1, Integer::sum);
@@ -105,10 +163,74 @@ public class TextFilter extends StringFilter {
             }
         }
 
-        return sortedIdsByScore(scoreMap);
+        return rankedIds(scoreMap, limit);
+    }
+
+    boolean containsPhrase(Object docValue) {
+        List<String> texts = new ArrayList<>();
+        if (docValue instanceof String) {
+            texts.add((String) docValue);
+        } else if (docValue != null && docValue.getClass().isArray()) {
+            for (Object item : convertToObjectArray(docValue)) {
+                texts.add(textOf(item));
+            }
+        } else if (docValue instanceof Iterable) {
+            for (Object item : (Iterable<?>) docValue) {
+                texts.add(textOf(item));
+            }
+        } else {
+            throw new FilterException("Text filter can not be applied on non string field " + getField());
+        }
+
+        TextTokenizer tokenizer = textTokenizer == null ? new EnglishTextTokenizer() : textTokenizer;
+        List<Pair<String, Integer>> phrase = TermPositions.tokenize(tokenizer,
+            Collections.singletonList(phraseOf(getStringValue())));
+        return TermPositions.containsPhrase(TermPositions.tokenize(tokenizer, texts), phrase);
     }
 
-    private LinkedHashSet<NitriteId> searchByWildCard(NitriteMap<String, List<?>> indexMap, String searchString) {
+    private String textOf(Object item) {
+        if (item != null && !(item instanceof String)) {
+            throw new FilterException("Text filter can not be applied on non string field " + getField());
+        }
+        return (String) item;
+    }
+
+    private String phraseOf(String searchString) {
+        return searchString.substring(1, searchString.length() - 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private LinkedHashSet<NitriteId> searchPhrase(NitriteMap<String, Collection<?>> indexMap, String phrase) {
+        List<Pair<String, Integer>> terms = TermPositions.tokenize(textTokenizer,
+            Collections.singletonList(phrase));
+        if (terms.isEmpty()) {
+            return new LinkedHashSet<>();
+        }
+
+        if (termPositions != null) {
+            return new LinkedHashSet<>(termPositions.findPhrase(terms));
+        }
+
+        // without the positions, only the documents having all the words
+        // are found here and the phrase is checked on each of them later
+        List<Collection<NitriteId>> postings = new ArrayList<>();
+        for (Pair<String, Integer> term : terms) {
+            Collection<NitriteId> nitriteIds = (Collection<NitriteId>) indexMap.get(term.getFirst());
+            if (nitriteIds == null || nitriteIds.isEmpty()) {
+                return new LinkedHashSet<>();
+            }
+            postings.add(nitriteIds);
+        }
+        postings.sort(Comparator.comparingInt(Collection::size));
+
+        LinkedHashSet<NitriteId> idSet = new LinkedHashSet<>(postings.get(0));
+        for (int i = 1; i < postings.size() && !idSet.isEmpty(); i++) {
+            idSet.retainAll(postings.get(i));
+        }
+        return idSet;
+    }
+
+    private LinkedHashSet<NitriteId> searchByWildCard(NitriteMap<String, Collection<?>> indexMap, String searchString) {
         if (searchString.contentEquals("*")) {
             throw new FilterException("* is not a valid search term");
         }
@@ -130,63 +252,121 @@ public class TextFilter extends StringFilter {
     }
 
     @SuppressWarnings("unchecked")
-    private LinkedHashSet<NitriteId> searchByLeadingWildCard(NitriteMap<String, List<?>> indexMap, String searchString) {
+    private LinkedHashSet<NitriteId> searchByLeadingWildCard(NitriteMap<String, Collection<?>> indexMap, String searchString) {
         if (searchString.equalsIgnoreCase("*")) {
             throw new FilterException("* is not a valid search term");
         }
 
-        LinkedHashSet<NitriteId> idSet = new LinkedHashSet<>();
         String term = searchString.substring(1);
+        if (termDictionary != null) {
+            return unionOf(postingsOf(indexMap, termDictionary.findBySuffix(term.toLowerCase())));
+        }
 
-        for (Pair<String, List<?>> entry : indexMap.entries()) {
+        List<Collection<NitriteId>> postings = new ArrayList<>();
+        for (Pair<String, Collection<?>> entry : indexMap.entries()) {
             String key = entry.getFirst();
             if (key.endsWith(term.toLowerCase())) {
-                idSet.addAll((List<NitriteId>) entry.getSecond());
+                postings.add((Collection<NitriteId>) entry.getSecond());
             }
         }
-        return idSet;
+        return unionOf(postings);
     }
 
     @SuppressWarnings("unchecked")
-    private LinkedHashSet<NitriteId> searchByTrailingWildCard(NitriteMap<String, List<?>> indexMap, String searchString) {
+    private LinkedHashSet<NitriteId> searchByTrailingWildCard(NitriteMap<String, Collection<?>> indexMap, String searchString) {
         if (searchString.equalsIgnoreCase("*")) {
             throw new FilterException("* is not a valid search term");
         }
 
-        LinkedHashSet<NitriteId> idSet = new LinkedHashSet<>();
+        List<Collection<NitriteId>> postings = new ArrayList<>();
         String term = searchString.substring(0, searchString.length() - 1);
 
-        for (Pair<String, List<?>> entry : indexMap.entries()) {
-            String key = entry.getFirst();
-            if (key.startsWith(term.toLowerCase())) {
-                idSet.addAll((List<NitriteId>) entry.getSecond());
-            }
+        // the terms are sorted, so only the terms starting with the prefix are visited
+        for (Pair<String, Collection<?>> entry : indexMap.prefixEntries(term.toLowerCase())) {
+            postings.add((Collection<NitriteId>) entry.getSecond());
         }
-        return idSet;
+        return unionOf(postings);
     }
 
     @SuppressWarnings("unchecked")
-    private LinkedHashSet<NitriteId> searchContains(NitriteMap<String, List<?>> indexMap, String term) {
-        LinkedHashSet<NitriteId> idSet = new LinkedHashSet<>();
+    private LinkedHashSet<NitriteId> searchContains(NitriteMap<String, Collection<?>> indexMap, String term) {
+        if (termDictionary != null) {
+            Set<String> terms = termDictionary.findBySubstring(term.toLowerCase());
+            if (terms != null) {
+                return unionOf(postingsOf(indexMap, terms));
+            }
+        }
 
-        for (Pair<String, List<?>> entry : indexMap.entries()) {
+        List<Collection<NitriteId>> postings = new ArrayList<>();
+
+        for (Pair<String, Collection<?>> entry : indexMap.entries()) {
             String key = entry.getFirst();
             if (key.contains(term.toLowerCase())) {
-                idSet.addAll((List<NitriteId>) entry.getSecond());
+                postings.add((Collection<NitriteId>) entry.getSecond());
             }
         }
+        return unionOf(postings);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Collection<NitriteId>> postingsOf(NitriteMap<String, Collection<?>> indexMap, Set<String> terms) {
+        List<Collection<NitriteId>> postings = new ArrayList<>();
+        for (String term : terms) {
+            Collection<NitriteId> nitriteIds = (Collection<NitriteId>) indexMap.get(term);
+            if (nitriteIds != null) {
+                postings.add(nitriteIds);
+            }
+        }
+        return postings;
+    }
+
+    private LinkedHashSet<NitriteId> unionOf(List<Collection<NitriteId>> postings) {
+        NitriteIdBitmap union = null;
+        for (Collection<NitriteId> posting : postings) {
+            if (!(posting instanceof NitriteIdBitmap)) {
+                union = null;
+                break;
+            }
+            // bitmaps of a text index are merged without visiting each id
+            union = union == null ? (NitriteIdBitmap) posting : NitriteIdBitmap.or(union, (NitriteIdBitmap) posting);
+        }
+
+        if (union != null) {
+            return new LinkedHashSet<>(union);
+        }
+
+        LinkedHashSet<NitriteId> idSet = new LinkedHashSet<>();
+        for (Collection<NitriteId> posting : postings) {
+            idSet.addAll(posting);
+        }
         return idSet;
     }
 
-    private LinkedHashSet<NitriteId> sortedIdsByScore(Map<NitriteId, Integer> unsortedMap) {
-        List<Map.Entry<NitriteId, Integer>> list = new LinkedList<>(unsortedMap.entrySet());
-        list.sort((e1, e2) -> (e2.getValue()).compareTo(e1.getValue()));
+    <S extends Comparable<S>> LinkedHashSet<NitriteId> rankedIds(Map<NitriteId, S> scoreMap, long limit) {
+        // the higher score first, and the equal scores in the order of their ids
+        Comparator<Map.Entry<NitriteId, S>> order = Map.Entry.<NitriteId, S>comparingByValue().reversed()
+            .thenComparing(Map.Entry.<NitriteId, S>comparingByKey());
+
+        List<Map.Entry<NitriteId, S>> ranked;
+        if (limit < scoreMap.size()) {
+            // the head of the heap is the lowest ranked of the ids kept so far
+            PriorityQueue<Map.Entry<NitriteId, S>> heap = new PriorityQueue<>(order.reversed());
+            for (Map.Entry<NitriteId, S> entry : scoreMap.entrySet()) {
+                heap.add(entry);
+                if (heap.size() > limit) {
+                    heap.poll();
+                }
+            }
+            ranked = new ArrayList<>(heap);
+        } else {
+            ranked = new ArrayList<>(scoreMap.entrySet());
+        }
+        ranked.sort(order);
 
         LinkedHashSet<NitriteId> result = new LinkedHashSet<>();
-        for (Map.Entry<NitriteId, Integer> entry : list) {
+        for (Map.Entry<NitriteId, S> entry : ranked) {
             result.add(entry.getKey());
         }
-
         return result;
     }
 
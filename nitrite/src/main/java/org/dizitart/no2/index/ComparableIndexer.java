@@ -17,13 +17,17 @@
 package org.dizitart.no2.index;
 
 import org.dizitart.no2.NitriteConfig;
+import org.dizitart.no2.collection.Document;
 import org.dizitart.no2.collection.FindPlan;
 import org.dizitart.no2.collection.NitriteId;
 import org.dizitart.no2.common.FieldValues;
 import org.dizitart.no2.common.Fields;
+import org.dizitart.no2.common.RecordStream;
+import org.dizitart.no2.common.tuples.Pair;
 import org.dizitart.no2.exceptions.IndexingException;
 
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -63,6 +67,31 @@ public abstract class ComparableIndexer implements NitriteIndexer {
         return nitriteIndex.findNitriteIds(findPlan);
     }
 
+    @Override
+    public RecordStream<NitriteId> streamByFilter(FindPlan findPlan, NitriteConfig nitriteConfig) {
+        NitriteIndex nitriteIndex = findNitriteIndex(findPlan.getIndexDescriptor(), nitriteConfig);
+        return nitriteIndex.scanNitriteIds(findPlan);
+    }
+
+    @Override
+    public RecordStream<Pair<NitriteId, Document>> streamEntriesByFilter(FindPlan findPlan,
+                                                                         NitriteConfig nitriteConfig) {
+        NitriteIndex nitriteIndex = findNitriteIndex(findPlan.getIndexDescriptor(), nitriteConfig);
+        return nitriteIndex.scanEntries(findPlan);
+    }
+
+    @Override
+    public long countByFilter(FindPlan findPlan, NitriteConfig nitriteConfig) {
+        NitriteIndex nitriteIndex = findNitriteIndex(findPlan.getIndexDescriptor(), nitriteConfig);
+        return nitriteIndex.countNitriteIds(findPlan);
+    }
+
+    @Override
+    public IndexStatistics computeStatistics(IndexDescriptor indexDescriptor, NitriteConfig nitriteConfig) {
+        NitriteIndex nitriteIndex = findNitriteIndex(indexDescriptor, nitriteConfig);
+        return nitriteIndex.computeStatistics();
+    }
+
     @Override
     public void writeIndexEntry(FieldValues fieldValues, IndexDescriptor indexDescriptor,
                                 NitriteConfig nitriteConfig) {
@@ -70,6 +99,13 @@ public abstract class ComparableIndexer implements NitriteIndexer {
         nitriteIndex.write(fieldValues);
     }
 
+    @Override
+    public void writeIndexEntries(List<FieldValues> fieldValuesList, IndexDescriptor indexDescriptor,
+                                  NitriteConfig nitriteConfig) {
+        NitriteIndex nitriteIndex = findNitriteIndex(indexDescriptor, nitriteConfig);
+        nitriteIndex.writeAll(fieldValuesList);
+    }
+
     @Override
     public void removeIndexEntry(FieldValues fieldValues, IndexDescriptor indexDescriptor,
                                  NitriteConfig nitriteConfig) {
@@ -81,9 +117,12 @@ public abstract class ComparableIndexer implements NitriteIndexer {
     public void dropIndex(IndexDescriptor indexDescriptor, NitriteConfig nitriteConfig) {
         NitriteIndex nitriteIndex = findNitriteIndex(indexDescriptor, nitriteConfig);
         nitriteIndex.drop();
+        // the options of an index are not part of its descriptor's identity,
+        // so an index created again with other options must not find this one
+        indexRegistry.remove(indexDescriptor);
     }
 
-    private NitriteIndex findNitriteIndex(IndexDescriptor indexDescriptor, NitriteConfig nitriteConfig) {
+    NitriteIndex findNitriteIndex(IndexDescriptor indexDescriptor, NitriteConfig nitriteConfig) {
         if (indexDescriptor == null) {
             throw new IndexingException("Index descriptor cannot be null");
         }
@@ -93,7 +132,9 @@ public abstract class ComparableIndexer implements NitriteIndexer {
         }
 
         NitriteIndex nitriteIndex;
-        if (indexDescriptor.isCompoundIndex()) {
+        if (IndexLayout.COMPOSITE_KEY.equals(indexDescriptor.getLayout())) {
+            nitriteIndex = new CompositeKeyIndex(indexDescriptor, nitriteConfig.getNitriteStore());
+        } else if (indexDescriptor.isCompoundIndex()) {
             nitriteIndex = new CompoundIndex(indexDescriptor, nitriteConfig.getNitriteStore());
         } else {
             nitriteIndex = new SingleFieldIndex(indexDescriptor, nitriteConfig.getNitriteStore());
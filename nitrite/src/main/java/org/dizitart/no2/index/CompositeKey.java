@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.index;
+
+import lombok.Getter;
+import org.dizitart.no2.collection.NitriteId;
+import org.dizitart.no2.common.DBValue;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Represents a key of an index stored in {@link IndexLayout#COMPOSITE_KEY} layout.
+ * <p>
+ * A composite key consists of the indexed values followed by the
+ * {@link NitriteId} of the document. Keys are ordered by the values first and
+ * then by the id, so all the entries of an indexed value are adjacent in the
+ * index map and can be scanned as a range.
+ * <p>
+ * A key can also be a lower or an upper bound of a value prefix, which is never
+ * stored, but used to seek the first or the last entry of that prefix.
+ *
+ * @author Anindya Chatterjee
+ * @since 4.3
+ */
+public class CompositeKey implements Comparable<CompositeKey>, Serializable {
+    private static final long serialVersionUID = 1719340285L;
+
+    private static final byte LOWER_BOUND = 0;
+    private static final byte ENTRY = 1;
+    private static final byte UPPER_BOUND = 2;
+
+    /**
+     * Gets the indexed values of this key.
+     *
+     * @return the values.
+     */
+    @Getter
+    private List<DBValue> values;
+
+    /**
+     * Gets the {@link NitriteId} of this key or {@code null}
+     * if it is a bound.
+     *
+     * @return the nitrite id.
+     */
+    @Getter
+    private NitriteId nitriteId;
+    private byte kind;
+
+    private CompositeKey(List<DBValue> values, NitriteId nitriteId, byte kind) {
+        this.values = values;
+        this.nitriteId = nitriteId;
+        this.kind = kind;
+    }
+
+    /**
+     * Creates a key of an index entry.
+     *
+     * @param values    the indexed values
+     * @param nitriteId the nitrite id
+     * @return the composite key
+     */
+    public static CompositeKey of(List<DBValue> values, NitriteId nitriteId) {
+        return new CompositeKey(Collections.unmodifiableList(new ArrayList<>(values)), nitriteId, ENTRY);
+    }
+
+    /**
+     * Creates a key which sorts before all the entries starting with the prefix.
+     *
+     * @param prefix the value prefix
+     * @return the composite key
+     */
+    public static CompositeKey lowerBound(List<DBValue> prefix) {
+        return new CompositeKey(Collections.unmodifiableList(new ArrayList<>(prefix)), null, LOWER_BOUND);
+    }
+
+    /**
+     * Creates a key which sorts after all the entries starting with the prefix.
+     *
+     * @param prefix the value prefix
+     * @return the composite key
+     */
+    public static CompositeKey upperBound(List<DBValue> prefix) {
+        return new CompositeKey(Collections.unmodifiableList(new ArrayList<>(prefix)), null, UPPER_BOUND);
+    }
+
+    /**
+     * Checks if this key is a lower bound of its values.
+     *
+     * @return {@code true} if it is a lower bound.
+     */
+    public boolean isLowerBound() {
+        return kind == LOWER_BOUND;
+    }
+
+    /**
+     * Checks if this key is an upper bound of its values.
+     *
+     * @return {@code true} if it is an upper bound.
+     */
+    public boolean isUpperBound() {
+        return kind == UPPER_BOUND;
+    }
+
+    /**
+     * Checks if the values of this key starts with the prefix.
+     *
+     * @param prefix the value prefix
+     * @return {@code true} if the values starts with the prefix.
+     */
+    public boolean startsWith(List<DBValue> prefix) {
+        if (prefix.size() > values.size()) return false;
+        for (int i = 0; i < prefix.size(); i++) {
+            if (values.get(i).compareTo(prefix.get(i)) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int compareTo(CompositeKey other) {
+        int size = Math.min(values.size(), other.values.size());
+        for (int i = 0; i < size; i++) {
+            int result = values.get(i).compareTo(other.values.get(i));
+            if (result != 0) return result;
+        }
+
+        if (values.size() != other.values.size()) {
+            // the shorter key is a prefix of the longer one,
+            // its bound decides the position
+            if (values.size() < other.values.size()) {
+                return kind == UPPER_BOUND ? 1 : -1;
+            } else {
+                return other.kind == UPPER_BOUND ? -1 : 1;
+            }
+        }
+
+        if (kind != other.kind) {
+            return Byte.compare(kind, other.kind);
+        }
+
+        if (kind == ENTRY) {
+            return nitriteId.compareTo(other.nitriteId);
+        }
+        return 0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CompositeKey)) return false;
+        CompositeKey that = (CompositeKey) o;
+        return kind == that.kind
+            && values.equals(that.values)
+            && Objects.equals(nitriteId, that.nitriteId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(values, nitriteId, kind);
+    }
+
+    @Override
+    public String toString() {
+        return "CompositeKey{" +
+            "values=" + values +
+            ", nitriteId=" + nitriteId +
+            '}';
+    }
+
+    private void writeObject(ObjectOutputStream stream) throws IOException {
+        stream.writeObject(new ArrayList<>(values));
+        stream.writeByte(kind);
+        stream.writeObject(nitriteId);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream stream) throws IOException, ClassNotFoundException {
+        values = Collections.unmodifiableList((List<DBValue>) stream.readObject());
+        kind = stream.readByte();
+        nitriteId = (NitriteId) stream.readObject();
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.index;
+
+import lombok.Getter;
+import org.dizitart.no2.collection.Document;
+import org.dizitart.no2.collection.FindPlan;
+import org.dizitart.no2.collection.NitriteId;
+import org.dizitart.no2.common.DBNull;
+import org.dizitart.no2.common.DBValue;
+import org.dizitart.no2.common.FieldValues;
+import org.dizitart.no2.common.RecordStream;
+import org.dizitart.no2.common.tuples.Pair;
+import org.dizitart.no2.exceptions.IndexingException;
+import org.dizitart.no2.exceptions.UniqueConstraintException;
+import org.dizitart.no2.filters.ComparableFilter;
+import org.dizitart.no2.store.NitriteMap;
+import org.dizitart.no2.store.NitriteStore;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import static org.dizitart.no2.common.util.IndexUtils.deriveIndexMapName;
+import static org.dizitart.no2.common.util.ObjectUtils.convertToObjectArray;
+
+/**
+ * An index stored in {@link IndexLayout#COMPOSITE_KEY} layout. Every entry of
+ * the index is a separate {@link CompositeKey} of the indexed values of all the
+ * fields followed by the {@link NitriteId}, kept in a single flat map. Writing
+ * or removing an entry never rewrites the entries of the other documents, and
+ * scanning the index is a sequence of prefix and range seeks over the map.
+ *
+ * @author Anindya Chatterjee
+ * @since 4.3
+ */
+public class CompositeKeyIndex implements NitriteIndex {
+    @Getter
+    private final IndexDescriptor indexDescriptor;
+    private final NitriteStore<?> nitriteStore;
+
+    /**
+     * Instantiates a new {@link CompositeKeyIndex}.
+     *
+     * @param indexDescriptor the index descriptor
+     * @param nitriteStore    the nitrite store
+     */
+    public CompositeKeyIndex(IndexDescriptor indexDescriptor, NitriteStore<?> nitriteStore) {
+        this.indexDescriptor = indexDescriptor;
+        this.nitriteStore = nitriteStore;
+    }
+
+    @Override
+    public void write(FieldValues fieldValues) {
+        NitriteMap<CompositeKey, Boolean> indexMap = findIndexMap();
+        for (List<DBValue> values : indexValues(fieldValues, true)) {
+            if (isUnique()) {
+                // if key is already exists for another document, throw error
+                CompositeKey existing = indexMap.ceilingKey(CompositeKey.lowerBound(values));
+                if (existing != null && existing.startsWith(values)
+                    && !existing.getNitriteId().equals(fieldValues.getNitriteId())) {
+                    throw new UniqueConstraintException("Unique key constraint violation for "
+                        + fieldValues.getFields());
+                }
+            }
+            indexMap.put(CompositeKey.of(values, fieldValues.getNitriteId()), Boolean.TRUE);
+        }
+    }
+
+    @Override
+    public void remove(FieldValues fieldValues) {
+        NitriteMap<CompositeKey, Boolean> indexMap = findIndexMap();
+        for (List<DBValue> values : indexValues(fieldValues, false)) {
+            indexMap.remove(CompositeKey.of(values, fieldValues.getNitriteId()));
+        }
+    }
+
+    @Override
+    public void drop() {
+        NitriteMap<CompositeKey, Boolean> indexMap = findIndexMap();
+        indexMap.clear();
+        indexMap.drop();
+    }
+
+    @Override
+    public LinkedHashSet<NitriteId> findNitriteIds(FindPlan findPlan) {
+        LinkedHashSet<NitriteId> nitriteIds = new LinkedHashSet<>();
+        scanNitriteIds(findPlan).forEach(nitriteIds::add);
+        return nitriteIds;
+    }
+
+    @Override
+    public RecordStream<NitriteId> scanNitriteIds(FindPlan findPlan) {
+        if (findPlan.getIndexScanFilter() == null) return RecordStream.empty();
+
+        NitriteMap<CompositeKey, Boolean> indexMap = findIndexMap();
+        List<ComparableFilter> filters = findPlan.getIndexScanFilter().getFilters();
+        IndexMap iMap = new CompositeKeyIndexMap(indexMap, indexDescriptor.getFields().getFieldNames().size());
+        IndexScanner indexScanner = new IndexScanner(iMap, findPlan.isMultiKeyScan());
+        return indexScanner.scan(filters, findPlan.getIndexScanOrder());
+    }
+
+    @Override
+    public RecordStream<Pair<NitriteId, Document>> scanEntries(FindPlan findPlan) {
+        if (findPlan.getIndexScanFilter() == null) return RecordStream.empty();
+
+        List<String> fieldNames = indexDescriptor.getFields().getFieldNames();
+        IndexScanner indexScanner = new IndexScanner(new CompositeKeyIndexMap(findIndexMap(), fieldNames.size()),
+            findPlan.isMultiKeyScan());
+        return indexScanner.scanEntries(fieldNames, findPlan.getIndexScanFilter().getFilters(),
+            findPlan.getIndexScanOrder());
+    }
+
+    @Override
+    public long countNitriteIds(FindPlan findPlan) {
+        if (findPlan.getIndexScanFilter() == null) return 0;
+
+        int fieldCount = indexDescriptor.getFields().getFieldNames().size();
+        IndexScanner indexScanner = new IndexScanner(new CompositeKeyIndexMap(findIndexMap(), fieldCount));
+        return indexScanner.count(findPlan.getIndexScanFilter().getFilters());
+    }
+
+    @Override
+    public IndexStatistics computeStatistics() {
+        return IndexStatistics.of(new CompositeKeyIndexMap(findIndexMap(),
+            indexDescriptor.getFields().getFieldNames().size()));
+    }
+
+    private Collection<List<DBValue>> indexValues(FieldValues fieldValues, boolean validate) {
+        List<Pair<String, Object>> values = fieldValues.getValues();
+        String firstField = values.get(0).getFirst();
+        Object firstValue = values.get(0).getSecond();
+
+        // NOTE: only first field can have array or iterable value, subsequent fields can not
+        if (validate && values.size() > 1) {
+            validateIndexField(firstValue, firstField);
+        }
+
+        List<DBValue> suffix = new ArrayList<>();
+        for (int i = 1; i < values.size(); i++) {
+            DBValue dbValue = toDBValue(values.get(i).getSecond(), validate);
+            if (dbValue == null) {
+                // not an indexed value, nothing to remove
+                return Collections.emptyList();
+            }
+            suffix.add(dbValue);
+        }
+
+        LinkedHashSet<DBValue> firstValues = new LinkedHashSet<>();
+        if (firstValue == null) {
+            firstValues.add(DBNull.getInstance());
+        } else if (firstValue instanceof Comparable) {
+            // wrap around db value
+            firstValues.add(new DBValue((Comparable<?>) firstValue));
+        } else if (firstValue.getClass().isArray()) {
+            Object[] array = convertToObjectArray(firstValue);
+
+            for (Object item : array) {
+                // wrap around db value
+                firstValues.add(item == null ? DBNull.getInstance() : new DBValue((Comparable<?>) item));
+            }
+        } else if (firstValue instanceof Iterable) {
+            Iterable<?> iterable = (Iterable<?>) firstValue;
+
+            for (Object item : iterable) {
+                // wrap around db value
+                firstValues.add(item == null ? DBNull.getInstance() : new DBValue((Comparable<?>) item));
+            }
+        }
+
+        List<List<DBValue>> keys = new ArrayList<>();
+        for (DBValue dbValue : firstValues) {
+            List<DBValue> key = new ArrayList<>();
+            key.add(dbValue);
+            key.addAll(suffix);
+            keys.add(key);
+        }
+        return keys;
+    }
+
+    private DBValue toDBValue(Object value, boolean validate) {
+        if (value == null) {
+            return DBNull.getInstance();
+        }
+
+        if (Iterable.class.isAssignableFrom(value.getClass()) || value.getClass().isArray()) {
+            if (!validate) return null;
+            throw new IndexingException("Compound multikey index is supported on the first field of the index only");
+        }
+
+        if (!(value instanceof Comparable)) {
+            if (!validate) return null;
+            throw new IndexingException(value + " is not a comparable type");
+        }
+        return new DBValue((Comparable<?>) value);
+    }
+
+    private NitriteMap<CompositeKey, Boolean> findIndexMap() {
+        String mapName = deriveIndexMapName(indexDescriptor);
+        return nitriteStore.openMap(mapName, CompositeKey.class, Boolean.class);
+    }
+}
@@ -0,0 +1,299 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.index;
+
+import org.dizitart.no2.collection.NitriteId;
+import org.dizitart.no2.common.DBNull;
+import org.dizitart.no2.common.DBValue;
+import org.dizitart.no2.common.tuples.Pair;
+import org.dizitart.no2.store.NitriteMap;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * An {@link IndexMap} over an index stored in {@link IndexLayout#COMPOSITE_KEY}
+ * layout. It presents one field of the index at a time: the distinct values of
+ * that field, under a fixed prefix of values of the preceding fields, are the
+ * keys of the map. The value of a key is the list of {@link NitriteId}s for the
+ * last field of the index, or else a {@link CompositeKeyIndexMap} of the next
+ * field, so that the filters and the {@link IndexScanner} can scan it like any
+ * other index map. Each navigation is a single seek to the lower or upper
+ * bound of a prefix in the underlying map. A range of values of the last
+ * field is read by a single range scan of the underlying map, while a range
+ * of values of an intermediate field takes one seek per distinct value.
+ *
+ * @author Anindya Chatterjee
+ * @since 4.3
+ */
+@SuppressWarnings("unchecked")
+class CompositeKeyIndexMap extends IndexMap {
+    private final NitriteMap<CompositeKey, ?> nitriteMap;
+    private final List<DBValue> prefix;
+    private final int fieldCount;
+
+    /**
+     * Instantiates a new {@link CompositeKeyIndexMap} over the first field of the index.
+     *
+     * @param nitriteMap the nitrite map
+     * @param fieldCount the number of fields of the index
+     */
+    CompositeKeyIndexMap(NitriteMap<CompositeKey, ?> nitriteMap, int fieldCount) {
+        this(nitriteMap, Collections.emptyList(), fieldCount);
+    }
+
+    private CompositeKeyIndexMap(NitriteMap<CompositeKey, ?> nitriteMap, List<DBValue> prefix, int fieldCount) {
+        this.nitriteMap = nitriteMap;
+        this.prefix = prefix;
+        this.fieldCount = fieldCount;
+    }
+
+    @Override
+    public <T extends Comparable<T>> T firstKey() {
+        return unwrap(value(nitriteMap.ceilingKey(CompositeKey.lowerBound(prefix))));
+    }
+
+    @Override
+    public <T extends Comparable<T>> T lastKey() {
+        return unwrap(value(nitriteMap.floorKey(CompositeKey.upperBound(prefix))));
+    }
+
+    @Override
+    public <T extends Comparable<T>> T lowerKey(T key) {
+        return unwrap(lowerValue(wrap(key)));
+    }
+
+    @Override
+    public <T extends Comparable<T>> T higherKey(T key) {
+        return unwrap(higherValue(wrap(key)));
+    }
+
+    @Override
+    public <T extends Comparable<T>> T ceilingKey(T key) {
+        return unwrap(value(nitriteMap.ceilingKey(CompositeKey.lowerBound(append(wrap(key))))));
+    }
+
+    @Override
+    public <T extends Comparable<T>> T floorKey(T key) {
+        return unwrap(value(nitriteMap.floorKey(CompositeKey.upperBound(append(wrap(key))))));
+    }
+
+    @Override
+    public Object get(Comparable<?> comparable) {
+        return valueOf(wrap(comparable));
+    }
+
+    @Override
+    public Iterable<? extends Pair<Comparable<?>, ?>> entries() {
+        return group(CompositeKey.lowerBound(prefix), CompositeKey.upperBound(prefix), false);
+    }
+
+    @Override
+    public Iterable<? extends Pair<Comparable<?>, ?>> entries(Comparable<?> from, boolean fromInclusive,
+                                                              Comparable<?> to, boolean toInclusive) {
+        CompositeKey lower = from == null ? CompositeKey.lowerBound(prefix)
+            : fromInclusive ? CompositeKey.lowerBound(append(wrap(from)))
+            : CompositeKey.upperBound(append(wrap(from)));
+        CompositeKey upper = to == null ? CompositeKey.upperBound(prefix)
+            : toInclusive ? CompositeKey.upperBound(append(wrap(to)))
+            : CompositeKey.lowerBound(append(wrap(to)));
+        return group(lower, upper, true);
+    }
+
+    @Override
+    public List<NitriteId> getTerminalNitriteIds() {
+        // keys are already in index order, so collect the ids in one pass
+        List<NitriteId> nitriteIds = new ArrayList<>();
+        if (prefix.isEmpty()) {
+            Iterable<? extends Pair<CompositeKey, ?>> entries = isReverseScan()
+                ? nitriteMap.reversedEntries()
+                : nitriteMap.entries();
+
+            for (Pair<CompositeKey, ?> entry : entries) {
+                nitriteIds.add(entry.getFirst().getNitriteId());
+            }
+        } else {
+            for (Pair<CompositeKey, ?> entry : nitriteMap.entries(CompositeKey.lowerBound(prefix), true,
+                CompositeKey.upperBound(prefix), true, isReverseScan())) {
+                nitriteIds.add(entry.getFirst().getNitriteId());
+            }
+        }
+        return new CopyOnWriteArrayList<>(nitriteIds);
+    }
+
+    private Object valueOf(DBValue dbValue) {
+        List<DBValue> keyPrefix = append(dbValue);
+        CompositeKey key = nitriteMap.ceilingKey(CompositeKey.lowerBound(keyPrefix));
+        if (key == null || !key.startsWith(keyPrefix)) {
+            return null;
+        }
+
+        if (keyPrefix.size() < fieldCount) {
+            // intermediate field, scan the next field under the extended prefix
+            return new CompositeKeyIndexMap(nitriteMap, keyPrefix, fieldCount);
+        }
+
+        // terminal field, collect the ids of the value
+        List<NitriteId> nitriteIds = new ArrayList<>();
+        for (Pair<CompositeKey, ?> entry : nitriteMap.entries(key, true,
+            CompositeKey.upperBound(keyPrefix), true, false)) {
+            nitriteIds.add(entry.getFirst().getNitriteId());
+        }
+        return nitriteIds;
+    }
+
+    private Iterable<Pair<Comparable<?>, ?>> group(CompositeKey lower, CompositeKey upper, boolean skipNull) {
+        if (prefix.size() + 1 < fieldCount) {
+            return skip(lower, upper, skipNull);
+        }
+
+        // a single scan over the range, where the consecutive keys having the
+        // same value of this field make up one entry of the map
+        final boolean reverseScan = isReverseScan();
+        return () -> new Iterator<Pair<Comparable<?>, ?>>() {
+            private final Iterator<? extends Pair<CompositeKey, ?>> keyIterator =
+                nitriteMap.entries(lower, true, upper, true, reverseScan).iterator();
+            private CompositeKey pending = keyIterator.hasNext() ? keyIterator.next().getFirst() : null;
+            private Pair<Comparable<?>, ?> nextEntry = fetch();
+
+            @Override
+            public boolean hasNext() {
+                return nextEntry != null;
+            }
+
+            @Override
+            public Pair<Comparable<?>, ?> next() {
+                if (nextEntry == null) {
+                    throw new NoSuchElementException();
+                }
+
+                Pair<Comparable<?>, ?> entry = nextEntry;
+                nextEntry = fetch();
+                return entry;
+            }
+
+            private Pair<Comparable<?>, ?> fetch() {
+                while (pending != null) {
+                    DBValue dbValue = pending.getValues().get(prefix.size());
+                    List<DBValue> keyPrefix = append(dbValue);
+                    boolean terminal = keyPrefix.size() == fieldCount;
+
+                    List<NitriteId> nitriteIds = new ArrayList<>();
+                    while (pending != null && pending.startsWith(keyPrefix)) {
+                        if (terminal) {
+                            nitriteIds.add(pending.getNitriteId());
+                        }
+                        pending = keyIterator.hasNext() ? keyIterator.next().getFirst() : null;
+                    }
+
+                    if (skipNull && dbValue instanceof DBNull) {
+                        continue;
+                    }
+
+                    Comparable<?> key = unwrap(dbValue);
+                    Object value = terminal ? nitriteIds
+                        : new CompositeKeyIndexMap(nitriteMap, keyPrefix, fieldCount);
+                    return new Pair<>(key, value);
+                }
+                return null;
+            }
+        };
+    }
+
+    private Iterable<Pair<Comparable<?>, ?>> skip(CompositeKey lower, CompositeKey upper, boolean skipNull) {
+        // an intermediate field reads none of the keys under a value, it seeks
+        // past all of them to the next value instead, so that each distinct value
+        // costs a single seek and the keys are only read by the terminal sub-map
+        final boolean reverseScan = isReverseScan();
+        return () -> new Iterator<Pair<Comparable<?>, ?>>() {
+            private CompositeKey pending = bounded(reverseScan
+                ? nitriteMap.floorKey(upper) : nitriteMap.ceilingKey(lower));
+            private Pair<Comparable<?>, ?> nextEntry = fetch();
+
+            @Override
+            public boolean hasNext() {
+                return nextEntry != null;
+            }
+
+            @Override
+            public Pair<Comparable<?>, ?> next() {
+                if (nextEntry == null) {
+                    throw new NoSuchElementException();
+                }
+
+                Pair<Comparable<?>, ?> entry = nextEntry;
+                nextEntry = fetch();
+                return entry;
+            }
+
+            private Pair<Comparable<?>, ?> fetch() {
+                while (pending != null) {
+                    DBValue dbValue = pending.getValues().get(prefix.size());
+                    List<DBValue> keyPrefix = append(dbValue);
+                    pending = bounded(reverseScan
+                        ? nitriteMap.floorKey(CompositeKey.lowerBound(keyPrefix))
+                        : nitriteMap.ceilingKey(CompositeKey.upperBound(keyPrefix)));
+
+                    if (skipNull && dbValue instanceof DBNull) {
+                        continue;
+                    }
+
+                    Comparable<?> key = unwrap(dbValue);
+                    return new Pair<>(key, new CompositeKeyIndexMap(nitriteMap, keyPrefix, fieldCount));
+                }
+                return null;
+            }
+
+            private CompositeKey bounded(CompositeKey key) {
+                return key == null || key.compareTo(lower) < 0 || key.compareTo(upper) > 0 ? null : key;
+            }
+        };
+    }
+
+    private DBValue higherValue(DBValue dbValue) {
+        return value(nitriteMap.ceilingKey(CompositeKey.upperBound(append(dbValue))));
+    }
+
+    private DBValue lowerValue(DBValue dbValue) {
+        return value(nitriteMap.floorKey(CompositeKey.lowerBound(append(dbValue))));
+    }
+
+    private List<DBValue> append(DBValue dbValue) {
+        List<DBValue> values = new ArrayList<>(prefix.size() + 1);
+        values.addAll(prefix);
+        values.add(dbValue);
+        return values;
+    }
+
+    private DBValue value(CompositeKey key) {
+        // a key outside of the prefix does not belong to this map
+        return key == null || !key.startsWith(prefix) ? null : key.getValues().get(prefix.size());
+    }
+
+    private DBValue wrap(Comparable<?> key) {
+        return key == null ? DBNull.getInstance() : new DBValue(key);
+    }
+
+    private <T extends Comparable<T>> T unwrap(DBValue dbValue) {
+        return dbValue == null || dbValue instanceof DBNull ? null : (T) dbValue.getValue();
+    }
+}
@@ -18,12 +18,14 @@
 package org.dizitart.no2.index;
 
 import lombok.Getter;
+import org.dizitart.no2.collection.Document;
 import org.dizitart.no2.collection.FindPlan;
 import org.dizitart.no2.collection.NitriteId;
 import org.dizitart.no2.common.DBNull;
 import org.dizitart.no2.common.DBValue;
 import org.dizitart.no2.common.FieldValues;
 import org.dizitart.no2.common.Fields;
+import org.dizitart.no2.common.RecordStream;
 import org.dizitart.no2.common.tuples.Pair;
 import org.dizitart.no2.exceptions.IndexingException;
 import org.dizitart.no2.filters.ComparableFilter;
@@ -140,12 +142,41 @@ public class CompoundIndex implements NitriteIndex {
 
     @Override
     public LinkedHashSet<NitriteId> findNitriteIds(FindPlan findPlan) {
-        if (findPlan.getIndexScanFilter() == null) return new LinkedHashSet<>();
+        LinkedHashSet<NitriteId> nitriteIds = new LinkedHashSet<>();
+        scanNitriteIds(findPlan).forEach(nitriteIds::add);
+        return nitriteIds;
+    }
+
+    @Override
+    public RecordStream<NitriteId> scanNitriteIds(FindPlan findPlan) {
+        if (findPlan.getIndexScanFilter() == null) return RecordStream.empty();
 
         NitriteMap<DBValue, NavigableMap<DBValue, ?>> indexMap = findIndexMap();
         return scanIndex(findPlan, indexMap);
     }
 
+    @Override
+    public RecordStream<Pair<NitriteId, Document>> scanEntries(FindPlan findPlan) {
+        if (findPlan.getIndexScanFilter() == null) return RecordStream.empty();
+
+        IndexScanner indexScanner = new IndexScanner(new IndexMap(findIndexMap()), findPlan.isMultiKeyScan());
+        return indexScanner.scanEntries(indexDescriptor.getFields().getFieldNames(),
+            findPlan.getIndexScanFilter().getFilters(), findPlan.getIndexScanOrder());
+    }
+
+    @Override
+    public long countNitriteIds(FindPlan findPlan) {
+        if (findPlan.getIndexScanFilter() == null) return 0;
+
+        IndexScanner indexScanner = new IndexScanner(new IndexMap(findIndexMap()));
+        return indexScanner.count(findPlan.getIndexScanFilter().getFilters());
+    }
+
+    @Override
+    public IndexStatistics computeStatistics() {
+        return IndexStatistics.of(new IndexMap(findIndexMap()));
+    }
+
     private void addIndexElement(NitriteMap<DBValue, NavigableMap<DBValue, ?>> indexMap,
                                  FieldValues fieldValues, DBValue element) {
         NavigableMap<DBValue, ?> subMap = indexMap.get(element);
@@ -245,11 +276,11 @@ public class CompoundIndex implements NitriteIndex {
         return nitriteStore.openMap(mapName, DBValue.class, ConcurrentSkipListMap.class);
     }
 
-    private LinkedHashSet<NitriteId> scanIndex(FindPlan findPlan,
-                                               NitriteMap<DBValue, NavigableMap<DBValue, ?>> indexMap) {
+    private RecordStream<NitriteId> scanIndex(FindPlan findPlan,
+                                              NitriteMap<DBValue, NavigableMap<DBValue, ?>> indexMap) {
         List<ComparableFilter> filters = findPlan.getIndexScanFilter().getFilters();
         IndexMap iMap = new IndexMap(indexMap);
-        IndexScanner indexScanner = new IndexScanner(iMap);
-        return indexScanner.doScan(filters, findPlan.getIndexScanOrder());
+        IndexScanner indexScanner = new IndexScanner(iMap, findPlan.isMultiKeyScan());
+        return indexScanner.scan(filters, findPlan.getIndexScanOrder());
     }
 }
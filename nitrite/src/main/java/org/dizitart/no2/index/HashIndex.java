@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.index;
+
+import lombok.Getter;
+import org.dizitart.no2.collection.FindPlan;
+import org.dizitart.no2.collection.NitriteId;
+import org.dizitart.no2.common.FieldValues;
+import org.dizitart.no2.common.RecordStream;
+import org.dizitart.no2.exceptions.FilterException;
+import org.dizitart.no2.filters.ComparableFilter;
+import org.dizitart.no2.store.NitriteMap;
+import org.dizitart.no2.store.NitriteStore;
+
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.dizitart.no2.common.util.IndexUtils.deriveIndexMapName;
+import static org.dizitart.no2.common.util.ObjectUtils.convertToObjectArray;
+
+/**
+ * Represents a hash index on a single field. The ids of each indexed value
+ * are stored under the {@link HashKey} of the value, so the index can only
+ * find the documents equal to some values, but it never orders the values.
+ *
+ * @author Anindya Chatterjee
+ * @since 4.3
+ */
+public class HashIndex implements NitriteIndex {
+    @Getter
+    private final IndexDescriptor indexDescriptor;
+    private final NitriteStore<?> nitriteStore;
+
+    /**
+     * Instantiates a new {@link HashIndex}.
+     *
+     * @param indexDescriptor the index descriptor
+     * @param nitriteStore    the nitrite store
+     */
+    public HashIndex(IndexDescriptor indexDescriptor, NitriteStore<?> nitriteStore) {
+        this.indexDescriptor = indexDescriptor;
+        this.nitriteStore = nitriteStore;
+    }
+
+    @Override
+    public void write(FieldValues fieldValues) {
+        NitriteMap<HashKey, Collection<?>> indexMap = findIndexMap();
+        for (HashKey hashKey : hashKeys(fieldValues)) {
+            addIndexElement(indexMap, fieldValues, hashKey);
+        }
+    }
+
+    @Override
+    public void remove(FieldValues fieldValues) {
+        NitriteMap<HashKey, Collection<?>> indexMap = findIndexMap();
+        for (HashKey hashKey : hashKeys(fieldValues)) {
+            removeIndexElement(indexMap, fieldValues, hashKey);
+        }
+    }
+
+    @Override
+    public void drop() {
+        NitriteMap<HashKey, Collection<?>> indexMap = findIndexMap();
+        indexMap.clear();
+        indexMap.drop();
+    }
+
+    @Override
+    public LinkedHashSet<NitriteId> findNitriteIds(FindPlan findPlan) {
+        LinkedHashSet<NitriteId> nitriteIds = new LinkedHashSet<>();
+        scanNitriteIds(findPlan).forEach(nitriteIds::add);
+        return nitriteIds;
+    }
+
+    @Override
+    public RecordStream<NitriteId> scanNitriteIds(FindPlan findPlan) {
+        if (findPlan.getIndexScanFilter() == null) return RecordStream.empty();
+
+        List<ComparableFilter> filters = findPlan.getIndexScanFilter().getFilters();
+        Collection<Comparable<?>> values = filters.size() == 1 ? filters.get(0).getLookupValues() : null;
+        if (values == null) {
+            throw new FilterException("Hash index on " + indexDescriptor.getFields()
+                + " only supports equality filters");
+        }
+
+        NitriteMap<HashKey, Collection<?>> indexMap = findIndexMap();
+        return () -> new LookupIterator(indexMap, values.iterator());
+    }
+
+    private Collection<HashKey> hashKeys(FieldValues fieldValues) {
+        String firstField = fieldValues.getFields().getFieldNames().get(0);
+        Object element = fieldValues.get(firstField);
+
+        List<HashKey> hashKeys = new ArrayList<>();
+        if (element == null) {
+            hashKeys.add(HashKey.of(null));
+        } else if (element instanceof Comparable) {
+            hashKeys.add(HashKey.of((Comparable<?>) element));
+        } else if (element.getClass().isArray()) {
+            for (Object item : convertToObjectArray(element)) {
+                hashKeys.add(HashKey.of((Comparable<?>) item));
+            }
+        } else if (element instanceof Iterable) {
+            for (Object item : (Iterable<?>) element) {
+                hashKeys.add(HashKey.of((Comparable<?>) item));
+            }
+        }
+        return hashKeys;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void addIndexElement(NitriteMap<HashKey, Collection<?>> indexMap,
+                                 FieldValues fieldValues, HashKey hashKey) {
+        Collection<NitriteId> nitriteIds = (Collection<NitriteId>) indexMap.get(hashKey);
+        if (isBitmap()) {
+            // the stored bitmap may be read concurrently, so a copy is updated
+            NitriteIdBitmap bitmap = new NitriteIdBitmap(nitriteIds);
+            bitmap.add(fieldValues.getNitriteId());
+            indexMap.put(hashKey, bitmap);
+        } else {
+            nitriteIds = addNitriteIds((List<NitriteId>) nitriteIds, fieldValues);
+            indexMap.put(hashKey, nitriteIds);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void removeIndexElement(NitriteMap<HashKey, Collection<?>> indexMap,
+                                    FieldValues fieldValues, HashKey hashKey) {
+        Collection<NitriteId> nitriteIds = (Collection<NitriteId>) indexMap.get(hashKey);
+        if (nitriteIds != null && !nitriteIds.isEmpty()) {
+            if (isBitmap()) {
+                nitriteIds = new NitriteIdBitmap(nitriteIds);
+            }
+
+            nitriteIds.remove(fieldValues.getNitriteId());
+            if (nitriteIds.size() == 0) {
+                indexMap.remove(hashKey);
+            } else {
+                indexMap.put(hashKey, nitriteIds);
+            }
+        }
+    }
+
+    private boolean isBitmap() {
+        return IndexLayout.BITMAP.equals(indexDescriptor.getLayout());
+    }
+
+    private NitriteMap<HashKey, Collection<?>> findIndexMap() {
+        String mapName = deriveIndexMapName(indexDescriptor);
+        return nitriteStore.openMap(mapName, HashKey.class,
+            isBitmap() ? NitriteIdBitmap.class : CopyOnWriteArrayList.class);
+    }
+
+    private static class LookupIterator implements Iterator<NitriteId> {
+        private final NitriteMap<HashKey, Collection<?>> indexMap;
+        private final Iterator<Comparable<?>> values;
+        // an id found under more than one value is returned once
+        private final Set<NitriteId> seen = new NitriteIdBitmap();
+        private Iterator<?> current = Collections.emptyIterator();
+        private NitriteId nextId;
+
+        LookupIterator(NitriteMap<HashKey, Collection<?>> indexMap, Iterator<Comparable<?>> values) {
+            this.indexMap = indexMap;
+            this.values = values;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (nextId == null) {
+                if (current.hasNext()) {
+                    NitriteId nitriteId = (NitriteId) current.next();
+                    if (seen.add(nitriteId)) {
+                        nextId = nitriteId;
+                    }
+                } else if (values.hasNext()) {
+                    Collection<?> nitriteIds = indexMap.get(HashKey.of(values.next()));
+                    current = nitriteIds == null ? Collections.emptyIterator() : nitriteIds.iterator();
+                } else {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public NitriteId next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            NitriteId nitriteId = nextId;
+            nextId = null;
+            return nitriteId;
+        }
+    }
+}
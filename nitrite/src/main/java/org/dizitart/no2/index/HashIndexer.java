@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.index;
+
+import org.dizitart.no2.NitriteConfig;
+import org.dizitart.no2.collection.FindPlan;
+import org.dizitart.no2.collection.NitriteId;
+import org.dizitart.no2.common.FieldValues;
+import org.dizitart.no2.common.Fields;
+import org.dizitart.no2.common.RecordStream;
+import org.dizitart.no2.exceptions.IndexingException;
+
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An indexer for the {@link IndexType#HASH} indexes. A hash index answers only
+ * the equality filters, like <code>eq</code> and <code>in</code>, and it is never
+ * used for a range filter or for sorting. It suits the fields which are only
+ * looked up by exact values, like ids, external keys or emails.
+ *
+ * @author Anindya Chatterjee
+ * @since 4.3
+ */
+public class HashIndexer implements NitriteIndexer {
+    private final Map<IndexDescriptor, HashIndex> indexRegistry;
+
+    /**
+     * Instantiates a new {@link HashIndexer}.
+     */
+    public HashIndexer() {
+        this.indexRegistry = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public void initialize(NitriteConfig nitriteConfig) {
+    }
+
+    @Override
+    public String getIndexType() {
+        return IndexType.HASH;
+    }
+
+    @Override
+    public void validateIndex(Fields fields) {
+        if (fields.getFieldNames().size() > 1) {
+            throw new IndexingException("Hash index can only be created on a single field");
+        }
+    }
+
+    @Override
+    public void dropIndex(IndexDescriptor indexDescriptor, NitriteConfig nitriteConfig) {
+        HashIndex hashIndex = findHashIndex(indexDescriptor, nitriteConfig);
+        hashIndex.drop();
+    }
+
+    @Override
+    public void writeIndexEntry(FieldValues fieldValues, IndexDescriptor indexDescriptor, NitriteConfig nitriteConfig) {
+        HashIndex hashIndex = findHashIndex(indexDescriptor, nitriteConfig);
+        hashIndex.write(fieldValues);
+    }
+
+    @Override
+    public void removeIndexEntry(FieldValues fieldValues, IndexDescriptor indexDescriptor, NitriteConfig nitriteConfig) {
+        HashIndex hashIndex = findHashIndex(indexDescriptor, nitriteConfig);
+        hashIndex.remove(fieldValues);
+    }
+
+    @Override
+    public LinkedHashSet<NitriteId> findByFilter(FindPlan findPlan, NitriteConfig nitriteConfig) {
+        HashIndex hashIndex = findHashIndex(findPlan.getIndexDescriptor(), nitriteConfig);
+        return hashIndex.findNitriteIds(findPlan);
+    }
+
+    @Override
+    public RecordStream<NitriteId> streamByFilter(FindPlan findPlan, NitriteConfig nitriteConfig) {
+        HashIndex hashIndex = findHashIndex(findPlan.getIndexDescriptor(), nitriteConfig);
+        return hashIndex.scanNitriteIds(findPlan);
+    }
+
+    @Override
+    public void close() {
+        indexRegistry.clear();
+    }
+
+    private HashIndex findHashIndex(IndexDescriptor indexDescriptor, NitriteConfig nitriteConfig) {
+        if (indexDescriptor == null) {
+            throw new IndexingException("Index descriptor cannot be null");
+        }
+
+        if (indexRegistry.containsKey(indexDescriptor)) {
+            return indexRegistry.get(indexDescriptor);
+        }
+
+        HashIndex hashIndex = new HashIndex(indexDescriptor, nitriteConfig.getNitriteStore());
+        indexRegistry.put(indexDescriptor, hashIndex);
+        return hashIndex;
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.index;
+
+import lombok.Getter;
+import org.dizitart.no2.common.util.Comparables;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+
+/**
+ * Represents a key of a hash index.
+ * <p>
+ * A hash key consists of an indexed value and its hash. Keys are ordered by
+ * the hash first, so finding a value in the index map mostly compares the
+ * fixed width hashes, and the values themselves are compared only when their
+ * hashes are equal. Values of different types are never equal.
+ * <p>
+ * The hash of a value is persisted along with the index, so it must not
+ * change between runs. It holds for strings, numbers, dates, enums and
+ * other values with a well defined {@link Object#hashCode()}.
+ *
+ * @author Anindya Chatterjee
+ * @since 4.3
+ */
+public class HashKey implements Comparable<HashKey>, Serializable {
+    private static final long serialVersionUID = 1729164214L;
+
+    /**
+     * Gets the hash of the value.
+     *
+     * @return the hash.
+     */
+    @Getter
+    private int hash;
+
+    /**
+     * Gets the indexed value, or {@code null}.
+     *
+     * @return the value.
+     */
+    @Getter
+    private Comparable<?> value;
+
+    private HashKey(int hash, Comparable<?> value) {
+        this.hash = hash;
+        this.value = value;
+    }
+
+    /**
+     * Creates a key of an indexed value.
+     *
+     * @param value the value
+     * @return the hash key
+     */
+    public static HashKey of(Comparable<?> value) {
+        return new HashKey(hashOf(value), value);
+    }
+
+    @Override
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public int compareTo(HashKey other) {
+        int result = Integer.compare(hash, other.hash);
+        if (result != 0) return result;
+
+        // null value always comes first
+        if (value == null || other.value == null) {
+            return value == null ? (other.value == null ? 0 : -1) : 1;
+        }
+
+        if (value.getClass() != other.value.getClass()) {
+            // values of different types have no natural order
+            return value.getClass().getName().compareTo(other.value.getClass().getName());
+        }
+        return Comparables.compare((Comparable) value, (Comparable) other.value);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof HashKey)) return false;
+        return compareTo((HashKey) o) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "HashKey{" +
+            "hash=" + hash +
+            ", value=" + value +
+            '}';
+    }
+
+    private static int hashOf(Comparable<?> value) {
+        if (value == null) return 0;
+        if (value instanceof Enum) {
+            // the hash of an enum constant changes between runs
+            return ((Enum<?>) value).name().hashCode();
+        }
+        return value.hashCode();
+    }
+
+    private void writeObject(ObjectOutputStream stream) throws IOException {
+        stream.writeInt(hash);
+        stream.writeObject(value);
+    }
+
+    private void readObject(ObjectInputStream stream) throws IOException, ClassNotFoundException {
+        hash = stream.readInt();
+        value = (Comparable<?>) stream.readObject();
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.index;
+
+import lombok.Getter;
+import lombok.ToString;
+import org.dizitart.no2.common.Fields;
+
+/**
+ * The progress of an index built in the background, posted as the item
+ * of an {@link org.dizitart.no2.collection.events.EventType#IndexProgress}
+ * event.
+ *
+ * @author Anindya Chatterjee
+ * @since 4.3
+ */
+@Getter
+@ToString
+public class IndexBuildProgress {
+    /**
+     * The fields of the index.
+     *
+     * @return the fields of the index.
+     */
+    private final Fields fields;
+
+    /**
+     * The number of documents indexed so far.
+     *
+     * @return the number of documents indexed so far.
+     */
+    private final long indexedCount;
+
+    /**
+     * The number of documents in the collection when the build started.
+     *
+     * @return the number of documents to index.
+     */
+    private final long totalCount;
+
+    /**
+     * The estimated time in milliseconds to index the rest of the documents.
+     *
+     * @return the estimated remaining time in milliseconds.
+     */
+    private final long remainingMillis;
+
+    /**
+     * Instantiates a new {@link IndexBuildProgress}.
+     *
+     * @param fields        the fields of the index
+     * @param indexedCount  the number of documents indexed so far
+     * @param totalCount    the number of documents to index
+     * @param elapsedMillis the time in milliseconds spent so far
+     */
+    public IndexBuildProgress(Fields fields, long indexedCount, long totalCount, long elapsedMillis) {
+        this.fields = fields;
+        this.indexedCount = indexedCount;
+        this.totalCount = totalCount;
+        this.remainingMillis = indexedCount == 0 || indexedCount >= totalCount ? 0
+            : elapsedMillis * (totalCount - indexedCount) / indexedCount;
+    }
+
+    /**
+     * Gets the percentage of the documents indexed so far.
+     *
+     * @return the percentage of the documents indexed.
+     */
+    public double getPercentage() {
+        return totalCount == 0 ? 100.0 : Math.min(100.0, indexedCount * 100.0 / totalCount);
+    }
+}
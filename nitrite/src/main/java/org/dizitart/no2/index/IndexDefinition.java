@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.index;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.dizitart.no2.common.Fields;
+
+import static org.dizitart.no2.common.util.ValidationUtils.notNull;
+
+/**
+ * Describes one of the indexes to create together in a single scan
+ * of a collection.
+ *
+ * @author Anindya Chatterjee
+ * @see org.dizitart.no2.common.PersistentCollection#createIndexes(java.util.List)
+ * @since 4.3
+ */
+@Getter
+@EqualsAndHashCode
+public class IndexDefinition {
+    /**
+     * The fields to be indexed.
+     *
+     * @return the fields to be indexed.
+     */
+    private final Fields fields;
+
+    /**
+     * The options of the index. If {@code null}, a unique index is created.
+     *
+     * @return the options of the index.
+     */
+    private final IndexOptions indexOptions;
+
+    private IndexDefinition(IndexOptions indexOptions, Fields fields) {
+        this.indexOptions = indexOptions;
+        this.fields = fields;
+    }
+
+    /**
+     * Creates an {@link IndexDefinition} of an index with the
+     * specified <code>indexOptions</code> on the <code>fields</code>.
+     *
+     * @param indexOptions the options of the index.
+     * @param fields       the fields to be indexed.
+     * @return the index definition.
+     */
+    public static IndexDefinition indexDefinition(IndexOptions indexOptions, String... fields) {
+        notNull(fields, "fields cannot be null");
+        return new IndexDefinition(indexOptions, Fields.withNames(fields));
+    }
+}
@@ -18,15 +18,25 @@ package org.dizitart.no2.index;
 
 import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import org.dizitart.no2.collection.Document;
 import org.dizitart.no2.common.Fields;
 
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.io.OptionalDataException;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
+import static org.dizitart.no2.common.util.ObjectUtils.deepEquals;
 import static org.dizitart.no2.common.util.ValidationUtils.notEmpty;
 import static org.dizitart.no2.common.util.ValidationUtils.notNull;
 
@@ -40,6 +50,13 @@ import static org.dizitart.no2.common.util.ValidationUtils.notNull;
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class IndexDescriptor implements Comparable<IndexDescriptor>, Serializable {
     private static final long serialVersionUID = 1576690829L;
+    private static final String LAYOUT = "layout";
+    private static final String PARTIAL_FILTER = "partialFilter";
+    private static final String SUBSTRING_SEARCH = "substringSearch";
+    private static final String SCORED = "scored";
+    private static final String POSITIONAL = "positional";
+    private static final String BUILD_ERROR = "buildError";
+    private static final String EXPRESSIONS = "expressions";
 
     /**
      * Specifies the type of the index.
@@ -68,6 +85,20 @@ public class IndexDescriptor implements Comparable<IndexDescriptor>, Serializabl
     @Getter
     private String collectionName;
 
+    /**
+     * Gets the additional persistent options of the index, like
+     * its storage layout. It is {@code null} if the index has been
+     * created with default options. The options are immutable and
+     * not part of the identity of the index, which is made up of its
+     * type, fields and collection only.
+     *
+     * @return the index options.
+     * @since 4.3
+     */
+    @Getter
+    @EqualsAndHashCode.Exclude
+    private Map<String, Object> options;
+
     /**
      * Instantiates a new Index.
      *
@@ -111,6 +142,257 @@ public class IndexDescriptor implements Comparable<IndexDescriptor>, Serializabl
         return -1;
     }
 
+    /**
+     * Sets the additional persistent options of the index.
+     *
+     * @param options the index options
+     * @since 4.3
+     */
+    public void setOptions(Map<String, Object> options) {
+        this.options = options == null || options.isEmpty() ? null
+            : Collections.unmodifiableMap(new HashMap<>(options));
+    }
+
+    /**
+     * Gets the storage layout of the index.
+     *
+     * @return the storage layout.
+     * @see IndexLayout
+     * @since 4.3
+     */
+    public String getLayout() {
+        Object layout = options == null ? null : options.get(LAYOUT);
+        return layout == null ? IndexLayout.POSTING_LIST : (String) layout;
+    }
+
+    /**
+     * Sets the storage layout of the index.
+     *
+     * @param layout the storage layout
+     * @see IndexLayout
+     * @since 4.3
+     */
+    public void setLayout(String layout) {
+        if (layout == null || IndexLayout.POSTING_LIST.equals(layout)) {
+            removeOption(LAYOUT);
+        } else {
+            putOption(LAYOUT, layout);
+        }
+    }
+
+    /**
+     * Gets the field values a document must have to be indexed by
+     * a partial index. It is {@code null} if all the documents are indexed.
+     *
+     * @return the field values of the indexed documents.
+     * @see IndexOptions#getPartialFilter()
+     * @since 4.3
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> getPartialFilter() {
+        Object partialFilter = options == null ? null : options.get(PARTIAL_FILTER);
+        return partialFilter == null ? null : Collections.unmodifiableMap((Map<String, Object>) partialFilter);
+    }
+
+    /**
+     * Sets the field values a document must have to be indexed.
+     *
+     * @param partialFilter the field values of the indexed documents
+     * @since 4.3
+     */
+    public void setPartialFilter(Map<String, Object> partialFilter) {
+        if (partialFilter == null || partialFilter.isEmpty()) {
+            removeOption(PARTIAL_FILTER);
+        } else {
+            putOption(PARTIAL_FILTER, new LinkedHashMap<>(partialFilter));
+        }
+    }
+
+    /**
+     * Indicates if this descriptor is for a partial index.
+     *
+     * @return the boolean
+     * @since 4.3
+     */
+    public boolean isPartialIndex() {
+        return options != null && options.containsKey(PARTIAL_FILTER);
+    }
+
+    /**
+     * Checks if the {@code document} is indexed by this index. A partial
+     * index only indexes the documents matching its filter.
+     *
+     * @param document the document
+     * @return {@code true} if the document is indexed.
+     * @since 4.3
+     */
+    public boolean isIndexed(Document document) {
+        Map<String, Object> partialFilter = getPartialFilter();
+        if (partialFilter == null) return true;
+
+        for (Map.Entry<String, Object> entry : partialFilter.entrySet()) {
+            if (!deepEquals(document.get(entry.getKey()), entry.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the expressions whose values are indexed instead of the fields
+     * of the same name. It is {@code null} if only fields are indexed.
+     *
+     * @return the expressions of the index.
+     * @see IndexOptions#getExpressions()
+     * @since 4.3
+     */
+    @SuppressWarnings("unchecked")
+    public List<IndexExpression> getExpressions() {
+        Object expressions = options == null ? null : options.get(EXPRESSIONS);
+        return expressions == null ? null : Collections.unmodifiableList((List<IndexExpression>) expressions);
+    }
+
+    /**
+     * Sets the expressions whose values are indexed instead of the fields
+     * of the same name.
+     *
+     * @param expressions the expressions of the index
+     * @since 4.3
+     */
+    public void setExpressions(List<IndexExpression> expressions) {
+        if (expressions == null || expressions.isEmpty()) {
+            removeOption(EXPRESSIONS);
+        } else {
+            putOption(EXPRESSIONS, new ArrayList<>(expressions));
+        }
+    }
+
+    /**
+     * Gets the expression indexed under a field name of the index.
+     *
+     * @param field the field name
+     * @return the expression, or {@code null} if the field itself is indexed.
+     * @since 4.3
+     */
+    public IndexExpression getExpression(String field) {
+        List<IndexExpression> expressions = getExpressions();
+        if (expressions != null) {
+            for (IndexExpression expression : expressions) {
+                if (expression.getName().equals(field)) {
+                    return expression;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Indicates if the full-text index keeps the dictionaries
+     * for the leading and infix wildcard searches.
+     *
+     * @return the boolean
+     * @see IndexOptions#isSubstringSearch()
+     * @since 4.3
+     */
+    public boolean isSubstringSearch() {
+        return options != null && Boolean.TRUE.equals(options.get(SUBSTRING_SEARCH));
+    }
+
+    /**
+     * Sets if the full-text index keeps the dictionaries
+     * for the leading and infix wildcard searches.
+     *
+     * @param substringSearch if the index keeps the dictionaries
+     * @since 4.3
+     */
+    public void setSubstringSearch(boolean substringSearch) {
+        if (substringSearch) {
+            putOption(SUBSTRING_SEARCH, true);
+        } else {
+            removeOption(SUBSTRING_SEARCH);
+        }
+    }
+
+    /**
+     * Indicates if the full-text index ranks the results
+     * of a search by their BM25 relevance.
+     *
+     * @return the boolean
+     * @see IndexOptions#isScored()
+     * @since 4.3
+     */
+    public boolean isScored() {
+        return options != null && Boolean.TRUE.equals(options.get(SCORED));
+    }
+
+    /**
+     * Sets if the full-text index ranks the results
+     * of a search by their BM25 relevance.
+     *
+     * @param scored if the index ranks the results by relevance
+     * @since 4.3
+     */
+    public void setScored(boolean scored) {
+        if (scored) {
+            putOption(SCORED, true);
+        } else {
+            removeOption(SCORED);
+        }
+    }
+
+    /**
+     * Indicates if the full-text index records the
+     * positions of the terms in each document.
+     *
+     * @return the boolean
+     * @see IndexOptions#isPositional()
+     * @since 4.3
+     */
+    public boolean isPositional() {
+        return options != null && Boolean.TRUE.equals(options.get(POSITIONAL));
+    }
+
+    /**
+     * Sets if the full-text index records the
+     * positions of the terms in each document.
+     *
+     * @param positional if the index records the positions
+     * @since 4.3
+     */
+    public void setPositional(boolean positional) {
+        if (positional) {
+            putOption(POSITIONAL, true);
+        } else {
+            removeOption(POSITIONAL);
+        }
+    }
+
+    /**
+     * Gets the error of the last build of the index, if the build has
+     * failed. A failed index is neither used by a query nor written, until
+     * it is rebuilt, or dropped and created again.
+     *
+     * @return the error of the build, or {@code null} if it has not failed.
+     * @since 4.3
+     */
+    public String getBuildError() {
+        return options == null ? null : (String) options.get(BUILD_ERROR);
+    }
+
+    /**
+     * Sets the error of the last build of the index.
+     *
+     * @param buildError the error of the build, or {@code null} if it has not failed
+     * @since 4.3
+     */
+    public void setBuildError(String buildError) {
+        if (buildError == null) {
+            removeOption(BUILD_ERROR);
+        } else {
+            putOption(BUILD_ERROR, buildError);
+        }
+    }
+
     /**
      * Indicates if this descriptor is for a compound index.
      *
@@ -124,15 +406,38 @@ public class IndexDescriptor implements Comparable<IndexDescriptor>, Serializabl
         return indexType.equals(IndexType.UNIQUE);
     }
 
+    private void putOption(String key, Object value) {
+        // copy on write, so that a shared descriptor never sees its options change
+        Map<String, Object> values = options == null ? new HashMap<>() : new HashMap<>(options);
+        values.put(key, value);
+        options = Collections.unmodifiableMap(values);
+    }
+
+    private void removeOption(String key) {
+        if (options != null && options.containsKey(key)) {
+            Map<String, Object> values = new HashMap<>(options);
+            values.remove(key);
+            options = values.isEmpty() ? null : Collections.unmodifiableMap(values);
+        }
+    }
+
     private void writeObject(ObjectOutputStream stream) throws IOException {
         stream.writeUTF(indexType);
         stream.writeObject(fields);
         stream.writeUTF(collectionName);
+        stream.writeObject(options == null ? null : new HashMap<>(options));
     }
 
+    @SuppressWarnings("unchecked")
     private void readObject(ObjectInputStream stream) throws IOException, ClassNotFoundException {
         indexType = stream.readUTF();
         fields = (Fields) stream.readObject();
         collectionName = stream.readUTF();
+        try {
+            setOptions((Map<String, Object>) stream.readObject());
+        } catch (OptionalDataException e) {
+            // descriptor written before 4.3 does not have any options
+            if (!e.eof) throw e;
+        }
     }
 }
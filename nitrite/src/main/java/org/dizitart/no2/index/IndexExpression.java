@@ -0,0 +1,242 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.index;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.dizitart.no2.collection.Document;
+import org.dizitart.no2.exceptions.IndexingException;
+
+import java.io.Serializable;
+import java.lang.reflect.Array;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import static org.dizitart.no2.common.util.ValidationUtils.notEmpty;
+import static org.dizitart.no2.common.util.ValidationUtils.notNull;
+
+/**
+ * An expression computing a value from a field of a document, like the
+ * lower-cased value of a string field. An expression is indexed and
+ * queried under its name, like <code>lower(email)</code>, without storing
+ * the computed value in the documents. The name alone is just a field
+ * name, the expression is given with the options of the index and
+ * with the filter of a query.
+ * <p>
+ * <pre>
+ * {@code
+ * // create an index on the lower-cased email
+ * collection.createIndex(indexOptions(IndexType.NON_UNIQUE, lower("email")), lower("email").getName());
+ *
+ * // case-insensitive lookup on the index
+ * collection.find(where(lower("email")).eq("john@example.com"));
+ * }
+ * </pre>
+ *
+ * @author Anindya Chatterjee
+ * @since 4.3
+ */
+@Getter
+@EqualsAndHashCode
+public class IndexExpression implements Serializable {
+    private static final long serialVersionUID = 1697548800L;
+
+    /**
+     * The lower-cased value of a string field.
+     */
+    public static final String LOWER = "lower";
+
+    /**
+     * The upper-cased value of a string field.
+     */
+    public static final String UPPER = "upper";
+
+    /**
+     * The year, in UTC, of a date, a temporal or an epoch millisecond field.
+     */
+    public static final String YEAR = "year";
+
+    /**
+     * The length of a string field, or the size of an array, a collection or a map field.
+     */
+    public static final String LENGTH = "length";
+
+    private static final Set<String> FUNCTIONS = new HashSet<>(Arrays.asList(LOWER, UPPER, YEAR, LENGTH));
+
+    /**
+     * The function computing the value.
+     *
+     * @return the function.
+     */
+    private final String function;
+
+    /**
+     * The field the value is computed from.
+     *
+     * @return the field.
+     */
+    private final String field;
+
+    private IndexExpression(String function, String field) {
+        notNull(field, "field cannot be null");
+        notEmpty(field, "field cannot be empty");
+        this.function = function;
+        this.field = field;
+        validate();
+    }
+
+    /**
+     * Creates an expression of a function on a field.
+     *
+     * @param function the function, one of {@link #LOWER}, {@link #UPPER},
+     *                 {@link #YEAR} or {@link #LENGTH}
+     * @param field    the field
+     * @return the expression
+     * @throws IndexingException if the function is unknown.
+     */
+    public static IndexExpression of(String function, String field) {
+        return new IndexExpression(function, field);
+    }
+
+    /**
+     * Creates an expression of the lower-cased value of a string field.
+     *
+     * @param field the field
+     * @return the expression
+     */
+    public static IndexExpression lower(String field) {
+        return new IndexExpression(LOWER, field);
+    }
+
+    /**
+     * Creates an expression of the upper-cased value of a string field.
+     *
+     * @param field the field
+     * @return the expression
+     */
+    public static IndexExpression upper(String field) {
+        return new IndexExpression(UPPER, field);
+    }
+
+    /**
+     * Creates an expression of the year of a date field.
+     *
+     * @param field the field
+     * @return the expression
+     */
+    public static IndexExpression year(String field) {
+        return new IndexExpression(YEAR, field);
+    }
+
+    /**
+     * Creates an expression of the length of a string, an array or a collection field.
+     *
+     * @param field the field
+     * @return the expression
+     */
+    public static IndexExpression length(String field) {
+        return new IndexExpression(LENGTH, field);
+    }
+
+    /**
+     * Gets the field name of the expression, which is used to index
+     * and to query it.
+     *
+     * @return the field name
+     */
+    public String getName() {
+        return function + "(" + field + ")";
+    }
+
+    /**
+     * Computes the value of the expression for a document.
+     *
+     * @param document the document
+     * @return the value, or {@code null} if the field has no value the
+     * expression can be computed from.
+     */
+    public Object evaluate(Document document) {
+        Object value = document.get(field);
+        if (value == null) return null;
+
+        switch (function) {
+            case LOWER:
+                return value instanceof String ? ((String) value).toLowerCase(Locale.ROOT) : null;
+            case UPPER:
+                return value instanceof String ? ((String) value).toUpperCase(Locale.ROOT) : null;
+            case YEAR:
+                return year(value);
+            case LENGTH:
+                return length(value);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Validates the function of the expression.
+     *
+     * @throws IndexingException if the function is unknown.
+     */
+    public void validate() {
+        if (function == null || !FUNCTIONS.contains(function)) {
+            throw new IndexingException("Unknown function " + function + " of index expression on " + field);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return getName();
+    }
+
+    private static Integer year(Object value) {
+        if (value instanceof Date) {
+            return Instant.ofEpochMilli(((Date) value).getTime()).atZone(ZoneOffset.UTC).getYear();
+        } else if (value instanceof Long) {
+            return Instant.ofEpochMilli((Long) value).atZone(ZoneOffset.UTC).getYear();
+        } else if (value instanceof Instant) {
+            return ((Instant) value).atZone(ZoneOffset.UTC).getYear();
+        } else if (value instanceof TemporalAccessor
+            && ((TemporalAccessor) value).isSupported(ChronoField.YEAR)) {
+            return ((TemporalAccessor) value).get(ChronoField.YEAR);
+        }
+        return null;
+    }
+
+    private static Integer length(Object value) {
+        if (value instanceof String) {
+            return ((String) value).length();
+        } else if (value instanceof Collection) {
+            return ((Collection<?>) value).size();
+        } else if (value instanceof Map) {
+            return ((Map<?, ?>) value).size();
+        } else if (value.getClass().isArray()) {
+            return Array.getLength(value);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.index;
+
+/**
+ * An interface representing the storage layouts of a comparable index.
+ *
+ * @author Anindya Chatterjee
+ * @see IndexOptions#setLayout(String)
+ * @since 4.3
+ */
+public interface IndexLayout {
+    /**
+     * Represents the default layout of a single field index, where all
+     * {@link org.dizitart.no2.collection.NitriteId}s of an index key are stored
+     * as a single list value under that key.
+     */
+    String POSTING_LIST = "PostingList";
+
+    /**
+     * Represents a layout, where every index entry is stored as its own
+     * {@link CompositeKey} of the indexed value and the
+     * {@link org.dizitart.no2.collection.NitriteId}. Adding or removing an entry
+     * never rewrites the other entries of the same value, which suits
+     * non-unique indexes on low cardinality fields. It is the default layout
+     * of a compound index.
+     */
+    String COMPOSITE_KEY = "CompositeKey";
+
+    /**
+     * Represents a layout, where all {@link org.dizitart.no2.collection.NitriteId}s
+     * of an index key are stored as a single compressed {@link NitriteIdBitmap}
+     * under that key. It is supported on non-unique single field indexes and
+     * full-text indexes, and keeps the ids of a frequent key far smaller
+     * than a list.
+     */
+    String BITMAP = "Bitmap";
+}
@@ -41,6 +41,13 @@ public class IndexMap {
     @Setter
     private boolean reverseScan;
 
+    /**
+     * Instantiates a new {@link IndexMap} for the subclasses
+     * which provide their own navigation over the index.
+     */
+    protected IndexMap() {
+    }
+
     /**
      * Instantiates a new {@link IndexMap}.
      *
@@ -235,6 +242,64 @@ public class IndexMap {
         return Collections.EMPTY_SET;
     }
 
+    /**
+     * Returns the iterable entries of the indexed items whose keys lie between
+     * <code>from</code> and <code>to</code>, in the scan order of this map. A
+     * <code>null</code> bound means the range is unbounded on that side. The
+     * entries for <code>null</code> values are never part of a range.
+     *
+     * @param from          the lower bound of the range
+     * @param fromInclusive if the lower bound is included in the range
+     * @param to            the upper bound of the range
+     * @param toInclusive   if the upper bound is included in the range
+     * @return the iterable
+     * @since 4.3
+     */
+    public Iterable<? extends Pair<Comparable<?>, ?>> entries(Comparable<?> from, boolean fromInclusive,
+                                                              Comparable<?> to, boolean toInclusive) {
+        DBValue dbFrom = from == null ? null : new DBValue(from);
+        DBValue dbTo = to == null ? null : new DBValue(to);
+
+        if (nitriteMap != null) {
+            return (Iterable<Pair<Comparable<?>, ?>>) () -> new RangeIterator(
+                nitriteMap.entries(dbFrom, fromInclusive, dbTo, toInclusive, reverseScan).iterator());
+        } else if (navigableMap != null) {
+            NavigableMap<DBValue, ?> rangeMap;
+            if (dbFrom != null && dbTo != null) {
+                int cmp = dbFrom.compareTo(dbTo);
+                if (cmp > 0 || (cmp == 0 && !(fromInclusive && toInclusive))) {
+                    return Collections.EMPTY_SET;
+                }
+                rangeMap = navigableMap.subMap(dbFrom, fromInclusive, dbTo, toInclusive);
+            } else if (dbFrom != null) {
+                rangeMap = navigableMap.tailMap(dbFrom, fromInclusive);
+            } else if (dbTo != null) {
+                rangeMap = navigableMap.headMap(dbTo, toInclusive);
+            } else {
+                rangeMap = navigableMap;
+            }
+
+            NavigableMap<DBValue, ?> scanMap = reverseScan ? rangeMap.descendingMap() : rangeMap;
+            return (Iterable<Pair<Comparable<?>, ?>>) () -> new RangeIterator(
+                new Iterator<Pair<DBValue, ?>>() {
+                    private final Iterator<? extends Map.Entry<DBValue, ?>> entryIterator
+                        = scanMap.entrySet().iterator();
+
+                    @Override
+                    public boolean hasNext() {
+                        return entryIterator.hasNext();
+                    }
+
+                    @Override
+                    public Pair<DBValue, ?> next() {
+                        Map.Entry<DBValue, ?> entry = entryIterator.next();
+                        return new Pair<>(entry.getKey(), entry.getValue());
+                    }
+                });
+        }
+        return Collections.EMPTY_SET;
+    }
+
     /**
      * Gets the terminal nitrite ids from this map.
      *
@@ -246,8 +311,8 @@ public class IndexMap {
         // scan each entry of the navigable map and collect all terminal nitrite-ids
         for (Pair<Comparable<?>, ?> entry : entries()) {
             // if the value is terminal, collect all nitrite-ids
-            if (entry.getSecond() instanceof List) {
-                List<NitriteId> nitriteIds = (List<NitriteId>) entry.getSecond();
+            if (entry.getSecond() instanceof Collection) {
+                Collection<NitriteId> nitriteIds = (Collection<NitriteId>) entry.getSecond();
                 terminalResult.addAll(nitriteIds);
             }
 
@@ -262,4 +327,41 @@ public class IndexMap {
 
         return terminalResult;
     }
+
+    private static class RangeIterator implements Iterator<Pair<Comparable<?>, ?>> {
+        private final Iterator<? extends Pair<DBValue, ?>> entryIterator;
+        private Pair<Comparable<?>, ?> nextEntry;
+
+        RangeIterator(Iterator<? extends Pair<DBValue, ?>> entryIterator) {
+            this.entryIterator = entryIterator;
+            this.nextEntry = fetch();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextEntry != null;
+        }
+
+        @Override
+        public Pair<Comparable<?>, ?> next() {
+            if (nextEntry == null) {
+                throw new NoSuchElementException();
+            }
+
+            Pair<Comparable<?>, ?> entry = nextEntry;
+            nextEntry = fetch();
+            return entry;
+        }
+
+        private Pair<Comparable<?>, ?> fetch() {
+            while (entryIterator.hasNext()) {
+                Pair<DBValue, ?> entry = entryIterator.next();
+                // null values are not part of any range
+                if (!(entry.getFirst() instanceof DBNull)) {
+                    return new Pair<>(entry.getFirst().getValue(), entry.getSecond());
+                }
+            }
+            return null;
+        }
+    }
 }
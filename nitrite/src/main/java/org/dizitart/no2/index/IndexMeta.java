@@ -22,6 +22,7 @@ import lombok.NoArgsConstructor;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.io.OptionalDataException;
 import java.io.Serializable;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -37,16 +38,28 @@ public class IndexMeta implements Serializable {
     private IndexDescriptor indexDescriptor;
     private String indexMap;
     private AtomicBoolean isDirty;
+    private IndexStatistics statistics;
+    private Integer keyFormat;
 
     private void writeObject(ObjectOutputStream stream) throws IOException {
         stream.writeObject(indexDescriptor);
         stream.writeUTF(indexMap);
         stream.writeObject(isDirty);
+        stream.writeObject(statistics);
+        stream.writeObject(keyFormat);
     }
 
     private void readObject(ObjectInputStream stream) throws IOException, ClassNotFoundException {
         indexDescriptor = (IndexDescriptor) stream.readObject();
         indexMap = stream.readUTF();
         isDirty = (AtomicBoolean) stream.readObject();
+        try {
+            statistics = (IndexStatistics) stream.readObject();
+            keyFormat = (Integer) stream.readObject();
+        } catch (OptionalDataException e) {
+            // index meta written before 4.3 does not have any statistics
+            // nor the key format of its index
+            if (!e.eof) throw e;
+        }
     }
 }
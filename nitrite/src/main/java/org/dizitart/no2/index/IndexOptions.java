@@ -19,6 +19,10 @@ package org.dizitart.no2.index;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
+import org.dizitart.no2.filters.Filter;
+
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * Options for configuring an index.
@@ -39,6 +43,105 @@ public class IndexOptions {
      */
     private String indexType;
 
+    /**
+     * Specifies the storage layout of the index. If not set,
+     * {@link IndexLayout#POSTING_LIST} is used for a single field index
+     * and {@link IndexLayout#COMPOSITE_KEY} for a compound index.
+     * <p>
+     * Creating an index again on the same fields with a different layout
+     * migrates the existing index by rebuilding it.
+     *
+     * @param layout the storage layout of the index.
+     * @return the storage layout of the index.
+     * @see IndexLayout
+     * @since 4.3
+     */
+    private String layout;
+
+    /**
+     * Specifies if the index is built in the background. Writes to the
+     * collection are not blocked while such an index is built, and queries
+     * do not use the index until it has caught up with them.
+     * <p>
+     * A unique constraint is only checked when the build catches up, so
+     * a violating write makes the build fail instead of the write.
+     *
+     * @param background if the index is built in the background.
+     * @return if the index is built in the background.
+     * @since 4.3
+     */
+    private boolean background;
+
+    /**
+     * Specifies the filter a document must match to be indexed. A query
+     * uses such a partial index only if its own filter implies this one.
+     * If not set, all the documents are indexed.
+     * <p>
+     * Only an equality filter, or an and of equality filters on different
+     * fields, is supported. For example, <code>where("status").eq("PENDING")</code>.
+     *
+     * @param partialFilter the filter of the documents to index.
+     * @return the filter of the documents to index.
+     * @since 4.3
+     */
+    private Filter partialFilter;
+
+    /**
+     * Specifies if a full-text index also keeps the dictionaries of its terms
+     * reversed and split into trigrams. They let a leading wildcard search
+     * like <code>"*ing"</code> and an infix wildcard search like
+     * <code>"*ing*"</code> find the matching terms without reading every
+     * term of the index, at the cost of more writes when a new term is indexed.
+     *
+     * @param substringSearch if the index keeps the substring dictionaries.
+     * @return if the index keeps the substring dictionaries.
+     * @see TermDictionary
+     * @since 4.3
+     */
+    private boolean substringSearch;
+
+    /**
+     * Specifies if a full-text index keeps the frequency of every term in
+     * each document and the length of each document, and ranks the results
+     * of a word search by their BM25 relevance instead of by the number of
+     * matched words. A search with a limit then keeps only the best ranked
+     * results in a bounded heap instead of sorting all of them.
+     *
+     * @param scored if the index ranks the results by relevance.
+     * @return if the index ranks the results by relevance.
+     * @see TextScorer
+     * @since 4.3
+     */
+    private boolean scored;
+
+    /**
+     * Specifies if a full-text index records the positions of the terms in
+     * each document. A phrase search like <code>"\"quick brown fox\""</code>
+     * then checks the adjacency of the words on the index and never reads a
+     * document which does not contain the phrase. Without the positions, the
+     * phrase is checked on every document having all the words of it.
+     *
+     * @param positional if the index records the positions of the terms.
+     * @return if the index records the positions of the terms.
+     * @see TermPositions
+     * @since 4.3
+     */
+    private boolean positional;
+
+    /**
+     * Specifies the expressions whose values are indexed instead of the
+     * fields of the same name. An expression is indexed under its name,
+     * like <code>lower(email)</code>, which has to be one of the fields of
+     * the index, and a query uses the index only if it filters on the
+     * same expression, like <code>where(lower("email"))</code>.
+     *
+     * @param expressions the expressions of the index.
+     * @return the expressions of the index.
+     * @see IndexExpression
+     * @since 4.3
+     */
+    private List<IndexExpression> expressions;
+
     /**
      * Creates an {@link IndexOptions} with the specified <code>indexType</code>.
      * Index creation will be synchronous with this option.
@@ -51,5 +154,37 @@ public class IndexOptions {
         options.setIndexType(indexType);
         return options;
     }
+
+    /**
+     * Creates an {@link IndexOptions} with the specified <code>indexType</code>
+     * and storage <code>layout</code>.
+     *
+     * @param indexType the type of index to be created.
+     * @param layout    the storage layout of the index.
+     * @return a new index creation option.
+     * @see IndexLayout
+     * @since 4.3
+     */
+    public static IndexOptions indexOptions(String indexType, String layout) {
+        IndexOptions options = indexOptions(indexType);
+        options.setLayout(layout);
+        return options;
+    }
+
+    /**
+     * Creates an {@link IndexOptions} with the specified <code>indexType</code>
+     * on the values of <code>expressions</code>.
+     *
+     * @param indexType   the type of index to be created.
+     * @param expressions the expressions of the index.
+     * @return a new index creation option.
+     * @see IndexExpression
+     * @since 4.3
+     */
+    public static IndexOptions indexOptions(String indexType, IndexExpression... expressions) {
+        IndexOptions options = indexOptions(indexType);
+        options.setExpressions(Arrays.asList(expressions));
+        return options;
+    }
 }
 
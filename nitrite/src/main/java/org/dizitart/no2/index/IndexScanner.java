@@ -17,16 +17,17 @@
 
 package org.dizitart.no2.index;
 
+import org.dizitart.no2.collection.Document;
 import org.dizitart.no2.collection.NitriteId;
 import org.dizitart.no2.common.DBValue;
+import org.dizitart.no2.common.RecordStream;
+import org.dizitart.no2.common.tuples.Pair;
 import org.dizitart.no2.exceptions.FilterException;
 import org.dizitart.no2.filters.ComparableFilter;
 import org.dizitart.no2.filters.SortingAwareFilter;
 
-import java.util.LinkedHashSet;
-import java.util.List;
-import java.util.Map;
-import java.util.NavigableMap;
+import java.util.*;
+import java.util.function.Function;
 
 /**
  * @author Anindya Chatterjee
@@ -34,85 +35,346 @@ import java.util.NavigableMap;
  */
 public class IndexScanner {
     private final IndexMap indexMap;
+    private final boolean multiKey;
 
     public IndexScanner(IndexMap indexMap) {
+        this(indexMap, true);
+    }
+
+    /**
+     * Instantiates a new {@link IndexScanner}.
+     * <p>
+     * A document whose first indexed field holds an array is indexed under
+     * each of its items, so a scan of a multikey index remembers every id it
+     * has returned to skip the repeated ones, which takes memory in the order
+     * of the number of matching ids. A scan of an index which is known to
+     * have a single entry per document returns the ids as they are read.
+     *
+     * @param indexMap the index map
+     * @param multiKey if a document may have more than one entry in the index
+     * @since 4.3
+     */
+    public IndexScanner(IndexMap indexMap, boolean multiKey) {
         this.indexMap = indexMap;
+        this.multiKey = multiKey;
     }
 
-    @SuppressWarnings("unchecked")
+    /**
+     * Scans the index with the filters and collects all the matching
+     * ids in index order.
+     *
+     * @param filters        the filters
+     * @param indexScanOrder the index scan order
+     * @return the matching nitrite ids
+     */
     public LinkedHashSet<NitriteId> doScan(List<ComparableFilter> filters, Map<String, Boolean> indexScanOrder) {
         // linked-hash-set to return only unique ids preserving the order in index
         LinkedHashSet<NitriteId> nitriteIds = new LinkedHashSet<>();
+        for (NitriteId nitriteId : scan(filters, indexScanOrder)) {
+            nitriteIds.add(nitriteId);
+        }
+        return nitriteIds;
+    }
 
-        if (filters != null && !filters.isEmpty()) {
-            // get the first filter to start scanning
-            ComparableFilter comparableFilter = filters.get(0);
+    /**
+     * Lazily scans the index with the filters. The index is walked only as
+     * far as the returned stream is consumed, so a caller which stops after
+     * the first few ids does not read the rest of the index.
+     *
+     * @param filters        the filters
+     * @param indexScanOrder the index scan order
+     * @return the stream of unique matching nitrite ids in index order
+     * @since 4.3
+     */
+    public RecordStream<NitriteId> scan(List<ComparableFilter> filters, Map<String, Boolean> indexScanOrder) {
+        if (!multiKey) {
+            return () -> scanIterator(filters, indexScanOrder);
+        }
+        return () -> new DistinctIterator<>(scanIterator(filters, indexScanOrder), nitriteId -> nitriteId);
+    }
+
+    /**
+     * Lazily scans the index with the filters like {@link #scan(List, Map)}, but
+     * also reads the indexed values of each id from the keys of the index. The
+     * values are returned as a document of the index fields, where a field
+     * with a <code>null</code> value is left out.
+     *
+     * @param fieldNames     the fields of the index
+     * @param filters        the filters
+     * @param indexScanOrder the index scan order
+     * @return the stream of unique matching nitrite ids and their indexed values
+     * @since 4.3
+     */
+    public RecordStream<Pair<NitriteId, Document>> scanEntries(List<String> fieldNames,
+                                                               List<ComparableFilter> filters,
+                                                               Map<String, Boolean> indexScanOrder) {
+        if (!multiKey) {
+            return () -> entryIterator(fieldNames, filters, indexScanOrder, Collections.emptyList());
+        }
+        return () -> new DistinctIterator<>(entryIterator(fieldNames, filters, indexScanOrder,
+            Collections.emptyList()), Pair::getFirst);
+    }
+
+    /**
+     * Counts the ids matching the filters by adding up the sizes of the
+     * selected index entries, without reading the ids one by one. An id
+     * indexed under more than one of the selected keys is counted once
+     * for each of them, so the count is exact only for an index which
+     * holds no arrays.
+     *
+     * @param filters the filters
+     * @return the number of matching ids
+     * @since 4.3
+     */
+    public long count(List<ComparableFilter> filters) {
+        if (filters == null || filters.isEmpty()) {
+            // no more filter left, count all terminal nitrite ids
+            long count = 0;
+            for (Pair<Comparable<?>, ?> entry : indexMap.entries()) {
+                count += countValue(entry.getSecond(), Collections.emptyList());
+            }
+            return count;
+        }
 
-            if (comparableFilter != null) {
-                // set the scan order of the index map
-                boolean reverseScan = (indexScanOrder != null
-                    && indexScanOrder.containsKey(comparableFilter.getField()))
-                    ? indexScanOrder.get(comparableFilter.getField())
-                    : false;
-                indexMap.setReverseScan(reverseScan);
-
-                if (comparableFilter instanceof SortingAwareFilter) {
-                    // if the filter is sorting aware, set the scan order
-                    ((SortingAwareFilter) comparableFilter).setReverseScan(reverseScan);
+        ComparableFilter comparableFilter = filters.get(0);
+        if (comparableFilter == null) {
+            throw new FilterException("Index scan is not supported for non comparable filter");
+        }
+
+        // the scan order does not matter for a count
+        indexMap.setReverseScan(false);
+        if (comparableFilter instanceof SortingAwareFilter) {
+            ((SortingAwareFilter) comparableFilter).setReverseScan(false);
+        }
+
+        // the selected entries are counted as a whole, as the ids of the
+        // last field would be read one by one from the result of a scan
+        long count = 0;
+        List<ComparableFilter> remainingFilter = filters.subList(1, filters.size());
+        for (Pair<Comparable<?>, ?> entry : comparableFilter.scanIndexEntries(indexMap)) {
+            count += countValue(entry.getSecond(), remainingFilter);
+        }
+        return count;
+    }
+
+    private Iterator<NitriteId> scanIterator(List<ComparableFilter> filters, Map<String, Boolean> indexScanOrder) {
+        if (filters == null || filters.isEmpty()) {
+            // if no more filter left, get all terminal nitrite ids from
+            // index map and return them in the order.
+            return indexMap.getTerminalNitriteIds().iterator();
+        }
+
+        // get the first filter to start scanning
+        ComparableFilter comparableFilter = filters.get(0);
+        if (comparableFilter == null) {
+            // filter is not comparable filter, so index scanning can not continue
+            throw new FilterException("Index scan is not supported for non comparable filter");
+        }
+
+        // set the scan order of the index map
+        boolean reverseScan = (indexScanOrder != null
+            && indexScanOrder.containsKey(comparableFilter.getField()))
+            ? indexScanOrder.get(comparableFilter.getField())
+            : false;
+        indexMap.setReverseScan(reverseScan);
+
+        if (comparableFilter instanceof SortingAwareFilter) {
+            // if the filter is sorting aware, set the scan order
+            ((SortingAwareFilter) comparableFilter).setReverseScan(reverseScan);
+        }
+
+        // apply the filter on the index map, each value can be a nitrite id,
+        // a list of nitrite ids or a sub map to scan with the next filter
+        Iterator<?> values = comparableFilter.scanIndex(indexMap).iterator();
+        List<ComparableFilter> remainingFilter = filters.subList(1, filters.size());
+
+        return new Iterator<NitriteId>() {
+            private Iterator<NitriteId> current = Collections.emptyIterator();
+
+            @Override
+            public boolean hasNext() {
+                while (!current.hasNext()) {
+                    if (!values.hasNext()) return false;
+                    current = expand(values.next(), remainingFilter, indexScanOrder);
                 }
+                return true;
+            }
 
-                // apply the filter on the index map
-                // result can be list of nitrite ids or list of navigable maps
-                List<?> scanResult = comparableFilter.applyOnIndex(indexMap);
-                if (isEmptyList(scanResult)) {
-                    // if list is empty then no need for further scanning
-                    return nitriteIds;
-                } else if (isNitriteIdList(scanResult)) {
-                    // if this is a list of nitrite ids then add those to the
-                    // result and no further scanning is required as we have
-                    // reached the terminal nitrite ids
-                    List<NitriteId> idList = (List<NitriteId>) scanResult;
-                    nitriteIds.addAll(idList);
-                } else if (isNavigableMapList(scanResult)) {
-                    // if this is a list of sub maps, then take each of the sub map
-                    // and the next filter and scan the sub map
-                    List<NavigableMap<DBValue, ?>> subMaps = (List<NavigableMap<DBValue, ?>>) scanResult;
-                    List<ComparableFilter> remainingFilter = filters.subList(1, filters.size());
-
-                    for (NavigableMap<DBValue, ?> subMap : subMaps) {
-                        // create an index map from the sub map and scan to get the
-                        // terminal nitrite ids
-                        IndexMap indexMap = new IndexMap(subMap);
-                        IndexScanner subMapScanner = new IndexScanner(indexMap);
-                        LinkedHashSet<NitriteId> subResult = subMapScanner.doScan(remainingFilter, indexScanOrder);
-                        nitriteIds.addAll(subResult);
-                    }
+            @Override
+            public NitriteId next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
                 }
-            } else {
-                // filter is not comparable filter, so index scanning can not continue
-                throw new FilterException("Index scan is not supported for non comparable filter");
+                return current.next();
             }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private Iterator<NitriteId> expand(Object value, List<ComparableFilter> remainingFilter,
+                                       Map<String, Boolean> indexScanOrder) {
+        if (value instanceof NitriteId) {
+            return Collections.singletonList((NitriteId) value).iterator();
+        } else if (value instanceof Collection) {
+            // terminal nitrite ids, either a list or a bitmap,
+            // no further scanning is required
+            return ((Collection<NitriteId>) value).iterator();
+        } else if (value instanceof NavigableMap || value instanceof IndexMap) {
+            // create an index map from the sub map, if not already one,
+            // and scan it with the next filter
+            IndexMap subMap = value instanceof IndexMap
+                ? (IndexMap) value
+                : new IndexMap((NavigableMap<DBValue, ?>) value);
+            return new IndexScanner(subMap).scanIterator(remainingFilter, indexScanOrder);
+        }
+        return Collections.emptyIterator();
+    }
+
+    @SuppressWarnings("unchecked")
+    private long countValue(Object value, List<ComparableFilter> remainingFilter) {
+        if (value instanceof NitriteId) {
+            return 1;
+        } else if (value instanceof Collection) {
+            return ((Collection<NitriteId>) value).size();
+        } else if (value instanceof NavigableMap || value instanceof IndexMap) {
+            IndexMap subMap = value instanceof IndexMap
+                ? (IndexMap) value
+                : new IndexMap((NavigableMap<DBValue, ?>) value);
+            return new IndexScanner(subMap).count(remainingFilter);
+        }
+        return 0;
+    }
+
+    private Iterator<Pair<NitriteId, Document>> entryIterator(List<String> fieldNames,
+                                                              List<ComparableFilter> filters,
+                                                              Map<String, Boolean> indexScanOrder,
+                                                              List<Comparable<?>> keys) {
+        Iterable<? extends Pair<Comparable<?>, ?>> entries;
+        List<ComparableFilter> remainingFilter;
+        if (filters == null || filters.isEmpty()) {
+            // no more filter left, walk all the entries in index order
+            entries = indexMap.entries();
+            remainingFilter = Collections.emptyList();
         } else {
-            // if no more filter left, get all terminal nitrite ids from
-            // index map and return them in the order.
-            List<NitriteId> terminalResult = indexMap.getTerminalNitriteIds();
-            nitriteIds.addAll(terminalResult);
+            ComparableFilter comparableFilter = filters.get(0);
+            if (comparableFilter == null) {
+                throw new FilterException("Index scan is not supported for non comparable filter");
+            }
+
+            boolean reverseScan = (indexScanOrder != null
+                && indexScanOrder.containsKey(comparableFilter.getField()))
+                ? indexScanOrder.get(comparableFilter.getField())
+                : false;
+            indexMap.setReverseScan(reverseScan);
+
+            if (comparableFilter instanceof SortingAwareFilter) {
+                ((SortingAwareFilter) comparableFilter).setReverseScan(reverseScan);
+            }
+
+            entries = comparableFilter.scanIndexEntries(indexMap);
+            remainingFilter = filters.subList(1, filters.size());
         }
 
-        return nitriteIds;
+        Iterator<? extends Pair<Comparable<?>, ?>> entryIterator = entries.iterator();
+        return new Iterator<Pair<NitriteId, Document>>() {
+            private Iterator<Pair<NitriteId, Document>> current = Collections.emptyIterator();
+
+            @Override
+            public boolean hasNext() {
+                while (!current.hasNext()) {
+                    if (!entryIterator.hasNext()) return false;
+
+                    Pair<Comparable<?>, ?> entry = entryIterator.next();
+                    List<Comparable<?>> entryKeys = new ArrayList<>(keys);
+                    entryKeys.add(entry.getFirst());
+                    current = expandEntry(entry.getSecond(), fieldNames, remainingFilter,
+                        indexScanOrder, entryKeys);
+                }
+                return true;
+            }
+
+            @Override
+            public Pair<NitriteId, Document> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return current.next();
+            }
+        };
     }
 
-    private boolean isEmptyList(List<?> list) {
-        return list == null || list.isEmpty();
+    @SuppressWarnings("unchecked")
+    private Iterator<Pair<NitriteId, Document>> expandEntry(Object value, List<String> fieldNames,
+                                                            List<ComparableFilter> remainingFilter,
+                                                            Map<String, Boolean> indexScanOrder,
+                                                            List<Comparable<?>> keys) {
+        if (value instanceof NitriteId || value instanceof Collection) {
+            Iterator<NitriteId> iterator = value instanceof NitriteId
+                ? Collections.singletonList((NitriteId) value).iterator()
+                : ((Collection<NitriteId>) value).iterator();
+            return new Iterator<Pair<NitriteId, Document>>() {
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public Pair<NitriteId, Document> next() {
+                    return new Pair<>(iterator.next(), indexedValues(fieldNames, keys));
+                }
+            };
+        } else if (value instanceof NavigableMap || value instanceof IndexMap) {
+            IndexMap subMap = value instanceof IndexMap
+                ? (IndexMap) value
+                : new IndexMap((NavigableMap<DBValue, ?>) value);
+            return new IndexScanner(subMap).entryIterator(fieldNames, remainingFilter, indexScanOrder, keys);
+        }
+        return Collections.emptyIterator();
     }
 
-    private boolean isNitriteIdList(List<?> list) {
-        Object value = list.get(0);
-        return value instanceof NitriteId;
+    private static Document indexedValues(List<String> fieldNames, List<Comparable<?>> keys) {
+        Document document = Document.createDocument();
+        for (int i = 0; i < keys.size() && i < fieldNames.size(); i++) {
+            if (keys.get(i) != null) {
+                document.put(fieldNames.get(i), keys.get(i));
+            }
+        }
+        return document;
     }
 
-    private boolean isNavigableMapList(List<?> list) {
-        Object value = list.get(0);
-        return value instanceof NavigableMap;
+    private static class DistinctIterator<T> implements Iterator<T> {
+        private final Iterator<T> iterator;
+        private final Function<T, NitriteId> idFunction;
+        // every id returned is remembered, so the bitmap grows with the
+        // number of matching ids, not with the size of the index
+        private final Set<NitriteId> seen = new NitriteIdBitmap();
+        private T nextElement;
+
+        DistinctIterator(Iterator<T> iterator, Function<T, NitriteId> idFunction) {
+            this.iterator = iterator;
+            this.idFunction = idFunction;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (nextElement == null && iterator.hasNext()) {
+                T element = iterator.next();
+                NitriteId nitriteId = element == null ? null : idFunction.apply(element);
+                if (nitriteId != null && seen.add(nitriteId)) {
+                    nextElement = element;
+                }
+            }
+            return nextElement != null;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            T element = nextElement;
+            nextElement = null;
+            return element;
+        }
     }
 }
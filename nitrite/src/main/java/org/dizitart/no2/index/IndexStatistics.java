@@ -0,0 +1,367 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.index;
+
+import org.dizitart.no2.collection.NitriteId;
+import org.dizitart.no2.common.DBValue;
+import org.dizitart.no2.common.tuples.Pair;
+import org.dizitart.no2.common.util.Comparables;
+import org.dizitart.no2.common.util.Numbers;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.NavigableMap;
+
+/**
+ * Represents the statistics of a comparable index, which is used by
+ * the query planner to estimate how many entries a filter selects.
+ * <p>
+ * The statistics hold the number of entries in the index and an equi-depth
+ * histogram on the values of the first indexed field. The histogram is
+ * taken by a full scan of the index, while the entry count is kept up to
+ * date on every write. Once enough writes have happened since the last
+ * scan, the statistics are marked stale and should be collected again.
+ * <p>
+ * The statistics also tell if a document has more than one entry in the
+ * index, i.e. the first field of some document holds an array of values.
+ *
+ * @author Anindya Chatterjee
+ * @since 4.3
+ */
+public class IndexStatistics implements Serializable {
+    private static final long serialVersionUID = 1719484503L;
+
+    /**
+     * The number of buckets of the histogram.
+     */
+    public static final int BUCKETS = 64;
+
+    // statistics are stale after these many writes plus a fraction of the entries
+    private static final long STALE_THRESHOLD = 50;
+    private static final double STALE_FRACTION = 0.2;
+
+    private long entryCount;
+    private long nullCount;
+    private long distinctKeys;
+    private long modifications;
+    private long scannedCount;
+    private List<Comparable<?>> bucketBounds;
+    private long[] bucketCounts;
+    private long[] bucketDistinct;
+    private boolean multiKey;
+
+    /**
+     * Instantiates a new empty index statistics.
+     */
+    public IndexStatistics() {
+        this.bucketBounds = new ArrayList<>();
+        this.bucketCounts = new long[0];
+        this.bucketDistinct = new long[0];
+    }
+
+    /**
+     * Collects the statistics of an index by scanning it.
+     *
+     * @param indexMap the index map
+     * @return the index statistics
+     */
+    public static IndexStatistics of(IndexMap indexMap) {
+        IndexStatistics statistics = new IndexStatistics();
+
+        // first pass counts the entries to decide the depth of a bucket,
+        // and looks for a document indexed under more than one value
+        long total = 0;
+        NitriteIdBitmap indexedIds = new NitriteIdBitmap();
+        for (Pair<Comparable<?>, ?> entry : indexMap.entries()) {
+            Collection<NitriteId> nitriteIds = idsOf(entry.getSecond());
+            long count = nitriteIds.size();
+            if (!statistics.multiKey) {
+                for (NitriteId nitriteId : nitriteIds) {
+                    if (!indexedIds.add(nitriteId)) {
+                        statistics.multiKey = true;
+                        indexedIds.clear();
+                        break;
+                    }
+                }
+            }
+
+            if (entry.getFirst() == null) {
+                statistics.nullCount += count;
+            } else {
+                total += count;
+                statistics.distinctKeys++;
+            }
+        }
+
+        long depth = Math.max(1, (total + BUCKETS - 1) / BUCKETS);
+        List<Long> counts = new ArrayList<>();
+        List<Long> distinct = new ArrayList<>();
+        long bucketCount = 0, bucketKeys = 0;
+        Comparable<?> lastKey = null;
+
+        // second pass closes a bucket once it is deep enough, a key
+        // is never split across buckets
+        for (Pair<Comparable<?>, ?> entry : indexMap.entries()) {
+            if (entry.getFirst() == null) continue;
+
+            lastKey = entry.getFirst();
+            bucketCount += countOf(entry.getSecond());
+            bucketKeys++;
+            if (bucketCount >= depth) {
+                statistics.bucketBounds.add(lastKey);
+                counts.add(bucketCount);
+                distinct.add(bucketKeys);
+                bucketCount = 0;
+                bucketKeys = 0;
+            }
+        }
+
+        if (bucketKeys > 0) {
+            statistics.bucketBounds.add(lastKey);
+            counts.add(bucketCount);
+            distinct.add(bucketKeys);
+        }
+
+        statistics.bucketCounts = toArray(counts);
+        statistics.bucketDistinct = toArray(distinct);
+        statistics.entryCount = total + statistics.nullCount;
+        statistics.scannedCount = statistics.entryCount;
+        return statistics;
+    }
+
+    /**
+     * Creates a copy of the statistics, which is not changed
+     * by the writes recorded afterwards.
+     *
+     * @return the copy of the statistics
+     */
+    public synchronized IndexStatistics copy() {
+        IndexStatistics statistics = new IndexStatistics();
+        statistics.entryCount = entryCount;
+        statistics.nullCount = nullCount;
+        statistics.distinctKeys = distinctKeys;
+        statistics.modifications = modifications;
+        statistics.scannedCount = scannedCount;
+        statistics.bucketBounds = new ArrayList<>(bucketBounds);
+        statistics.bucketCounts = bucketCounts.clone();
+        statistics.bucketDistinct = bucketDistinct.clone();
+        statistics.multiKey = multiKey;
+        return statistics;
+    }
+
+    /**
+     * Gets the number of entries in the index.
+     *
+     * @return the entry count
+     */
+    public synchronized long getEntryCount() {
+        return entryCount;
+    }
+
+    /**
+     * Gets the number of distinct non-null values of the first field,
+     * as of the last scan.
+     *
+     * @return the distinct key count
+     */
+    public synchronized long getDistinctKeys() {
+        return distinctKeys;
+    }
+
+    /**
+     * Gets the number of writes since the last scan.
+     *
+     * @return the modification count
+     */
+    public synchronized long getModifications() {
+        return modifications;
+    }
+
+    /**
+     * Indicates if a document may have more than one entry in the index, as
+     * the first field of the document holds an array of values. The values
+     * of such a field can not be read back from the index.
+     *
+     * @return <code>true</code> if the index is a multikey index
+     */
+    public synchronized boolean isMultiKey() {
+        return multiKey;
+    }
+
+    /**
+     * Records an entry written to the index, whose first field holds
+     * an array of values.
+     */
+    public synchronized void recordMultiKey() {
+        multiKey = true;
+    }
+
+    /**
+     * Records an entry written to the index.
+     */
+    public synchronized void recordWrite() {
+        entryCount++;
+        modifications++;
+    }
+
+    /**
+     * Records an entry removed from the index.
+     */
+    public synchronized void recordRemove() {
+        entryCount = Math.max(0, entryCount - 1);
+        modifications++;
+    }
+
+    /**
+     * Indicates if the index has changed enough since the last scan
+     * for the histogram to be collected again.
+     *
+     * @return <code>true</code> if the statistics are stale
+     */
+    public synchronized boolean isStale() {
+        return modifications > STALE_THRESHOLD + STALE_FRACTION * scannedCount;
+    }
+
+    /**
+     * Estimates the number of entries equal to the value.
+     *
+     * @param value the value
+     * @return the estimated number of entries
+     */
+    public synchronized double estimateEquals(Object value) {
+        if (value == null) {
+            return nullCount * scale();
+        }
+
+        int bucket = findBucket(value);
+        if (bucket >= bucketBounds.size()) {
+            // value outside of the histogram, assume an average key
+            return distinctKeys == 0 ? 0 : (entryCount - nullCount * scale()) / distinctKeys;
+        }
+        return (double) bucketCounts[bucket] / Math.max(1, bucketDistinct[bucket]) * scale();
+    }
+
+    /**
+     * Estimates the number of entries whose value lies in the range. A
+     * <code>null</code> bound means the range is unbounded on that side.
+     *
+     * @param from          the lower bound
+     * @param fromInclusive if the lower bound is included
+     * @param to            the upper bound
+     * @param toInclusive   if the upper bound is included
+     * @return the estimated number of entries
+     */
+    public synchronized double estimateRange(Object from, boolean fromInclusive,
+                                             Object to, boolean toInclusive) {
+        try {
+            double estimate = 0;
+            for (int i = 0; i < bucketBounds.size(); i++) {
+                // a bucket holds the values in (lower, upper]
+                Object lower = i == 0 ? null : bucketBounds.get(i - 1);
+                Object upper = bucketBounds.get(i);
+
+                boolean overlaps = (from == null || compare(upper, from) > 0
+                    || (fromInclusive && compare(upper, from) == 0))
+                    && (to == null || lower == null || compare(lower, to) < 0);
+                if (!overlaps) continue;
+
+                boolean covered = (from == null || (lower != null && compare(lower, from) >= 0))
+                    && (to == null || compare(upper, to) < 0 || (toInclusive && compare(upper, to) == 0));
+
+                // a partly covered bucket is assumed to be half selected
+                estimate += covered ? bucketCounts[i] : bucketCounts[i] / 2.0;
+            }
+            return estimate * scale();
+        } catch (ClassCastException e) {
+            // values of a different type, assume a third of the entries
+            return entryCount / 3.0;
+        }
+    }
+
+    private int findBucket(Object value) {
+        try {
+            int low = 0, high = bucketBounds.size() - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (compare(bucketBounds.get(mid), value) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return low;
+        } catch (ClassCastException e) {
+            return bucketBounds.size();
+        }
+    }
+
+    // the histogram is scaled to the entries written after the last scan
+    private double scale() {
+        return scannedCount == 0 ? 0 : (double) entryCount / scannedCount;
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static int compare(Object first, Object second) {
+        if (first instanceof Number && second instanceof Number) {
+            return Numbers.compare((Number) first, (Number) second);
+        }
+        if (first instanceof Comparable && second instanceof Comparable) {
+            return Comparables.compare((Comparable) first, (Comparable) second);
+        }
+        throw new ClassCastException("values are not comparable");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Collection<NitriteId> idsOf(Object value) {
+        if (value instanceof Collection) {
+            return (Collection<NitriteId>) value;
+        } else if (value instanceof IndexMap) {
+            return ((IndexMap) value).getTerminalNitriteIds();
+        } else if (value instanceof NavigableMap) {
+            return new IndexMap((NavigableMap<DBValue, ?>) value).getTerminalNitriteIds();
+        }
+        return Collections.emptyList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static long countOf(Object value) {
+        if (value instanceof Collection) {
+            return ((Collection<NitriteId>) value).size();
+        } else if (value instanceof IndexMap) {
+            return ((IndexMap) value).getTerminalNitriteIds().size();
+        } else if (value instanceof NavigableMap) {
+            long count = 0;
+            for (Object subValue : ((NavigableMap<?, ?>) value).values()) {
+                count += countOf(subValue);
+            }
+            return count;
+        }
+        return 0;
+    }
+
+    private static long[] toArray(List<Long> values) {
+        long[] array = new long[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = values.get(i);
+        }
+        return array;
+    }
+}
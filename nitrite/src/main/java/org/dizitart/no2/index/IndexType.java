@@ -37,4 +37,19 @@ public interface IndexType {
      * Represents a full text index type.
      */
     String FULL_TEXT = "Fulltext";
+
+    /**
+     * Represents a hash index type, which only answers equality filters.
+     *
+     * @since 4.3
+     */
+    String HASH = "Hash";
+
+    /**
+     * Represents a time-to-live index type. A document expires once the
+     * time of its indexed field has passed, and is removed in background.
+     *
+     * @since 4.3
+     */
+    String TTL = "Ttl";
 }
@@ -0,0 +1,719 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.index;
+
+import org.dizitart.no2.collection.NitriteId;
+import org.dizitart.no2.exceptions.InvalidOperationException;
+import org.dizitart.no2.exceptions.NitriteIOException;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Represents a compressed set of {@link NitriteId}s, which keeps the 64bit
+ * values of the ids in a bitmap.
+ * <p>
+ * The ids are partitioned by the upper 48 bits of their values. The lower
+ * 16 bits of the ids of a partition are stored in a sorted array, or in a
+ * bitmap of 65536 bits once the partition holds more than 4096 ids. The ids
+ * are iterated in the ascending order of their values.
+ * <p>
+ * An id, whose value is not the canonical form of a 64bit integer (e.g.
+ * <code>007</code>), can not be kept in the bitmap and is stored as is.
+ *
+ * @author Anindya Chatterjee
+ * @see IndexLayout#BITMAP
+ * @since 4.3
+ */
+public class NitriteIdBitmap extends AbstractSet<NitriteId> implements Serializable {
+    private static final long serialVersionUID = 1719732503L;
+
+    // a partition having more ids than this is stored as a bitmap
+    private static final int ARRAY_MAX = 4096;
+    private static final int BITMAP_WORDS = 1024;
+
+    private transient long[] keys;
+    private transient Container[] containers;
+    private transient int partitions;
+    private transient int cardinality;
+    private transient Set<NitriteId> irregularIds;
+
+    /**
+     * Instantiates a new empty {@link NitriteIdBitmap}.
+     */
+    public NitriteIdBitmap() {
+        this.keys = new long[4];
+        this.containers = new Container[4];
+        this.irregularIds = new LinkedHashSet<>();
+    }
+
+    /**
+     * Instantiates a new {@link NitriteIdBitmap} with the ids of a collection.
+     *
+     * @param nitriteIds the nitrite ids
+     */
+    public NitriteIdBitmap(Collection<NitriteId> nitriteIds) {
+        this();
+        if (nitriteIds instanceof NitriteIdBitmap) {
+            NitriteIdBitmap other = (NitriteIdBitmap) nitriteIds;
+            this.keys = Arrays.copyOf(other.keys, Math.max(4, other.partitions));
+            this.containers = new Container[keys.length];
+            for (int i = 0; i < other.partitions; i++) {
+                this.containers[i] = other.containers[i].copy();
+            }
+            this.partitions = other.partitions;
+            this.cardinality = other.cardinality;
+            this.irregularIds.addAll(other.irregularIds);
+        } else if (nitriteIds != null) {
+            for (NitriteId nitriteId : nitriteIds) {
+                add(nitriteId);
+            }
+        }
+    }
+
+    /**
+     * Creates a new bitmap with the ids found in both bitmaps.
+     *
+     * @param first  the first bitmap
+     * @param second the second bitmap
+     * @return the intersection of the bitmaps
+     */
+    public static NitriteIdBitmap and(NitriteIdBitmap first, NitriteIdBitmap second) {
+        NitriteIdBitmap result = new NitriteIdBitmap();
+        int i = 0, j = 0;
+        while (i < first.partitions && j < second.partitions) {
+            int compare = Long.compare(first.keys[i], second.keys[j]);
+            if (compare < 0) {
+                i++;
+            } else if (compare > 0) {
+                j++;
+            } else {
+                result.append(first.keys[i], and(first.containers[i], second.containers[j]));
+                i++;
+                j++;
+            }
+        }
+
+        for (NitriteId nitriteId : first.irregularIds) {
+            if (second.irregularIds.contains(nitriteId)) {
+                result.irregularIds.add(nitriteId);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Creates a new bitmap with the ids found in any of the bitmaps.
+     *
+     * @param first  the first bitmap
+     * @param second the second bitmap
+     * @return the union of the bitmaps
+     */
+    public static NitriteIdBitmap or(NitriteIdBitmap first, NitriteIdBitmap second) {
+        NitriteIdBitmap result = new NitriteIdBitmap();
+        int i = 0, j = 0;
+        while (i < first.partitions || j < second.partitions) {
+            int compare = i == first.partitions ? 1
+                : j == second.partitions ? -1 : Long.compare(first.keys[i], second.keys[j]);
+            if (compare < 0) {
+                result.append(first.keys[i], first.containers[i].copy());
+                i++;
+            } else if (compare > 0) {
+                result.append(second.keys[j], second.containers[j].copy());
+                j++;
+            } else {
+                result.append(first.keys[i], or(first.containers[i], second.containers[j]));
+                i++;
+                j++;
+            }
+        }
+
+        result.irregularIds.addAll(first.irregularIds);
+        result.irregularIds.addAll(second.irregularIds);
+        return result;
+    }
+
+    /**
+     * Creates a new bitmap with the ids of the first bitmap,
+     * which are not found in the second bitmap.
+     *
+     * @param first  the first bitmap
+     * @param second the second bitmap
+     * @return the difference of the bitmaps
+     */
+    public static NitriteIdBitmap andNot(NitriteIdBitmap first, NitriteIdBitmap second) {
+        NitriteIdBitmap result = new NitriteIdBitmap();
+        int j = 0;
+        for (int i = 0; i < first.partitions; i++) {
+            while (j < second.partitions && second.keys[j] < first.keys[i]) {
+                j++;
+            }
+
+            if (j < second.partitions && second.keys[j] == first.keys[i]) {
+                result.append(first.keys[i], andNot(first.containers[i], second.containers[j]));
+            } else {
+                result.append(first.keys[i], first.containers[i].copy());
+            }
+        }
+
+        for (NitriteId nitriteId : first.irregularIds) {
+            if (!second.irregularIds.contains(nitriteId)) {
+                result.irregularIds.add(nitriteId);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Reads a bitmap from its serialized form.
+     *
+     * @param bytes the serialized bitmap
+     * @return the bitmap
+     * @see #toByteArray()
+     */
+    public static NitriteIdBitmap fromByteArray(byte[] bytes) {
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            NitriteIdBitmap bitmap = new NitriteIdBitmap();
+            bitmap.readFrom(input);
+            return bitmap;
+        } catch (IOException e) {
+            throw new NitriteIOException("Failed to read nitrite id bitmap", e);
+        }
+    }
+
+    /**
+     * Writes the bitmap in its compact serialized form.
+     *
+     * @return the serialized bitmap
+     */
+    public byte[] toByteArray() {
+        try (ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+             DataOutputStream output = new DataOutputStream(bytes)) {
+            writeTo(output);
+            output.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new NitriteIOException("Failed to write nitrite id bitmap", e);
+        }
+    }
+
+    @Override
+    public boolean add(NitriteId nitriteId) {
+        if (nitriteId == null) return false;
+
+        Long value = valueOf(nitriteId);
+        if (value == null) {
+            return irregularIds.add(nitriteId);
+        }
+
+        long key = value >> 16;
+        char low = (char) (value & 0xFFFF);
+        int index = Arrays.binarySearch(keys, 0, partitions, key);
+        if (index < 0) {
+            insert(-index - 1, key, new ArrayContainer().add(low));
+            cardinality++;
+            return true;
+        }
+
+        Container container = containers[index];
+        int before = container.cardinality();
+        containers[index] = container.add(low);
+        if (containers[index].cardinality() > before) {
+            cardinality++;
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean remove(Object object) {
+        if (!(object instanceof NitriteId)) return false;
+
+        NitriteId nitriteId = (NitriteId) object;
+        Long value = valueOf(nitriteId);
+        if (value == null) {
+            return irregularIds.remove(nitriteId);
+        }
+
+        int index = Arrays.binarySearch(keys, 0, partitions, value >> 16);
+        if (index < 0) return false;
+
+        Container container = containers[index];
+        int before = container.cardinality();
+        container = container.remove((char) (value & 0xFFFF));
+        if (container.cardinality() == before) {
+            return false;
+        }
+
+        cardinality--;
+        if (container.cardinality() == 0) {
+            delete(index);
+        } else {
+            containers[index] = container;
+        }
+        return true;
+    }
+
+    @Override
+    public boolean contains(Object object) {
+        if (!(object instanceof NitriteId)) return false;
+
+        NitriteId nitriteId = (NitriteId) object;
+        Long value = valueOf(nitriteId);
+        if (value == null) {
+            return irregularIds.contains(nitriteId);
+        }
+
+        int index = Arrays.binarySearch(keys, 0, partitions, value >> 16);
+        return index >= 0 && containers[index].contains((char) (value & 0xFFFF));
+    }
+
+    @Override
+    public int size() {
+        return cardinality + irregularIds.size();
+    }
+
+    @Override
+    public void clear() {
+        this.keys = new long[4];
+        this.containers = new Container[4];
+        this.partitions = 0;
+        this.cardinality = 0;
+        this.irregularIds.clear();
+    }
+
+    @Override
+    public Iterator<NitriteId> iterator() {
+        return new BitmapIterator();
+    }
+
+    private void append(long key, Container container) {
+        if (container.cardinality() == 0) return;
+        insert(partitions, key, container);
+        cardinality += container.cardinality();
+    }
+
+    private void insert(int index, long key, Container container) {
+        if (partitions == keys.length) {
+            int capacity = keys.length * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            containers = Arrays.copyOf(containers, capacity);
+        }
+
+        System.arraycopy(keys, index, keys, index + 1, partitions - index);
+        System.arraycopy(containers, index, containers, index + 1, partitions - index);
+        keys[index] = key;
+        containers[index] = container;
+        partitions++;
+    }
+
+    private void delete(int index) {
+        System.arraycopy(keys, index + 1, keys, index, partitions - index - 1);
+        System.arraycopy(containers, index + 1, containers, index, partitions - index - 1);
+        partitions--;
+        containers[partitions] = null;
+    }
+
+    private void writeTo(DataOutput output) throws IOException {
+        output.writeInt(partitions);
+        for (int i = 0; i < partitions; i++) {
+            Container container = containers[i];
+            output.writeLong(keys[i]);
+            output.writeInt(container.cardinality());
+            if (container.cardinality() <= ARRAY_MAX) {
+                int value = container.nextValueFrom(0);
+                while (value >= 0) {
+                    output.writeChar(value);
+                    value = container.nextValueFrom(value + 1);
+                }
+            } else {
+                for (long word : BitmapContainer.wordsOf(container)) {
+                    output.writeLong(word);
+                }
+            }
+        }
+
+        output.writeInt(irregularIds.size());
+        for (NitriteId nitriteId : irregularIds) {
+            output.writeUTF(nitriteId.getIdValue());
+        }
+    }
+
+    private void readFrom(DataInput input) throws IOException {
+        int count = input.readInt();
+        for (int i = 0; i < count; i++) {
+            long key = input.readLong();
+            int size = input.readInt();
+
+            Container container;
+            if (size <= ARRAY_MAX) {
+                char[] values = new char[size];
+                for (int j = 0; j < size; j++) {
+                    values[j] = input.readChar();
+                }
+                container = new ArrayContainer(values, size);
+            } else {
+                long[] words = new long[BITMAP_WORDS];
+                for (int j = 0; j < BITMAP_WORDS; j++) {
+                    words[j] = input.readLong();
+                }
+                container = new BitmapContainer(words, size);
+            }
+            append(key, container);
+        }
+
+        int irregularCount = input.readInt();
+        for (int i = 0; i < irregularCount; i++) {
+            irregularIds.add(NitriteId.createId(input.readUTF()));
+        }
+    }
+
+    private void writeObject(ObjectOutputStream stream) throws IOException {
+        stream.defaultWriteObject();
+        writeTo(stream);
+    }
+
+    private void readObject(ObjectInputStream stream) throws IOException, ClassNotFoundException {
+        stream.defaultReadObject();
+        this.keys = new long[4];
+        this.containers = new Container[4];
+        this.irregularIds = new LinkedHashSet<>();
+        readFrom(stream);
+    }
+
+    private static Long valueOf(NitriteId nitriteId) {
+        String idValue = nitriteId.getIdValue();
+        try {
+            long value = Long.parseLong(idValue);
+            // only the canonical form can be restored from the value
+            return Long.toString(value).equals(idValue) ? value : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Container and(Container first, Container second) {
+        if (first instanceof ArrayContainer || second instanceof ArrayContainer) {
+            // probe the other container with the values of the array
+            ArrayContainer array = (ArrayContainer) (first instanceof ArrayContainer ? first : second);
+            Container other = array == first ? second : first;
+            char[] values = new char[array.cardinality()];
+            int size = 0;
+            for (int i = 0; i < array.size; i++) {
+                if (other.contains(array.values[i])) {
+                    values[size++] = array.values[i];
+                }
+            }
+            return new ArrayContainer(values, size);
+        }
+
+        long[] words = new long[BITMAP_WORDS];
+        long[] firstWords = ((BitmapContainer) first).words;
+        long[] secondWords = ((BitmapContainer) second).words;
+        for (int i = 0; i < BITMAP_WORDS; i++) {
+            words[i] = firstWords[i] & secondWords[i];
+        }
+        return BitmapContainer.of(words).optimize();
+    }
+
+    private static Container or(Container first, Container second) {
+        if (first instanceof ArrayContainer && second instanceof ArrayContainer
+            && first.cardinality() + second.cardinality() <= ARRAY_MAX) {
+            ArrayContainer x = (ArrayContainer) first;
+            ArrayContainer y = (ArrayContainer) second;
+            char[] values = new char[x.size + y.size];
+            int i = 0, j = 0, size = 0;
+            while (i < x.size || j < y.size) {
+                if (j == y.size || (i < x.size && x.values[i] < y.values[j])) {
+                    values[size++] = x.values[i++];
+                } else if (i == x.size || y.values[j] < x.values[i]) {
+                    values[size++] = y.values[j++];
+                } else {
+                    values[size++] = x.values[i++];
+                    j++;
+                }
+            }
+            return new ArrayContainer(values, size);
+        }
+
+        long[] words = BitmapContainer.wordsOf(first);
+        if (second instanceof BitmapContainer) {
+            long[] secondWords = ((BitmapContainer) second).words;
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                words[i] |= secondWords[i];
+            }
+        } else {
+            ArrayContainer array = (ArrayContainer) second;
+            for (int i = 0; i < array.size; i++) {
+                words[array.values[i] >>> 6] |= 1L << array.values[i];
+            }
+        }
+        return BitmapContainer.of(words).optimize();
+    }
+
+    private static Container andNot(Container first, Container second) {
+        if (first instanceof ArrayContainer) {
+            ArrayContainer array = (ArrayContainer) first;
+            char[] values = new char[array.size];
+            int size = 0;
+            for (int i = 0; i < array.size; i++) {
+                if (!second.contains(array.values[i])) {
+                    values[size++] = array.values[i];
+                }
+            }
+            return new ArrayContainer(values, size);
+        }
+
+        long[] words = BitmapContainer.wordsOf(first);
+        if (second instanceof BitmapContainer) {
+            long[] secondWords = ((BitmapContainer) second).words;
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                words[i] &= ~secondWords[i];
+            }
+        } else {
+            ArrayContainer array = (ArrayContainer) second;
+            for (int i = 0; i < array.size; i++) {
+                words[array.values[i] >>> 6] &= ~(1L << array.values[i]);
+            }
+        }
+        return BitmapContainer.of(words).optimize();
+    }
+
+    private interface Container {
+        int cardinality();
+
+        boolean contains(char value);
+
+        Container add(char value);
+
+        Container remove(char value);
+
+        Container copy();
+
+        // the lowest value not less than the given value, or -1
+        int nextValueFrom(int value);
+    }
+
+    private static class ArrayContainer implements Container {
+        private char[] values;
+        private int size;
+
+        ArrayContainer() {
+            this.values = new char[4];
+        }
+
+        ArrayContainer(char[] values, int size) {
+            this.values = values;
+            this.size = size;
+        }
+
+        @Override
+        public int cardinality() {
+            return size;
+        }
+
+        @Override
+        public boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, size, value) >= 0;
+        }
+
+        @Override
+        public Container add(char value) {
+            int index = Arrays.binarySearch(values, 0, size, value);
+            if (index >= 0) return this;
+
+            if (size == ARRAY_MAX) {
+                BitmapContainer bitmap = BitmapContainer.of(BitmapContainer.wordsOf(this));
+                return bitmap.add(value);
+            }
+
+            index = -index - 1;
+            if (size == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_MAX, size * 2));
+            }
+            System.arraycopy(values, index, values, index + 1, size - index);
+            values[index] = value;
+            size++;
+            return this;
+        }
+
+        @Override
+        public Container remove(char value) {
+            int index = Arrays.binarySearch(values, 0, size, value);
+            if (index >= 0) {
+                System.arraycopy(values, index + 1, values, index, size - index - 1);
+                size--;
+            }
+            return this;
+        }
+
+        @Override
+        public Container copy() {
+            return new ArrayContainer(Arrays.copyOf(values, Math.max(size, 1)), size);
+        }
+
+        @Override
+        public int nextValueFrom(int value) {
+            if (value > Character.MAX_VALUE) return -1;
+
+            int index = Arrays.binarySearch(values, 0, size, (char) value);
+            if (index < 0) {
+                index = -index - 1;
+            }
+            return index < size ? values[index] : -1;
+        }
+    }
+
+    private static class BitmapContainer implements Container {
+        private final long[] words;
+        private int cardinality;
+
+        BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        static BitmapContainer of(long[] words) {
+            int cardinality = 0;
+            for (long word : words) {
+                cardinality += Long.bitCount(word);
+            }
+            return new BitmapContainer(words, cardinality);
+        }
+
+        static long[] wordsOf(Container container) {
+            if (container instanceof BitmapContainer) {
+                return Arrays.copyOf(((BitmapContainer) container).words, BITMAP_WORDS);
+            }
+
+            long[] words = new long[BITMAP_WORDS];
+            ArrayContainer array = (ArrayContainer) container;
+            for (int i = 0; i < array.size; i++) {
+                words[array.values[i] >>> 6] |= 1L << array.values[i];
+            }
+            return words;
+        }
+
+        @Override
+        public int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        public boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        public Container add(char value) {
+            if (!contains(value)) {
+                words[value >>> 6] |= 1L << value;
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        public Container remove(char value) {
+            if (contains(value)) {
+                words[value >>> 6] &= ~(1L << value);
+                cardinality--;
+            }
+            return optimize();
+        }
+
+        @Override
+        public Container copy() {
+            return new BitmapContainer(Arrays.copyOf(words, BITMAP_WORDS), cardinality);
+        }
+
+        @Override
+        public int nextValueFrom(int value) {
+            while (value <= Character.MAX_VALUE) {
+                int wordIndex = value >>> 6;
+                long word = words[wordIndex] & (-1L << value);
+                if (word != 0) {
+                    return (wordIndex << 6) + Long.numberOfTrailingZeros(word);
+                }
+                value = (wordIndex + 1) << 6;
+            }
+            return -1;
+        }
+
+        Container optimize() {
+            if (cardinality > ARRAY_MAX) return this;
+
+            char[] values = new char[Math.max(cardinality, 1)];
+            int size = 0;
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    values[size++] = (char) ((i << 6) + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            return new ArrayContainer(values, size);
+        }
+    }
+
+    private class BitmapIterator implements Iterator<NitriteId> {
+        private int partition = 0;
+        private int nextValue = -1;
+        private int from = 0;
+        private Iterator<NitriteId> irregularIterator;
+
+        @Override
+        public boolean hasNext() {
+            if (nextValue >= 0) return true;
+
+            while (partition < partitions) {
+                nextValue = containers[partition].nextValueFrom(from);
+                if (nextValue >= 0) {
+                    from = nextValue + 1;
+                    return true;
+                }
+                partition++;
+                from = 0;
+            }
+
+            if (irregularIterator == null) {
+                irregularIterator = irregularIds.iterator();
+            }
+            return irregularIterator.hasNext();
+        }
+
+        @Override
+        public NitriteId next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            if (nextValue >= 0) {
+                long value = (keys[partition] << 16) | nextValue;
+                nextValue = -1;
+                return NitriteId.createId(Long.toString(value));
+            }
+            return irregularIterator.next();
+        }
+
+        @Override
+        public void remove() {
+            throw new InvalidOperationException("Remove operation cannot be called here");
+        }
+    }
+}
@@ -17,9 +17,12 @@
 
 package org.dizitart.no2.index;
 
+import org.dizitart.no2.collection.Document;
 import org.dizitart.no2.collection.FindPlan;
 import org.dizitart.no2.collection.NitriteId;
 import org.dizitart.no2.common.FieldValues;
+import org.dizitart.no2.common.RecordStream;
+import org.dizitart.no2.common.tuples.Pair;
 import org.dizitart.no2.exceptions.UniqueConstraintException;
 import org.dizitart.no2.exceptions.ValidationException;
 
@@ -52,6 +55,19 @@ public interface NitriteIndex {
      */
     void write(FieldValues fieldValues);
 
+    /**
+     * Writes the index entries of a batch of documents while the index is
+     * being built. An index can override it to load its entries in bulk.
+     *
+     * @param fieldValuesList the field values of the documents
+     * @since 4.3
+     */
+    default void writeAll(List<FieldValues> fieldValuesList) {
+        for (FieldValues fieldValues : fieldValuesList) {
+            write(fieldValues);
+        }
+    }
+
     /**
      * Removes the index entry for the specified field values.
      *
@@ -72,6 +88,60 @@ public interface NitriteIndex {
      */
     LinkedHashSet<NitriteId> findNitriteIds(FindPlan findPlan);
 
+    /**
+     * Lazily scans the index for the NitriteIds of the given find plan. The
+     * index is walked only as far as the stream is consumed.
+     *
+     * @param findPlan the find plan
+     * @return the stream of nitrite ids in index order
+     * @since 4.3
+     */
+    default RecordStream<NitriteId> scanNitriteIds(FindPlan findPlan) {
+        return RecordStream.fromIterable(findNitriteIds(findPlan));
+    }
+
+    /**
+     * Lazily scans the index for the NitriteIds of the given find plan, along
+     * with a document of the values indexed for each id.
+     *
+     * @param findPlan the find plan
+     * @return the stream of nitrite ids and their indexed values in index order,
+     * or <code>null</code> if the values can not be read from the index.
+     * @since 4.3
+     */
+    default RecordStream<Pair<NitriteId, Document>> scanEntries(FindPlan findPlan) {
+        return null;
+    }
+
+    /**
+     * Counts the NitriteIds of the given find plan without reading any document.
+     * An index may add up the sizes of its entries instead of reading the ids,
+     * so the count is exact only if no document is indexed under more than one
+     * of the scanned keys.
+     *
+     * @param findPlan the find plan
+     * @return the number of matching ids
+     * @since 4.3
+     */
+    default long countNitriteIds(FindPlan findPlan) {
+        long count = 0;
+        for (NitriteId ignored : scanNitriteIds(findPlan)) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Collects the statistics of the index by scanning it.
+     *
+     * @return the index statistics, or <code>null</code> if the index
+     * does not keep any statistics
+     * @since 4.3
+     */
+    default IndexStatistics computeStatistics() {
+        return null;
+    }
+
     /**
      * Checks if the index is unique.
      *
@@ -17,13 +17,17 @@
 package org.dizitart.no2.index;
 
 import org.dizitart.no2.NitriteConfig;
+import org.dizitart.no2.collection.Document;
 import org.dizitart.no2.collection.FindPlan;
 import org.dizitart.no2.collection.NitriteId;
 import org.dizitart.no2.common.FieldValues;
 import org.dizitart.no2.common.Fields;
+import org.dizitart.no2.common.RecordStream;
 import org.dizitart.no2.common.module.NitritePlugin;
+import org.dizitart.no2.common.tuples.Pair;
 
 import java.util.LinkedHashSet;
+import java.util.List;
 
 /**
  * An abstract class representing a Nitrite indexer plugin.
@@ -67,6 +71,23 @@ public interface NitriteIndexer extends NitritePlugin {
      */
     void writeIndexEntry(FieldValues fieldValues, IndexDescriptor indexDescriptor, NitriteConfig nitriteConfig);
 
+    /**
+     * Writes the index entries of a batch of documents while the index is being
+     * built. The batches of an index are written one after another, never
+     * concurrently, so an indexer can override it to load them in bulk.
+     *
+     * @param fieldValuesList the field values of the documents
+     * @param indexDescriptor the descriptor of the index
+     * @param nitriteConfig   the NitriteConfig to use for indexing
+     * @since 4.3
+     */
+    default void writeIndexEntries(List<FieldValues> fieldValuesList, IndexDescriptor indexDescriptor,
+                                   NitriteConfig nitriteConfig) {
+        for (FieldValues fieldValues : fieldValuesList) {
+            writeIndexEntry(fieldValues, indexDescriptor, nitriteConfig);
+        }
+    }
+
     /**
      * Removes an index entry for the given field values and index descriptor from the Nitrite database.
      *
@@ -84,4 +105,66 @@ public interface NitriteIndexer extends NitritePlugin {
      * @return a set of NitriteIds of the documents that match the given filter.
      */
     LinkedHashSet<NitriteId> findByFilter(FindPlan findPlan, NitriteConfig nitriteConfig);
+
+    /**
+     * Lazily finds the NitriteIds of the documents that match the given filter. Indexers
+     * which can walk their index in order should override it, so that a query with a limit
+     * stops reading the index once enough ids are found.
+     *
+     * @param findPlan      the plan for finding the documents.
+     * @param nitriteConfig the Nitrite configuration.
+     * @return a stream of NitriteIds of the documents that match the given filter.
+     * @since 4.3
+     */
+    default RecordStream<NitriteId> streamByFilter(FindPlan findPlan, NitriteConfig nitriteConfig) {
+        return RecordStream.fromIterable(findByFilter(findPlan, nitriteConfig));
+    }
+
+    /**
+     * Lazily finds the NitriteIds of the documents that match the given filter, along with
+     * a document of the values indexed for each of them. A query which only projects the
+     * indexed fields is answered from these values without reading the documents.
+     *
+     * @param findPlan      the plan for finding the documents.
+     * @param nitriteConfig the Nitrite configuration.
+     * @return a stream of NitriteIds and their indexed values, or <code>null</code> if the
+     * indexer can not read the values back from its index.
+     * @since 4.3
+     */
+    default RecordStream<Pair<NitriteId, Document>> streamEntriesByFilter(FindPlan findPlan,
+                                                                          NitriteConfig nitriteConfig) {
+        return null;
+    }
+
+    /**
+     * Counts the documents that match the given filter without reading them. An indexer
+     * may answer from the sizes of its index entries, in which case a document indexed
+     * under more than one of the scanned keys is counted more than once, so the caller
+     * must only use it for an index without arrays in its first field.
+     *
+     * @param findPlan      the plan for finding the documents.
+     * @param nitriteConfig the Nitrite configuration.
+     * @return the number of documents that match the given filter.
+     * @since 4.3
+     */
+    default long countByFilter(FindPlan findPlan, NitriteConfig nitriteConfig) {
+        long count = 0;
+        for (NitriteId ignored : streamByFilter(findPlan, nitriteConfig)) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Collects the statistics of an index, which the query planner uses to choose
+     * between the indexes of a collection.
+     *
+     * @param indexDescriptor the descriptor of the index
+     * @param nitriteConfig   the Nitrite configuration.
+     * @return the index statistics, or <code>null</code> if the indexer does not keep statistics.
+     * @since 4.3
+     */
+    default IndexStatistics computeStatistics(IndexDescriptor indexDescriptor, NitriteConfig nitriteConfig) {
+        return null;
+    }
 }
@@ -75,6 +75,10 @@ public class NitriteTextIndexer implements NitriteIndexer {
     public void dropIndex(IndexDescriptor indexDescriptor, NitriteConfig nitriteConfig) {
         TextIndex textIndex = findTextIndex(indexDescriptor, nitriteConfig);
         textIndex.drop();
+        // the dictionaries of a text index follow its options, which are not
+        // part of the descriptor's identity, so an index created again must
+        // not find this one
+        indexRegistry.remove(indexDescriptor);
     }
 
     @Override
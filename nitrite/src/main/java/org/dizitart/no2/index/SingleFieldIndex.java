@@ -18,18 +18,21 @@
 package org.dizitart.no2.index;
 
 import lombok.Getter;
+import org.dizitart.no2.collection.Document;
 import org.dizitart.no2.collection.FindPlan;
 import org.dizitart.no2.collection.NitriteId;
 import org.dizitart.no2.common.DBNull;
 import org.dizitart.no2.common.DBValue;
 import org.dizitart.no2.common.FieldValues;
 import org.dizitart.no2.common.Fields;
+import org.dizitart.no2.common.RecordStream;
+import org.dizitart.no2.common.tuples.Pair;
+import org.dizitart.no2.exceptions.UniqueConstraintException;
 import org.dizitart.no2.filters.ComparableFilter;
 import org.dizitart.no2.store.NitriteMap;
 import org.dizitart.no2.store.NitriteStore;
 
-import java.util.LinkedHashSet;
-import java.util.List;
+import java.util.*;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 import static org.dizitart.no2.common.util.IndexUtils.deriveIndexMapName;
@@ -63,7 +66,7 @@ public class SingleFieldIndex implements NitriteIndex {
         String firstField = fieldNames.get(0);
         Object element = fieldValues.get(firstField);
 
-        NitriteMap<DBValue, List<?>> indexMap = findIndexMap();
+        NitriteMap<DBValue, Collection<?>> indexMap = findIndexMap();
 
         if (element == null) {
             addIndexElement(indexMap, fieldValues, DBNull.getInstance());
@@ -90,6 +93,53 @@ public class SingleFieldIndex implements NitriteIndex {
         }
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public void writeAll(List<FieldValues> fieldValuesList) {
+        // the ids of the batch are grouped by value, so every value
+        // is read and written once instead of once per document
+        Map<DBValue, List<NitriteId>> batch = new LinkedHashMap<>();
+        for (FieldValues fieldValues : fieldValuesList) {
+            String firstField = fieldValues.getFields().getFieldNames().get(0);
+            for (DBValue dbValue : indexValues(fieldValues.get(firstField))) {
+                batch.computeIfAbsent(dbValue, k -> new ArrayList<>()).add(fieldValues.getNitriteId());
+            }
+        }
+
+        List<DBValue> dbValues = new ArrayList<>(batch.keySet());
+        try {
+            // values are written in the order of the index, so that an ordered
+            // store appends to its pages instead of writing all over them
+            Collections.sort(dbValues);
+        } catch (ClassCastException e) {
+            // values of different types are written in the order of the scan
+        }
+
+        NitriteMap<DBValue, Collection<?>> indexMap = findIndexMap();
+        for (DBValue dbValue : dbValues) {
+            List<NitriteId> newIds = batch.get(dbValue);
+            Collection<NitriteId> nitriteIds = (Collection<NitriteId>) indexMap.get(dbValue);
+            int size = nitriteIds == null ? 0 : nitriteIds.size();
+            if (isUnique() && size + newIds.size() > 1) {
+                throw new UniqueConstraintException("Unique key constraint violation for "
+                    + indexDescriptor.getFields());
+            }
+
+            if (isBitmap()) {
+                NitriteIdBitmap bitmap = new NitriteIdBitmap(nitriteIds);
+                bitmap.addAll(newIds);
+                indexMap.put(dbValue, bitmap);
+            } else {
+                List<NitriteId> ids = new ArrayList<>(size + newIds.size());
+                if (nitriteIds != null) {
+                    ids.addAll(nitriteIds);
+                }
+                ids.addAll(newIds);
+                indexMap.put(dbValue, new CopyOnWriteArrayList<>(ids));
+            }
+        }
+    }
+
     @Override
     public void remove(FieldValues fieldValues) {
         Fields fields = fieldValues.getFields();
@@ -98,7 +148,7 @@ public class SingleFieldIndex implements NitriteIndex {
         String firstField = fieldNames.get(0);
         Object element = fieldValues.get(firstField);
 
-        NitriteMap<DBValue, List<?>> indexMap = findIndexMap();
+        NitriteMap<DBValue, Collection<?>> indexMap = findIndexMap();
         if (element == null) {
             removeIndexElement(indexMap, fieldValues, DBNull.getInstance());
         } else if (element instanceof Comparable) {
@@ -126,32 +176,88 @@ public class SingleFieldIndex implements NitriteIndex {
 
     @Override
     public void drop() {
-        NitriteMap<DBValue, List<?>> indexMap = findIndexMap();
+        NitriteMap<DBValue, Collection<?>> indexMap = findIndexMap();
         indexMap.clear();
         indexMap.drop();
     }
 
     @Override
     public LinkedHashSet<NitriteId> findNitriteIds(FindPlan findPlan) {
-        if (findPlan.getIndexScanFilter() == null) return new LinkedHashSet<>();
+        LinkedHashSet<NitriteId> nitriteIds = new LinkedHashSet<>();
+        scanNitriteIds(findPlan).forEach(nitriteIds::add);
+        return nitriteIds;
+    }
+
+    @Override
+    public RecordStream<NitriteId> scanNitriteIds(FindPlan findPlan) {
+        if (findPlan.getIndexScanFilter() == null) return RecordStream.empty();
 
-        NitriteMap<DBValue, List<?>> indexMap = findIndexMap();
+        NitriteMap<DBValue, Collection<?>> indexMap = findIndexMap();
         return scanIndex(findPlan, indexMap);
     }
 
+    @Override
+    public RecordStream<Pair<NitriteId, Document>> scanEntries(FindPlan findPlan) {
+        if (findPlan.getIndexScanFilter() == null) return RecordStream.empty();
+
+        IndexScanner indexScanner = new IndexScanner(new IndexMap(findIndexMap()), findPlan.isMultiKeyScan());
+        return indexScanner.scanEntries(indexDescriptor.getFields().getFieldNames(),
+            findPlan.getIndexScanFilter().getFilters(), findPlan.getIndexScanOrder());
+    }
+
+    @Override
+    public long countNitriteIds(FindPlan findPlan) {
+        if (findPlan.getIndexScanFilter() == null) return 0;
+
+        IndexScanner indexScanner = new IndexScanner(new IndexMap(findIndexMap()));
+        return indexScanner.count(findPlan.getIndexScanFilter().getFilters());
+    }
+
+    @Override
+    public IndexStatistics computeStatistics() {
+        return IndexStatistics.of(new IndexMap(findIndexMap()));
+    }
+
+    /**
+     * Gets the smallest value of the index which is not {@code null}.
+     *
+     * @return the smallest value, or {@code null} if the index has none.
+     */
+    Comparable<?> firstValue() {
+        NitriteMap<DBValue, Collection<?>> indexMap = findIndexMap();
+        if (indexMap.isEmpty()) return null;
+
+        DBValue first = indexMap.firstKey();
+        if (first instanceof DBNull) {
+            first = indexMap.higherKey(first);
+        }
+        return first == null ? null : first.getValue();
+    }
+
     @SuppressWarnings("unchecked")
-    private void addIndexElement(NitriteMap<DBValue, List<?>> indexMap,
+    private void addIndexElement(NitriteMap<DBValue, Collection<?>> indexMap,
                                  FieldValues fieldValues, DBValue element) {
-        List<NitriteId> nitriteIds = (List<NitriteId>) indexMap.get(element);
-        nitriteIds = addNitriteIds(nitriteIds, fieldValues);
-        indexMap.put(element, nitriteIds);
+        Collection<NitriteId> nitriteIds = (Collection<NitriteId>) indexMap.get(element);
+        if (isBitmap()) {
+            // the stored bitmap may be read concurrently, so a copy is updated
+            NitriteIdBitmap bitmap = new NitriteIdBitmap(nitriteIds);
+            bitmap.add(fieldValues.getNitriteId());
+            indexMap.put(element, bitmap);
+        } else {
+            nitriteIds = addNitriteIds((List<NitriteId>) nitriteIds, fieldValues);
+            indexMap.put(element, nitriteIds);
+        }
     }
 
     @SuppressWarnings("unchecked")
-    private void removeIndexElement(NitriteMap<DBValue, List<?>> indexMap,
+    private void removeIndexElement(NitriteMap<DBValue, Collection<?>> indexMap,
                                     FieldValues fieldValues, DBValue element) {
-        List<NitriteId> nitriteIds = (List<NitriteId>) indexMap.get(element);
+        Collection<NitriteId> nitriteIds = (Collection<NitriteId>) indexMap.get(element);
         if (nitriteIds != null && !nitriteIds.isEmpty()) {
+            if (isBitmap()) {
+                nitriteIds = new NitriteIdBitmap(nitriteIds);
+            }
+
             nitriteIds.remove(fieldValues.getNitriteId());
             if (nitriteIds.size() == 0) {
                 indexMap.remove(element);
@@ -161,16 +267,39 @@ public class SingleFieldIndex implements NitriteIndex {
         }
     }
 
-    private NitriteMap<DBValue, List<?>> findIndexMap() {
+    private List<DBValue> indexValues(Object element) {
+        List<DBValue> dbValues = new ArrayList<>();
+        if (element == null) {
+            dbValues.add(DBNull.getInstance());
+        } else if (element instanceof Comparable) {
+            dbValues.add(new DBValue((Comparable<?>) element));
+        } else if (element.getClass().isArray()) {
+            for (Object item : convertToObjectArray(element)) {
+                dbValues.add(item == null ? DBNull.getInstance() : new DBValue((Comparable<?>) item));
+            }
+        } else if (element instanceof Iterable) {
+            for (Object item : (Iterable<?>) element) {
+                dbValues.add(item == null ? DBNull.getInstance() : new DBValue((Comparable<?>) item));
+            }
+        }
+        return dbValues;
+    }
+
+    private boolean isBitmap() {
+        return IndexLayout.BITMAP.equals(indexDescriptor.getLayout());
+    }
+
+    private NitriteMap<DBValue, Collection<?>> findIndexMap() {
         String mapName = deriveIndexMapName(indexDescriptor);
-        return nitriteStore.openMap(mapName, DBValue.class, CopyOnWriteArrayList.class);
+        return nitriteStore.openMap(mapName, DBValue.class,
+            isBitmap() ? NitriteIdBitmap.class : CopyOnWriteArrayList.class);
     }
 
-    private LinkedHashSet<NitriteId> scanIndex(FindPlan findPlan,
-                                            NitriteMap<DBValue, List<?>> indexMap) {
+    private RecordStream<NitriteId> scanIndex(FindPlan findPlan,
+                                              NitriteMap<DBValue, Collection<?>> indexMap) {
         List<ComparableFilter> filters = findPlan.getIndexScanFilter().getFilters();
         IndexMap iMap = new IndexMap(indexMap);
-        IndexScanner indexScanner = new IndexScanner(iMap);
-        return indexScanner.doScan(filters, findPlan.getIndexScanOrder());
+        IndexScanner indexScanner = new IndexScanner(iMap, findPlan.isMultiKeyScan());
+        return indexScanner.scan(filters, findPlan.getIndexScanOrder());
     }
 }
@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.index;
+
+import org.dizitart.no2.common.tuples.Pair;
+import org.dizitart.no2.store.NitriteMap;
+import org.dizitart.no2.store.NitriteStore;
+
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.dizitart.no2.common.Constants.INTERNAL_NAME_SEPARATOR;
+import static org.dizitart.no2.common.util.IndexUtils.deriveIndexMapName;
+
+/**
+ * The auxiliary dictionaries of a full-text index, which find the terms of
+ * the index ending with a suffix or containing a substring without reading
+ * every term of the index.
+ * <p>
+ * The reversed dictionary keeps every term reversed, so the terms ending with
+ * a suffix are found by a prefix scan of the reversed suffix. The trigram
+ * dictionary maps every three character substring of a term to the terms
+ * containing it, so the terms containing a substring are found among the
+ * terms common to all the trigrams of the substring.
+ *
+ * @author Anindya Chatterjee
+ * @see IndexOptions#isSubstringSearch()
+ * @since 4.3
+ */
+public class TermDictionary {
+    private static final int GRAM_SIZE = 3;
+
+    private final IndexDescriptor indexDescriptor;
+    private final NitriteStore<?> nitriteStore;
+
+    /**
+     * Instantiates a new {@link TermDictionary}.
+     *
+     * @param indexDescriptor the descriptor of the full-text index
+     * @param nitriteStore    the nitrite store
+     */
+    public TermDictionary(IndexDescriptor indexDescriptor, NitriteStore<?> nitriteStore) {
+        this.indexDescriptor = indexDescriptor;
+        this.nitriteStore = nitriteStore;
+    }
+
+    /**
+     * Adds a new term of the index to the dictionaries.
+     *
+     * @param term the term
+     */
+    public void addTerm(String term) {
+        findReversedMap().put(reverse(term), term);
+
+        NitriteMap<String, List<String>> trigramMap = findTrigramMap();
+        for (String trigram : trigrams(term)) {
+            List<String> terms = trigramMap.get(trigram);
+            if (terms == null || !terms.contains(term)) {
+                // the stored list may be read concurrently, so a copy is updated
+                List<String> copy = terms == null ? new CopyOnWriteArrayList<>()
+                    : new CopyOnWriteArrayList<>(terms);
+                copy.add(term);
+                trigramMap.put(trigram, copy);
+            }
+        }
+    }
+
+    /**
+     * Removes a term, which is no longer found in the index, from the dictionaries.
+     *
+     * @param term the term
+     */
+    public void removeTerm(String term) {
+        findReversedMap().remove(reverse(term));
+
+        NitriteMap<String, List<String>> trigramMap = findTrigramMap();
+        for (String trigram : trigrams(term)) {
+            List<String> terms = trigramMap.get(trigram);
+            if (terms != null && terms.contains(term)) {
+                List<String> copy = new CopyOnWriteArrayList<>(terms);
+                copy.remove(term);
+                if (copy.isEmpty()) {
+                    trigramMap.remove(trigram);
+                } else {
+                    trigramMap.put(trigram, copy);
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the terms ending with the {@code suffix}.
+     *
+     * @param suffix the suffix
+     * @return the terms
+     */
+    public Set<String> findBySuffix(String suffix) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (Pair<String, String> entry : findReversedMap().prefixEntries(reverse(suffix))) {
+            terms.add(entry.getSecond());
+        }
+        return terms;
+    }
+
+    /**
+     * Finds the terms containing the {@code substring}. It returns {@code null}
+     * if the substring is shorter than a trigram, as such a substring can
+     * only be searched by reading every term of the index.
+     *
+     * @param substring the substring
+     * @return the terms, or {@code null} if the substring is too short
+     */
+    public Set<String> findBySubstring(String substring) {
+        if (substring.length() < GRAM_SIZE) return null;
+
+        NitriteMap<String, List<String>> trigramMap = findTrigramMap();
+        List<List<String>> candidates = new ArrayList<>();
+        for (String trigram : trigrams(substring)) {
+            List<String> terms = trigramMap.get(trigram);
+            if (terms == null || terms.isEmpty()) {
+                return new LinkedHashSet<>();
+            }
+            candidates.add(terms);
+        }
+
+        // intersect the terms of the trigrams starting from the rarest one
+        candidates.sort(Comparator.comparingInt(List::size));
+        Set<String> terms = new LinkedHashSet<>(candidates.get(0));
+        for (int i = 1; i < candidates.size() && !terms.isEmpty(); i++) {
+            terms.retainAll(new HashSet<>(candidates.get(i)));
+        }
+
+        // a term having all the trigrams may still not contain them in sequence
+        terms.removeIf(term -> !term.contains(substring));
+        return terms;
+    }
+
+    /**
+     * Drops the dictionaries.
+     */
+    public void drop() {
+        NitriteMap<String, String> reversedMap = findReversedMap();
+        reversedMap.clear();
+        reversedMap.drop();
+
+        NitriteMap<String, List<String>> trigramMap = findTrigramMap();
+        trigramMap.clear();
+        trigramMap.drop();
+    }
+
+    private NitriteMap<String, String> findReversedMap() {
+        String mapName = deriveIndexMapName(indexDescriptor) + INTERNAL_NAME_SEPARATOR + "reversed";
+        return nitriteStore.openMap(mapName, String.class, String.class);
+    }
+
+    private NitriteMap<String, List<String>> findTrigramMap() {
+        String mapName = deriveIndexMapName(indexDescriptor) + INTERNAL_NAME_SEPARATOR + "trigram";
+        return nitriteStore.openMap(mapName, String.class, CopyOnWriteArrayList.class);
+    }
+
+    private static String reverse(String term) {
+        return new StringBuilder(term).reverse().toString();
+    }
+
+    private static Set<String> trigrams(String term) {
+        Set<String> trigrams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM_SIZE <= term.length(); i++) {
+            trigrams.add(term.substring(i, i + GRAM_SIZE));
+        }
+        return trigrams;
+    }
+}
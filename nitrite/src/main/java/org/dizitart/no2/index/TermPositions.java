@@ -0,0 +1,243 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.index;
+
+import org.dizitart.no2.collection.NitriteId;
+import org.dizitart.no2.common.tuples.Pair;
+import org.dizitart.no2.index.fulltext.TextTokenizer;
+import org.dizitart.no2.store.NitriteMap;
+import org.dizitart.no2.store.NitriteStore;
+
+import java.util.*;
+
+import static org.dizitart.no2.common.Constants.INTERNAL_NAME_SEPARATOR;
+import static org.dizitart.no2.common.util.IndexUtils.deriveIndexMapName;
+import static org.dizitart.no2.common.util.StringUtils.stringTokenizer;
+
+/**
+ * The positional postings of a full-text index, which find the documents
+ * containing a phrase without reading any document.
+ * <p>
+ * For every term, the positions at which it occurs in each document are
+ * kept in a map next to the index map. The position of a word is its
+ * number among all the words of the text, so a stop-word is never indexed
+ * but still takes its position. A document contains a phrase if every
+ * term of the phrase occurs at the same distance from the first term as
+ * in the phrase.
+ *
+ * @author Anindya Chatterjee
+ * @see IndexOptions#isPositional()
+ * @since 4.3
+ */
+public class TermPositions {
+    /**
+     * The positions skipped between two texts of a field, which is longer
+     * than any phrase a search is expected to hold.
+     */
+    public static final int TEXT_POSITION_GAP = 100;
+
+    private final IndexDescriptor indexDescriptor;
+    private final NitriteStore<?> nitriteStore;
+
+    /**
+     * Instantiates a new {@link TermPositions}.
+     *
+     * @param indexDescriptor the descriptor of the full-text index
+     * @param nitriteStore    the nitrite store
+     */
+    public TermPositions(IndexDescriptor indexDescriptor, NitriteStore<?> nitriteStore) {
+        this.indexDescriptor = indexDescriptor;
+        this.nitriteStore = nitriteStore;
+    }
+
+    /**
+     * Tokenizes the <code>texts</code> of a field into their terms along with
+     * their positions. A gap of {@link #TEXT_POSITION_GAP} positions is left
+     * between two texts, so that a phrase never spans two values of an array
+     * field, unless the phrase has more words than the gap.
+     *
+     * @param textTokenizer the text tokenizer
+     * @param texts         the texts of the field
+     * @return the terms and their positions, in the order of the texts
+     */
+    public static List<Pair<String, Integer>> tokenize(TextTokenizer textTokenizer, Collection<String> texts) {
+        List<Pair<String, Integer>> terms = new ArrayList<>();
+        int position = 0;
+        for (String text : texts) {
+            if (text == null) continue;
+
+            StringTokenizer tokenizer = stringTokenizer(text);
+            while (tokenizer.hasMoreTokens()) {
+                for (String term : textTokenizer.tokenize(tokenizer.nextToken())) {
+                    terms.add(new Pair<>(term, position));
+                }
+                position++;
+            }
+            position += TEXT_POSITION_GAP;
+        }
+        return terms;
+    }
+
+    /**
+     * Checks if the terms of a text contain a phrase.
+     *
+     * @param text   the terms of the text and their positions
+     * @param phrase the terms of the phrase and their positions
+     * @return {@code true} if the text contains the phrase
+     */
+    public static boolean containsPhrase(List<Pair<String, Integer>> text, List<Pair<String, Integer>> phrase) {
+        if (phrase.isEmpty()) return false;
+
+        Map<String, int[]> positions = new HashMap<>();
+        for (Map.Entry<String, List<Integer>> entry : positionsOf(text).entrySet()) {
+            positions.put(entry.getKey(), toArray(entry.getValue()));
+        }
+        return matchesPhrase(positions, phrase);
+    }
+
+    /**
+     * Writes the positions of the terms of a document.
+     *
+     * @param nitriteId the id of the document
+     * @param terms     the terms of the document and their positions
+     */
+    public void write(NitriteId nitriteId, List<Pair<String, Integer>> terms) {
+        NitriteMap<String, Map<NitriteId, int[]>> positionMap = findPositionMap();
+        for (Map.Entry<String, List<Integer>> entry : positionsOf(terms).entrySet()) {
+            Map<NitriteId, int[]> postings = positionMap.get(entry.getKey());
+            // the stored map may be read concurrently, so a copy is updated
+            Map<NitriteId, int[]> copy = postings == null ? new HashMap<>() : new HashMap<>(postings);
+            copy.put(nitriteId, toArray(entry.getValue()));
+            positionMap.put(entry.getKey(), copy);
+        }
+    }
+
+    /**
+     * Removes the positions of the terms of a document.
+     *
+     * @param nitriteId the id of the document
+     * @param terms     the terms of the document
+     */
+    public void remove(NitriteId nitriteId, Collection<String> terms) {
+        NitriteMap<String, Map<NitriteId, int[]>> positionMap = findPositionMap();
+        for (String term : new HashSet<>(terms)) {
+            Map<NitriteId, int[]> postings = positionMap.get(term);
+            if (postings != null && postings.containsKey(nitriteId)) {
+                Map<NitriteId, int[]> copy = new HashMap<>(postings);
+                copy.remove(nitriteId);
+                if (copy.isEmpty()) {
+                    positionMap.remove(term);
+                } else {
+                    positionMap.put(term, copy);
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the documents containing a phrase.
+     *
+     * @param phrase the terms of the phrase and their positions
+     * @return the ids of the documents
+     */
+    public Set<NitriteId> findPhrase(List<Pair<String, Integer>> phrase) {
+        Set<NitriteId> result = new LinkedHashSet<>();
+        if (phrase.isEmpty()) return result;
+
+        NitriteMap<String, Map<NitriteId, int[]>> positionMap = findPositionMap();
+        List<Map<NitriteId, int[]>> postingsList = new ArrayList<>();
+        Map<String, Map<NitriteId, int[]>> postingsByTerm = new HashMap<>();
+        for (Pair<String, Integer> term : phrase) {
+            if (postingsByTerm.containsKey(term.getFirst())) continue;
+
+            Map<NitriteId, int[]> postings = positionMap.get(term.getFirst());
+            if (postings == null || postings.isEmpty()) {
+                return result;
+            }
+            postingsByTerm.put(term.getFirst(), postings);
+            postingsList.add(postings);
+        }
+
+        // only the documents of the rarest term can contain the phrase
+        postingsList.sort(Comparator.comparingInt(Map::size));
+        for (NitriteId nitriteId : postingsList.get(0).keySet()) {
+            Map<String, int[]> positions = new HashMap<>();
+            for (Map.Entry<String, Map<NitriteId, int[]>> entry : postingsByTerm.entrySet()) {
+                int[] termPositions = entry.getValue().get(nitriteId);
+                if (termPositions == null) break;
+                positions.put(entry.getKey(), termPositions);
+            }
+
+            if (positions.size() == postingsByTerm.size() && matchesPhrase(positions, phrase)) {
+                result.add(nitriteId);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Drops the positional postings.
+     */
+    public void drop() {
+        NitriteMap<String, Map<NitriteId, int[]>> positionMap = findPositionMap();
+        positionMap.clear();
+        positionMap.drop();
+    }
+
+    private static boolean matchesPhrase(Map<String, int[]> positions, List<Pair<String, Integer>> phrase) {
+        Pair<String, Integer> first = phrase.get(0);
+        int[] starts = positions.get(first.getFirst());
+        if (starts == null) return false;
+
+        for (int start : starts) {
+            boolean matched = true;
+            for (int i = 1; i < phrase.size() && matched; i++) {
+                Pair<String, Integer> term = phrase.get(i);
+                int[] termPositions = positions.get(term.getFirst());
+                int position = start + term.getSecond() - first.getSecond();
+                matched = termPositions != null && Arrays.binarySearch(termPositions, position) >= 0;
+            }
+
+            if (matched) return true;
+        }
+        return false;
+    }
+
+    private static Map<String, List<Integer>> positionsOf(List<Pair<String, Integer>> terms) {
+        Map<String, List<Integer>> positions = new HashMap<>();
+        for (Pair<String, Integer> term : terms) {
+            positions.computeIfAbsent(term.getFirst(), k -> new ArrayList<>()).add(term.getSecond());
+        }
+        return positions;
+    }
+
+    private static int[] toArray(List<Integer> positions) {
+        int[] array = new int[positions.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = positions.get(i);
+        }
+        // the positions are searched by binary search
+        Arrays.sort(array);
+        return array;
+    }
+
+    private NitriteMap<String, Map<NitriteId, int[]>> findPositionMap() {
+        String mapName = deriveIndexMapName(indexDescriptor) + INTERNAL_NAME_SEPARATOR + "position";
+        return nitriteStore.openMap(mapName, String.class, HashMap.class);
+    }
+}
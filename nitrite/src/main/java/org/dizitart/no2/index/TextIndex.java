@@ -30,6 +30,8 @@ import org.dizitart.no2.index.fulltext.TextTokenizer;
 import org.dizitart.no2.store.NitriteMap;
 import org.dizitart.no2.store.NitriteStore;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -50,6 +52,9 @@ public class TextIndex implements NitriteIndex {
     private final IndexDescriptor indexDescriptor;
     private final NitriteStore<?> nitriteStore;
     private final TextTokenizer textTokenizer;
+    private final TermDictionary termDictionary;
+    private final TextScorer textScorer;
+    private final TermPositions termPositions;
 
     /**
      * Instantiates a new {@link TextIndex}.
@@ -64,6 +69,12 @@ public class TextIndex implements NitriteIndex {
         this.textTokenizer = textTokenizer;
         this.indexDescriptor = indexDescriptor;
         this.nitriteStore = nitriteStore;
+        this.termDictionary = indexDescriptor.isSubstringSearch()
+            ? new TermDictionary(indexDescriptor, nitriteStore) : null;
+        this.textScorer = indexDescriptor.isScored()
+            ? new TextScorer(indexDescriptor, nitriteStore) : null;
+        this.termPositions = indexDescriptor.isPositional()
+            ? new TermPositions(indexDescriptor, nitriteStore) : null;
     }
 
     @Override
@@ -74,7 +85,7 @@ public class TextIndex implements NitriteIndex {
         String firstField = fieldNames.get(0);
         Object element = fieldValues.get(firstField);
 
-        NitriteMap<String, List<?>> indexMap = findIndexMap();
+        NitriteMap<String, Collection<?>> indexMap = findIndexMap();
 
         if (element == null) {
             addIndexElement(indexMap, fieldValues, null);
@@ -98,6 +109,15 @@ public class TextIndex implements NitriteIndex {
             throw new IndexingException("Index field " + firstField
                 + " must be a String, String[] or Iterable<String>");
         }
+
+        if (textScorer != null) {
+            textScorer.write(fieldValues.getNitriteId(), termsOf(element));
+        }
+
+        if (termPositions != null) {
+            termPositions.write(fieldValues.getNitriteId(),
+                TermPositions.tokenize(textTokenizer, textsOf(element)));
+        }
     }
 
     @Override
@@ -108,7 +128,7 @@ public class TextIndex implements NitriteIndex {
         String firstField = fieldNames.get(0);
         Object element = fieldValues.get(firstField);
 
-        NitriteMap<String, List<?>> indexMap = findIndexMap();
+        NitriteMap<String, Collection<?>> indexMap = findIndexMap();
         if (element == null) {
             removeIndexElement(indexMap, fieldValues, null);
         } else if (element instanceof String) {
@@ -131,60 +151,117 @@ public class TextIndex implements NitriteIndex {
             throw new IndexingException("Index field " + firstField
                 + " must be a String, String[] or Iterable<String>");
         }
+
+        if (textScorer != null) {
+            textScorer.remove(fieldValues.getNitriteId(), termsOf(element));
+        }
+
+        if (termPositions != null) {
+            termPositions.remove(fieldValues.getNitriteId(), termsOf(element));
+        }
     }
 
     @Override
     public void drop() {
-        NitriteMap<String, List<?>> indexMap = findIndexMap();
+        NitriteMap<String, Collection<?>> indexMap = findIndexMap();
         indexMap.clear();
         indexMap.drop();
+
+        if (termDictionary != null) {
+            termDictionary.drop();
+        }
+
+        if (textScorer != null) {
+            textScorer.drop();
+        }
+
+        if (termPositions != null) {
+            termPositions.drop();
+        }
     }
 
     @Override
     public LinkedHashSet<NitriteId> findNitriteIds(FindPlan findPlan) {
         if (findPlan.getIndexScanFilter() == null) return new LinkedHashSet<>();
 
-        NitriteMap<String, List<?>> indexMap = findIndexMap();
+        NitriteMap<String, Collection<?>> indexMap = findIndexMap();
         List<ComparableFilter> filters = findPlan.getIndexScanFilter().getFilters();
 
         if (filters.size() == 1 && filters.get(0) instanceof TextFilter) {
             TextFilter textFilter = (TextFilter) filters.get(0);
             textFilter.setTextTokenizer(textTokenizer);
-            return textFilter.applyOnTextIndex(indexMap);
+            textFilter.setTermDictionary(termDictionary);
+            textFilter.setTextScorer(textScorer);
+            textFilter.setTermPositions(termPositions);
+            return textFilter.applyOnTextIndex(indexMap, rankLimitOf(findPlan));
         }
         throw new FilterException("TextFilter can only be applied on text index.");
     }
 
-    private NitriteMap<String, List<?>> findIndexMap() {
+    // when every id found by the index is a result, ranking the ids can
+    // stop at the first skip + limit of them
+    private long rankLimitOf(FindPlan findPlan) {
+        if (findPlan.getLimit() == null
+            || findPlan.getCollectionScanFilter() != null
+            || !findPlan.getIntersectingPlans().isEmpty()
+            || (findPlan.getBlockingSortOrder() != null && !findPlan.getBlockingSortOrder().isEmpty())) {
+            return Long.MAX_VALUE;
+        }
+
+        long skip = findPlan.getSkip() == null ? 0 : findPlan.getSkip();
+        long limit = findPlan.getLimit();
+        return limit > Long.MAX_VALUE - skip ? Long.MAX_VALUE : skip + limit;
+    }
+
+    private NitriteMap<String, Collection<?>> findIndexMap() {
         String mapName = deriveIndexMapName(indexDescriptor);
-        return nitriteStore.openMap(mapName, String.class, CopyOnWriteArrayList.class);
+        return nitriteStore.openMap(mapName, String.class,
+            isBitmap() ? NitriteIdBitmap.class : CopyOnWriteArrayList.class);
     }
 
     @SuppressWarnings("unchecked")
-    private void addIndexElement(NitriteMap<String, List<?>> indexMap, FieldValues fieldValues, String value) {
+    private void addIndexElement(NitriteMap<String, Collection<?>> indexMap, FieldValues fieldValues, String value) {
         Set<String> words = decompose(value);
 
         for (String word : words) {
-            List<NitriteId> nitriteIds = (List<NitriteId>) indexMap.get(word);
+            Collection<NitriteId> nitriteIds = (Collection<NitriteId>) indexMap.get(word);
+            if ((nitriteIds == null || nitriteIds.isEmpty()) && termDictionary != null) {
+                termDictionary.addTerm(word);
+            }
+
+            if (isBitmap()) {
+                // the stored bitmap may be read concurrently, so a copy is updated
+                NitriteIdBitmap bitmap = new NitriteIdBitmap(nitriteIds);
+                bitmap.add(fieldValues.getNitriteId());
+                indexMap.put(word, bitmap);
+                continue;
+            }
 
             if (nitriteIds == null) {
                 nitriteIds = new CopyOnWriteArrayList<>();
             }
 
-            nitriteIds = addNitriteIds(nitriteIds, fieldValues);
+            nitriteIds = addNitriteIds((List<NitriteId>) nitriteIds, fieldValues);
             indexMap.put(word, nitriteIds);
         }
     }
 
     @SuppressWarnings("unchecked")
-    private void removeIndexElement(NitriteMap<String, List<?>> indexMap, FieldValues fieldValues, String value) {
+    private void removeIndexElement(NitriteMap<String, Collection<?>> indexMap, FieldValues fieldValues, String value) {
         Set<String> words = decompose(value);
         for (String word : words) {
-            List<NitriteId> nitriteIds = (List<NitriteId>) indexMap.get(word);
+            Collection<NitriteId> nitriteIds = (Collection<NitriteId>) indexMap.get(word);
             if (nitriteIds != null && !nitriteIds.isEmpty()) {
+                if (isBitmap()) {
+                    nitriteIds = new NitriteIdBitmap(nitriteIds);
+                }
+
                 nitriteIds.remove(fieldValues.getNitriteId());
                 if (nitriteIds.isEmpty()) {
                     indexMap.remove(word);
+                    if (termDictionary != null) {
+                        termDictionary.removeTerm(word);
+                    }
                 } else {
                     indexMap.put(word, nitriteIds);
                 }
@@ -192,6 +269,34 @@ public class TextIndex implements NitriteIndex {
         }
     }
 
+    private boolean isBitmap() {
+        return IndexLayout.BITMAP.equals(indexDescriptor.getLayout());
+    }
+
+    private List<String> termsOf(Object element) {
+        List<String> terms = new ArrayList<>();
+        for (String text : textsOf(element)) {
+            terms.addAll(textTokenizer.tokenizeAll(text));
+        }
+        return terms;
+    }
+
+    private List<String> textsOf(Object element) {
+        List<String> texts = new ArrayList<>();
+        if (element instanceof String) {
+            texts.add((String) element);
+        } else if (element != null && element.getClass().isArray()) {
+            for (Object item : convertToObjectArray(element)) {
+                texts.add((String) item);
+            }
+        } else if (element instanceof Iterable) {
+            for (Object item : (Iterable<?>) element) {
+                texts.add((String) item);
+            }
+        }
+        return texts;
+    }
+
     private Set<String> decompose(String fieldValue) {
         if (fieldValue == null) return new HashSet<>();
         return textTokenizer.tokenize(fieldValue);
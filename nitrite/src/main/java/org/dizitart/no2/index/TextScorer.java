@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.index;
+
+import org.dizitart.no2.collection.NitriteId;
+import org.dizitart.no2.store.NitriteMap;
+import org.dizitart.no2.store.NitriteStore;
+
+import java.util.*;
+
+import static org.dizitart.no2.common.Constants.INTERNAL_NAME_SEPARATOR;
+import static org.dizitart.no2.common.util.IndexUtils.deriveIndexMapName;
+
+/**
+ * The term frequencies and document lengths of a scored full-text index,
+ * which rank the documents found by a search with the Okapi BM25
+ * relevance function.
+ * <p>
+ * For every term, the number of times it occurs in each document is kept
+ * in a map next to the index map. The number of terms of every document,
+ * and their sum over all the documents, are kept in two more maps. A
+ * document scores higher for a term when the term occurs more often in it,
+ * when the term is found in fewer documents, and when the document is
+ * shorter than the average.
+ *
+ * @author Anindya Chatterjee
+ * @see IndexOptions#isScored()
+ * @since 4.3
+ */
+public class TextScorer {
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final String TOTAL_LENGTH = "totalLength";
+
+    private final IndexDescriptor indexDescriptor;
+    private final NitriteStore<?> nitriteStore;
+
+    /**
+     * Instantiates a new {@link TextScorer}.
+     *
+     * @param indexDescriptor the descriptor of the full-text index
+     * @param nitriteStore    the nitrite store
+     */
+    public TextScorer(IndexDescriptor indexDescriptor, NitriteStore<?> nitriteStore) {
+        this.indexDescriptor = indexDescriptor;
+        this.nitriteStore = nitriteStore;
+    }
+
+    /**
+     * Writes the term frequencies and the length of a document.
+     *
+     * @param nitriteId the id of the document
+     * @param terms     all the terms of the document, including the repeated ones
+     */
+    public void write(NitriteId nitriteId, List<String> terms) {
+        if (terms.isEmpty()) return;
+
+        NitriteMap<String, Map<NitriteId, Integer>> frequencyMap = findFrequencyMap();
+        for (Map.Entry<String, Integer> entry : frequenciesOf(terms).entrySet()) {
+            Map<NitriteId, Integer> frequencies = frequencyMap.get(entry.getKey());
+            // the stored map may be read concurrently, so a copy is updated
+            Map<NitriteId, Integer> copy = frequencies == null ? new HashMap<>() : new HashMap<>(frequencies);
+            copy.put(nitriteId, entry.getValue());
+            frequencyMap.put(entry.getKey(), copy);
+        }
+
+        NitriteMap<NitriteId, Integer> lengthMap = findLengthMap();
+        Integer oldLength = lengthMap.get(nitriteId);
+        lengthMap.put(nitriteId, terms.size());
+        addTotalLength(terms.size() - (oldLength == null ? 0 : oldLength));
+    }
+
+    /**
+     * Removes the term frequencies and the length of a document.
+     *
+     * @param nitriteId the id of the document
+     * @param terms     the terms of the document
+     */
+    public void remove(NitriteId nitriteId, Collection<String> terms) {
+        NitriteMap<String, Map<NitriteId, Integer>> frequencyMap = findFrequencyMap();
+        for (String term : new HashSet<>(terms)) {
+            Map<NitriteId, Integer> frequencies = frequencyMap.get(term);
+            if (frequencies != null && frequencies.containsKey(nitriteId)) {
+                Map<NitriteId, Integer> copy = new HashMap<>(frequencies);
+                copy.remove(nitriteId);
+                if (copy.isEmpty()) {
+                    frequencyMap.remove(term);
+                } else {
+                    frequencyMap.put(term, copy);
+                }
+            }
+        }
+
+        Integer length = findLengthMap().remove(nitriteId);
+        if (length != null) {
+            addTotalLength(-length);
+        }
+    }
+
+    /**
+     * Scores the documents containing any of the {@code terms}.
+     *
+     * @param terms the terms of the search
+     * @return the BM25 score of every matching document
+     */
+    public Map<NitriteId, Double> score(Set<String> terms) {
+        Map<NitriteId, Double> scores = new HashMap<>();
+        NitriteMap<NitriteId, Integer> lengthMap = findLengthMap();
+        long documentCount = lengthMap.size();
+        if (documentCount == 0) return scores;
+
+        Long totalLength = findStatisticsMap().get(TOTAL_LENGTH);
+        double averageLength = totalLength == null || totalLength <= 0 ? 1.0
+            : (double) totalLength / documentCount;
+
+        NitriteMap<String, Map<NitriteId, Integer>> frequencyMap = findFrequencyMap();
+        for (String term : terms) {
+            Map<NitriteId, Integer> frequencies = frequencyMap.get(term);
+            if (frequencies == null || frequencies.isEmpty()) continue;
+
+            int matchCount = frequencies.size();
+            double idf = Math.log(1 + (documentCount - matchCount + 0.5) / (matchCount + 0.5));
+            for (Map.Entry<NitriteId, Integer> entry : frequencies.entrySet()) {
+                Integer length = lengthMap.get(entry.getKey());
+                double lengthRatio = length == null ? 1.0 : length / averageLength;
+                double frequency = entry.getValue();
+                double score = idf * frequency * (K1 + 1)
+                    / (frequency + K1 * (1 - B + B * lengthRatio));
+                scores.merge(entry.getKey(), score, Double::sum);
+            }
+        }
+        return scores;
+    }
+
+    /**
+     * Drops the term frequencies and the document lengths.
+     */
+    public void drop() {
+        NitriteMap<String, Map<NitriteId, Integer>> frequencyMap = findFrequencyMap();
+        frequencyMap.clear();
+        frequencyMap.drop();
+
+        NitriteMap<NitriteId, Integer> lengthMap = findLengthMap();
+        lengthMap.clear();
+        lengthMap.drop();
+
+        NitriteMap<String, Long> statisticsMap = findStatisticsMap();
+        statisticsMap.clear();
+        statisticsMap.drop();
+    }
+
+    private void addTotalLength(long delta) {
+        if (delta == 0) return;
+        NitriteMap<String, Long> statisticsMap = findStatisticsMap();
+        Long totalLength = statisticsMap.get(TOTAL_LENGTH);
+        statisticsMap.put(TOTAL_LENGTH, (totalLength == null ? 0 : totalLength) + delta);
+    }
+
+    private Map<String, Integer> frequenciesOf(List<String> terms) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String term : terms) {
+            frequencies.merge(term, 1, Integer::sum);
+        }
+        return frequencies;
+    }
+
+    private NitriteMap<String, Map<NitriteId, Integer>> findFrequencyMap() {
+        String mapName = deriveIndexMapName(indexDescriptor) + INTERNAL_NAME_SEPARATOR + "frequency";
+        return nitriteStore.openMap(mapName, String.class, HashMap.class);
+    }
+
+    private NitriteMap<NitriteId, Integer> findLengthMap() {
+        String mapName = deriveIndexMapName(indexDescriptor) + INTERNAL_NAME_SEPARATOR + "length";
+        return nitriteStore.openMap(mapName, NitriteId.class, Integer.class);
+    }
+
+    private NitriteMap<String, Long> findStatisticsMap() {
+        String mapName = deriveIndexMapName(indexDescriptor) + INTERNAL_NAME_SEPARATOR + "statistics";
+        return nitriteStore.openMap(mapName, String.class, Long.class);
+    }
+}
@@ -0,0 +1,247 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.index;
+
+import org.dizitart.no2.NitriteConfig;
+import org.dizitart.no2.collection.FindPlan;
+import org.dizitart.no2.collection.NitriteId;
+import org.dizitart.no2.common.FieldValues;
+import org.dizitart.no2.common.Fields;
+import org.dizitart.no2.common.RecordStream;
+import org.dizitart.no2.common.util.Numbers;
+import org.dizitart.no2.exceptions.IndexingException;
+import org.dizitart.no2.filters.ComparableFilter;
+import org.dizitart.no2.filters.IndexScanFilter;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.dizitart.no2.filters.FluentFilter.where;
+
+/**
+ * An indexer of time-to-live indexes. A time-to-live index is a non-unique
+ * index on a single field holding the expiry time of a document, either as
+ * a {@link Date} or as the milliseconds since the epoch. All the expiry
+ * times of an index must be of the same kind, and a date written to an
+ * index of numbers, or the other way around, is rejected. The expired
+ * documents are found in the time order of the index.
+ * <p>
+ * The indexer keeps the next expiry time of each index in memory. It is
+ * never later than the smallest value of the index, so a sweep can skip
+ * an index with nothing expired without reading it.
+ *
+ * @author Anindya Chatterjee
+ * @since 4.3
+ */
+public final class TtlIndexer extends ComparableIndexer {
+    private final Map<IndexDescriptor, Comparable<?>> nextExpiries;
+    private final Object lock;
+
+    /**
+     * Instantiates a new time-to-live indexer.
+     */
+    public TtlIndexer() {
+        this.nextExpiries = new ConcurrentHashMap<>();
+        this.lock = new Object();
+    }
+
+    @Override
+    boolean isUnique() {
+        return false;
+    }
+
+    @Override
+    public String getIndexType() {
+        return IndexType.TTL;
+    }
+
+    @Override
+    public void validateIndex(Fields fields) {
+        if (fields.getFieldNames().size() > 1) {
+            throw new IndexingException("Time-to-live index can only be created on a single field");
+        }
+    }
+
+    @Override
+    public void writeIndexEntry(FieldValues fieldValues, IndexDescriptor indexDescriptor,
+                                NitriteConfig nitriteConfig) {
+        validateExpiryTime(fieldValues, expiryTimeKind(indexDescriptor, nitriteConfig, fieldValues));
+        super.writeIndexEntry(fieldValues, indexDescriptor, nitriteConfig);
+        updateNextExpiry(indexDescriptor, fieldValues);
+    }
+
+    @Override
+    public void writeIndexEntries(List<FieldValues> fieldValuesList, IndexDescriptor indexDescriptor,
+                                  NitriteConfig nitriteConfig) {
+        Class<?> kind = fieldValuesList.isEmpty() ? null
+            : expiryTimeKind(indexDescriptor, nitriteConfig, fieldValuesList.get(0));
+        for (FieldValues fieldValues : fieldValuesList) {
+            Class<?> valueKind = validateExpiryTime(fieldValues, kind);
+            if (kind == null) {
+                kind = valueKind;
+            }
+        }
+        super.writeIndexEntries(fieldValuesList, indexDescriptor, nitriteConfig);
+        for (FieldValues fieldValues : fieldValuesList) {
+            updateNextExpiry(indexDescriptor, fieldValues);
+        }
+    }
+
+    @Override
+    public void removeIndexEntry(FieldValues fieldValues, IndexDescriptor indexDescriptor,
+                                 NitriteConfig nitriteConfig) {
+        super.removeIndexEntry(fieldValues, indexDescriptor, nitriteConfig);
+
+        // the next expiry time is read again from the index, if it is removed
+        Comparable<?> nextExpiry = nextExpiries.get(indexDescriptor);
+        Object value = fieldValues.getValues().get(0).getSecond();
+        if (nextExpiry != null && kindOf(value) != null && compare(value, nextExpiry) <= 0) {
+            resetNextExpiry(indexDescriptor);
+        }
+    }
+
+    @Override
+    public void dropIndex(IndexDescriptor indexDescriptor, NitriteConfig nitriteConfig) {
+        super.dropIndex(indexDescriptor, nitriteConfig);
+        resetNextExpiry(indexDescriptor);
+    }
+
+    /**
+     * Finds the ids of the documents which expired before the
+     * <code>expiryTime</code>, the earliest expired document first.
+     *
+     * @param indexDescriptor the index descriptor
+     * @param expiryTime      the time in milliseconds since the epoch
+     * @param nitriteConfig   the nitrite config
+     * @return the ids of the expired documents
+     */
+    public RecordStream<NitriteId> findExpiredIds(IndexDescriptor indexDescriptor, long expiryTime,
+                                                  NitriteConfig nitriteConfig) {
+        // the time is compared with the values of the index in their own type,
+        // as all the values of the index are either dates or numbers
+        Comparable<?> nextExpiry = nextExpiry(indexDescriptor, nitriteConfig);
+        if (nextExpiry == null) return RecordStream.empty();
+        Comparable<?> time = nextExpiry instanceof Date ? new Date(expiryTime) : Long.valueOf(expiryTime);
+        if (compare(nextExpiry, time) >= 0) return RecordStream.empty();
+
+        // the next expiry time may be earlier than the index, as
+        // a clear of the collection does not remove the entries one by one
+        resetNextExpiry(indexDescriptor);
+        nextExpiry = nextExpiry(indexDescriptor, nitriteConfig);
+        if (nextExpiry == null || compare(nextExpiry, time) >= 0) return RecordStream.empty();
+
+        SingleFieldIndex nitriteIndex = (SingleFieldIndex) findNitriteIndex(indexDescriptor, nitriteConfig);
+
+        String field = indexDescriptor.getFields().getFieldNames().get(0);
+        ComparableFilter filter = (ComparableFilter) where(field).lt(time);
+
+        FindPlan findPlan = new FindPlan();
+        findPlan.setIndexDescriptor(indexDescriptor);
+        findPlan.setIndexScanFilter(new IndexScanFilter(Collections.singletonList(filter)));
+        return nitriteIndex.scanNitriteIds(findPlan);
+    }
+
+    private Class<?> expiryTimeKind(IndexDescriptor indexDescriptor, NitriteConfig nitriteConfig,
+                                    FieldValues fieldValues) {
+        Class<?> kind = kindOf(nextExpiry(indexDescriptor, nitriteConfig));
+        Class<?> valueKind = kindOf(fieldValues.getValues().get(0).getSecond());
+
+        // a time of the other kind is checked against the index itself,
+        // as the next expiry time outlives a clear of the collection
+        if (kind != null && valueKind != null && kind != valueKind) {
+            resetNextExpiry(indexDescriptor);
+            kind = kindOf(nextExpiry(indexDescriptor, nitriteConfig));
+        }
+        return kind;
+    }
+
+    private Comparable<?> nextExpiry(IndexDescriptor indexDescriptor, NitriteConfig nitriteConfig) {
+        Comparable<?> nextExpiry = nextExpiries.get(indexDescriptor);
+        if (nextExpiry != null) return nextExpiry;
+
+        // a time written while the index is read is seen either
+        // by the read or by the update of the next expiry time
+        synchronized (lock) {
+            nextExpiry = nextExpiries.get(indexDescriptor);
+            if (nextExpiry == null) {
+                SingleFieldIndex nitriteIndex = (SingleFieldIndex) findNitriteIndex(indexDescriptor, nitriteConfig);
+                nextExpiry = nitriteIndex.firstValue();
+                if (nextExpiry != null) {
+                    nextExpiries.put(indexDescriptor, nextExpiry);
+                }
+            }
+            return nextExpiry;
+        }
+    }
+
+    private void updateNextExpiry(IndexDescriptor indexDescriptor, FieldValues fieldValues) {
+        // the index is read for the next expiry time when it is first needed
+        Object value = fieldValues.getValues().get(0).getSecond();
+        if (value == null) return;
+
+        synchronized (lock) {
+            nextExpiries.computeIfPresent(indexDescriptor,
+                (descriptor, nextExpiry) -> earlier(nextExpiry, (Comparable<?>) value));
+        }
+    }
+
+    private void resetNextExpiry(IndexDescriptor indexDescriptor) {
+        synchronized (lock) {
+            nextExpiries.remove(indexDescriptor);
+        }
+    }
+
+    private Class<?> validateExpiryTime(FieldValues fieldValues, Class<?> kind) {
+        Object value = fieldValues.getValues().get(0).getSecond();
+        if (value == null) return null;
+
+        Class<?> valueKind = kindOf(value);
+        if (valueKind == null) {
+            throw new IndexingException("Time-to-live index on " + fieldValues.getFields()
+                + " only supports a date or the milliseconds since the epoch, found " + value);
+        }
+
+        // dates and numbers can not be compared with one expiry time
+        if (kind != null && kind != valueKind) {
+            throw new IndexingException("Time-to-live index on " + fieldValues.getFields()
+                + " holds " + (kind == Date.class ? "dates" : "numbers") + ", found " + value);
+        }
+        return valueKind;
+    }
+
+    private static Comparable<?> earlier(Comparable<?> first, Comparable<?> second) {
+        return compare(second, first) < 0 ? second : first;
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static int compare(Object first, Object second) {
+        if (first instanceof Number && second instanceof Number) {
+            return Numbers.compare((Number) first, (Number) second);
+        }
+        return ((Comparable) first).compareTo(second);
+    }
+
+    private static Class<?> kindOf(Object value) {
+        if (value instanceof Date) return Date.class;
+        if (value instanceof Number) return Number.class;
+        return null;
+    }
+}
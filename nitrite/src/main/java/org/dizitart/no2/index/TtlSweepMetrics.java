@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.index;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import org.dizitart.no2.common.Fields;
+
+/**
+ * The metrics of a sweep of the expired documents of a time-to-live
+ * index, posted as the item of an
+ * {@link org.dizitart.no2.collection.events.EventType#TtlSweep} event.
+ *
+ * @author Anindya Chatterjee
+ * @since 4.3
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class TtlSweepMetrics {
+    /**
+     * The fields of the index.
+     *
+     * @return the fields of the index.
+     */
+    private final Fields fields;
+
+    /**
+     * The number of expired documents removed by the sweep.
+     *
+     * @return the number of documents removed by the sweep.
+     */
+    private final long removedCount;
+
+    /**
+     * The number of expired documents removed since the collection was opened.
+     *
+     * @return the total number of documents removed.
+     */
+    private final long totalRemovedCount;
+
+    /**
+     * The time in milliseconds the sweep took.
+     *
+     * @return the duration of the sweep in milliseconds.
+     */
+    private final long sweepMillis;
+
+    /**
+     * Indicates if the sweep stopped at its maximum number of removals,
+     * in which case more expired documents are left for the next sweep.
+     *
+     * @return if the sweep was rate limited.
+     */
+    private final boolean rateLimited;
+}
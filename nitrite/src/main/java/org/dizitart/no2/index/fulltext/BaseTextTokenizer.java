@@ -18,7 +18,9 @@ package org.dizitart.no2.index.fulltext;
 
 import org.dizitart.no2.common.util.StringUtils;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.StringTokenizer;
 
@@ -35,7 +37,12 @@ import static org.dizitart.no2.common.util.StringUtils.stringTokenizer;
 public abstract class BaseTextTokenizer implements TextTokenizer {
     @Override
     public Set<String> tokenize(String text) {
-        Set<String> words = new HashSet<>();
+        return new HashSet<>(tokenizeAll(text));
+    }
+
+    @Override
+    public List<String> tokenizeAll(String text) {
+        List<String> words = new ArrayList<>();
         if (StringUtils.isNullOrEmpty(text)) return words;
 
         StringTokenizer tokenizer = stringTokenizer(text);
@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.index.fulltext;
+
+import java.util.Arrays;
+
+/**
+ * An automaton which accepts all the terms within a maximum edit distance
+ * of a word.
+ * <p>
+ * A state of the automaton is the last row of the Levenshtein distance
+ * matrix between the word and the characters read so far, capped at one
+ * more than the maximum distance. A state from which no term can be accepted
+ * any more is dead, which lets the automaton tell the smallest term, after
+ * a rejected one, that could still be accepted. A sorted term dictionary is
+ * intersected with the automaton by seeking to that term, so only a few
+ * terms around each match are visited, instead of the whole dictionary.
+ *
+ * @author Anindya Chatterjee
+ * @since 4.3
+ */
+public class LevenshteinAutomaton {
+    private final String word;
+    private final int maxEdits;
+    private final char[] alphabet;
+
+    /**
+     * Instantiates a new {@link LevenshteinAutomaton}.
+     *
+     * @param word     the word
+     * @param maxEdits the maximum edit distance of an accepted term
+     */
+    public LevenshteinAutomaton(String word, int maxEdits) {
+        this.word = word;
+        this.maxEdits = maxEdits;
+
+        // all the characters not in the word lead to the same state
+        char[] chars = word.toCharArray();
+        Arrays.sort(chars);
+        int size = 0;
+        for (int i = 0; i < chars.length; i++) {
+            if (i == 0 || chars[i] != chars[i - 1]) {
+                chars[size++] = chars[i];
+            }
+        }
+        this.alphabet = Arrays.copyOf(chars, size);
+    }
+
+    /**
+     * Checks if a <code>term</code> is within the maximum edit distance of the word.
+     *
+     * @param term the term
+     * @return {@code true} if the term is accepted
+     */
+    public boolean accepts(String term) {
+        return distance(term) <= maxEdits;
+    }
+
+    /**
+     * Gets the edit distance between the word and a <code>term</code>, or one
+     * more than the maximum edit distance if the term is not accepted.
+     *
+     * @param term the term
+     * @return the edit distance
+     */
+    public int distance(String term) {
+        int[] state = start();
+        for (int i = 0; i < term.length(); i++) {
+            state = step(state, term.charAt(i));
+            if (!canMatch(state)) {
+                return maxEdits + 1;
+            }
+        }
+        return state[word.length()];
+    }
+
+    /**
+     * Gets the smallest string greater than a <code>term</code>, which may
+     * be accepted by the automaton. Any accepted term greater than the
+     * <code>term</code> is not smaller than it.
+     *
+     * @param term the term
+     * @return the smallest string to seek to, or {@code null} if no term
+     * greater than the <code>term</code> can be accepted
+     */
+    public String next(String term) {
+        // the states along the longest prefix of the term which is not dead
+        int[][] states = new int[term.length() + 1][];
+        states[0] = start();
+        int length = 0;
+        while (length < term.length()) {
+            int[] state = step(states[length], term.charAt(length));
+            if (!canMatch(state)) break;
+            states[++length] = state;
+        }
+
+        for (int i = length; i >= 0; i--) {
+            if (i == term.length()) {
+                // any extension of the term is greater than the term
+                String suffix = smallestSuffix(states[i], true);
+                if (suffix != null) {
+                    return term + suffix;
+                }
+            } else if (term.charAt(i) < Character.MAX_VALUE) {
+                // otherwise, replace a character by the smallest greater
+                // one, which does not kill the prefix before it
+                int c = smallestLiveChar(states[i], (char) (term.charAt(i) + 1));
+                if (c >= 0) {
+                    int[] state = step(states[i], (char) c);
+                    return term.substring(0, i) + (char) c + smallestSuffix(state, false);
+                }
+            }
+        }
+        return null;
+    }
+
+    private int[] start() {
+        int[] state = new int[word.length() + 1];
+        for (int i = 0; i < state.length; i++) {
+            state[i] = Math.min(i, maxEdits + 1);
+        }
+        return state;
+    }
+
+    private int[] step(int[] state, char c) {
+        int[] next = new int[state.length];
+        next[0] = Math.min(state[0] + 1, maxEdits + 1);
+        for (int i = 1; i < state.length; i++) {
+            int cost = word.charAt(i - 1) == c ? 0 : 1;
+            int distance = Math.min(state[i - 1] + cost, Math.min(state[i] + 1, next[i - 1] + 1));
+            next[i] = Math.min(distance, maxEdits + 1);
+        }
+        return next;
+    }
+
+    private boolean canMatch(int[] state) {
+        for (int distance : state) {
+            if (distance <= maxEdits) return true;
+        }
+        return false;
+    }
+
+    private String smallestSuffix(int[] state, boolean nonEmpty) {
+        StringBuilder suffix = new StringBuilder();
+        while (nonEmpty && suffix.length() == 0 || state[word.length()] > maxEdits) {
+            int c = smallestLiveChar(state, (char) 0);
+            if (c < 0) {
+                return null;
+            }
+            suffix.append((char) c);
+            state = step(state, (char) c);
+        }
+        return suffix.toString();
+    }
+
+    // gets the smallest character not smaller than from, which leads
+    // to a live state, or -1 if there is none
+    private int smallestLiveChar(int[] state, char from) {
+        if (canMatch(step(state, from))) {
+            return from;
+        }
+
+        // a character of the word never leads to a worse state than
+        // any other character, so only those are left to try
+        for (char c : alphabet) {
+            if (c > from && canMatch(step(state, c))) {
+                return c;
+            }
+        }
+        return -1;
+    }
+}
@@ -16,6 +16,8 @@
 
 package org.dizitart.no2.index.fulltext;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -42,6 +44,20 @@ public interface TextTokenizer {
      */
     Set<String> tokenize(String text);
 
+    /**
+     * Tokenizes a <code>text</code> into all of its words in the order they
+     * appear, including the repeated words, and discards all stop-words from it.
+     * <p>
+     * The default implementation returns every distinct token once.
+     *
+     * @param text the text to tokenize
+     * @return the list of tokens.
+     * @since 4.3
+     */
+    default List<String> tokenizeAll(String text) {
+        return new ArrayList<>(tokenize(text));
+    }
+
     /**
      * Gets all stop-words for a language.
      *
@@ -9,10 +9,13 @@ import org.dizitart.no2.collection.operation.IndexManager;
 import org.dizitart.no2.common.Fields;
 import org.dizitart.no2.common.tuples.Pair;
 import org.dizitart.no2.index.IndexDescriptor;
+import org.dizitart.no2.index.IndexOptions;
 import org.dizitart.no2.store.NitriteMap;
 
 import java.util.Collection;
 
+import static org.dizitart.no2.index.IndexOptions.indexOptions;
+
 /**
  * @author Anindya Chatterjee
  * @since 4.0
@@ -38,8 +41,9 @@ public class Rename extends BaseCommand {
                 Collection<IndexDescriptor> indexEntries = indexManager.getIndexDescriptors();
                 for (IndexDescriptor indexDescriptor : indexEntries) {
                     Fields field = indexDescriptor.getFields();
-                    String indexType = indexDescriptor.getIndexType();
-                    newOperations.createIndex(field, indexType);
+                    IndexOptions indexOptions = indexOptions(indexDescriptor.getIndexType(),
+                        indexDescriptor.getLayout());
+                    newOperations.createIndex(field, indexOptions);
                 }
             }
         }
@@ -8,9 +8,12 @@ import org.dizitart.no2.collection.operation.IndexManager;
 import org.dizitart.no2.common.Fields;
 import org.dizitart.no2.common.tuples.Pair;
 import org.dizitart.no2.index.IndexDescriptor;
+import org.dizitart.no2.index.IndexOptions;
 
 import java.util.Collection;
 
+import static org.dizitart.no2.index.IndexOptions.indexOptions;
+
 /**
  * A command to rename a document field.
  *
@@ -45,12 +48,13 @@ public class RenameField extends BaseCommand {
 
             if (!matchingIndexDescriptors.isEmpty()) {
                 for (IndexDescriptor matchingIndexDescriptor : matchingIndexDescriptors) {
-                    String indexType = matchingIndexDescriptor.getIndexType();
+                    IndexOptions indexOptions = indexOptions(matchingIndexDescriptor.getIndexType(),
+                        matchingIndexDescriptor.getLayout());
 
                     Fields oldIndexFields = matchingIndexDescriptor.getFields();
                     Fields newIndexFields = getNewIndexFields(oldIndexFields, oldName, newName);
                     operations.dropIndex(matchingIndexDescriptor.getFields());
-                    operations.createIndex(newIndexFields, indexType);
+                    operations.createIndex(newIndexFields, indexOptions);
                 }
             }
         }
@@ -22,11 +22,13 @@ import org.dizitart.no2.collection.NitriteCollection;
 import org.dizitart.no2.common.mapper.NitriteMapper;
 import org.dizitart.no2.common.util.StringUtils;
 import org.dizitart.no2.exceptions.NotIdentifiableException;
+import org.dizitart.no2.index.IndexDefinition;
 import org.dizitart.no2.repository.annotations.*;
 
 import java.lang.reflect.Field;
 import java.util.*;
 
+import static org.dizitart.no2.index.IndexDefinition.indexDefinition;
 import static org.dizitart.no2.index.IndexOptions.indexOptions;
 
 /**
@@ -53,9 +55,15 @@ class AnnotationScanner {
     }
 
     public void createIndices() {
+        // all the indexes are built in a single scan of the collection
+        List<IndexDefinition> indexDefinitions = new ArrayList<>();
         for (Index index : indices) {
             String[] fields = index.fields();
-            collection.createIndex(indexOptions(index.type()), fields);
+            indexDefinitions.add(indexDefinition(indexOptions(index.type()), fields));
+        }
+
+        if (!indexDefinitions.isEmpty()) {
+            collection.createIndexes(indexDefinitions);
         }
     }
 
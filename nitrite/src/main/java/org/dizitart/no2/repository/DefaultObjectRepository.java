@@ -26,11 +26,13 @@ import org.dizitart.no2.common.WriteResult;
 import org.dizitart.no2.common.meta.Attributes;
 import org.dizitart.no2.common.processors.Processor;
 import org.dizitart.no2.filters.Filter;
+import org.dizitart.no2.index.IndexDefinition;
 import org.dizitart.no2.index.IndexDescriptor;
 import org.dizitart.no2.index.IndexOptions;
 import org.dizitart.no2.store.NitriteStore;
 
 import java.util.Collection;
+import java.util.List;
 
 import static org.dizitart.no2.collection.UpdateOptions.updateOptions;
 import static org.dizitart.no2.common.util.ValidationUtils.containsNull;
@@ -75,6 +77,11 @@ class DefaultObjectRepository<T> implements ObjectRepository<T> {
         collection.createIndex(indexOptions, fields);
     }
 
+    @Override
+    public void createIndexes(List<IndexDefinition> indexDefinitions) {
+        collection.createIndexes(indexDefinitions);
+    }
+
     @Override
     public void rebuildIndex(String... fields) {
         collection.rebuildIndex(fields);
@@ -160,6 +167,11 @@ class DefaultObjectRepository<T> implements ObjectRepository<T> {
         return operations.find(filter, findOptions, getType());
     }
 
+    @Override
+    public long count(Filter filter) {
+        return operations.count(filter);
+    }
+
     @Override
     public <I> T getById(I id) {
         Filter idFilter = operations.createIdFilter(id);
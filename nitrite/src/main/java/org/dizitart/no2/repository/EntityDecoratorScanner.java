@@ -22,6 +22,7 @@ import lombok.Getter;
 import org.dizitart.no2.collection.NitriteCollection;
 import org.dizitart.no2.common.mapper.NitriteMapper;
 import org.dizitart.no2.common.util.StringUtils;
+import org.dizitart.no2.index.IndexDefinition;
 
 import java.lang.reflect.Field;
 import java.util.ArrayList;
@@ -29,6 +30,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
+import static org.dizitart.no2.index.IndexDefinition.indexDefinition;
 import static org.dizitart.no2.index.IndexOptions.indexOptions;
 
 /**
@@ -66,9 +68,15 @@ public class EntityDecoratorScanner {
     }
 
     public void createIndices() {
+        // all the indexes are built in a single scan of the collection
+        List<IndexDefinition> indexDefinitions = new ArrayList<>();
         for (EntityIndex index : indices) {
             String[] fields = index.getFieldNames().toArray(new String[0]);
-            collection.createIndex(indexOptions(index.getIndexType()), fields);
+            indexDefinitions.add(indexDefinition(indexOptions(index.getIndexType()), fields));
+        }
+
+        if (!indexDefinitions.isEmpty()) {
+            collection.createIndexes(indexDefinitions);
         }
     }
 
@@ -302,6 +302,22 @@ public interface ObjectRepository<T> extends PersistentCollection<T> {
      */
     Cursor<T> find(Filter filter, FindOptions findOptions);
 
+    /**
+     * Counts the objects in the repository which match the filter.
+     *
+     * <p>
+     * NOTE: If the filter is fully answered by the indexes of the repository,
+     * the objects are counted from the indexes without reading them.
+     * </p>
+     *
+     * @param filter the filter to apply to select objects from repository.
+     * @return the number of selected objects.
+     * @since 4.3
+     */
+    default long count(Filter filter) {
+        return find(filter).size();
+    }
+
     /**
      * Gets a single element from the repository by its id. If no element
      * is found, it will return {@code null}. The object must have a field annotated with {@link Id},
@@ -200,6 +200,10 @@ public class RepositoryOperations {
         return new ObjectCursor<>(nitriteMapper, documentCursor, type);
     }
 
+    public long count(Filter filter) {
+        return collection.count(asObjectFilter(filter));
+    }
+
     private void validateCollection() {
         if (collection == null) {
             throw new ValidationException("Repository has not been initialized properly");
@@ -210,14 +214,26 @@ public class RepositoryOperations {
         if (objectIdField != null && objectIdField.getIdFieldName().equals(fieldBasedFilter.getField())) {
             if (fieldBasedFilter instanceof EqualsFilter) {
                 return objectIdField.createUniqueFilter(fieldBasedFilter.getValue(), nitriteMapper);
-            } else if (fieldBasedFilter instanceof ComparableFilter) {
+            } else if (fieldBasedFilter instanceof ComparableArrayFilter) {
                 Object fieldValue = fieldBasedFilter.getValue();
-                Object converted = nitriteMapper.tryConvert(fieldValue, Document.class);
-                if (converted instanceof Document) {
-                    throw new InvalidOperationException("Cannot compare object of type " + fieldValue.getClass());
+                if (fieldValue instanceof Object[]) {
+                    for (Object item : (Object[]) fieldValue) {
+                        validateComparableValue(item);
+                    }
                 }
+            } else if (fieldBasedFilter instanceof ComparableFilter) {
+                validateComparableValue(fieldBasedFilter.getValue());
             }
         }
         return fieldBasedFilter;
     }
+
+    private void validateComparableValue(Object fieldValue) {
+        if (fieldValue == null) return;
+
+        Object converted = nitriteMapper.tryConvert(fieldValue, Document.class);
+        if (converted instanceof Document) {
+            throw new InvalidOperationException("Cannot compare object of type " + fieldValue.getClass());
+        }
+    }
 }
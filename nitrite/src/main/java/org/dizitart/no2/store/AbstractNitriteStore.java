@@ -46,11 +46,18 @@ public abstract class AbstractNitriteStore<Config extends StoreConfig>
      */
     private StoreCatalog storeCatalog;
 
+    /**
+     * The tracker which records the last modification time of the maps
+     * and writes them to the meta map on commit, close or periodically.
+     */
+    protected final LastModifiedTracker lastModifiedTracker;
+
     /**
      * Instantiates a new {@link AbstractNitriteStore}.
      */
     protected AbstractNitriteStore() {
         eventBus = new StoreEventBus();
+        lastModifiedTracker = new LastModifiedTracker(this);
     }
 
     /**
@@ -83,6 +90,11 @@ public abstract class AbstractNitriteStore<Config extends StoreConfig>
         alert(StoreEvents.Closing);
     }
 
+    @Override
+    public void updateLastModifiedTime(String mapName) {
+        lastModifiedTracker.markModified(mapName);
+    }
+
     @Override
     public String subscribe(StoreEventListener listener) {
         return eventBus.register(listener);
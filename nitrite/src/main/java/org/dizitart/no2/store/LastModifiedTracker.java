@@ -0,0 +1,231 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.store;
+
+import lombok.extern.slf4j.Slf4j;
+import org.dizitart.no2.common.concurrent.ThreadPoolManager;
+import org.dizitart.no2.common.meta.Attributes;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.dizitart.no2.common.Constants.META_MAP_NAME;
+
+/**
+ * Keeps track of the last modification time of the {@link NitriteMap}s
+ * of a {@link NitriteStore} in memory.
+ * <p>
+ * Recording a modification does not touch the store. The recorded times are
+ * written to the meta map only when the tracker is flushed, i.e. on commit,
+ * on close, or periodically in background on the common scheduler of
+ * {@link ThreadPoolManager}. As a result, a write to a
+ * document map or an index map costs one store operation instead of an extra
+ * read and write of the map attributes for every mutation.
+ * <p>
+ * Other state kept in memory for the same reason can be written at the
+ * same points by registering a flush hook.
+ *
+ * @author Anindya Chatterjee
+ * @since 4.3
+ */
+@Slf4j(topic = "nitrite")
+public class LastModifiedTracker implements AutoCloseable {
+    /**
+     * The default interval in milliseconds between two background flushes.
+     */
+    public static final long DEFAULT_FLUSH_INTERVAL = 1000;
+
+    private final NitriteStore<?> nitriteStore;
+    private final long flushInterval;
+    private final Map<String, Long> modifiedMaps;
+    private final Set<Runnable> flushHooks;
+    private final Object lock;
+    private volatile ScheduledFuture<?> flushTask;
+    private volatile boolean closed;
+
+    /**
+     * Instantiates a new {@link LastModifiedTracker} with
+     * {@link #DEFAULT_FLUSH_INTERVAL}.
+     *
+     * @param nitriteStore the nitrite store
+     */
+    public LastModifiedTracker(NitriteStore<?> nitriteStore) {
+        this(nitriteStore, DEFAULT_FLUSH_INTERVAL);
+    }
+
+    /**
+     * Instantiates a new {@link LastModifiedTracker}.
+     *
+     * @param nitriteStore  the nitrite store
+     * @param flushInterval the interval in milliseconds between two background
+     *                      flushes. A non-positive value disables background flush.
+     */
+    public LastModifiedTracker(NitriteStore<?> nitriteStore, long flushInterval) {
+        this.nitriteStore = nitriteStore;
+        this.flushInterval = flushInterval;
+        this.modifiedMaps = new ConcurrentHashMap<>();
+        this.flushHooks = new CopyOnWriteArraySet<>();
+        this.lock = new Object();
+    }
+
+    /**
+     * Records the current time as the last modification time of a map.
+     *
+     * @param mapName the map name
+     */
+    public void markModified(String mapName) {
+        modifiedMaps.put(mapName, System.currentTimeMillis());
+        if (flushTask == null && !closed && flushInterval > 0) {
+            scheduleFlush();
+        }
+    }
+
+    /**
+     * Checks if there are modification times which are not yet
+     * written to the store.
+     *
+     * @return {@code true} if there are pending modifications.
+     */
+    public boolean hasPendingChanges() {
+        return !modifiedMaps.isEmpty();
+    }
+
+    /**
+     * Discards the pending modification time of a map, i.e. when
+     * the map is removed from the store.
+     *
+     * @param mapName the map name
+     */
+    public void forget(String mapName) {
+        modifiedMaps.remove(mapName);
+    }
+
+    /**
+     * Registers a hook which runs on every flush of the tracker,
+     * before the pending modification times are written.
+     *
+     * @param flushHook the flush hook
+     */
+    public void addFlushHook(Runnable flushHook) {
+        flushHooks.add(flushHook);
+    }
+
+    /**
+     * Removes a registered flush hook.
+     *
+     * @param flushHook the flush hook
+     */
+    public void removeFlushHook(Runnable flushHook) {
+        flushHooks.remove(flushHook);
+    }
+
+    /**
+     * Runs the flush hooks and writes all pending modification
+     * times to the meta map of the store.
+     */
+    public void flush() {
+        // the hooks run outside the lock, as they write to
+        // the store, which marks their maps modified
+        if (nitriteStore.isClosed()) return;
+        for (Runnable flushHook : flushHooks) {
+            try {
+                flushHook.run();
+            } catch (Exception e) {
+                log.error("Error while running a flush hook", e);
+            }
+        }
+
+        synchronized (lock) {
+            if (modifiedMaps.isEmpty() || nitriteStore.isClosed()) return;
+
+            NitriteMap<String, Attributes> metaMap = openMetaMap();
+            for (Map.Entry<String, Long> entry : new HashMap<>(modifiedMaps).entrySet()) {
+                write(metaMap, entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Writes the pending modification time of a map to the meta map of the store.
+     *
+     * @param mapName the map name
+     */
+    public void flush(String mapName) {
+        synchronized (lock) {
+            Long time = modifiedMaps.get(mapName);
+            if (time == null || nitriteStore.isClosed()) return;
+
+            write(openMetaMap(), mapName, time);
+        }
+    }
+
+    /**
+     * Stops the background flush and writes all pending
+     * modification times to the store.
+     */
+    @Override
+    public void close() {
+        synchronized (lock) {
+            closed = true;
+            if (flushTask != null) {
+                flushTask.cancel(false);
+                flushTask = null;
+            }
+        }
+        flush();
+    }
+
+    // the background flush runs until the tracker is closed
+    boolean isFlushScheduled() {
+        return flushTask != null;
+    }
+
+    private NitriteMap<String, Attributes> openMetaMap() {
+        return nitriteStore.openMap(META_MAP_NAME, String.class, Attributes.class);
+    }
+
+    private void write(NitriteMap<String, Attributes> metaMap, String mapName, Long time) {
+        Attributes attributes = metaMap.get(mapName);
+        if (attributes == null) {
+            attributes = new Attributes(mapName);
+        }
+        attributes.set(Attributes.LAST_MODIFIED_TIME, Long.toString(time));
+        metaMap.put(mapName, attributes);
+
+        // remove only if no newer modification has been recorded meanwhile
+        modifiedMaps.remove(mapName, time);
+    }
+
+    private void scheduleFlush() {
+        synchronized (lock) {
+            if (flushTask != null || closed) return;
+            flushTask = ThreadPoolManager.scheduleWithFixedDelay(() -> {
+                try {
+                    flush();
+                } catch (Exception e) {
+                    log.error("Error while flushing last modified time of maps", e);
+                }
+            }, flushInterval, TimeUnit.MILLISECONDS);
+        }
+    }
+}
@@ -20,6 +20,12 @@ import org.dizitart.no2.common.meta.Attributes;
 import org.dizitart.no2.common.meta.AttributesAware;
 import org.dizitart.no2.common.RecordStream;
 import org.dizitart.no2.common.tuples.Pair;
+import org.dizitart.no2.common.util.Comparables;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 
 import static org.dizitart.no2.common.Constants.META_MAP_NAME;
 import static org.dizitart.no2.common.util.StringUtils.isNullOrEmpty;
@@ -201,6 +207,190 @@ public interface NitriteMap<Key, Value> extends AttributesAware, AutoCloseable {
      */
     RecordStream<Pair<Key, Value>> reversedEntries();
 
+    /**
+     * Gets a {@link RecordStream} view of the mappings whose keys lie between
+     * <code>from</code> and <code>to</code>. A <code>null</code> bound means
+     * the range is unbounded on that side.
+     * <p>
+     * The default implementation walks the map using the navigation methods,
+     * stores should override it to scan the range with a single cursor.
+     *
+     * @param from          the lower bound of the range
+     * @param fromInclusive if the lower bound is included in the range
+     * @param to            the upper bound of the range
+     * @param toInclusive   if the upper bound is included in the range
+     * @param reverse       if the range should be scanned in descending order
+     * @return the record stream
+     * @since 4.3
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    default RecordStream<Pair<Key, Value>> entries(Key from, boolean fromInclusive,
+                                                   Key to, boolean toInclusive,
+                                                   boolean reverse) {
+        return () -> new Iterator<Pair<Key, Value>>() {
+            private Key nextKey = reverse ? first(to, toInclusive) : first(from, fromInclusive);
+            private Value nextValue = advance();
+
+            @Override
+            public boolean hasNext() {
+                return nextKey != null;
+            }
+
+            @Override
+            public Pair<Key, Value> next() {
+                if (nextKey == null) {
+                    throw new NoSuchElementException();
+                }
+
+                Pair<Key, Value> pair = new Pair<>(nextKey, nextValue);
+                nextKey = reverse ? lowerKey(nextKey) : higherKey(nextKey);
+                nextValue = advance();
+                return pair;
+            }
+
+            private Key first(Key bound, boolean inclusive) {
+                if (bound == null) {
+                    return reverse ? lastKey() : firstKey();
+                }
+
+                if (reverse) {
+                    return inclusive ? floorKey(bound) : lowerKey(bound);
+                } else {
+                    return inclusive ? ceilingKey(bound) : higherKey(bound);
+                }
+            }
+
+            private Value advance() {
+                while (nextKey != null) {
+                    Key bound = reverse ? from : to;
+                    if (bound != null) {
+                        int cmp = Comparables.compare((Comparable) nextKey, (Comparable) bound);
+                        boolean inclusive = reverse ? fromInclusive : toInclusive;
+                        if (reverse ? (inclusive ? cmp < 0 : cmp <= 0) : (inclusive ? cmp > 0 : cmp >= 0)) {
+                            nextKey = null;
+                            return null;
+                        }
+                    }
+
+                    Value value = get(nextKey);
+                    if (value != null) {
+                        return value;
+                    }
+                    nextKey = reverse ? lowerKey(nextKey) : higherKey(nextKey);
+                }
+                return null;
+            }
+        };
+    }
+
+    /**
+     * Gets a {@link RecordStream} view of the mappings whose <code>String</code>
+     * keys start with <code>prefix</code>.
+     * <p>
+     * The default implementation seeks to the first key not smaller than the
+     * <code>prefix</code> and stops at the first key after it which does not
+     * start with the <code>prefix</code>, as all such keys are adjacent in a
+     * sorted map. Stores which do not keep their keys in the natural order of
+     * <code>String</code> must override it.
+     *
+     * @param prefix the prefix of the keys
+     * @return the record stream
+     * @since 4.3
+     */
+    @SuppressWarnings("unchecked")
+    default RecordStream<Pair<Key, Value>> prefixEntries(String prefix) {
+        RecordStream<Pair<Key, Value>> range = entries((Key) prefix, true, null, false, false);
+        return () -> new Iterator<Pair<Key, Value>>() {
+            private final Iterator<Pair<Key, Value>> iterator = range.iterator();
+            private Pair<Key, Value> nextEntry = advance();
+
+            @Override
+            public boolean hasNext() {
+                return nextEntry != null;
+            }
+
+            @Override
+            public Pair<Key, Value> next() {
+                if (nextEntry == null) {
+                    throw new NoSuchElementException();
+                }
+
+                Pair<Key, Value> pair = nextEntry;
+                nextEntry = advance();
+                return pair;
+            }
+
+            private Pair<Key, Value> advance() {
+                if (iterator.hasNext()) {
+                    Pair<Key, Value> pair = iterator.next();
+                    if (pair.getFirst() instanceof String
+                        && ((String) pair.getFirst()).startsWith(prefix)) {
+                        return pair;
+                    }
+                }
+                return null;
+            }
+        };
+    }
+
+    /**
+     * Gets a {@link RecordStream} view of the mappings whose <code>String</code>
+     * keys are accepted by the <code>matcher</code>.
+     * <p>
+     * The default implementation visits the keys in their sorted order. For a
+     * key which is not accepted, the <code>seeker</code> gives the smallest
+     * string greater than the key which could be accepted, or <code>null</code>
+     * if there is none, and the scan seeks to the first key not smaller than
+     * it, skipping all the keys in between. Stores which do not keep their keys
+     * in the natural order of <code>String</code> must override it.
+     *
+     * @param matcher the matcher of the keys
+     * @param seeker  the seeker of the next key which could be accepted
+     * @return the record stream
+     * @since 4.3
+     */
+    @SuppressWarnings("unchecked")
+    default RecordStream<Pair<Key, Value>> matchingEntries(Predicate<String> matcher,
+                                                           UnaryOperator<String> seeker) {
+        return () -> new Iterator<Pair<Key, Value>>() {
+            private Key nextKey = firstKey();
+            private Pair<Key, Value> nextEntry = advance();
+
+            @Override
+            public boolean hasNext() {
+                return nextEntry != null;
+            }
+
+            @Override
+            public Pair<Key, Value> next() {
+                if (nextEntry == null) {
+                    throw new NoSuchElementException();
+                }
+
+                Pair<Key, Value> pair = nextEntry;
+                nextEntry = advance();
+                return pair;
+            }
+
+            private Pair<Key, Value> advance() {
+                while (nextKey instanceof String) {
+                    Key key = nextKey;
+                    if (matcher.test((String) key)) {
+                        nextKey = higherKey(key);
+                        Value value = get(key);
+                        if (value != null) {
+                            return new Pair<>(key, value);
+                        }
+                    } else {
+                        String seekKey = seeker.apply((String) key);
+                        nextKey = seekKey == null ? null : ceilingKey((Key) seekKey);
+                    }
+                }
+                return null;
+            }
+        };
+    }
+
     /**
      * Deletes the map from the store.
      */
@@ -218,6 +408,12 @@ public interface NitriteMap<Key, Value> extends AttributesAware, AutoCloseable {
      * */
     default Attributes getAttributes() {
         if (!isDropped()) {
+            LastModifiedTracker lastModifiedTracker = getStore().getLastModifiedTracker();
+            if (lastModifiedTracker != null) {
+                // make the pending modification time visible before reading
+                lastModifiedTracker.flush(getName());
+            }
+
             NitriteMap<String, Attributes> metaMap = getStore().openMap(META_MAP_NAME, String.class, Attributes.class);
             if (metaMap != null && !getName().contentEquals(META_MAP_NAME)) {
                 return metaMap.get(getName());
@@ -246,15 +442,7 @@ public interface NitriteMap<Key, Value> extends AttributesAware, AutoCloseable {
             if (isNullOrEmpty(getName())
                 || META_MAP_NAME.equals(getName())) return;
 
-            NitriteMap<String, Attributes> metaMap = getStore().openMap(META_MAP_NAME, String.class, Attributes.class);
-            if (metaMap != null) {
-                Attributes attributes = metaMap.get(getName());
-                if (attributes == null) {
-                    attributes = new Attributes(getName());
-                    metaMap.put(getName(), attributes);
-                }
-                attributes.set(Attributes.LAST_MODIFIED_TIME, Long.toString(System.currentTimeMillis()));
-            }
+            getStore().updateLastModifiedTime(getName());
         }
     }
 }
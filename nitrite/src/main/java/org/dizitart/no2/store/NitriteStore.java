@@ -16,6 +16,7 @@
 
 package org.dizitart.no2.store;
 
+import org.dizitart.no2.common.meta.Attributes;
 import org.dizitart.no2.common.module.NitritePlugin;
 import org.dizitart.no2.index.BoundingBox;
 import org.dizitart.no2.store.events.StoreEventListener;
@@ -23,6 +24,8 @@ import org.dizitart.no2.store.events.StoreEventListener;
 import java.util.Map;
 import java.util.Set;
 
+import static org.dizitart.no2.common.Constants.META_MAP_NAME;
+
 /**
  * Represents a storage interface for Nitrite database.
  *
@@ -91,6 +94,28 @@ public interface NitriteStore<Config extends StoreConfig> extends NitritePlugin
      */
     void beforeClose();
 
+    /**
+     * Records the last modification time of a {@link NitriteMap}.
+     * <p>
+     * The default implementation writes the time to the meta map
+     * immediately. Implementations may defer the write, e.g. until
+     * the next {@link #commit()}.
+     *
+     * @param mapName the map name
+     * @since 4.3
+     */
+    default void updateLastModifiedTime(String mapName) {
+        NitriteMap<String, Attributes> metaMap = openMap(META_MAP_NAME, String.class, Attributes.class);
+        if (metaMap != null) {
+            Attributes attributes = metaMap.get(mapName);
+            if (attributes == null) {
+                attributes = new Attributes(mapName);
+            }
+            attributes.set(Attributes.LAST_MODIFIED_TIME, Long.toString(System.currentTimeMillis()));
+            metaMap.put(mapName, attributes);
+        }
+    }
+
     /**
      * Checks if a {@link NitriteMap} with the given name exists in the store.
      *
@@ -179,6 +204,35 @@ public interface NitriteStore<Config extends StoreConfig> extends NitritePlugin
      */
     String getStoreVersion();
 
+    /**
+     * Gets the version of the format the store writes the keys of an index
+     * in. An index written in another format is rebuilt when its collection
+     * is opened.
+     * <p>
+     * The default implementation returns 1, the format of the stores which
+     * keep the keys of an index as they are.
+     *
+     * @return the index key format
+     * @since 4.3
+     */
+    default int getIndexKeyFormat() {
+        return 1;
+    }
+
+    /**
+     * Gets the tracker which keeps the last modification time of the maps
+     * of this store in memory until it is flushed.
+     * <p>
+     * The default implementation returns {@code null}, for a store which
+     * writes the modification time of a map on every change.
+     *
+     * @return the last modified tracker, or {@code null}.
+     * @since 4.3
+     */
+    default LastModifiedTracker getLastModifiedTracker() {
+        return null;
+    }
+
     /**
      * Gets the store configuration.
      *
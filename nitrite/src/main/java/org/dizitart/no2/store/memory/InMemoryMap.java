@@ -123,6 +123,28 @@ public class InMemoryMap<Key, Value> implements NitriteMap<Key, Value> {
         return getStream(backingMap.descendingMap());
     }
 
+    @Override
+    public RecordStream<Pair<Key, Value>> entries(Key from, boolean fromInclusive,
+                                                  Key to, boolean toInclusive,
+                                                  boolean reverse) {
+        checkOpened();
+        NavigableMap<Key, Value> rangeMap;
+        if (from != null && to != null) {
+            int cmp = Comparables.compare((Comparable<?>) from, (Comparable<?>) to);
+            if (cmp > 0 || (cmp == 0 && !(fromInclusive && toInclusive))) {
+                return RecordStream.empty();
+            }
+            rangeMap = backingMap.subMap(from, fromInclusive, to, toInclusive);
+        } else if (from != null) {
+            rangeMap = backingMap.tailMap(from, fromInclusive);
+        } else if (to != null) {
+            rangeMap = backingMap.headMap(to, toInclusive);
+        } else {
+            rangeMap = backingMap;
+        }
+        return getStream(reverse ? rangeMap.descendingMap() : rangeMap);
+    }
+
     @Override
     public Key firstKey() {
         checkOpened();
@@ -53,11 +53,13 @@ public final class InMemoryStore extends AbstractNitriteStore<InMemoryConfig> {
 
     @Override
     public void commit() {
+        lastModifiedTracker.flush();
         alert(StoreEvents.Commit);
     }
 
     @Override
     public void close() {
+        lastModifiedTracker.close();
         closed = true;
         Consumer<Map.Entry<?, ?>> closeConsumer = entry -> {
             if (entry.getValue() instanceof AutoCloseable) {
@@ -135,6 +137,7 @@ public final class InMemoryStore extends AbstractNitriteStore<InMemoryConfig> {
             nitriteMapRegistry.remove(mapName);
             getCatalog().remove(mapName);
         }
+        lastModifiedTracker.forget(mapName);
     }
 
     @Override
@@ -15,6 +15,7 @@ import org.dizitart.no2.common.meta.Attributes;
 import org.dizitart.no2.common.processors.Processor;
 import org.dizitart.no2.exceptions.*;
 import org.dizitart.no2.filters.Filter;
+import org.dizitart.no2.index.IndexDefinition;
 import org.dizitart.no2.index.IndexDescriptor;
 import org.dizitart.no2.index.IndexOptions;
 import org.dizitart.no2.store.NitriteMap;
@@ -222,6 +223,17 @@ class DefaultTransactionalCollection implements NitriteCollection {
         }
     }
 
+    @Override
+    public long count(Filter filter) {
+        try {
+            readLock.lock();
+            checkOpened();
+            return collectionOperations.count(filter);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
     @Override
     public Document getById(NitriteId nitriteId) {
         notNull(nitriteId, "nitriteId cannot be null");
@@ -263,6 +275,17 @@ class DefaultTransactionalCollection implements NitriteCollection {
         }
     }
 
+    @Override
+    public void createIndexes(List<IndexDefinition> indexDefinitions) {
+        try {
+            writeLock.lock();
+            checkOpened();
+            primary.createIndexes(indexDefinitions);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
     @Override
     public void rebuildIndex(String... fieldNames) {
         try {
@@ -503,7 +526,13 @@ class DefaultTransactionalCollection implements NitriteCollection {
 
         public void post(CollectionEventInfo<?> collectionEventInfo) {
             for (final CollectionEventListener listener : getListeners()) {
-                getEventExecutor().submit(() -> listener.onEvent(collectionEventInfo));
+                if (listener.acceptsBulkEvents()) {
+                    getEventExecutor().submit(() -> listener.onEvent(collectionEventInfo));
+                } else {
+                    for (CollectionEventInfo<?> eventInfo : CollectionEventInfo.unbundle(collectionEventInfo)) {
+                        getEventExecutor().submit(() -> listener.onEvent(eventInfo));
+                    }
+                }
             }
         }
     }
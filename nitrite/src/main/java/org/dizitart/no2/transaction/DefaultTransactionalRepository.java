@@ -10,6 +10,7 @@ import org.dizitart.no2.common.WriteResult;
 import org.dizitart.no2.common.meta.Attributes;
 import org.dizitart.no2.common.processors.Processor;
 import org.dizitart.no2.filters.Filter;
+import org.dizitart.no2.index.IndexDefinition;
 import org.dizitart.no2.index.IndexDescriptor;
 import org.dizitart.no2.index.IndexOptions;
 import org.dizitart.no2.repository.Cursor;
@@ -19,6 +20,7 @@ import org.dizitart.no2.repository.EntityDecorator;
 import org.dizitart.no2.store.NitriteStore;
 
 import java.util.Collection;
+import java.util.List;
 
 import static org.dizitart.no2.collection.UpdateOptions.updateOptions;
 import static org.dizitart.no2.common.util.ValidationUtils.containsNull;
@@ -68,6 +70,11 @@ class DefaultTransactionalRepository<T> implements ObjectRepository<T> {
         backingCollection.createIndex(indexOptions, fieldNames);
     }
 
+    @Override
+    public void createIndexes(List<IndexDefinition> indexDefinitions) {
+        backingCollection.createIndexes(indexDefinitions);
+    }
+
     @Override
     public void rebuildIndex(String... fieldNames) {
         backingCollection.rebuildIndex(fieldNames);
@@ -156,6 +163,11 @@ class DefaultTransactionalRepository<T> implements ObjectRepository<T> {
         return operations.find(filter, findOptions, getType());
     }
 
+    @Override
+    public long count(Filter filter) {
+        return operations.count(filter);
+    }
+
     @Override
     public <I> T getById(I id) {
         T item = primary == null ? null : primary.getById(id);
@@ -66,6 +66,11 @@ class TransactionStore<T extends StoreConfig> extends AbstractNitriteStore<T> {
         eventBus.close();
     }
 
+    @Override
+    public void updateLastModifiedTime(String mapName) {
+        // modifications are tracked by the primary store when the transaction commits
+    }
+
     @Override
     public boolean hasMap(String mapName) {
         if (deletedMap.contains(mapName)) {
@@ -160,6 +165,11 @@ class TransactionStore<T extends StoreConfig> extends AbstractNitriteStore<T> {
         return primaryStore.getStoreVersion();
     }
 
+    @Override
+    public int getIndexKeyFormat() {
+        return primaryStore.getIndexKeyFormat();
+    }
+
     @Override
     public T getStoreConfig() {
         return null;
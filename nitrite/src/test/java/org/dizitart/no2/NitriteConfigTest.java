@@ -23,6 +23,7 @@ import org.dizitart.no2.common.module.NitritePlugin;
 import org.dizitart.no2.common.module.PluginManager;
 import org.dizitart.no2.exceptions.IndexingException;
 import org.dizitart.no2.exceptions.NitriteIOException;
+import org.dizitart.no2.exceptions.ValidationException;
 import org.dizitart.no2.migration.Migration;
 import org.dizitart.no2.store.NitriteStore;
 import org.dizitart.no2.store.memory.InMemoryConfig;
@@ -51,6 +52,15 @@ public class NitriteConfigTest {
         (new NitriteConfig()).fieldSeparator("Separator");
     }
 
+    @Test
+    public void testSortBufferSize() {
+        NitriteConfig nitriteConfig = new NitriteConfig();
+        assertEquals(0, nitriteConfig.getSortBufferSize());
+        nitriteConfig.sortBufferSize(1000);
+        assertEquals(1000, nitriteConfig.getSortBufferSize());
+        assertThrows(ValidationException.class, () -> nitriteConfig.sortBufferSize(-1));
+    }
+
     @Test
     public void testLoadModule() {
         NitriteConfig nitriteConfig = new NitriteConfig();
@@ -112,7 +122,7 @@ public class NitriteConfigTest {
         NitriteConfig nitriteConfig = new NitriteConfig();
         nitriteConfig.autoConfigure();
         PluginManager pluginManager = nitriteConfig.getPluginManager();
-        assertEquals(3, pluginManager.getIndexerMap().size());
+        assertEquals(5, pluginManager.getIndexerMap().size());
         NitriteStore<?> nitriteStore = nitriteConfig.getNitriteStore();
         assertSame(nitriteStore, pluginManager.getNitriteStore());
         assertTrue(pluginManager.getNitriteMapper() instanceof SimpleNitriteMapper);
@@ -0,0 +1,23 @@
+package org.dizitart.no2.collection;
+
+import org.dizitart.no2.exceptions.ValidationException;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class BulkWriteOptionsTest {
+    @Test
+    public void testDefaultChunkSize() {
+        assertEquals(BulkWriteOptions.DEFAULT_CHUNK_SIZE, new BulkWriteOptions().getChunkSize());
+    }
+
+    @Test
+    public void testBulkWriteOptions() {
+        assertEquals(10, BulkWriteOptions.bulkWriteOptions(10).getChunkSize());
+    }
+
+    @Test(expected = ValidationException.class)
+    public void testInvalidChunkSize() {
+        BulkWriteOptions.bulkWriteOptions(0);
+    }
+}
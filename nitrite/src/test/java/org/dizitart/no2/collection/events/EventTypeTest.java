@@ -9,14 +9,16 @@ public class EventTypeTest {
     public void testValueOf() {
         assertEquals(EventType.IndexEnd, EventType.valueOf("IndexEnd"));
         assertEquals(EventType.IndexStart, EventType.valueOf("IndexStart"));
+        assertEquals(EventType.IndexProgress, EventType.valueOf("IndexProgress"));
         assertEquals(EventType.Insert, EventType.valueOf("Insert"));
         assertEquals(EventType.Remove, EventType.valueOf("Remove"));
         assertEquals(EventType.Update, EventType.valueOf("Update"));
+        assertEquals(EventType.TtlSweep, EventType.valueOf("TtlSweep"));
     }
 
     @Test
     public void testValues() {
-        assertEquals(5, EventType.values().length);
+        assertEquals(8, EventType.values().length);
     }
 }
 
@@ -18,14 +18,19 @@
 package org.dizitart.no2.collection.operation;
 
 import org.dizitart.no2.NitriteConfig;
+import org.dizitart.no2.collection.Document;
+import org.dizitart.no2.common.FieldValues;
 import org.dizitart.no2.common.Fields;
 import org.dizitart.no2.index.IndexDescriptor;
 import org.dizitart.no2.index.IndexType;
+import org.dizitart.no2.index.NitriteIndexer;
 import org.dizitart.no2.index.UniqueIndexer;
 import org.dizitart.no2.store.memory.InMemoryStore;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import static org.dizitart.no2.collection.Document.createDocument;
 import static org.mockito.Mockito.*;
@@ -72,5 +77,43 @@ public class DocumentIndexWriterTest {
         (new DocumentIndexWriter(nitriteConfig, indexOperations)).updateIndexEntry(createDocument("a", 1), createDocument("a", 2), createDocument("a", 3));
         verify(indexOperations).listIndexes();
     }
-}
 
+    @Test
+    public void testWriteIndexEntriesCapturedByBuild() {
+        IndexDescriptor indexDescriptor = new IndexDescriptor(IndexType.UNIQUE, Fields.withNames("a"), "Collection Name");
+        IndexOperations indexOperations = mock(IndexOperations.class);
+        when(indexOperations.listIndexes()).thenReturn(Arrays.asList(indexDescriptor));
+        when(indexOperations.captureIndexChanges(eq(indexDescriptor), anyList())).thenReturn(true);
+        NitriteIndexer nitriteIndexer = mock(NitriteIndexer.class);
+        NitriteConfig nitriteConfig = mock(NitriteConfig.class);
+        doReturn(nitriteIndexer).when(nitriteConfig).findIndexer(IndexType.UNIQUE);
+
+        // the batch is captured at once, and none of it is written now
+        (new DocumentIndexWriter(nitriteConfig, indexOperations)).writeIndexEntries(documents());
+        verify(indexOperations, times(1)).captureIndexChanges(eq(indexDescriptor), anyList());
+        verify(nitriteIndexer, never()).writeIndexEntry(any(), any(), any());
+    }
+
+    @Test
+    public void testWriteIndexEntriesNotCaptured() {
+        IndexDescriptor indexDescriptor = new IndexDescriptor(IndexType.UNIQUE, Fields.withNames("a"), "Collection Name");
+        IndexOperations indexOperations = mock(IndexOperations.class);
+        when(indexOperations.listIndexes()).thenReturn(Arrays.asList(indexDescriptor));
+        when(indexOperations.captureIndexChanges(eq(indexDescriptor), anyList())).thenReturn(false);
+        NitriteIndexer nitriteIndexer = mock(NitriteIndexer.class);
+        NitriteConfig nitriteConfig = mock(NitriteConfig.class);
+        doReturn(nitriteIndexer).when(nitriteConfig).findIndexer(IndexType.UNIQUE);
+
+        // each document of the batch is written once
+        (new DocumentIndexWriter(nitriteConfig, indexOperations)).writeIndexEntries(documents());
+        verify(nitriteIndexer, times(3)).writeIndexEntry(any(FieldValues.class), eq(indexDescriptor), eq(nitriteConfig));
+    }
+
+    private List<Document> documents() {
+        List<Document> documents = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            documents.add(createDocument("a", i));
+        }
+        return documents;
+    }
+}
@@ -17,16 +17,24 @@
 
 package org.dizitart.no2.collection.operation;
 
+import org.dizitart.no2.collection.Document;
 import org.dizitart.no2.collection.FindOptions;
 import org.dizitart.no2.collection.FindPlan;
+import org.dizitart.no2.collection.NitriteId;
+import org.dizitart.no2.common.DBValue;
 import org.dizitart.no2.common.Fields;
 import org.dizitart.no2.common.SortOrder;
 import org.dizitart.no2.filters.Filter;
 import org.dizitart.no2.index.IndexDescriptor;
+import org.dizitart.no2.index.IndexMap;
+import org.dizitart.no2.index.IndexStatistics;
+import org.dizitart.no2.index.IndexType;
 import org.junit.Test;
 
-import java.util.ArrayList;
+import java.util.*;
 
+import static org.dizitart.no2.filters.Filter.and;
+import static org.dizitart.no2.filters.FluentFilter.where;
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.mock;
 
@@ -108,5 +116,112 @@ public class FindOptimizerTest {
         assertNull(actualOptimizeResult.getSkip());
         assertNull(actualOptimizeResult.getLimit());
     }
-}
 
+    @Test
+    public void testOptimizeWithStatistics() {
+        IndexDescriptor category = new IndexDescriptor(IndexType.NON_UNIQUE, Fields.withNames("category"), "test");
+        IndexDescriptor status = new IndexDescriptor(IndexType.NON_UNIQUE, Fields.withNames("status"), "test");
+        List<IndexDescriptor> indexDescriptors = Arrays.asList(category, status);
+        Filter filter = and(where("category").eq(5), where("status").eq(0));
+
+        // without statistics the index ranked higher by cardinality is used
+        FindPlan findPlan = new FindOptimizer().optimize(filter, new FindOptions(), indexDescriptors);
+        assertEquals(status, findPlan.getIndexDescriptor());
+
+        // every category is rare, while most of the documents have status 0
+        Map<IndexDescriptor, IndexStatistics> statistics = new HashMap<>();
+        statistics.put(category, statistics(new int[]{10, 10, 10, 10, 10, 10, 10, 10, 10, 10}));
+        statistics.put(status, statistics(new int[]{90, 10}));
+
+        findPlan = new FindOptimizer(statistics::get).optimize(filter, new FindOptions(), indexDescriptors);
+        assertEquals(category, findPlan.getIndexDescriptor());
+        assertEquals(1, findPlan.getIndexScanFilter().getFilters().size());
+        assertEquals(where("status").eq(0).toString(), findPlan.getCollectionScanFilter().toString());
+
+        // statistics missing for an index, fall back to the static ranking
+        statistics.remove(category);
+        findPlan = new FindOptimizer(statistics::get).optimize(filter, new FindOptions(), indexDescriptors);
+        assertEquals(status, findPlan.getIndexDescriptor());
+    }
+
+    @Test
+    public void testOptimizeWithIntersection() {
+        IndexDescriptor category = new IndexDescriptor(IndexType.NON_UNIQUE, Fields.withNames("category"), "test");
+        IndexDescriptor status = new IndexDescriptor(IndexType.NON_UNIQUE, Fields.withNames("status"), "test");
+        List<IndexDescriptor> indexDescriptors = Arrays.asList(category, status);
+        Filter filter = and(where("category").eq(5), where("status").eq(0), where("active").eq(true));
+
+        // without statistics every other equality lookup is intersected
+        FindPlan findPlan = new FindOptimizer().optimize(filter, new FindOptions(), indexDescriptors);
+        assertEquals(status, findPlan.getIndexDescriptor());
+        assertEquals(1, findPlan.getIntersectingPlans().size());
+        FindPlan intersectingPlan = findPlan.getIntersectingPlans().get(0);
+        assertEquals(category, intersectingPlan.getIndexDescriptor());
+        assertEquals(where("category").eq(5).toString(),
+            intersectingPlan.getIndexScanFilter().getFilters().get(0).toString());
+        assertEquals(where("active").eq(true).toString(), findPlan.getCollectionScanFilter().toString());
+
+        // a range is not intersected without statistics
+        filter = and(where("category").gt(5), where("status").eq(0));
+        findPlan = new FindOptimizer().optimize(filter, new FindOptions(), indexDescriptors);
+        assertEquals(status, findPlan.getIndexDescriptor());
+        assertTrue(findPlan.getIntersectingPlans().isEmpty());
+
+        // both statuses are common, but a category and a status together are rare
+        Map<IndexDescriptor, IndexStatistics> statistics = new HashMap<>();
+        statistics.put(category, statistics(new int[]{10, 10, 10, 10, 10, 10, 10, 10, 10, 10}));
+        statistics.put(status, statistics(new int[]{40, 60}));
+
+        filter = and(where("category").eq(5), where("status").eq(0));
+        findPlan = new FindOptimizer(statistics::get).optimize(filter, new FindOptions(), indexDescriptors);
+        assertEquals(category, findPlan.getIndexDescriptor());
+        assertEquals(status, findPlan.getIntersectingPlans().get(0).getIndexDescriptor());
+        assertNull(findPlan.getCollectionScanFilter());
+
+        // a status selecting most of the entries is not worth reading
+        filter = and(where("category").eq(5), where("status").eq(1));
+        findPlan = new FindOptimizer(statistics::get).optimize(filter, new FindOptions(), indexDescriptors);
+        assertEquals(category, findPlan.getIndexDescriptor());
+        assertTrue(findPlan.getIntersectingPlans().isEmpty());
+        assertEquals(where("status").eq(1).toString(), findPlan.getCollectionScanFilter().toString());
+    }
+
+    @Test
+    public void testIsCovered() {
+        IndexDescriptor cityAge = new IndexDescriptor(IndexType.NON_UNIQUE, Fields.withNames("city", "age"), "test");
+        List<IndexDescriptor> indexDescriptors = Collections.singletonList(cityAge);
+        Filter filter = where("city").eq("c0");
+
+        FindPlan findPlan = new FindOptimizer().optimize(filter, new FindOptions(), indexDescriptors);
+        assertTrue(new FindOptimizer().isCovered(findPlan, Document.createDocument("age", null)));
+        assertFalse(new FindOptimizer().isCovered(findPlan, Document.createDocument("name", null)));
+        assertFalse(new FindOptimizer().isCovered(findPlan, null));
+
+        // the first field needs statistics to rule out arrays
+        Document projection = Document.createDocument("city", null).put("age", null);
+        assertFalse(new FindOptimizer().isCovered(findPlan, projection));
+
+        IndexStatistics statistics = statistics(new int[]{10, 10});
+        FindOptimizer findOptimizer = new FindOptimizer(indexDescriptor -> statistics);
+        assertTrue(findOptimizer.isCovered(findPlan, projection));
+        statistics.recordMultiKey();
+        assertFalse(findOptimizer.isCovered(findPlan, projection));
+
+        // a filter on a field outside the index needs the documents
+        filter = and(where("city").eq("c0"), where("name").eq("n0"));
+        findPlan = new FindOptimizer().optimize(filter, new FindOptions(), indexDescriptors);
+        assertFalse(new FindOptimizer().isCovered(findPlan, Document.createDocument("age", null)));
+    }
+
+    private IndexStatistics statistics(int[] counts) {
+        TreeMap<DBValue, Object> navigableMap = new TreeMap<>();
+        for (int value = 0; value < counts.length; value++) {
+            List<NitriteId> ids = new ArrayList<>();
+            for (int i = 0; i < counts[value]; i++) {
+                ids.add(NitriteId.newId());
+            }
+            navigableMap.put(new DBValue(value), ids);
+        }
+        return IndexStatistics.of(new IndexMap(navigableMap));
+    }
+}
@@ -40,7 +40,7 @@ public class ReadOperationsTest {
     @Test
     public void testFind() {
         IndexOperations indexOperations = mock(IndexOperations.class);
-        when(indexOperations.listIndexes()).thenReturn(new ArrayList<>());
+        when(indexOperations.listQueryableIndexes()).thenReturn(new ArrayList<>());
         NitriteConfig nitriteConfig = new NitriteConfig();
         InMemoryMap<NitriteId, Document> nitriteMap = new InMemoryMap<>("Map Name", null);
 
@@ -48,7 +48,7 @@ public class ReadOperationsTest {
                 new ProcessorChain());
         Filter filter = mock(Filter.class);
         assertTrue(readOperations.find(filter, new FindOptions()).toList().isEmpty());
-        verify(indexOperations).listIndexes();
+        verify(indexOperations).listQueryableIndexes();
     }
 
     @Test
@@ -56,7 +56,7 @@ public class ReadOperationsTest {
         ArrayList<IndexDescriptor> indexDescriptorList = new ArrayList<>();
         indexDescriptorList.add(new IndexDescriptor("Index Type", new Fields(), "Collection Name"));
         IndexOperations indexOperations = mock(IndexOperations.class);
-        when(indexOperations.listIndexes()).thenReturn(indexDescriptorList);
+        when(indexOperations.listQueryableIndexes()).thenReturn(indexDescriptorList);
         NitriteConfig nitriteConfig = new NitriteConfig();
         InMemoryMap<NitriteId, Document> nitriteMap = new InMemoryMap<>("Map Name", null);
 
@@ -64,7 +64,7 @@ public class ReadOperationsTest {
                 new ProcessorChain());
         Filter filter = mock(Filter.class);
         assertTrue(readOperations.find(filter, new FindOptions()).toList().isEmpty());
-        verify(indexOperations).listIndexes();
+        verify(indexOperations).listQueryableIndexes();
     }
 
     @Test
@@ -20,6 +20,9 @@ package org.dizitart.no2.common.module;
 import org.dizitart.no2.NitriteConfig;
 import org.dizitart.no2.common.mapper.SimpleNitriteMapper;
 import org.dizitart.no2.exceptions.PluginException;
+import org.dizitart.no2.index.HashIndexer;
+import org.dizitart.no2.index.IndexType;
+import org.dizitart.no2.index.TtlIndexer;
 import org.dizitart.no2.store.NitriteStore;
 import org.junit.Test;
 
@@ -62,7 +65,9 @@ public class PluginManagerTest {
         pluginManager.findAndLoadPlugins();
         NitriteStore<?> nitriteStore = pluginManager.getNitriteStore();
         assertTrue(nitriteStore instanceof org.dizitart.no2.store.memory.InMemoryStore);
-        assertEquals(3, pluginManager.getIndexerMap().size());
+        assertEquals(5, pluginManager.getIndexerMap().size());
+        assertTrue(pluginManager.getIndexerMap().get(IndexType.HASH) instanceof HashIndexer);
+        assertTrue(pluginManager.getIndexerMap().get(IndexType.TTL) instanceof TtlIndexer);
         assertTrue(pluginManager.getNitriteMapper() instanceof SimpleNitriteMapper);
         assertFalse(nitriteStore.isClosed());
     }
@@ -24,7 +24,9 @@ import org.dizitart.no2.common.tuples.Pair;
 import org.dizitart.no2.exceptions.ValidationException;
 import org.junit.Test;
 
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThrows;
@@ -72,5 +74,27 @@ public class BoundedStreamTest {
             assertEquals(3, (int) pair.getSecond().get("value", Integer.class));
         }
     }
-}
 
+    @Test
+    public void testBound() {
+        int[] reads = new int[1];
+        RecordStream<Integer> recordStream = () -> new Iterator<Integer>() {
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public Integer next() {
+                return ++reads[0];
+            }
+        };
+
+        List<Integer> result = BoundedStream.bound(2L, 3L, recordStream).toList();
+        assertEquals(Arrays.asList(3, 4, 5), result);
+        assertEquals(5, reads[0]);
+
+        assertThrows(ValidationException.class, () -> BoundedStream.bound(-1L, 1L, recordStream));
+        assertThrows(ValidationException.class, () -> BoundedStream.bound(1L, -1L, recordStream));
+    }
+}
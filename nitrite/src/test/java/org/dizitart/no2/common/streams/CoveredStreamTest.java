@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.common.streams;
+
+import org.dizitart.no2.collection.Document;
+import org.dizitart.no2.collection.NitriteId;
+import org.dizitart.no2.common.RecordStream;
+import org.dizitart.no2.common.tuples.Pair;
+import org.dizitart.no2.store.NitriteMap;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class CoveredStreamTest {
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testIterator() {
+        NitriteMap<NitriteId, Document> nitriteMap = mock(NitriteMap.class);
+        NitriteId first = NitriteId.newId();
+        NitriteId second = NitriteId.newId();
+        Document secondDocument = Document.createDocument("city", "c0").put("name", "n1");
+        when(nitriteMap.get(second)).thenReturn(secondDocument);
+
+        List<Pair<NitriteId, Document>> indexEntries = Arrays.asList(
+            new Pair<>(first, Document.createDocument("city", "c0").put("age", 1)),
+            new Pair<>(second, Document.createDocument("city", "c0")));
+
+        // the entry without an age is read from the collection
+        CoveredStream stream = new CoveredStream(RecordStream.fromIterable(indexEntries),
+            Arrays.asList("city", "age"), nitriteMap);
+        List<Pair<NitriteId, Document>> entries = stream.toList();
+        assertEquals(2, entries.size());
+        assertSame(indexEntries.get(0), entries.get(0));
+        assertEquals(second, entries.get(1).getFirst());
+        assertEquals(secondDocument, entries.get(1).getSecond());
+        verify(nitriteMap, never()).get(first);
+    }
+
+    @Test
+    public void testNullEntries() {
+        CoveredStream stream = new CoveredStream(null, Arrays.asList("city", "age"), null);
+        assertFalse(stream.iterator().hasNext());
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.common.streams;
+
+import org.dizitart.no2.collection.NitriteId;
+import org.dizitart.no2.common.RecordStream;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.*;
+
+public class IntersectedStreamTest {
+    @Test
+    public void testIterator() {
+        List<NitriteId> ids = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            ids.add(NitriteId.newId());
+        }
+
+        List<Supplier<? extends Set<NitriteId>>> intersectingIds = new ArrayList<>();
+        intersectingIds.add(() -> new LinkedHashSet<>(Arrays.asList(ids.get(4), ids.get(1), ids.get(3), ids.get(5))));
+        intersectingIds.add(() -> new LinkedHashSet<>(Arrays.asList(ids.get(3), ids.get(4))));
+
+        // the order of the driving stream is kept
+        IntersectedStream stream = new IntersectedStream(RecordStream.fromIterable(ids), intersectingIds);
+        assertEquals(Arrays.asList(ids.get(3), ids.get(4)), stream.toList());
+    }
+
+    @Test
+    public void testEmptyIntersection() {
+        int[] reads = new int[1];
+        RecordStream<NitriteId> nitriteIds = () -> {
+            reads[0]++;
+            return Collections.singletonList(NitriteId.newId()).iterator();
+        };
+
+        List<Supplier<? extends Set<NitriteId>>> intersectingIds = new ArrayList<>();
+        intersectingIds.add(() -> new LinkedHashSet<>(Collections.singletonList(NitriteId.newId())));
+        intersectingIds.add(LinkedHashSet::new);
+
+        IntersectedStream stream = new IntersectedStream(nitriteIds, intersectingIds);
+        assertFalse(stream.iterator().hasNext());
+        assertEquals(0, reads[0]);
+    }
+
+    @Test
+    public void testNoIntersectingIds() {
+        List<NitriteId> ids = Arrays.asList(NitriteId.newId(), NitriteId.newId());
+        IntersectedStream stream = new IntersectedStream(RecordStream.fromIterable(ids), new ArrayList<>());
+        assertEquals(ids, stream.toList());
+    }
+}
@@ -24,10 +24,17 @@ import org.dizitart.no2.collection.NitriteId;
 import org.dizitart.no2.common.RecordStream;
 import org.dizitart.no2.common.SortOrder;
 import org.dizitart.no2.common.tuples.Pair;
+import org.dizitart.no2.store.NitriteMap;
+import org.dizitart.no2.store.NitriteStore;
+import org.dizitart.no2.store.memory.InMemoryMap;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Random;
 
+import static org.dizitart.no2.common.tuples.Pair.pair;
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
 
@@ -41,7 +48,7 @@ public class SortedDocumentStreamTest {
         assertTrue(blockingSortOrder instanceof java.util.ArrayList);
         assertEquals("FindPlan(byIdFilter=null, indexScanFilter=null, collectionScanFilter=null, indexDescriptor=null,"
             + " indexScanOrder=null, blockingSortOrder=[], skip=null, limit=null, distinct=false, collator=null, " +
-            "subPlans=[])", findPlan.toString());
+            "subPlans=[], intersectingPlans=[], multiKeyScan=true)", findPlan.toString());
         assertTrue(blockingSortOrder.isEmpty());
         List<FindPlan> subPlans = findPlan.getSubPlans();
         assertTrue(subPlans instanceof java.util.ArrayList);
@@ -68,5 +75,49 @@ public class SortedDocumentStreamTest {
         verify(recordStream).iterator();
         assertTrue(sortedDocumentStream.toList().isEmpty());
     }
-}
 
+    @Test
+    public void testSpillToRunMap() {
+        List<Pair<NitriteId, Document>> records = new ArrayList<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 1000; i++) {
+            Document document = Document.createDocument("score", random.nextInt(100))
+                .put("name", random.nextBoolean() ? null : "name" + random.nextInt(10))
+                .put("seq", i);
+            records.add(pair(NitriteId.newId(), document));
+        }
+        RecordStream<Pair<NitriteId, Document>> recordStream = RecordStream.fromIterable(records);
+
+        FindPlan findPlan = new FindPlan();
+        findPlan.getBlockingSortOrder().add(pair("score", SortOrder.Ascending));
+        findPlan.getBlockingSortOrder().add(pair("name", SortOrder.Descending));
+
+        NitriteMap<Long, Document> runMap = new InMemoryMap<>("runs", mock(NitriteStore.class));
+        List<Integer> expected = sequences(new SortedDocumentStream(findPlan, recordStream));
+        for (int bufferSize : new int[]{1, 7, 100, 999, 1000, 5000}) {
+            List<Pair<NitriteId, Document>> sorted = new SortedDocumentStream(findPlan, recordStream,
+                bufferSize, runMap).toList();
+            assertEquals(expected, sequences(RecordStream.fromIterable(sorted)));
+            assertEquals(records.get(0).getFirst(), sorted.stream()
+                .filter(pair -> pair.getSecond().get("seq", Integer.class) == 0)
+                .findFirst().map(Pair::getFirst).orElse(null));
+
+            // the runs are removed as they are merged
+            assertTrue(runMap.isEmpty());
+        }
+
+        // the runs of a stream which is not read to the end stay in the map
+        Iterator<Pair<NitriteId, Document>> iterator = new SortedDocumentStream(findPlan, recordStream,
+            100, runMap).iterator();
+        iterator.next();
+        assertFalse(runMap.isEmpty());
+    }
+
+    private List<Integer> sequences(RecordStream<Pair<NitriteId, Document>> recordStream) {
+        List<Integer> sequences = new ArrayList<>();
+        for (Pair<NitriteId, Document> pair : recordStream) {
+            sequences.add(pair.getSecond().get("seq", Integer.class));
+        }
+        return sequences;
+    }
+}
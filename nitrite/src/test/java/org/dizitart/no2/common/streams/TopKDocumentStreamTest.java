@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.common.streams;
+
+import org.dizitart.no2.collection.Document;
+import org.dizitart.no2.collection.FindPlan;
+import org.dizitart.no2.collection.NitriteId;
+import org.dizitart.no2.common.RecordStream;
+import org.dizitart.no2.common.SortOrder;
+import org.dizitart.no2.common.tuples.Pair;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.dizitart.no2.common.tuples.Pair.pair;
+import static org.junit.Assert.*;
+
+public class TopKDocumentStreamTest {
+    @Test
+    public void testIterator() {
+        List<Pair<NitriteId, Document>> records = new ArrayList<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 500; i++) {
+            Document document = Document.createDocument("score", random.nextInt(50))
+                .put("name", random.nextBoolean() ? null : "name" + random.nextInt(5))
+                .put("seq", i);
+            records.add(pair(NitriteId.newId(), document));
+        }
+        RecordStream<Pair<NitriteId, Document>> recordStream = RecordStream.fromIterable(records);
+
+        FindPlan findPlan = new FindPlan();
+        findPlan.getBlockingSortOrder().add(pair("score", SortOrder.Descending));
+        findPlan.getBlockingSortOrder().add(pair("name", SortOrder.Ascending));
+
+        List<Pair<NitriteId, Document>> sorted = new SortedDocumentStream(findPlan, recordStream).toList();
+        for (int k : new int[]{1, 7, 50, 499, 500, 1000}) {
+            List<Pair<NitriteId, Document>> topK = new TopKDocumentStream(findPlan, k, recordStream).toList();
+            assertEquals(Math.min(k, records.size()), topK.size());
+            assertEquals(sorted.subList(0, topK.size()), topK);
+        }
+    }
+
+    @Test
+    public void testEmpty() {
+        FindPlan findPlan = new FindPlan();
+        findPlan.getBlockingSortOrder().add(pair("score", SortOrder.Ascending));
+        RecordStream<Pair<NitriteId, Document>> recordStream
+            = RecordStream.single(pair(NitriteId.newId(), Document.createDocument("score", 1)));
+
+        assertTrue(new TopKDocumentStream(findPlan, 0, recordStream).toList().isEmpty());
+        assertTrue(new TopKDocumentStream(findPlan, 10, null).toList().isEmpty());
+        assertTrue(new TopKDocumentStream(findPlan, 10, RecordStream.empty()).toList().isEmpty());
+    }
+}
@@ -19,6 +19,7 @@ package org.dizitart.no2.common.util;
 
 import org.dizitart.no2.common.Fields;
 import org.dizitart.no2.index.IndexDescriptor;
+import org.dizitart.no2.index.IndexLayout;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
@@ -37,6 +38,17 @@ public class IndexUtilsTest {
         assertEquals("$nitrite_index|Collection Name||Index Type", IndexUtils.deriveIndexMapName(indexDescriptor));
     }
 
+    @Test
+    public void testDeriveIndexMapNameWithLayout() {
+        IndexDescriptor indexDescriptor = new IndexDescriptor("Index Type", new Fields(), "Collection Name");
+        indexDescriptor.setLayout(IndexLayout.POSTING_LIST);
+        assertEquals("$nitrite_index|Collection Name||Index Type", IndexUtils.deriveIndexMapName(indexDescriptor));
+
+        indexDescriptor.setLayout(IndexLayout.COMPOSITE_KEY);
+        assertEquals("$nitrite_index|Collection Name||Index Type|CompositeKey",
+            IndexUtils.deriveIndexMapName(indexDescriptor));
+    }
+
     @Test
     public void testDeriveIndexMetaMapName() {
         assertEquals("$nitrite_index_meta|Collection Name", IndexUtils.deriveIndexMetaMapName("Collection Name"));
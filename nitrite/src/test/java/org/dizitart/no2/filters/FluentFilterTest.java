@@ -1,5 +1,6 @@
 package org.dizitart.no2.filters;
 
+import org.dizitart.no2.exceptions.FilterException;
 import org.junit.Test;
 
 import static org.junit.Assert.*;
@@ -30,6 +31,15 @@ public class FluentFilterTest {
         assertEquals("42", ((TextFilter) actualTextResult).getStringValue());
     }
 
+    @Test
+    public void testFuzzy() {
+        NitriteFilter actualFuzzyResult = FluentFilter.where("Field").fuzzy("apple");
+        assertEquals("(Field fuzzy apple~1)", actualFuzzyResult.toString());
+        assertEquals("(Field fuzzy bananas~2)", FluentFilter.where("Field").fuzzy("bananas").toString());
+        assertEquals("(Field fuzzy apple~2)", FluentFilter.where("Field").fuzzy("apple", 2).toString());
+        assertThrows(FilterException.class, () -> FluentFilter.where("Field").fuzzy("apple", 3));
+    }
+
     @Test
     public void testRegex() {
         NitriteFilter actualRegexResult = FluentFilter.where("Field").regex("42");
@@ -0,0 +1,74 @@
+package org.dizitart.no2.filters;
+
+import org.dizitart.no2.collection.NitriteId;
+import org.dizitart.no2.common.DBNull;
+import org.dizitart.no2.common.DBValue;
+import org.dizitart.no2.index.IndexMap;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.Assert.*;
+
+public class InFilterTest {
+    @Test
+    public void testToString() {
+        InFilter inFilter = new InFilter("field", 1, 2);
+        assertEquals("(field in [1, 2])", inFilter.toString());
+        assertTrue(inFilter instanceof ComparableFilter);
+    }
+
+    @Test
+    public void testApplyOnIndex() {
+        Map<Integer, NitriteId> ids = new TreeMap<>();
+        TreeMap<DBValue, Object> navigableMap = new TreeMap<>();
+        for (int i = 1; i <= 10; i++) {
+            NitriteId nitriteId = NitriteId.newId();
+            ids.put(i, nitriteId);
+            navigableMap.put(new DBValue(i), Collections.singletonList(nitriteId));
+        }
+        NitriteId nullId = NitriteId.newId();
+        navigableMap.put(DBNull.getInstance(), Collections.singletonList(nullId));
+
+        IndexMap indexMap = new IndexMap(navigableMap);
+        InFilter inFilter = new InFilter("field", 7, 2, 42, 5);
+        assertEquals(Arrays.asList(ids.get(2), ids.get(5), ids.get(7)), inFilter.applyOnIndex(indexMap));
+
+        indexMap.setReverseScan(true);
+        assertEquals(Arrays.asList(ids.get(7), ids.get(5), ids.get(2)), inFilter.applyOnIndex(indexMap));
+
+        indexMap.setReverseScan(false);
+        inFilter = new InFilter("field", 3, null);
+        assertEquals(Arrays.asList(nullId, ids.get(3)), inFilter.applyOnIndex(indexMap));
+
+        // values which are not comparable with each other are matched by scan
+        inFilter = new InFilter("field", 4, "a");
+        assertEquals(Collections.singletonList(ids.get(4)), inFilter.applyOnIndex(indexMap));
+    }
+
+    @Test
+    public void testApplyOnIndexAboveThreshold() {
+        TreeMap<DBValue, Object> navigableMap = new TreeMap<>();
+        List<NitriteId> expected = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            NitriteId nitriteId = NitriteId.newId();
+            navigableMap.put(new DBValue(i), Collections.singletonList(nitriteId));
+            if (i % 2 == 0) {
+                expected.add(nitriteId);
+            }
+        }
+
+        Comparable<?>[] values = new Comparable<?>[InFilter.POINT_LOOKUP_THRESHOLD + 1];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i * 2;
+        }
+
+        InFilter inFilter = new InFilter("field", values);
+        assertEquals(expected, inFilter.applyOnIndex(new IndexMap(navigableMap)));
+    }
+}
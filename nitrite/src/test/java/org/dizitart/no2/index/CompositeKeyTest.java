@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.index;
+
+import org.dizitart.no2.collection.NitriteId;
+import org.dizitart.no2.common.DBNull;
+import org.dizitart.no2.common.DBValue;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+
+import static org.junit.Assert.*;
+
+public class CompositeKeyTest {
+
+    @Test
+    public void testOrdering() {
+        List<DBValue> one = Collections.singletonList(new DBValue(1));
+        List<DBValue> two = Collections.singletonList(new DBValue(2));
+
+        CompositeKey key1 = CompositeKey.of(one, NitriteId.createId("2"));
+        CompositeKey key2 = CompositeKey.of(one, NitriteId.createId("1"));
+        CompositeKey key3 = CompositeKey.of(two, NitriteId.createId("1"));
+
+        TreeSet<CompositeKey> keys = new TreeSet<>(Arrays.asList(key1, key2, key3));
+        assertEquals(Arrays.asList(key2, key1, key3), Arrays.asList(keys.toArray()));
+
+        assertTrue(CompositeKey.lowerBound(one).compareTo(key2) < 0);
+        assertTrue(CompositeKey.upperBound(one).compareTo(key1) > 0);
+        assertTrue(CompositeKey.upperBound(one).compareTo(key3) < 0);
+        assertEquals(key2, keys.ceiling(CompositeKey.lowerBound(one)));
+        assertEquals(key3, keys.ceiling(CompositeKey.upperBound(one)));
+        assertEquals(key1, keys.floor(CompositeKey.upperBound(one)));
+        assertNull(keys.floor(CompositeKey.lowerBound(one)));
+    }
+
+    @Test
+    public void testPrefixBounds() {
+        CompositeKey key = CompositeKey.of(Arrays.asList(new DBValue("a"), new DBValue(5)),
+            NitriteId.createId("1"));
+        List<DBValue> prefix = Collections.singletonList(new DBValue("a"));
+
+        assertTrue(CompositeKey.lowerBound(prefix).compareTo(key) < 0);
+        assertTrue(CompositeKey.upperBound(prefix).compareTo(key) > 0);
+        assertTrue(key.compareTo(CompositeKey.upperBound(prefix)) < 0);
+        assertTrue(key.startsWith(prefix));
+        assertFalse(key.startsWith(Collections.singletonList(new DBValue("b"))));
+    }
+
+    @Test
+    public void testNullValue() {
+        CompositeKey nullKey = CompositeKey.of(Collections.singletonList(DBNull.getInstance()),
+            NitriteId.createId("1"));
+        CompositeKey key = CompositeKey.of(Collections.singletonList(new DBValue(1)),
+            NitriteId.createId("1"));
+        assertTrue(nullKey.compareTo(key) < 0);
+        assertTrue(nullKey.startsWith(Collections.singletonList(DBNull.getInstance())));
+    }
+
+    @Test
+    public void testSerialization() throws Exception {
+        CompositeKey key = CompositeKey.of(Collections.singletonList(new DBValue("a")),
+            NitriteId.createId("1"));
+
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(bos)) {
+            oos.writeObject(key);
+        }
+
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bos.toByteArray()))) {
+            CompositeKey copy = (CompositeKey) ois.readObject();
+            assertEquals(key, copy);
+            assertEquals(0, key.compareTo(copy));
+        }
+    }
+}
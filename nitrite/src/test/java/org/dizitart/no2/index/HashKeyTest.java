@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.index;
+
+import org.dizitart.no2.common.SortOrder;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.TreeMap;
+
+import static org.junit.Assert.*;
+
+public class HashKeyTest {
+
+    @Test
+    public void testCollisions() {
+        // "Aa" and "BB" share a hash, so do "a" and 97
+        assertEquals(HashKey.of("Aa").getHash(), HashKey.of("BB").getHash());
+        assertEquals(HashKey.of("a").getHash(), HashKey.of(97).getHash());
+
+        TreeMap<HashKey, String> keys = new TreeMap<>();
+        keys.put(HashKey.of("Aa"), "Aa");
+        keys.put(HashKey.of("BB"), "BB");
+        keys.put(HashKey.of("a"), "a");
+        keys.put(HashKey.of(97), "97");
+        keys.put(HashKey.of(97L), "97L");
+        keys.put(HashKey.of(null), "null");
+
+        assertEquals(6, keys.size());
+        assertEquals("Aa", keys.get(HashKey.of("Aa")));
+        assertEquals("BB", keys.get(HashKey.of("BB")));
+        assertEquals("a", keys.get(HashKey.of("a")));
+        assertEquals("97", keys.get(HashKey.of(97)));
+        assertEquals("97L", keys.get(HashKey.of(97L)));
+        assertEquals("null", keys.get(HashKey.of(null)));
+        assertNull(keys.get(HashKey.of("b")));
+    }
+
+    @Test
+    public void testEquality() {
+        assertEquals(HashKey.of("a"), HashKey.of("a"));
+        assertEquals(HashKey.of(null), HashKey.of(null));
+        assertNotEquals(HashKey.of(97), HashKey.of("a"));
+        assertNotEquals(HashKey.of(1), HashKey.of(1L));
+        assertEquals(HashKey.of("a").hashCode(), HashKey.of("a").hashCode());
+    }
+
+    @Test
+    public void testEnumHash() {
+        // the hash of an enum does not depend on the identity of the constant
+        assertEquals("Ascending".hashCode(), HashKey.of(SortOrder.Ascending).getHash());
+        assertEquals(HashKey.of(SortOrder.Ascending), HashKey.of(SortOrder.Ascending));
+        assertNotEquals(HashKey.of(SortOrder.Ascending), HashKey.of(SortOrder.Descending));
+    }
+
+    @Test
+    public void testSerialization() throws Exception {
+        HashKey key = HashKey.of("a");
+
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(bos)) {
+            oos.writeObject(key);
+        }
+
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bos.toByteArray()))) {
+            HashKey copy = (HashKey) ois.readObject();
+            assertEquals(key, copy);
+            assertEquals(key.getHash(), copy.getHash());
+            assertEquals("a", copy.getValue());
+        }
+    }
+}
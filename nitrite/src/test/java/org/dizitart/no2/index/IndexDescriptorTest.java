@@ -21,6 +21,11 @@ import org.dizitart.no2.common.Fields;
 import org.dizitart.no2.exceptions.ValidationException;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
 import static org.junit.Assert.*;
 
 public class IndexDescriptorTest {
@@ -58,5 +63,54 @@ public class IndexDescriptorTest {
         fields.addField("Field");
         assertTrue((new IndexDescriptor("Index Type", fields, "Collection Name")).isCompoundIndex());
     }
-}
 
+    @Test
+    public void testLayout() {
+        IndexDescriptor indexDescriptor = new IndexDescriptor("Index Type", new Fields(), "Collection Name");
+        assertEquals(IndexLayout.POSTING_LIST, indexDescriptor.getLayout());
+        assertNull(indexDescriptor.getOptions());
+
+        indexDescriptor.setLayout(IndexLayout.COMPOSITE_KEY);
+        assertEquals(IndexLayout.COMPOSITE_KEY, indexDescriptor.getLayout());
+
+        indexDescriptor.setLayout(IndexLayout.POSTING_LIST);
+        assertEquals(IndexLayout.POSTING_LIST, indexDescriptor.getLayout());
+        assertNull(indexDescriptor.getOptions());
+    }
+
+    @Test
+    public void testOptionsNotPartOfIdentity() {
+        IndexDescriptor indexDescriptor = new IndexDescriptor("Index Type", Fields.withNames("a"), "Collection Name");
+        IndexDescriptor other = new IndexDescriptor("Index Type", Fields.withNames("a"), "Collection Name");
+        int hashCode = indexDescriptor.hashCode();
+
+        indexDescriptor.setLayout(IndexLayout.COMPOSITE_KEY);
+        assertEquals(other, indexDescriptor);
+        assertEquals(hashCode, indexDescriptor.hashCode());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testOptionsImmutable() {
+        IndexDescriptor indexDescriptor = new IndexDescriptor("Index Type", Fields.withNames("a"), "Collection Name");
+        indexDescriptor.setLayout(IndexLayout.COMPOSITE_KEY);
+        indexDescriptor.getOptions().clear();
+    }
+
+    @Test
+    public void testSerialization() throws Exception {
+        IndexDescriptor indexDescriptor = new IndexDescriptor("Index Type",
+            Fields.withNames("a"), "Collection Name");
+        indexDescriptor.setLayout(IndexLayout.COMPOSITE_KEY);
+
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(bos)) {
+            oos.writeObject(indexDescriptor);
+        }
+
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bos.toByteArray()))) {
+            IndexDescriptor copy = (IndexDescriptor) ois.readObject();
+            assertEquals(indexDescriptor, copy);
+            assertEquals(IndexLayout.COMPOSITE_KEY, copy.getLayout());
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.index;
+
+import org.dizitart.no2.collection.Document;
+import org.dizitart.no2.exceptions.IndexingException;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.dizitart.no2.collection.Document.createDocument;
+import static org.junit.Assert.*;
+
+public class IndexExpressionTest {
+
+    @Test
+    public void testOf() {
+        IndexExpression expression = IndexExpression.of("lower", "address.email");
+        assertEquals(IndexExpression.LOWER, expression.getFunction());
+        assertEquals("address.email", expression.getField());
+        assertEquals(IndexExpression.lower("address.email"), expression);
+        assertEquals("lower(address.email)", expression.getName());
+    }
+
+    @Test(expected = IndexingException.class)
+    public void testUnknownFunction() {
+        IndexExpression.of("trim", "email");
+    }
+
+    @Test
+    public void testEvaluate() {
+        Document document = createDocument("email", "John@Example.com")
+            .put("joined", LocalDate.of(2019, 3, 1))
+            .put("created", 0L)
+            .put("tags", new String[]{"a", "b", "c"})
+            .put("roles", Arrays.asList("admin", "user"))
+            .put("count", 10);
+
+        assertEquals("john@example.com", IndexExpression.lower("email").evaluate(document));
+        assertEquals("JOHN@EXAMPLE.COM", IndexExpression.upper("email").evaluate(document));
+        assertEquals(2019, IndexExpression.year("joined").evaluate(document));
+        assertEquals(1970, IndexExpression.year("created").evaluate(document));
+        assertEquals(16, IndexExpression.length("email").evaluate(document));
+        assertEquals(3, IndexExpression.length("tags").evaluate(document));
+        assertEquals(2, IndexExpression.length("roles").evaluate(document));
+        assertEquals(0, IndexExpression.length("empty").evaluate(createDocument("empty", Collections.emptyList())));
+
+        // values the expression is not defined for
+        assertNull(IndexExpression.lower("count").evaluate(document));
+        assertNull(IndexExpression.length("count").evaluate(document));
+        assertNull(IndexExpression.year("email").evaluate(document));
+        assertNull(IndexExpression.lower("missing").evaluate(document));
+    }
+}
@@ -18,10 +18,15 @@
 package org.dizitart.no2.index;
 
 import org.dizitart.no2.collection.NitriteId;
+import org.dizitart.no2.common.DBNull;
 import org.dizitart.no2.common.DBValue;
+import org.dizitart.no2.common.tuples.Pair;
 import org.dizitart.no2.store.memory.InMemoryMap;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.TreeMap;
 import java.util.concurrent.CopyOnWriteArrayList;
@@ -53,5 +58,35 @@ public class IndexMapTest {
         assertTrue(inMemoryMap.isEmpty());
         assertNull(inMemoryMap.getStore());
     }
-}
 
+    @Test
+    public void testRangeEntries() {
+        TreeMap<DBValue, Object> navigableMap = new TreeMap<>();
+        InMemoryMap<DBValue, Object> inMemoryMap = new InMemoryMap<>("", null);
+        navigableMap.put(DBNull.getInstance(), Collections.singletonList(NitriteId.newId()));
+        inMemoryMap.put(DBNull.getInstance(), Collections.singletonList(NitriteId.newId()));
+        for (int i = 1; i <= 5; i++) {
+            navigableMap.put(new DBValue(i), Collections.singletonList(NitriteId.newId()));
+            inMemoryMap.put(new DBValue(i), Collections.singletonList(NitriteId.newId()));
+        }
+
+        for (IndexMap indexMap : Arrays.asList(new IndexMap(navigableMap), new IndexMap(inMemoryMap))) {
+            assertEquals(Arrays.asList(2, 3, 4), keys(indexMap.entries(2, true, 4, true)));
+            assertEquals(Arrays.asList(1, 2), keys(indexMap.entries(null, false, 3, false)));
+            assertEquals(Arrays.asList(4, 5), keys(indexMap.entries(3, false, null, false)));
+            assertTrue(keys(indexMap.entries(4, true, 2, true)).isEmpty());
+
+            indexMap.setReverseScan(true);
+            assertEquals(Arrays.asList(5, 4, 3, 2, 1), keys(indexMap.entries(null, false, null, false)));
+            assertEquals(Arrays.asList(3, 2), keys(indexMap.entries(1, false, 3, true)));
+        }
+    }
+
+    private List<Object> keys(Iterable<? extends Pair<Comparable<?>, ?>> entries) {
+        List<Object> keys = new ArrayList<>();
+        for (Pair<Comparable<?>, ?> entry : entries) {
+            keys.add(entry.getFirst());
+        }
+        return keys;
+    }
+}
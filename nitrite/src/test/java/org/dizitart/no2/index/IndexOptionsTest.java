@@ -9,5 +9,12 @@ public class IndexOptionsTest {
     public void testIndexOptions() {
         assertEquals("Index Type", IndexOptions.indexOptions("Index Type").getIndexType());
     }
-}
 
+    @Test
+    public void testIndexOptionsWithLayout() {
+        IndexOptions indexOptions = IndexOptions.indexOptions(IndexType.NON_UNIQUE, IndexLayout.COMPOSITE_KEY);
+        assertEquals(IndexType.NON_UNIQUE, indexOptions.getIndexType());
+        assertEquals(IndexLayout.COMPOSITE_KEY, indexOptions.getLayout());
+        assertNull(IndexOptions.indexOptions(IndexType.NON_UNIQUE).getLayout());
+    }
+}
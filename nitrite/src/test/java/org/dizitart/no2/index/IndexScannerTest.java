@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.index;
+
+import org.dizitart.no2.collection.NitriteId;
+import org.dizitart.no2.common.DBValue;
+import org.dizitart.no2.filters.ComparableFilter;
+import org.dizitart.no2.filters.FluentFilter;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class IndexScannerTest {
+    @Test
+    public void testScanIsLazy() {
+        TreeMap<DBValue, Object> navigableMap = new TreeMap<>();
+        List<NitriteId> first = Collections.singletonList(NitriteId.newId());
+        List<NitriteId> second = Collections.singletonList(NitriteId.newId());
+        navigableMap.put(new DBValue(1), first);
+        navigableMap.put(new DBValue(2), second);
+        navigableMap.put(new DBValue(3), new AbstractList<NitriteId>() {
+            @Override
+            public NitriteId get(int index) {
+                throw new AssertionError("index scanned past the consumed ids");
+            }
+
+            @Override
+            public int size() {
+                return 1;
+            }
+        });
+
+        IndexScanner indexScanner = new IndexScanner(new IndexMap(navigableMap));
+        List<ComparableFilter> filters = Collections.singletonList(
+            (ComparableFilter) FluentFilter.where("a").gt(0));
+
+        Iterator<NitriteId> iterator = indexScanner.scan(filters, null).iterator();
+        assertEquals(first.get(0), iterator.next());
+        assertEquals(second.get(0), iterator.next());
+    }
+
+    @Test
+    public void testScanOrderAndDistinct() {
+        NitriteId id1 = NitriteId.newId();
+        NitriteId id2 = NitriteId.newId();
+        NitriteId id3 = NitriteId.newId();
+        NitriteId id4 = NitriteId.newId();
+
+        TreeMap<DBValue, Object> navigableMap = new TreeMap<>();
+        navigableMap.put(new DBValue(1), Arrays.asList(id1, id2));
+        navigableMap.put(new DBValue(2), Arrays.asList(id2, id3));
+        navigableMap.put(new DBValue(3), Collections.singletonList(id4));
+
+        List<ComparableFilter> filters = Collections.singletonList(
+            (ComparableFilter) FluentFilter.where("a").gte(1));
+        IndexScanner indexScanner = new IndexScanner(new IndexMap(navigableMap));
+
+        List<NitriteId> ascending = new ArrayList<>();
+        indexScanner.scan(filters, null).forEach(ascending::add);
+        assertEquals(Arrays.asList(id1, id2, id3, id4), ascending);
+        assertEquals(new ArrayList<>(indexScanner.doScan(filters, null)), ascending);
+
+        List<NitriteId> descending = new ArrayList<>();
+        indexScanner.scan(filters, Collections.singletonMap("a", true)).forEach(descending::add);
+        assertEquals(Arrays.asList(id4, id2, id3, id1), descending);
+
+        // a single key index is not expected to repeat ids, so none is skipped
+        List<NitriteId> singleKey = new ArrayList<>();
+        new IndexScanner(new IndexMap(navigableMap), false).scan(filters, null).forEach(singleKey::add);
+        assertEquals(Arrays.asList(id1, id2, id2, id3, id4), singleKey);
+    }
+
+    @Test
+    public void testScanCompoundIndex() {
+        NitriteId id1 = NitriteId.newId();
+        NitriteId id2 = NitriteId.newId();
+
+        TreeMap<DBValue, Object> subMap1 = new TreeMap<>();
+        subMap1.put(new DBValue("x"), Collections.singletonList(id1));
+        TreeMap<DBValue, Object> subMap2 = new TreeMap<>();
+        subMap2.put(new DBValue("y"), Collections.singletonList(id2));
+
+        TreeMap<DBValue, Object> navigableMap = new TreeMap<>();
+        navigableMap.put(new DBValue(1), subMap1);
+        navigableMap.put(new DBValue(2), subMap2);
+
+        IndexScanner indexScanner = new IndexScanner(new IndexMap(navigableMap));
+        List<ComparableFilter> filters = Arrays.asList(
+            (ComparableFilter) FluentFilter.where("a").gt(0),
+            (ComparableFilter) FluentFilter.where("b").eq("y"));
+
+        List<NitriteId> result = new ArrayList<>();
+        indexScanner.scan(filters, null).forEach(result::add);
+        assertEquals(Collections.singletonList(id2), result);
+        assertFalse(indexScanner.scan(Collections.singletonList(
+            (ComparableFilter) FluentFilter.where("a").gt(2)), null).iterator().hasNext());
+    }
+
+    @Test
+    public void testCount() {
+        TreeMap<DBValue, Object> subMap1 = new TreeMap<>();
+        subMap1.put(new DBValue("x"), Arrays.asList(NitriteId.newId(), NitriteId.newId()));
+        subMap1.put(new DBValue("y"), Collections.singletonList(NitriteId.newId()));
+        TreeMap<DBValue, Object> subMap2 = new TreeMap<>();
+        subMap2.put(new DBValue("y"), new AbstractList<NitriteId>() {
+            @Override
+            public NitriteId get(int index) {
+                throw new AssertionError("ids read for a count");
+            }
+
+            @Override
+            public int size() {
+                return 5;
+            }
+        });
+
+        TreeMap<DBValue, Object> navigableMap = new TreeMap<>();
+        navigableMap.put(new DBValue(1), subMap1);
+        navigableMap.put(new DBValue(2), subMap2);
+
+        IndexScanner indexScanner = new IndexScanner(new IndexMap(navigableMap));
+        assertEquals(8, indexScanner.count(Collections.singletonList(
+            (ComparableFilter) FluentFilter.where("a").gt(0))));
+        assertEquals(6, indexScanner.count(Arrays.asList(
+            (ComparableFilter) FluentFilter.where("a").gt(0),
+            (ComparableFilter) FluentFilter.where("b").eq("y"))));
+        assertEquals(3, indexScanner.count(Collections.singletonList(
+            (ComparableFilter) FluentFilter.where("a").eq(1))));
+        assertEquals(0, indexScanner.count(Collections.singletonList(
+            (ComparableFilter) FluentFilter.where("a").gt(2))));
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.index;
+
+import org.dizitart.no2.collection.NitriteId;
+import org.dizitart.no2.common.DBValue;
+import org.dizitart.no2.common.Fields;
+import org.junit.Test;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+
+public class IndexStatisticsTest {
+    private IndexStatistics skewedStatistics() {
+        // value 0 is held by 900 entries, values 1 to 100 by one entry each
+        TreeMap<DBValue, Object> navigableMap = new TreeMap<>();
+        navigableMap.put(new DBValue(0), ids(900));
+        for (int i = 1; i <= 100; i++) {
+            navigableMap.put(new DBValue(i), ids(1));
+        }
+        return IndexStatistics.of(new IndexMap(navigableMap));
+    }
+
+    @Test
+    public void testCollect() {
+        IndexStatistics statistics = skewedStatistics();
+        assertEquals(1000, statistics.getEntryCount());
+        assertEquals(101, statistics.getDistinctKeys());
+        assertEquals(0, statistics.getModifications());
+        assertFalse(statistics.isStale());
+    }
+
+    @Test
+    public void testEstimateEquals() {
+        IndexStatistics statistics = skewedStatistics();
+        assertEquals(900, statistics.estimateEquals(0), 0.0);
+        assertEquals(1, statistics.estimateEquals(50), 0.0);
+        assertTrue(statistics.estimateEquals(500) < 10);
+        assertEquals(0, statistics.estimateEquals(null), 0.0);
+    }
+
+    @Test
+    public void testEstimateRange() {
+        IndexStatistics statistics = skewedStatistics();
+        assertEquals(1000, statistics.estimateRange(null, false, null, false), 0.0);
+        assertEquals(900, statistics.estimateRange(null, false, 0, true), 0.0);
+
+        double upper = statistics.estimateRange(50, true, null, false);
+        assertTrue(upper >= 40 && upper <= 60);
+        assertEquals(0, statistics.estimateRange(200, true, null, false), 0.0);
+        assertEquals(1000 / 3.0, statistics.estimateRange("a", true, null, false), 0.0);
+    }
+
+    @Test
+    public void testStale() {
+        IndexStatistics statistics = skewedStatistics();
+        for (int i = 0; i < 250; i++) {
+            statistics.recordWrite();
+        }
+        assertEquals(1250, statistics.getEntryCount());
+        assertFalse(statistics.isStale());
+
+        statistics.recordWrite();
+        assertTrue(statistics.isStale());
+
+        // estimates are scaled to the current entry count
+        assertEquals(900 * 1251 / 1000.0, statistics.estimateEquals(0), 0.001);
+
+        statistics.recordRemove();
+        assertEquals(1250, statistics.getEntryCount());
+        assertEquals(252, statistics.getModifications());
+    }
+
+    @Test
+    public void testEmpty() {
+        IndexStatistics statistics = IndexStatistics.of(new IndexMap(new TreeMap<DBValue, Object>()));
+        assertEquals(0, statistics.getEntryCount());
+        assertEquals(0, statistics.estimateEquals(1), 0.0);
+        assertEquals(0, statistics.estimateRange(1, true, null, false), 0.0);
+    }
+
+    @Test
+    public void testIndexMetaSerialization() throws IOException, ClassNotFoundException {
+        IndexMeta indexMeta = new IndexMeta();
+        indexMeta.setIndexDescriptor(new IndexDescriptor(IndexType.NON_UNIQUE, Fields.withNames("a"), "test"));
+        indexMeta.setIndexMap("map");
+        indexMeta.setIsDirty(new AtomicBoolean(false));
+        indexMeta.setStatistics(skewedStatistics());
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream outputStream = new ObjectOutputStream(bytes)) {
+            outputStream.writeObject(indexMeta);
+        }
+
+        try (ObjectInputStream inputStream = new ObjectInputStream(
+            new ByteArrayInputStream(bytes.toByteArray()))) {
+            IndexMeta copy = (IndexMeta) inputStream.readObject();
+            assertNotNull(copy.getStatistics());
+            assertEquals(1000, copy.getStatistics().getEntryCount());
+            assertEquals(900, copy.getStatistics().estimateEquals(0), 0.0);
+        }
+    }
+
+    private List<NitriteId> ids(int count) {
+        List<NitriteId> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ids.add(NitriteId.newId());
+        }
+        return ids;
+    }
+}
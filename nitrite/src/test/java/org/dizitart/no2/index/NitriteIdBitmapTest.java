@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.index;
+
+import org.dizitart.no2.collection.NitriteId;
+import org.dizitart.no2.exceptions.InvalidOperationException;
+import org.junit.Test;
+
+import java.io.*;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class NitriteIdBitmapTest {
+    private static NitriteId id(long value) {
+        return NitriteId.createId(Long.toString(value));
+    }
+
+    private static NitriteIdBitmap bitmap(long from, long to) {
+        NitriteIdBitmap bitmap = new NitriteIdBitmap();
+        for (long i = from; i < to; i++) {
+            bitmap.add(id(i));
+        }
+        return bitmap;
+    }
+
+    @Test
+    public void testAddRemoveContains() {
+        NitriteIdBitmap bitmap = new NitriteIdBitmap();
+        assertTrue(bitmap.isEmpty());
+
+        assertTrue(bitmap.add(id(5)));
+        assertTrue(bitmap.add(id(70000)));
+        assertFalse(bitmap.add(id(5)));
+        assertEquals(2, bitmap.size());
+        assertTrue(bitmap.contains(id(5)));
+        assertTrue(bitmap.contains(id(70000)));
+        assertFalse(bitmap.contains(id(6)));
+        assertFalse(bitmap.contains("5"));
+
+        assertTrue(bitmap.remove(id(70000)));
+        assertFalse(bitmap.remove(id(70000)));
+        assertEquals(1, bitmap.size());
+        assertFalse(bitmap.contains(id(70000)));
+
+        bitmap.clear();
+        assertTrue(bitmap.isEmpty());
+    }
+
+    @Test
+    public void testIterationOrder() {
+        NitriteIdBitmap bitmap = new NitriteIdBitmap();
+        bitmap.add(id(1L << 40));
+        bitmap.add(id(3));
+        bitmap.add(id(-2));
+        bitmap.add(id(65536));
+
+        List<NitriteId> ids = new ArrayList<>(bitmap);
+        assertEquals(Arrays.asList(id(-2), id(3), id(65536), id(1L << 40)), ids);
+    }
+
+    @Test
+    public void testDenseContainer() {
+        // more than 4096 values of a partition are kept as a bitmap container
+        NitriteIdBitmap bitmap = bitmap(0, 10000);
+        assertEquals(10000, bitmap.size());
+        assertTrue(bitmap.contains(id(4097)));
+        assertFalse(bitmap.contains(id(10000)));
+
+        for (long i = 0; i < 10000; i += 2) {
+            assertTrue(bitmap.remove(id(i)));
+        }
+        assertEquals(5000, bitmap.size());
+
+        long expected = 1;
+        for (NitriteId nitriteId : bitmap) {
+            assertEquals(id(expected), nitriteId);
+            expected += 2;
+        }
+        assertEquals(10001, expected);
+    }
+
+    @Test
+    public void testSetOperations() {
+        NitriteIdBitmap first = bitmap(0, 6000);
+        NitriteIdBitmap second = bitmap(5000, 70000);
+
+        NitriteIdBitmap and = NitriteIdBitmap.and(first, second);
+        assertEquals(1000, and.size());
+        assertTrue(and.contains(id(5000)));
+        assertFalse(and.contains(id(4999)));
+
+        NitriteIdBitmap or = NitriteIdBitmap.or(first, second);
+        assertEquals(70000, or.size());
+
+        NitriteIdBitmap andNot = NitriteIdBitmap.andNot(first, second);
+        assertEquals(5000, andNot.size());
+        assertFalse(andNot.contains(id(5000)));
+
+        // the operands are never modified
+        assertEquals(6000, first.size());
+        assertEquals(65000, second.size());
+    }
+
+    @Test
+    public void testIrregularIds() {
+        NitriteIdBitmap bitmap = new NitriteIdBitmap();
+        bitmap.add(id(7));
+        assertTrue(bitmap.add(NitriteId.createId("007")));
+        assertEquals(2, bitmap.size());
+        assertTrue(bitmap.contains(NitriteId.createId("007")));
+
+        NitriteIdBitmap other = new NitriteIdBitmap(Collections.singletonList(NitriteId.createId("007")));
+        assertEquals(1, NitriteIdBitmap.and(bitmap, other).size());
+        assertEquals(1, NitriteIdBitmap.andNot(bitmap, other).size());
+    }
+
+    @Test
+    public void testCopy() {
+        NitriteIdBitmap bitmap = bitmap(0, 5000);
+        NitriteIdBitmap copy = new NitriteIdBitmap(bitmap);
+        copy.remove(id(1));
+        assertTrue(bitmap.contains(id(1)));
+        assertEquals(5000, bitmap.size());
+        assertEquals(4999, copy.size());
+    }
+
+    @Test(expected = InvalidOperationException.class)
+    public void testIteratorRemove() {
+        Iterator<NitriteId> iterator = bitmap(0, 2).iterator();
+        iterator.next();
+        iterator.remove();
+    }
+
+    @Test
+    public void testByteArray() {
+        NitriteIdBitmap bitmap = bitmap(0, 5000);
+        bitmap.add(id(1L << 40));
+        bitmap.add(NitriteId.createId("007"));
+
+        NitriteIdBitmap copy = NitriteIdBitmap.fromByteArray(bitmap.toByteArray());
+        assertEquals(bitmap, copy);
+        assertEquals(new ArrayList<>(bitmap), new ArrayList<>(copy));
+    }
+
+    @Test
+    public void testSerialization() throws IOException, ClassNotFoundException {
+        NitriteIdBitmap bitmap = bitmap(100, 200);
+        bitmap.add(NitriteId.newId());
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+            output.writeObject(bitmap);
+        }
+
+        try (ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            NitriteIdBitmap copy = (NitriteIdBitmap) input.readObject();
+            assertEquals(bitmap, copy);
+        }
+    }
+}
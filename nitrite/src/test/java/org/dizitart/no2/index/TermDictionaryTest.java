@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.index;
+
+import org.dizitart.no2.common.Fields;
+import org.dizitart.no2.store.memory.InMemoryStore;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import static org.junit.Assert.*;
+
+public class TermDictionaryTest {
+    private TermDictionary termDictionary;
+
+    @Before
+    public void setUp() {
+        IndexDescriptor indexDescriptor = new IndexDescriptor(IndexType.FULL_TEXT,
+            Fields.withNames("body"), "test");
+        indexDescriptor.setSubstringSearch(true);
+        termDictionary = new TermDictionary(indexDescriptor, new InMemoryStore());
+        for (String term : Arrays.asList("walking", "talking", "walker", "stalk", "king", "banana")) {
+            termDictionary.addTerm(term);
+        }
+    }
+
+    @Test
+    public void testFindBySuffix() {
+        assertEquals(new HashSet<>(Arrays.asList("walking", "talking", "king")),
+            termDictionary.findBySuffix("king"));
+        assertEquals(new HashSet<>(Arrays.asList("stalk")), termDictionary.findBySuffix("alk"));
+        assertTrue(termDictionary.findBySuffix("xyz").isEmpty());
+    }
+
+    @Test
+    public void testFindBySubstring() {
+        assertEquals(new HashSet<>(Arrays.asList("walking", "talking", "walker", "stalk")),
+            termDictionary.findBySubstring("alk"));
+        assertEquals(new HashSet<>(Arrays.asList("walking", "walker")),
+            termDictionary.findBySubstring("walk"));
+        assertEquals(new HashSet<>(Arrays.asList("banana")), termDictionary.findBySubstring("anana"));
+
+        // all the trigrams of the substring are found in the term, but not in sequence
+        assertTrue(termDictionary.findBySubstring("nanan").isEmpty());
+        assertTrue(termDictionary.findBySubstring("xyz").isEmpty());
+
+        // too short to be searched by the trigrams
+        assertNull(termDictionary.findBySubstring("al"));
+    }
+
+    @Test
+    public void testRemoveTerm() {
+        termDictionary.removeTerm("walking");
+        assertEquals(new HashSet<>(Arrays.asList("talking", "king")), termDictionary.findBySuffix("king"));
+        assertEquals(new HashSet<>(Arrays.asList("walker")), termDictionary.findBySubstring("walk"));
+
+        termDictionary.removeTerm("walker");
+        assertTrue(termDictionary.findBySubstring("walk").isEmpty());
+    }
+
+    @Test
+    public void testDrop() {
+        termDictionary.drop();
+        assertTrue(termDictionary.findBySuffix("king").isEmpty());
+        assertTrue(termDictionary.findBySubstring("alk").isEmpty());
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.index;
+
+import org.dizitart.no2.collection.NitriteId;
+import org.dizitart.no2.common.Fields;
+import org.dizitart.no2.common.tuples.Pair;
+import org.dizitart.no2.index.fulltext.EnglishTextTokenizer;
+import org.dizitart.no2.index.fulltext.TextTokenizer;
+import org.dizitart.no2.store.memory.InMemoryStore;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class TermPositionsTest {
+    private final TextTokenizer textTokenizer = new EnglishTextTokenizer();
+    private TermPositions termPositions;
+    private NitriteId firstId;
+    private NitriteId secondId;
+
+    @Before
+    public void setUp() {
+        IndexDescriptor indexDescriptor = new IndexDescriptor(IndexType.FULL_TEXT,
+            Fields.withNames("body"), "test");
+        indexDescriptor.setPositional(true);
+        termPositions = new TermPositions(indexDescriptor, new InMemoryStore());
+
+        firstId = NitriteId.newId();
+        secondId = NitriteId.newId();
+        termPositions.write(firstId, tokenize("The quick brown fox jumps over the lazy dog"));
+        termPositions.write(secondId, tokenize("A brown dog chases the quick fox"));
+    }
+
+    @Test
+    public void testTokenize() {
+        List<Pair<String, Integer>> terms = tokenize("The quick brown fox");
+        assertEquals(Arrays.asList(new Pair<>("quick", 1), new Pair<>("brown", 2),
+            new Pair<>("fox", 3)), terms);
+
+        // a gap is left between two texts
+        terms = TermPositions.tokenize(textTokenizer, Arrays.asList("quick", "fox"));
+        assertEquals(Arrays.asList(new Pair<>("quick", 0),
+            new Pair<>("fox", TermPositions.TEXT_POSITION_GAP + 1)), terms);
+
+        // a phrase skipping a stop-word does not span two texts
+        terms = TermPositions.tokenize(textTokenizer, Arrays.asList("the quick", "brown fox"));
+        assertFalse(TermPositions.containsPhrase(terms, tokenize("quick and brown")));
+    }
+
+    @Test
+    public void testContainsPhrase() {
+        List<Pair<String, Integer>> text = tokenize("The quick brown fox jumps over the lazy dog");
+        assertTrue(TermPositions.containsPhrase(text, tokenize("brown fox")));
+        assertTrue(TermPositions.containsPhrase(text, tokenize("jumps over the lazy")));
+        assertFalse(TermPositions.containsPhrase(text, tokenize("fox brown")));
+        assertFalse(TermPositions.containsPhrase(text, tokenize("quick fox")));
+        assertFalse(TermPositions.containsPhrase(text, tokenize("the")));
+    }
+
+    @Test
+    public void testFindPhrase() {
+        assertEquals(Collections.singleton(firstId), termPositions.findPhrase(tokenize("quick brown")));
+        assertEquals(Collections.singleton(secondId), termPositions.findPhrase(tokenize("quick fox")));
+        assertEquals(new HashSet<>(Arrays.asList(firstId, secondId)),
+            termPositions.findPhrase(tokenize("fox")));
+
+        // a stop word keeps the distance between the words around it
+        assertEquals(Collections.singleton(firstId), termPositions.findPhrase(tokenize("jumps over the lazy")));
+        assertTrue(termPositions.findPhrase(tokenize("jumps lazy")).isEmpty());
+        assertTrue(termPositions.findPhrase(tokenize("brown cat")).isEmpty());
+    }
+
+    @Test
+    public void testRemove() {
+        termPositions.remove(firstId, textTokenizer.tokenizeAll("The quick brown fox jumps over the lazy dog"));
+        assertTrue(termPositions.findPhrase(tokenize("quick brown")).isEmpty());
+        assertEquals(Collections.singleton(secondId), termPositions.findPhrase(tokenize("fox")));
+    }
+
+    @Test
+    public void testDrop() {
+        termPositions.drop();
+        assertTrue(termPositions.findPhrase(tokenize("fox")).isEmpty());
+    }
+
+    private List<Pair<String, Integer>> tokenize(String text) {
+        return TermPositions.tokenize(textTokenizer, Collections.singletonList(text));
+    }
+}
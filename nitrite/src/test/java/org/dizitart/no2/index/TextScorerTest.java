@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.index;
+
+import org.dizitart.no2.collection.NitriteId;
+import org.dizitart.no2.common.Fields;
+import org.dizitart.no2.store.memory.InMemoryStore;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class TextScorerTest {
+    private TextScorer textScorer;
+    private NitriteId shortId;
+    private NitriteId longId;
+    private NitriteId frequentId;
+
+    @Before
+    public void setUp() {
+        IndexDescriptor indexDescriptor = new IndexDescriptor(IndexType.FULL_TEXT,
+            Fields.withNames("body"), "test");
+        indexDescriptor.setScored(true);
+        textScorer = new TextScorer(indexDescriptor, new InMemoryStore());
+
+        shortId = NitriteId.newId();
+        longId = NitriteId.newId();
+        frequentId = NitriteId.newId();
+        textScorer.write(shortId, Arrays.asList("apple", "pie"));
+        textScorer.write(longId, Arrays.asList("apple", "tart", "with", "fresh", "cream"));
+        textScorer.write(frequentId, Arrays.asList("apple", "apple", "crumble", "cream", "cake"));
+    }
+
+    @Test
+    public void testScore() {
+        Map<NitriteId, Double> scores = textScorer.score(Collections.singleton("apple"));
+        assertEquals(3, scores.size());
+        assertTrue(scores.get(shortId) > scores.get(longId));
+        assertTrue(scores.get(frequentId) > scores.get(longId));
+
+        // a rare term weighs more than a common one
+        scores = textScorer.score(new HashSet<>(Arrays.asList("apple", "pie", "cream")));
+        assertTrue(scores.get(shortId) > scores.get(longId));
+        assertTrue(textScorer.score(Collections.singleton("pie")).get(shortId)
+            > textScorer.score(Collections.singleton("apple")).get(shortId));
+
+        assertTrue(textScorer.score(Collections.singleton("banana")).isEmpty());
+    }
+
+    @Test
+    public void testRemove() {
+        textScorer.remove(shortId, Arrays.asList("apple", "pie"));
+        Map<NitriteId, Double> scores = textScorer.score(Collections.singleton("apple"));
+        assertEquals(2, scores.size());
+        assertFalse(scores.containsKey(shortId));
+        assertTrue(textScorer.score(Collections.singleton("pie")).isEmpty());
+    }
+
+    @Test
+    public void testDrop() {
+        textScorer.drop();
+        assertTrue(textScorer.score(Collections.singleton("apple")).isEmpty());
+    }
+}
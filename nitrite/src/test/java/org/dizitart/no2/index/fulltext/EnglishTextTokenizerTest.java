@@ -2,6 +2,7 @@ package org.dizitart.no2.index.fulltext;
 
 import org.junit.Test;
 
+import java.util.Arrays;
 import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
@@ -18,6 +19,15 @@ public class EnglishTextTokenizerTest {
         assertEquals(Languages.English, (new EnglishTextTokenizer()).getLanguage());
     }
 
+    @Test
+    public void testTokenizeAll() {
+        EnglishTextTokenizer tokenizer = new EnglishTextTokenizer();
+        assertEquals(Arrays.asList("apple", "pie", "apple", "tart"),
+            tokenizer.tokenizeAll("Apple pie and the apple tart"));
+        assertEquals(3, tokenizer.tokenize("Apple pie and the apple tart").size());
+        assertTrue(tokenizer.tokenizeAll("").isEmpty());
+    }
+
     @Test
     public void testStopWords() {
         Set<String> actualStopWordsResult = (new EnglishTextTokenizer()).stopWords();
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.index.fulltext;
+
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class LevenshteinAutomatonTest {
+    @Test
+    public void testAccepts() {
+        LevenshteinAutomaton automaton = new LevenshteinAutomaton("kitten", 2);
+        assertTrue(automaton.accepts("kitten"));
+        assertTrue(automaton.accepts("sitten"));
+        assertTrue(automaton.accepts("sittin"));
+        assertTrue(automaton.accepts("kitte"));
+        assertTrue(automaton.accepts("kittens"));
+        assertFalse(automaton.accepts("sitting"));
+        assertFalse(automaton.accepts("mitt"));
+
+        assertEquals(0, automaton.distance("kitten"));
+        assertEquals(1, automaton.distance("kittens"));
+        assertEquals(2, automaton.distance("sittin"));
+        assertEquals(3, automaton.distance("sitting"));
+    }
+
+    @Test
+    public void testNext() {
+        LevenshteinAutomaton automaton = new LevenshteinAutomaton("fox", 1);
+        // the smallest string after a rejected term, which can be accepted
+        assertEquals("bfox", automaton.next("bar"));
+        assertEquals("foox", automaton.next("food"));
+        assertEquals("fzox", automaton.next("fz"));
+        assertEquals("{fox", automaton.next("zzz"));
+        assertNull(automaton.next("\uffff\uffff"));
+
+        for (String term : Arrays.asList("a", "fa", "fox", "foxes", "gox", "oxen")) {
+            String next = automaton.next(term);
+            assertTrue(next == null || next.compareTo(term) > 0);
+        }
+    }
+
+    @Test
+    public void testIntersection() {
+        Random random = new Random(42);
+        for (int i = 0; i < 200; i++) {
+            TreeSet<String> terms = new TreeSet<>();
+            for (int j = 0; j < 100; j++) {
+                terms.add(randomWord(random));
+            }
+
+            String word = randomWord(random);
+            int maxEdits = 1 + random.nextInt(2);
+            LevenshteinAutomaton automaton = new LevenshteinAutomaton(word, maxEdits);
+
+            // seeking through the sorted terms finds all the accepted terms
+            List<String> expected = new ArrayList<>();
+            for (String term : terms) {
+                if (automaton.accepts(term)) {
+                    expected.add(term);
+                }
+            }
+
+            List<String> actual = new ArrayList<>();
+            String term = terms.first();
+            while (term != null) {
+                if (automaton.accepts(term)) {
+                    actual.add(term);
+                    term = terms.higher(term);
+                } else {
+                    String next = automaton.next(term);
+                    term = next == null ? null : terms.ceiling(next);
+                }
+            }
+            assertEquals(expected, actual);
+        }
+    }
+
+    private String randomWord(Random random) {
+        StringBuilder word = new StringBuilder();
+        int length = 1 + random.nextInt(6);
+        for (int i = 0; i < length; i++) {
+            word.append((char) ('a' + random.nextInt(4)));
+        }
+        return word.toString();
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.integration.collection;
+
+import org.dizitart.no2.collection.Document;
+import org.dizitart.no2.collection.events.CollectionEventInfo;
+import org.dizitart.no2.collection.events.CollectionEventListener;
+import org.dizitart.no2.collection.events.EventType;
+import org.dizitart.no2.common.WriteResult;
+import org.dizitart.no2.common.processors.Processor;
+import org.dizitart.no2.exceptions.UniqueConstraintException;
+import org.dizitart.no2.exceptions.ValidationException;
+import org.dizitart.no2.index.IndexType;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.awaitility.Awaitility.await;
+import static org.dizitart.no2.collection.BulkWriteOptions.bulkWriteOptions;
+import static org.dizitart.no2.collection.Document.createDocument;
+import static org.dizitart.no2.common.Constants.DOC_MODIFIED;
+import static org.dizitart.no2.common.Constants.DOC_REVISION;
+import static org.dizitart.no2.filters.FluentFilter.where;
+import static org.dizitart.no2.index.IndexOptions.indexOptions;
+import static org.junit.Assert.*;
+
+public class CollectionBulkInsertTest extends BaseCollectionTest {
+
+    @Test
+    public void testInsertMany() {
+        WriteResult result = collection.insertMany(Arrays.asList(doc1, doc2, doc3));
+        assertEquals(3, result.getAffectedCount());
+        assertEquals(3, collection.size());
+
+        for (Document document : collection.find()) {
+            assertEquals(1, (int) document.get(DOC_REVISION, Integer.class));
+            assertNotNull(document.get(DOC_MODIFIED));
+        }
+    }
+
+    @Test
+    public void testInsertManyInChunks() {
+        collection.createIndex(indexOptions(IndexType.UNIQUE), "index");
+        collection.createIndex(indexOptions(IndexType.NON_UNIQUE), "group");
+
+        List<CollectionEventInfo<?>> events = new CopyOnWriteArrayList<>();
+        collection.subscribe(new CollectionEventListener() {
+            @Override
+            public void onEvent(CollectionEventInfo<?> eventInfo) {
+                events.add(eventInfo);
+            }
+
+            @Override
+            public boolean acceptsBulkEvents() {
+                return true;
+            }
+        });
+
+        List<CollectionEventInfo<?>> insertEvents = new CopyOnWriteArrayList<>();
+        collection.subscribe(insertEvents::add);
+
+        List<Document> documents = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            documents.add(createDocument("index", i).put("group", i % 3));
+        }
+
+        WriteResult result = collection.insertMany(documents, bulkWriteOptions(10));
+        assertEquals(25, result.getAffectedCount());
+        assertEquals(25, collection.size());
+
+        assertEquals(1, collection.find(where("index").eq(17)).size());
+        assertEquals(9, collection.find(where("group").eq(0)).size());
+        assertEquals(5, collection.find(where("index").gte(20)).size());
+
+        await().until(() -> events.size() == 3);
+        for (CollectionEventInfo<?> event : events) {
+            assertEquals(EventType.BulkInsert, event.getEventType());
+        }
+        int total = 0;
+        for (CollectionEventInfo<?> event : events) {
+            total += ((List<?>) event.getItem()).size();
+        }
+        assertEquals(25, total);
+
+        await().until(() -> insertEvents.size() == 25);
+        for (CollectionEventInfo<?> event : insertEvents) {
+            assertEquals(EventType.Insert, event.getEventType());
+            assertTrue(event.getItem() instanceof Document);
+        }
+    }
+
+    @Test
+    public void testInsertManyRollbackChunk() {
+        collection.createIndex(indexOptions(IndexType.UNIQUE), "index");
+        collection.createIndex(indexOptions(IndexType.NON_UNIQUE), "group");
+
+        List<Document> documents = new ArrayList<>();
+        for (int i = 0; i < 9; i++) {
+            documents.add(createDocument("index", i).put("group", i % 2));
+        }
+        // duplicate in the second chunk
+        documents.add(createDocument("index", 6).put("group", 0));
+        documents.add(createDocument("index", 9).put("group", 1));
+
+        boolean failed = false;
+        try {
+            collection.insertMany(documents, bulkWriteOptions(5));
+        } catch (UniqueConstraintException e) {
+            failed = true;
+        }
+        assertTrue(failed);
+
+        // first chunk is intact, the failing chunk is rolled back and the rest is never inserted
+        assertEquals(5, collection.size());
+        assertEquals(0, collection.find(where("index").eq(6)).size());
+        assertEquals(3, collection.find(where("group").eq(0)).size());
+
+        // the index is still usable for the rolled back values
+        collection.insert(createDocument("index", 6));
+        assertEquals(1, collection.find(where("index").eq(6)).size());
+    }
+
+    @Test
+    public void testInsertManyFailingProcessor() {
+        collection.createIndex(indexOptions(IndexType.NON_UNIQUE), "group");
+        collection.addProcessor(new Processor() {
+            @Override
+            public Document processBeforeWrite(Document document) {
+                if (document.containsKey("invalid")) {
+                    throw new IllegalStateException("invalid document");
+                }
+                return document;
+            }
+        });
+
+        List<Document> documents = new ArrayList<>();
+        for (int i = 0; i < 9; i++) {
+            documents.add(createDocument("index", i).put("group", i % 2));
+        }
+        // the second chunk fails on its last document
+        documents.get(8).put("invalid", true);
+
+        boolean failed = false;
+        try {
+            collection.insertMany(documents, bulkWriteOptions(5));
+        } catch (IllegalStateException e) {
+            failed = true;
+        }
+        assertTrue(failed);
+
+        // none of the documents processed before the failing one is left behind
+        assertEquals(5, collection.size());
+        assertEquals(0, collection.find(where("index").eq(5)).size());
+        assertEquals(3, collection.find(where("group").eq(0)).size());
+    }
+
+    @Test
+    public void testInsertManyDuplicateId() {
+        collection.insert(doc1);
+        Document duplicate = collection.find().firstOrNull();
+
+        boolean failed = false;
+        try {
+            collection.insertMany(Arrays.asList(doc2, duplicate, doc3));
+        } catch (UniqueConstraintException e) {
+            failed = true;
+        }
+        assertTrue(failed);
+        assertEquals(1, collection.size());
+    }
+
+    @Test(expected = ValidationException.class)
+    public void testInsertManyNullDocument() {
+        collection.insertMany(Arrays.asList(doc1, null));
+    }
+}
@@ -0,0 +1,247 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.integration.collection;
+
+import org.dizitart.no2.collection.Document;
+import org.dizitart.no2.collection.DocumentCursor;
+import org.dizitart.no2.common.SortOrder;
+import org.dizitart.no2.exceptions.IndexingException;
+import org.dizitart.no2.exceptions.UniqueConstraintException;
+import org.dizitart.no2.index.IndexDescriptor;
+import org.dizitart.no2.index.IndexLayout;
+import org.dizitart.no2.index.IndexType;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.dizitart.no2.collection.Document.createDocument;
+import static org.dizitart.no2.collection.FindOptions.orderBy;
+import static org.dizitart.no2.filters.FluentFilter.where;
+import static org.dizitart.no2.index.IndexOptions.indexOptions;
+import static org.junit.Assert.*;
+
+public class CollectionCompositeKeyIndexTest extends BaseCollectionTest {
+
+    @Test
+    public void testCreateIndex() {
+        collection.createIndex(indexOptions(IndexType.NON_UNIQUE, IndexLayout.COMPOSITE_KEY), "lastName");
+        assertTrue(collection.hasIndex("lastName"));
+
+        IndexDescriptor indexDescriptor = findIndex("lastName");
+        assertEquals(IndexType.NON_UNIQUE, indexDescriptor.getIndexType());
+        assertEquals(IndexLayout.COMPOSITE_KEY, indexDescriptor.getLayout());
+    }
+
+    @Test
+    public void testFindByIndex() {
+        insert();
+        collection.createIndex(indexOptions(IndexType.NON_UNIQUE, IndexLayout.COMPOSITE_KEY), "lastName");
+
+        DocumentCursor cursor = collection.find(where("lastName").eq("ln2"));
+        assertNotNull(cursor.getFindPlan().getIndexScanFilter());
+        assertEquals(2, cursor.size());
+        assertEquals(1, collection.find(where("lastName").eq("ln1")).size());
+        assertEquals(0, collection.find(where("lastName").eq("ln3")).size());
+
+        assertEquals(2, collection.find(where("lastName").gt("ln1")).size());
+        assertEquals(3, collection.find(where("lastName").gte("ln1")).size());
+        assertEquals(1, collection.find(where("lastName").lt("ln2")).size());
+        assertEquals(3, collection.find(where("lastName").lte("ln2")).size());
+        assertEquals(3, collection.find(where("lastName").between("ln1", "ln2")).size());
+        assertEquals(3, collection.find(where("lastName").in("ln1", "ln2")).size());
+        assertEquals(1, collection.find(where("lastName").notIn("ln2")).size());
+    }
+
+    @Test
+    public void testFindByMultiKeyIndex() {
+        insert();
+        collection.createIndex(indexOptions(IndexType.NON_UNIQUE, IndexLayout.COMPOSITE_KEY), "list");
+
+        assertEquals(2, collection.find(where("list").eq("three")).size());
+        assertEquals(1, collection.find(where("list").eq("four")).size());
+        assertEquals(1, collection.find(where("list").eq("one")).size());
+    }
+
+    @Test
+    public void testSortByIndex() {
+        insert();
+        collection.createIndex(indexOptions(IndexType.NON_UNIQUE, IndexLayout.COMPOSITE_KEY), "lastName");
+
+        List<String> firstNames = new ArrayList<>();
+        for (Document document : collection.find(where("lastName").gte("ln1"),
+            orderBy("lastName", SortOrder.Descending))) {
+            firstNames.add(document.get("lastName", String.class));
+        }
+        assertEquals(Arrays.asList("ln2", "ln2", "ln1"), firstNames);
+    }
+
+    @Test
+    public void testUpdateAndRemove() {
+        insert();
+        collection.createIndex(indexOptions(IndexType.NON_UNIQUE, IndexLayout.COMPOSITE_KEY), "lastName");
+
+        collection.update(where("firstName").eq("fn3"), createDocument("lastName", "ln3"));
+        assertEquals(1, collection.find(where("lastName").eq("ln2")).size());
+        assertEquals(1, collection.find(where("lastName").eq("ln3")).size());
+
+        collection.remove(where("lastName").eq("ln2"));
+        assertEquals(0, collection.find(where("lastName").eq("ln2")).size());
+        assertEquals(2, collection.find(where("lastName").gte("ln1")).size());
+    }
+
+    @Test
+    public void testNullValues() {
+        collection.createIndex(indexOptions(IndexType.NON_UNIQUE, IndexLayout.COMPOSITE_KEY), "lastName");
+        insert();
+        collection.insert(createDocument("firstName", "fn4"));
+
+        assertEquals(1, collection.find(where("lastName").eq(null)).size());
+        assertEquals(3, collection.find(where("lastName").gte("ln1")).size());
+    }
+
+    @Test
+    public void testMigrateLayout() {
+        insert();
+        collection.createIndex(indexOptions(IndexType.NON_UNIQUE), "lastName");
+        assertEquals(IndexLayout.POSTING_LIST, findIndex("lastName").getLayout());
+
+        assertEquals(2, indexMapSize("$nitrite_index|test|lastName|NonUnique"));
+
+        collection.createIndex(indexOptions(IndexType.NON_UNIQUE, IndexLayout.COMPOSITE_KEY), "lastName");
+        assertEquals(IndexLayout.COMPOSITE_KEY, findIndex("lastName").getLayout());
+        assertEquals(2, collection.find(where("lastName").eq("ln2")).size());
+        assertEquals(3, collection.find(where("lastName").gte("ln1")).size());
+
+        // one entry per document in a map of its own
+        assertFalse(db.getStore().hasMap("$nitrite_index|test|lastName|NonUnique"));
+        assertEquals(3, indexMapSize("$nitrite_index|test|lastName|NonUnique|CompositeKey"));
+
+        // creating the index again without layout keeps the existing layout
+        collection.createIndex(indexOptions(IndexType.NON_UNIQUE), "lastName");
+        assertEquals(IndexLayout.COMPOSITE_KEY, findIndex("lastName").getLayout());
+
+        collection.createIndex(indexOptions(IndexType.NON_UNIQUE, IndexLayout.POSTING_LIST), "lastName");
+        assertEquals(IndexLayout.POSTING_LIST, findIndex("lastName").getLayout());
+        assertEquals(2, collection.find(where("lastName").eq("ln2")).size());
+
+        assertFalse(db.getStore().hasMap("$nitrite_index|test|lastName|NonUnique|CompositeKey"));
+        assertEquals(2, indexMapSize("$nitrite_index|test|lastName|NonUnique"));
+    }
+
+    @Test
+    public void testUniqueIndex() {
+        insert();
+        collection.createIndex(indexOptions(IndexType.UNIQUE, IndexLayout.COMPOSITE_KEY), "firstName");
+        assertEquals(1, collection.find(where("firstName").eq("fn2")).size());
+
+        // updating a document with its own value does not violate the constraint
+        collection.update(where("firstName").eq("fn2"), createDocument("firstName", "fn2"));
+
+        boolean failed = false;
+        try {
+            collection.insert(createDocument("firstName", "fn1"));
+        } catch (UniqueConstraintException e) {
+            failed = true;
+        }
+        assertTrue(failed);
+        assertEquals(3, collection.size());
+        assertEquals(1, collection.find(where("firstName").eq("fn1")).size());
+    }
+
+    @Test
+    public void testCompoundIndex() {
+        insert();
+        collection.createIndex(indexOptions(IndexType.NON_UNIQUE), "lastName", "firstName");
+        assertEquals(IndexLayout.COMPOSITE_KEY, findIndex("lastName", "firstName").getLayout());
+
+        DocumentCursor cursor = collection.find(where("lastName").eq("ln2").and(where("firstName").eq("fn3")));
+        assertNotNull(cursor.getFindPlan().getIndexScanFilter());
+        assertEquals(1, cursor.size());
+        assertEquals("fn3", cursor.firstOrNull().get("firstName"));
+
+        assertEquals(2, collection.find(where("lastName").eq("ln2")).size());
+        assertEquals(1, collection.find(where("lastName").eq("ln2").and(where("firstName").gt("fn2"))).size());
+        assertEquals(2, collection.find(where("lastName").gte("ln1").and(where("firstName").lte("fn2"))).size());
+        assertEquals(2, collection.find(where("lastName").in("ln1", "ln2")
+            .and(where("firstName").in("fn1", "fn3"))).size());
+
+        List<String> firstNames = new ArrayList<>();
+        for (Document document : collection.find(where("lastName").gte("ln1").and(where("firstName").gte("fn1")),
+            orderBy("lastName", SortOrder.Descending).thenOrderBy("firstName", SortOrder.Descending))) {
+            firstNames.add(document.get("firstName", String.class));
+        }
+        assertEquals(Arrays.asList("fn3", "fn2", "fn1"), firstNames);
+
+        collection.remove(where("firstName").eq("fn3"));
+        assertEquals(1, collection.find(where("lastName").eq("ln2")).size());
+        assertEquals(0, collection.find(where("lastName").eq("ln2").and(where("firstName").eq("fn3"))).size());
+    }
+
+    @Test
+    public void testCompoundMultiKeyIndex() {
+        insert();
+        collection.createIndex(indexOptions(IndexType.NON_UNIQUE), "list", "lastName");
+
+        assertEquals(2, collection.find(where("list").eq("three").and(where("lastName").gte("ln1"))).size());
+        assertEquals(1, collection.find(where("list").eq("three").and(where("lastName").eq("ln2"))).size());
+    }
+
+    @Test(expected = IndexingException.class)
+    public void testCompoundIndexOnArrayField() {
+        collection.createIndex(indexOptions(IndexType.NON_UNIQUE), "lastName", "list");
+        insert();
+    }
+
+    @Test
+    public void testCompoundIndexWithPostingList() {
+        insert();
+        collection.createIndex(indexOptions(IndexType.NON_UNIQUE, IndexLayout.POSTING_LIST), "lastName", "firstName");
+        assertEquals(IndexLayout.POSTING_LIST, findIndex("lastName", "firstName").getLayout());
+        assertEquals(1, collection.find(where("lastName").eq("ln2").and(where("firstName").eq("fn3"))).size());
+
+        collection.createIndex(indexOptions(IndexType.NON_UNIQUE, IndexLayout.COMPOSITE_KEY), "lastName", "firstName");
+        assertEquals(IndexLayout.COMPOSITE_KEY, findIndex("lastName", "firstName").getLayout());
+        assertEquals(1, collection.find(where("lastName").eq("ln2").and(where("firstName").eq("fn3"))).size());
+    }
+
+    @Test(expected = IndexingException.class)
+    public void testFullTextIndex() {
+        collection.createIndex(indexOptions(IndexType.FULL_TEXT, IndexLayout.COMPOSITE_KEY), "body");
+    }
+
+    @Test(expected = IndexingException.class)
+    public void testUnknownLayout() {
+        collection.createIndex(indexOptions(IndexType.NON_UNIQUE, "Unknown"), "firstName");
+    }
+
+    private IndexDescriptor findIndex(String... fields) {
+        for (IndexDescriptor indexDescriptor : collection.listIndices()) {
+            if (indexDescriptor.getFields().getFieldNames().equals(Arrays.asList(fields))) {
+                return indexDescriptor;
+            }
+        }
+        return null;
+    }
+
+    private long indexMapSize(String mapName) {
+        assertTrue(db.getStore().hasMap(mapName));
+        return db.getStore().openMap(mapName, Object.class, Object.class).size();
+    }
+}
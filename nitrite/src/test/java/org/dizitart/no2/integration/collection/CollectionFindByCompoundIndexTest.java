@@ -21,6 +21,7 @@ import org.dizitart.no2.collection.Document;
 import org.dizitart.no2.collection.DocumentCursor;
 import org.dizitart.no2.collection.FindOptions;
 import org.dizitart.no2.collection.FindPlan;
+import org.dizitart.no2.collection.NitriteCollection;
 import org.dizitart.no2.common.SortOrder;
 import org.dizitart.no2.common.tuples.Pair;
 import org.dizitart.no2.filters.AndFilter;
@@ -29,6 +30,7 @@ import org.dizitart.no2.index.IndexType;
 import org.junit.Test;
 
 import java.text.ParseException;
+import java.util.Arrays;
 import java.util.List;
 
 import static org.dizitart.no2.collection.Document.createDocument;
@@ -550,4 +552,46 @@ public class CollectionFindByCompoundIndexTest extends BaseCollectionTest {
         // reverse scan
         assertTrue(findPlan.getIndexScanOrder().get("birthDay"));
     }
+
+    @Test
+    public void testCoveredProjection() {
+        NitriteCollection nitriteCollection = db.getCollection("testCoveredProjection");
+        nitriteCollection.createIndex("city", "age");
+        for (int i = 0; i < 20; i++) {
+            nitriteCollection.insert(createDocument("city", "c" + (i % 2))
+                .put("age", i)
+                .put("name", "n" + i));
+        }
+        nitriteCollection.insert(createDocument("city", "c1").put("name", "unknown"));
+
+        // the ages are read from the index, a missing age from the document
+        Document projection = createDocument("age", null);
+        List<Document> documents = nitriteCollection.find(where("city").eq("c1")).project(projection).toList();
+        assertEquals(11, documents.size());
+        assertTrue(documents.get(0).getFields().isEmpty());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(createDocument("age", 2 * i + 1), documents.get(i + 1));
+        }
+
+        projection = createDocument("city", null).put("age", null);
+        documents = nitriteCollection.find(and(where("city").eq("c0"), where("age").gt(4)),
+            FindOptions.skipBy(1).limit(2)).project(projection).toList();
+        assertEquals(2, documents.size());
+        assertEquals(createDocument("city", "c0").put("age", 8), documents.get(0));
+        assertEquals(createDocument("city", "c0").put("age", 10), documents.get(1));
+
+        // a field outside of the index is read from the document
+        projection = createDocument("name", null);
+        documents = nitriteCollection.find(where("city").eq("c0")).project(projection).toList();
+        assertEquals(10, documents.size());
+        assertEquals("n0", documents.get(0).get("name"));
+
+        // an array in the first field is not read from the index
+        nitriteCollection.insert(createDocument("city", Arrays.asList("c2", "c3")).put("age", 50));
+        projection = createDocument("city", null).put("age", null);
+        documents = nitriteCollection.find(where("city").eq("c3")).project(projection).toList();
+        assertEquals(1, documents.size());
+        assertEquals(Arrays.asList("c2", "c3"), documents.get(0).get("city"));
+        assertEquals(50, documents.get(0).get("age"));
+    }
 }
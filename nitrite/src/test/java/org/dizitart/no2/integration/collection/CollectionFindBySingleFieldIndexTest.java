@@ -20,11 +20,19 @@ package org.dizitart.no2.integration.collection;
 import com.github.javafaker.Faker;
 import org.dizitart.no2.collection.Document;
 import org.dizitart.no2.collection.DocumentCursor;
+import org.dizitart.no2.collection.FindPlan;
 import org.dizitart.no2.collection.NitriteCollection;
+import org.dizitart.no2.collection.NitriteId;
+import org.dizitart.no2.common.Fields;
 import org.dizitart.no2.common.SortOrder;
 import org.dizitart.no2.exceptions.FilterException;
+import org.dizitart.no2.exceptions.IndexingException;
+import org.dizitart.no2.filters.Filter;
+import org.dizitart.no2.index.IndexLayout;
+import org.dizitart.no2.index.IndexMeta;
 import org.dizitart.no2.index.IndexOptions;
 import org.dizitart.no2.index.IndexType;
+import org.dizitart.no2.store.NitriteMap;
 import org.junit.Test;
 
 import java.text.ParseException;
@@ -32,8 +40,12 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.dizitart.no2.integration.TestUtil.isSorted;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.awaitility.Awaitility.await;
+import static org.dizitart.no2.common.util.IndexUtils.deriveIndexMetaMapName;
 import static org.dizitart.no2.collection.FindOptions.orderBy;
 import static org.dizitart.no2.filters.Filter.and;
 import static org.dizitart.no2.filters.Filter.or;
@@ -627,4 +639,404 @@ public class CollectionFindBySingleFieldIndexTest extends BaseCollectionTest {
 
         assertArrayEquals(nonIndexedResult, indexedResult);
     }
+
+    @Test
+    public void testSortByIndexBetween() {
+        NitriteCollection nitriteCollection = db.getCollection("testSortByIndexBetween");
+        List<Integer> integerList = Arrays.asList(1, 2, 3, 3, 4, 5, 6);
+        integerList.forEach(i -> {
+            Document doc = Document.createDocument();
+            doc.put("name", i);
+            nitriteCollection.insert(doc);
+        });
+        nitriteCollection.insert(Document.createDocument("name", null));
+
+        List<Integer[]> nonIndexedResults = new ArrayList<>();
+        for (SortOrder sortOrder : SortOrder.values()) {
+            nonIndexedResults.add(findBetween(nitriteCollection, 2, 5, true, true, sortOrder));
+            nonIndexedResults.add(findBetween(nitriteCollection, 2, 5, false, false, sortOrder));
+            nonIndexedResults.add(findBetween(nitriteCollection, 3, 3, false, true, sortOrder));
+            nonIndexedResults.add(findBetween(nitriteCollection, 5, 2, true, true, sortOrder));
+        }
+
+        nitriteCollection.createIndex(IndexOptions.indexOptions(IndexType.NON_UNIQUE), "name");
+
+        List<Integer[]> indexedResults = new ArrayList<>();
+        for (SortOrder sortOrder : SortOrder.values()) {
+            indexedResults.add(findBetween(nitriteCollection, 2, 5, true, true, sortOrder));
+            indexedResults.add(findBetween(nitriteCollection, 2, 5, false, false, sortOrder));
+            indexedResults.add(findBetween(nitriteCollection, 3, 3, false, true, sortOrder));
+            indexedResults.add(findBetween(nitriteCollection, 5, 2, true, true, sortOrder));
+        }
+
+        assertArrayEquals(new Integer[]{2, 3, 3, 4, 5}, indexedResults.get(0));
+        assertArrayEquals(new Integer[]{4, 3, 3}, indexedResults.get(5));
+        assertEquals(0, indexedResults.get(2).length);
+        assertEquals(0, indexedResults.get(3).length);
+        for (int i = 0; i < nonIndexedResults.size(); i++) {
+            assertArrayEquals(nonIndexedResults.get(i), indexedResults.get(i));
+        }
+    }
+
+    @Test
+    public void testSortByIndexWithLimit() {
+        NitriteCollection nitriteCollection = db.getCollection("testSortByIndexWithLimit");
+        for (int i = 0; i < 50; i++) {
+            nitriteCollection.insert(Document.createDocument("name", i % 25).put("seq", i));
+        }
+
+        List<Integer[]> nonIndexedResults = new ArrayList<>();
+        for (SortOrder sortOrder : SortOrder.values()) {
+            nonIndexedResults.add(findWithLimit(nitriteCollection, 10, 3, 7, sortOrder));
+            nonIndexedResults.add(findWithLimit(nitriteCollection, 20, 0, 100, sortOrder));
+            nonIndexedResults.add(findWithLimit(nitriteCollection, 0, 45, 10, sortOrder));
+        }
+
+        nitriteCollection.createIndex(IndexOptions.indexOptions(IndexType.NON_UNIQUE), "name");
+
+        List<Integer[]> indexedResults = new ArrayList<>();
+        for (SortOrder sortOrder : SortOrder.values()) {
+            indexedResults.add(findWithLimit(nitriteCollection, 10, 3, 7, sortOrder));
+            indexedResults.add(findWithLimit(nitriteCollection, 20, 0, 100, sortOrder));
+            indexedResults.add(findWithLimit(nitriteCollection, 0, 45, 10, sortOrder));
+        }
+
+        assertArrayEquals(new Integer[]{12, 13, 13, 14, 14, 15, 15}, indexedResults.get(0));
+        assertArrayEquals(new Integer[]{23, 22, 22, 21, 21, 20, 20}, indexedResults.get(3));
+        assertEquals(8, indexedResults.get(1).length);
+        assertEquals(3, indexedResults.get(2).length);
+        for (int i = 0; i < nonIndexedResults.size(); i++) {
+            assertArrayEquals(nonIndexedResults.get(i), indexedResults.get(i));
+        }
+
+        DocumentCursor cursor = nitriteCollection.find(where("name").gt(10),
+            orderBy("name", SortOrder.Ascending).skip(3).limit(7));
+        assertNotNull(cursor.getFindPlan().getIndexScanFilter());
+        assertTrue(cursor.getFindPlan().getBlockingSortOrder().isEmpty());
+        assertEquals(7, cursor.size());
+    }
+
+    @Test
+    public void testIndexSelectionByStatistics() {
+        NitriteCollection nitriteCollection = db.getCollection("testIndexSelectionByStatistics");
+        nitriteCollection.createIndex(IndexOptions.indexOptions(IndexType.NON_UNIQUE), "category");
+        nitriteCollection.createIndex(IndexOptions.indexOptions(IndexType.NON_UNIQUE), "status");
+
+        // every category is rare, while almost every document is active
+        for (int i = 0; i < 500; i++) {
+            nitriteCollection.insert(Document.createDocument("category", i % 100)
+                .put("status", i % 50 == 0 ? "closed" : "active"));
+        }
+
+        // the statistics made stale by the inserts are collected again in
+        // background, the find which notices it is planned without them
+        Filter rareCategory = and(where("category").eq(7), where("status").eq("active"));
+        nitriteCollection.find(rareCategory);
+        await().atMost(5, SECONDS).until(() -> "category".equals(nitriteCollection.find(rareCategory)
+            .getFindPlan().getIndexDescriptor().getFields().getEncodedName()));
+
+        DocumentCursor cursor = nitriteCollection.find(rareCategory);
+        assertEquals("category", cursor.getFindPlan().getIndexDescriptor().getFields().getEncodedName());
+        assertEquals(5, cursor.size());
+
+        cursor = nitriteCollection.find(and(where("category").gt(5),
+            where("status").eq("closed")));
+        assertEquals("status", cursor.getFindPlan().getIndexDescriptor().getFields().getEncodedName());
+        assertEquals(5, cursor.size());
+    }
+
+    @Test
+    public void testIndexIntersection() {
+        NitriteCollection nitriteCollection = db.getCollection("testIndexIntersection");
+        nitriteCollection.createIndex(IndexOptions.indexOptions(IndexType.NON_UNIQUE), "country");
+        nitriteCollection.createIndex(IndexOptions.indexOptions(IndexType.NON_UNIQUE), "tier");
+
+        // neither a country nor a tier is rare, but both together are
+        for (int i = 0; i < 400; i++) {
+            nitriteCollection.insert(Document.createDocument("country", "c" + (i % 4))
+                .put("tier", i % 3 == 0 ? "gold" : (i % 3 == 1 ? "silver" : "bronze"))
+                .put("active", i % 2 == 0));
+        }
+
+        DocumentCursor cursor = nitriteCollection.find(and(where("country").eq("c1"),
+            where("tier").eq("gold"), where("active").eq(false)));
+        FindPlan findPlan = cursor.getFindPlan();
+        assertNotNull(findPlan.getIndexDescriptor());
+        assertEquals(1, findPlan.getIntersectingPlans().size());
+        assertEquals(where("active").eq(false), findPlan.getCollectionScanFilter());
+
+        List<Document> documents = cursor.toList();
+        assertEquals(33, documents.size());
+        for (Document document : documents) {
+            assertEquals("c1", document.get("country"));
+            assertEquals("gold", document.get("tier"));
+            assertEquals(false, document.get("active"));
+        }
+
+        cursor = nitriteCollection.find(and(where("country").eq("c1"), where("tier").eq("none")));
+        assertEquals(1, cursor.getFindPlan().getIntersectingPlans().size());
+        assertEquals(0, cursor.size());
+    }
+
+    @Test
+    public void testBitmapLayout() {
+        NitriteCollection nitriteCollection = db.getCollection("testBitmapLayout");
+        nitriteCollection.createIndex(IndexOptions.indexOptions(IndexType.NON_UNIQUE, IndexLayout.BITMAP), "tier");
+        nitriteCollection.createIndex(IndexOptions.indexOptions(IndexType.FULL_TEXT, IndexLayout.BITMAP), "notes");
+
+        for (int i = 0; i < 300; i++) {
+            nitriteCollection.insert(Document.createDocument("tier", i % 3)
+                .put("notes", i % 2 == 0 ? "quick brown fox" : "lazy dog"));
+        }
+
+        assertEquals(100, nitriteCollection.find(where("tier").eq(1)).size());
+        assertEquals(200, nitriteCollection.find(where("tier").gt(0)).size());
+        assertEquals(200, nitriteCollection.find(where("tier").in(0, 2)).size());
+        assertEquals(150, nitriteCollection.find(where("notes").text("fox")).size());
+        assertEquals(150, nitriteCollection.find(where("notes").text("fo*")).size());
+        assertEquals(300, nitriteCollection.find(where("notes").text("*o*")).size());
+
+        nitriteCollection.update(where("tier").eq(1), Document.createDocument("tier", 2));
+        assertEquals(0, nitriteCollection.find(where("tier").eq(1)).size());
+        assertEquals(200, nitriteCollection.find(where("tier").eq(2)).size());
+
+        nitriteCollection.remove(where("notes").text("lazy"));
+        assertEquals(150, nitriteCollection.find(where("tier").gte(0)).size());
+        assertEquals(0, nitriteCollection.find(where("notes").text("dog")).size());
+    }
+
+    @Test(expected = IndexingException.class)
+    public void testBitmapLayoutOnUniqueIndex() {
+        NitriteCollection nitriteCollection = db.getCollection("testBitmapLayoutOnUniqueIndex");
+        nitriteCollection.createIndex(IndexOptions.indexOptions(IndexType.UNIQUE, IndexLayout.BITMAP), "tier");
+    }
+
+    @Test
+    public void testMigrateBitmapLayout() {
+        NitriteCollection nitriteCollection = db.getCollection("testMigrateBitmapLayout");
+        nitriteCollection.createIndex(IndexOptions.indexOptions(IndexType.NON_UNIQUE), "tier");
+        for (int i = 0; i < 300; i++) {
+            nitriteCollection.insert(Document.createDocument("tier", i % 3));
+        }
+
+        nitriteCollection.createIndex(IndexOptions.indexOptions(IndexType.NON_UNIQUE, IndexLayout.BITMAP), "tier");
+        assertEquals(100, nitriteCollection.find(where("tier").eq(1)).size());
+        assertEquals(200, nitriteCollection.find(where("tier").gt(0)).size());
+        assertFalse(db.getStore().hasMap("$nitrite_index|testMigrateBitmapLayout|tier|NonUnique"));
+        assertTrue(db.getStore().hasMap("$nitrite_index|testMigrateBitmapLayout|tier|NonUnique|Bitmap"));
+
+        nitriteCollection.insert(Document.createDocument("tier", 1));
+        nitriteCollection.createIndex(IndexOptions.indexOptions(IndexType.NON_UNIQUE, IndexLayout.POSTING_LIST), "tier");
+        assertEquals(101, nitriteCollection.find(where("tier").eq(1)).size());
+        assertEquals(201, nitriteCollection.find(where("tier").gt(0)).size());
+        assertTrue(db.getStore().hasMap("$nitrite_index|testMigrateBitmapLayout|tier|NonUnique"));
+        assertFalse(db.getStore().hasMap("$nitrite_index|testMigrateBitmapLayout|tier|NonUnique|Bitmap"));
+    }
+
+    @Test
+    public void testCount() {
+        NitriteCollection nitriteCollection = db.getCollection("testCount");
+        nitriteCollection.createIndex(IndexOptions.indexOptions(IndexType.NON_UNIQUE), "tier");
+        nitriteCollection.createIndex(IndexOptions.indexOptions(IndexType.NON_UNIQUE), "tags");
+
+        for (int i = 0; i < 300; i++) {
+            nitriteCollection.insert(Document.createDocument("tier", i % 3)
+                .put("tags", i % 2 == 0 ? Arrays.asList("a", "b", "a") : Arrays.asList("b"))
+                .put("active", i % 5 == 0));
+        }
+
+        assertEquals(300, nitriteCollection.count(Filter.ALL));
+        assertEquals(100, nitriteCollection.count(where("tier").eq(1)));
+        assertEquals(200, nitriteCollection.count(where("tier").gt(0)));
+
+        // a document with many tags is counted once
+        assertEquals(150, nitriteCollection.count(where("tags").eq("a")));
+        assertEquals(300, nitriteCollection.count(where("tags").in("a", "b")));
+
+        assertEquals(200, nitriteCollection.count(or(where("tier").eq(0), where("tags").eq("a"))));
+        assertEquals(140, nitriteCollection.count(or(where("tier").eq(0), where("active").eq(true))));
+        assertEquals(nitriteCollection.find(and(where("tier").eq(0), where("tags").eq("a"))).size(),
+            nitriteCollection.count(and(where("tier").eq(0), where("tags").eq("a"))));
+        assertEquals(20, nitriteCollection.count(and(where("tier").eq(0), where("active").eq(true))));
+        assertEquals(nitriteCollection.find(where("active").eq(true)).size(),
+            nitriteCollection.count(where("active").eq(true)));
+
+        NitriteId nitriteId = nitriteCollection.find(where("tier").eq(2)).firstOrNull().getId();
+        assertEquals(1, nitriteCollection.count(where("_id").eq(nitriteId.getIdValue())));
+        assertEquals(1, nitriteCollection.count(and(where("_id").eq(nitriteId.getIdValue()),
+            where("tier").eq(2))));
+
+        nitriteCollection.remove(where("tier").eq(1));
+        assertEquals(0, nitriteCollection.count(where("tier").eq(1)));
+        assertEquals(100, nitriteCollection.count(where("tier").gt(0)));
+        assertEquals(200, nitriteCollection.count(Filter.ALL));
+    }
+
+    @Test
+    public void testHashIndex() {
+        NitriteCollection nitriteCollection = db.getCollection("testHashIndex");
+        nitriteCollection.createIndex(IndexOptions.indexOptions(IndexType.HASH), "email");
+
+        for (int i = 0; i < 100; i++) {
+            Object email = i % 10 == 0 ? Arrays.asList("user" + i + "@a.com", "alias" + i + "@a.com")
+                : "user" + i + "@a.com";
+            nitriteCollection.insert(Document.createDocument("email", email).put("rank", i));
+        }
+        nitriteCollection.insert(Document.createDocument("rank", 100));
+
+        DocumentCursor cursor = nitriteCollection.find(where("email").eq("user5@a.com"));
+        assertEquals(IndexType.HASH, cursor.getFindPlan().getIndexDescriptor().getIndexType());
+        assertEquals(1, cursor.size());
+        assertEquals(5, (int) cursor.firstOrNull().get("rank", Integer.class));
+
+        assertEquals(1, nitriteCollection.find(where("email").eq("alias20@a.com")).size());
+        assertEquals(1, nitriteCollection.find(where("email").eq(null)).size());
+        assertEquals(0, nitriteCollection.find(where("email").eq("none@a.com")).size());
+
+        // a document found under several values is returned once
+        cursor = nitriteCollection.find(where("email").in("user30@a.com", "alias30@a.com", "user31@a.com"));
+        assertEquals(IndexType.HASH, cursor.getFindPlan().getIndexDescriptor().getIndexType());
+        assertEquals(2, cursor.size());
+
+        // sorting does not use a hash index
+        cursor = nitriteCollection.find(where("email").in("user1@a.com", "user2@a.com", "user3@a.com"),
+            orderBy("email", SortOrder.Descending));
+        assertFalse(cursor.getFindPlan().getBlockingSortOrder().isEmpty());
+        assertEquals(Arrays.asList(3, 2, 1), cursor.toList().stream()
+            .map(d -> d.get("rank", Integer.class)).collect(Collectors.toList()));
+
+        nitriteCollection.update(where("email").eq("user5@a.com"), Document.createDocument("email", "new5@a.com"));
+        assertEquals(0, nitriteCollection.find(where("email").eq("user5@a.com")).size());
+        assertEquals(1, nitriteCollection.find(where("email").eq("new5@a.com")).size());
+
+        nitriteCollection.remove(where("email").eq("new5@a.com"));
+        assertEquals(0, nitriteCollection.find(where("email").eq("new5@a.com")).size());
+        assertEquals(100, nitriteCollection.size());
+    }
+
+    @Test
+    public void testHashIndexWithBitmapLayout() {
+        NitriteCollection nitriteCollection = db.getCollection("testHashIndexWithBitmapLayout");
+        nitriteCollection.createIndex(IndexOptions.indexOptions(IndexType.HASH, IndexLayout.BITMAP), "tier");
+
+        for (int i = 0; i < 300; i++) {
+            nitriteCollection.insert(Document.createDocument("tier", "t" + (i % 3)));
+        }
+
+        assertEquals(100, nitriteCollection.find(where("tier").eq("t1")).size());
+        assertEquals(200, nitriteCollection.find(where("tier").in("t0", "t2")).size());
+
+        // ranges do not use a hash index
+        DocumentCursor cursor = nitriteCollection.find(where("tier").gt("t1"));
+        assertNull(cursor.getFindPlan().getIndexDescriptor());
+        assertEquals(100, cursor.size());
+
+        nitriteCollection.remove(where("tier").eq("t1"));
+        assertEquals(0, nitriteCollection.find(where("tier").eq("t1")).size());
+        assertEquals(200, nitriteCollection.count(where("tier").in("t0", "t1", "t2")));
+    }
+
+    @Test(expected = IndexingException.class)
+    public void testCompoundHashIndex() {
+        NitriteCollection nitriteCollection = db.getCollection("testCompoundHashIndex");
+        nitriteCollection.createIndex(IndexOptions.indexOptions(IndexType.HASH), "email", "rank");
+    }
+
+    @Test
+    public void testIndexStatisticsWrittenOnCommit() {
+        NitriteCollection nitriteCollection = db.getCollection("testIndexStatisticsWrittenOnCommit");
+        nitriteCollection.createIndex(IndexOptions.indexOptions(IndexType.NON_UNIQUE), "category");
+        for (int i = 0; i < 10; i++) {
+            nitriteCollection.insert(Document.createDocument("category", i % 3));
+        }
+
+        // the entry counts kept in memory are written to the index meta on commit
+        db.commit();
+        NitriteMap<Fields, IndexMeta> indexMetaMap = db.getStore().openMap(
+            deriveIndexMetaMapName("testIndexStatisticsWrittenOnCommit"), Fields.class, IndexMeta.class);
+        IndexMeta indexMeta = indexMetaMap.get(Fields.withNames("category"));
+        assertNotNull(indexMeta.getStatistics());
+        assertEquals(10, indexMeta.getStatistics().getEntryCount());
+    }
+
+    private Integer[] findWithLimit(NitriteCollection nitriteCollection, int lower,
+                                    int skip, int limit, SortOrder sortOrder) {
+        DocumentCursor cursor = nitriteCollection.find(where("name").gt(lower),
+            orderBy("name", sortOrder).skip(skip).limit(limit));
+        return cursor.toList().stream().map(d -> d.get("name", Integer.class)).toArray(Integer[]::new);
+    }
+
+    private Integer[] findBetween(NitriteCollection nitriteCollection, int lower, int upper,
+                                  boolean lowerInclusive, boolean upperInclusive, SortOrder sortOrder) {
+        DocumentCursor cursor = nitriteCollection.find(
+            where("name").between(lower, upper, lowerInclusive, upperInclusive),
+            orderBy("name", sortOrder));
+        return cursor.toList().stream().map(d -> d.get("name", Integer.class)).toArray(Integer[]::new);
+    }
+
+    @Test
+    public void testFindByIndexInFilter() {
+        NitriteCollection nitriteCollection = db.getCollection("testFindByIndexInFilter");
+        List<Integer> integerList = Arrays.asList(5, 1, 3, 3, 4, 2, 6);
+        integerList.forEach(i -> nitriteCollection.insert(Document.createDocument("name", i)));
+        nitriteCollection.insert(Document.createDocument("name", null));
+
+        Comparable<?>[] largeList = new Comparable<?>[300];
+        for (int i = 0; i < largeList.length; i++) {
+            largeList[i] = i % 2 == 0 ? i : -i;
+        }
+
+        List<Integer[]> nonIndexedResults = new ArrayList<>();
+        for (SortOrder sortOrder : SortOrder.values()) {
+            nonIndexedResults.add(findIn(nitriteCollection, sortOrder, 6, 3, 42, 1));
+            nonIndexedResults.add(findIn(nitriteCollection, sortOrder, largeList));
+        }
+
+        nitriteCollection.createIndex(IndexOptions.indexOptions(IndexType.NON_UNIQUE), "name");
+
+        List<Integer[]> indexedResults = new ArrayList<>();
+        for (SortOrder sortOrder : SortOrder.values()) {
+            indexedResults.add(findIn(nitriteCollection, sortOrder, 6, 3, 42, 1));
+            indexedResults.add(findIn(nitriteCollection, sortOrder, largeList));
+        }
+
+        assertArrayEquals(new Integer[]{1, 3, 3, 6}, indexedResults.get(0));
+        assertArrayEquals(new Integer[]{6, 4, 2}, indexedResults.get(3));
+        for (int i = 0; i < nonIndexedResults.size(); i++) {
+            assertArrayEquals(nonIndexedResults.get(i), indexedResults.get(i));
+        }
+
+        DocumentCursor cursor = nitriteCollection.find(where("name").in(6, 3, 42, 1));
+        assertNotNull(cursor.getFindPlan().getIndexScanFilter());
+        assertEquals(4, cursor.size());
+    }
+
+    @Test
+    public void testFindByIndexInFilterOnArrayField() {
+        NitriteCollection nitriteCollection = db.getCollection("testFindByIndexInFilterOnArrayField");
+        nitriteCollection.insert(Document.createDocument("tags", Arrays.asList(1, 2)));
+        nitriteCollection.insert(Document.createDocument("tags", Arrays.asList(3, 4)));
+        nitriteCollection.insert(Document.createDocument("tags", 5L));
+        nitriteCollection.insert(Document.createDocument("tags", 1.0));
+
+        // an array matches by any of its items, a number only
+        // matches a value of the same type, with or without an index
+        assertEquals(1, nitriteCollection.find(where("tags").in(2, 5, 1)).size());
+        assertEquals(3, nitriteCollection.find(where("tags").notIn(2, 5)).size());
+
+        nitriteCollection.createIndex(IndexOptions.indexOptions(IndexType.NON_UNIQUE), "tags");
+
+        DocumentCursor cursor = nitriteCollection.find(where("tags").in(2, 5, 1));
+        assertNotNull(cursor.getFindPlan().getIndexScanFilter());
+        assertEquals(1, cursor.size());
+
+        cursor = nitriteCollection.find(where("tags").notIn(2, 5));
+        assertNull(cursor.getFindPlan().getIndexScanFilter());
+        assertEquals(3, cursor.size());
+    }
+
+    private Integer[] findIn(NitriteCollection nitriteCollection, SortOrder sortOrder, Comparable<?>... values) {
+        DocumentCursor cursor = nitriteCollection.find(where("name").in(values), orderBy("name", sortOrder));
+        return cursor.toList().stream().map(d -> d.get("name", Integer.class)).toArray(Integer[]::new);
+    }
 }
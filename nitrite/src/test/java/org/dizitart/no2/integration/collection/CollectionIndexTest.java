@@ -17,21 +17,43 @@
 
 package org.dizitart.no2.integration.collection;
 
+import org.dizitart.no2.Nitrite;
 import org.dizitart.no2.collection.Document;
 import org.dizitart.no2.collection.DocumentCursor;
+import org.dizitart.no2.collection.FindOptions;
 import org.dizitart.no2.collection.NitriteCollection;
+import org.dizitart.no2.collection.events.EventType;
+import org.dizitart.no2.common.SortOrder;
 import org.dizitart.no2.common.WriteResult;
+import org.dizitart.no2.exceptions.FilterException;
+import org.dizitart.no2.exceptions.IndexingException;
+import org.dizitart.no2.exceptions.UniqueConstraintException;
 import org.dizitart.no2.filters.Filter;
+import org.dizitart.no2.index.IndexBuildProgress;
 import org.dizitart.no2.index.IndexDescriptor;
+import org.dizitart.no2.index.IndexLayout;
+import org.dizitart.no2.index.IndexOptions;
 import org.dizitart.no2.index.IndexType;
+import org.dizitart.no2.index.TtlSweepMetrics;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.List;
 import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import static org.awaitility.Awaitility.await;
 import static org.dizitart.no2.collection.Document.createDocument;
 import static org.dizitart.no2.filters.FluentFilter.where;
+import static org.dizitart.no2.index.IndexDefinition.indexDefinition;
+import static org.dizitart.no2.index.IndexExpression.*;
 import static org.dizitart.no2.index.IndexOptions.indexOptions;
 import static org.junit.Assert.*;
 
@@ -238,4 +260,595 @@ public class CollectionIndexTest extends BaseCollectionTest {
         collection.createIndex(indexOptions(IndexType.NON_UNIQUE), "third");
         assertEquals(collection.find(where("third").eq(null)).size(), 2);
     }
+
+    @Test
+    public void testCreateIndexes() {
+        NitriteCollection collection = db.getCollection("create-indexes");
+        for (int i = 0; i < 2500; i++) {
+            collection.insert(createDocument("id", i)
+                .put("group", i % 7)
+                .put("tags", new String[]{"t" + (i % 3), "t" + (i % 5)})
+                .put("text", i % 2 == 0 ? "quick fox" : "lazy dog"));
+        }
+
+        collection.createIndexes(Arrays.asList(
+            indexDefinition(null, "id"),
+            indexDefinition(indexOptions(IndexType.NON_UNIQUE), "group"),
+            indexDefinition(indexOptions(IndexType.NON_UNIQUE, IndexLayout.BITMAP), "tags"),
+            indexDefinition(indexOptions(IndexType.FULL_TEXT), "text")));
+
+        assertEquals(4, collection.listIndices().size());
+        assertTrue(collection.hasIndex("id"));
+        assertTrue(collection.hasIndex("group"));
+        assertTrue(collection.hasIndex("tags"));
+        assertTrue(collection.hasIndex("text"));
+        assertFalse(collection.isIndexing("group"));
+
+        assertEquals(1, collection.find(where("id").eq(1234)).size());
+        assertEquals(357, collection.find(where("group").eq(3)).size());
+        assertEquals(1166, collection.find(where("tags").eq("t1")).size());
+        assertEquals(1250, collection.find(where("text").text("fox")).size());
+
+        // existing indexes are left as they are
+        collection.createIndexes(Arrays.asList(
+            indexDefinition(indexOptions(IndexType.NON_UNIQUE), "group"),
+            indexDefinition(indexOptions(IndexType.NON_UNIQUE), "text2")));
+        assertTrue(collection.hasIndex("text2"));
+        assertEquals(357, collection.find(where("group").eq(3)).size());
+    }
+
+    @Test
+    public void testCreateIndexesInvalid() {
+        NitriteCollection collection = db.getCollection("create-indexes-invalid");
+        collection.insert(createDocument("first", 1).put("second", 1));
+        collection.insert(createDocument("first", 2).put("second", 1));
+        collection.createIndex(indexOptions(IndexType.NON_UNIQUE), "first");
+
+        try {
+            collection.createIndexes(Arrays.asList(
+                indexDefinition(indexOptions(IndexType.NON_UNIQUE), "second"),
+                indexDefinition(indexOptions(IndexType.NON_UNIQUE), "second")));
+            fail("index defined twice");
+        } catch (IndexingException e) {
+            assertFalse(collection.hasIndex("second"));
+        }
+
+        try {
+            collection.createIndexes(Arrays.asList(
+                indexDefinition(indexOptions(IndexType.NON_UNIQUE), "second"),
+                indexDefinition(indexOptions(IndexType.UNIQUE), "first")));
+            fail("index exists with another type");
+        } catch (IndexingException e) {
+            // no index is left half created
+            assertFalse(collection.hasIndex("second"));
+        }
+
+        try {
+            collection.createIndexes(Collections.singletonList(indexDefinition(null, "second")));
+            fail("duplicate values in unique index");
+        } catch (UniqueConstraintException e) {
+            assertFalse(collection.isIndexing("second"));
+        }
+    }
+
+    @Test
+    public void testPartialIndex() {
+        NitriteCollection collection = db.getCollection("partial-index");
+        for (int i = 0; i < 1000; i++) {
+            collection.insert(createDocument("id", i)
+                .put("status", i % 10 == 0 ? "PENDING" : "DONE")
+                .put("priority", i % 5));
+        }
+
+        IndexOptions indexOptions = indexOptions(IndexType.NON_UNIQUE);
+        indexOptions.setPartialFilter(where("status").eq("PENDING"));
+        collection.createIndex(indexOptions, "priority");
+
+        IndexDescriptor indexDescriptor = collection.listIndices().iterator().next();
+        assertTrue(indexDescriptor.isPartialIndex());
+        assertEquals(Collections.singletonMap("status", "PENDING"), indexDescriptor.getPartialFilter());
+
+        // the query implies the filter of the index
+        DocumentCursor cursor = collection.find(Filter.and(where("status").eq("PENDING"),
+            where("priority").eq(0)));
+        assertEquals(100, cursor.size());
+        assertEquals(indexDescriptor, cursor.getFindPlan().getIndexDescriptor());
+        assertNull(cursor.getFindPlan().getCollectionScanFilter());
+
+        // the index does not have all the matching documents
+        cursor = collection.find(where("priority").eq(0));
+        assertEquals(200, cursor.size());
+        assertNull(cursor.getFindPlan().getIndexDescriptor());
+
+        cursor = collection.find(Filter.and(where("status").eq("DONE"), where("priority").eq(0)));
+        assertEquals(100, cursor.size());
+        assertNull(cursor.getFindPlan().getIndexDescriptor());
+
+        // documents moving in and out of the index
+        collection.insert(createDocument("id", 1000).put("status", "PENDING").put("priority", 3));
+        assertEquals(1, collection.find(Filter.and(where("status").eq("PENDING"),
+            where("priority").eq(3))).size());
+
+        collection.update(where("id").eq(1), createDocument("status", "PENDING"));
+        assertEquals(1, collection.find(Filter.and(where("status").eq("PENDING"),
+            where("priority").eq(1))).size());
+
+        collection.update(where("id").eq(0), createDocument("status", "DONE"));
+        collection.remove(where("id").eq(10));
+        assertEquals(98, collection.find(Filter.and(where("status").eq("PENDING"),
+            where("priority").eq(0))).size());
+
+        // a different filter migrates the index
+        indexOptions = indexOptions(IndexType.NON_UNIQUE);
+        indexOptions.setPartialFilter(where("status").eq("DONE"));
+        collection.createIndex(indexOptions, "priority");
+        cursor = collection.find(Filter.and(where("status").eq("DONE"), where("priority").eq(0)));
+        assertEquals(101, cursor.size());
+        assertNotNull(cursor.getFindPlan().getIndexDescriptor());
+    }
+
+    @Test(expected = IndexingException.class)
+    public void testPartialIndexInvalidFilter() {
+        NitriteCollection collection = db.getCollection("partial-index-invalid");
+        IndexOptions indexOptions = indexOptions(IndexType.NON_UNIQUE);
+        indexOptions.setPartialFilter(where("priority").gt(1));
+        collection.createIndex(indexOptions, "status");
+    }
+
+    @Test
+    public void testExpressionIndex() {
+        NitriteCollection collection = db.getCollection("expression-index");
+        for (int i = 0; i < 100; i++) {
+            collection.insert(createDocument("email", "User" + i + "@Example.com")
+                .put("createdAt", new GregorianCalendar(2020 + i % 3, Calendar.JUNE, 15).getTime())
+                .put("tags", new ArrayList<>(Collections.nCopies(i % 4, "tag"))));
+        }
+
+        collection.createIndex(indexOptions(IndexType.UNIQUE, lower("email")), lower("email").getName());
+        collection.createIndex(indexOptions(IndexType.NON_UNIQUE, year("createdAt")), year("createdAt").getName());
+        assertTrue(collection.hasIndex("lower(email)"));
+        assertFalse(collection.hasIndex("email"));
+
+        // case-insensitive lookup on the index
+        DocumentCursor cursor = collection.find(where(lower("email")).eq("user7@example.com"));
+        assertEquals(1, cursor.size());
+        assertEquals("User7@Example.com", cursor.firstOrNull().get("email"));
+        assertNotNull(cursor.getFindPlan().getIndexDescriptor());
+        assertNull(cursor.getFindPlan().getCollectionScanFilter());
+
+        cursor = collection.find(where(year("createdAt")).eq(2021));
+        assertEquals(33, cursor.size());
+        assertNotNull(cursor.getFindPlan().getIndexDescriptor());
+
+        // an expression without index is computed on a collection scan
+        cursor = collection.find(where(length("tags")).gte(2));
+        assertEquals(50, cursor.size());
+        assertNull(cursor.getFindPlan().getIndexDescriptor());
+
+        // the index follows the field of the expression
+        collection.update(where("email").eq("User7@Example.com"),
+            createDocument("email", "New7@Example.com"));
+        assertEquals(0, collection.find(where(lower("email")).eq("user7@example.com")).size());
+        assertEquals(1, collection.find(where(lower("email")).eq("new7@example.com")).size());
+
+        boolean uniqueError = false;
+        try {
+            collection.insert(createDocument("email", "NEW7@example.COM"));
+        } catch (UniqueConstraintException e) {
+            uniqueError = true;
+        }
+        assertTrue(uniqueError);
+    }
+
+    @Test
+    public void testFieldNamedLikeExpression() {
+        NitriteCollection collection = db.getCollection("expression-name");
+        for (int i = 0; i < 10; i++) {
+            collection.insert(createDocument("email", "User" + i + "@Example.com")
+                .put("lower(email)", "stored" + (9 - i)));
+        }
+
+        // a field with the name of an expression is read as it is
+        collection.createIndex(IndexOptions.indexOptions(IndexType.UNIQUE), "lower(email)");
+        DocumentCursor cursor = collection.find(where("lower(email)").eq("stored2"));
+        assertEquals(1, cursor.size());
+        assertEquals("User7@Example.com", cursor.firstOrNull().get("email"));
+        assertNotNull(cursor.getFindPlan().getIndexDescriptor());
+        assertEquals(0, collection.find(where(lower("email")).eq("stored2")).size());
+
+        cursor = collection.find(FindOptions.orderBy("lower(email)", SortOrder.Ascending));
+        assertEquals("User9@Example.com", cursor.firstOrNull().get("email"));
+
+        // an expression index does not serve a sort on the stored field
+        collection.dropAllIndices();
+        collection.createIndex(indexOptions(IndexType.NON_UNIQUE, lower("email")), lower("email").getName());
+        cursor = collection.find(FindOptions.orderBy("lower(email)", SortOrder.Ascending));
+        assertEquals("User9@Example.com", cursor.firstOrNull().get("email"));
+        assertNull(cursor.getFindPlan().getIndexDescriptor());
+    }
+
+    @Test(expected = IndexingException.class)
+    public void testExpressionNotOnIndexField() {
+        NitriteCollection collection = db.getCollection("expression-field");
+        collection.createIndex(indexOptions(IndexType.NON_UNIQUE, lower("email")), "email");
+    }
+
+    @Test
+    public void testTtlIndex() {
+        // only this database sweeps the expired documents often
+        Nitrite ttlDb = Nitrite.builder()
+                .fieldSeparator(".")
+                .ttlSweepInterval(100)
+                .openOrCreate();
+        try {
+            NitriteCollection collection = ttlDb.getCollection("ttl-index");
+            long now = System.currentTimeMillis();
+            for (int i = 0; i < 3000; i++) {
+                collection.insert(createDocument("key", i)
+                    .put("expiresAt", i % 3 == 0 ? now - 1000 : now + 3600000));
+            }
+            // a document without expiry time never expires
+            collection.insert(createDocument("key", -1));
+
+            List<TtlSweepMetrics> metrics = new CopyOnWriteArrayList<>();
+            collection.subscribe(eventInfo -> {
+                if (eventInfo.getEventType() == EventType.TtlSweep) {
+                    metrics.add((TtlSweepMetrics) eventInfo.getItem());
+                }
+            });
+            collection.createIndex(indexOptions(IndexType.TTL), "expiresAt");
+
+            // the expired documents are removed in background
+            await().until(() -> collection.size() == 2001);
+            await().until(() -> !metrics.isEmpty());
+            assertEquals(0, collection.find(where("expiresAt").lt(now)).size());
+            assertEquals(1, collection.find(where("key").eq(-1)).size());
+
+            TtlSweepMetrics lastSweep = metrics.get(metrics.size() - 1);
+            assertEquals(1000, lastSweep.getTotalRemovedCount());
+            assertFalse(lastSweep.isRateLimited());
+
+            // expiry time as a date
+            NitriteCollection sessions = ttlDb.getCollection("ttl-index-date");
+            sessions.createIndex(indexOptions(IndexType.TTL), "expiresAt");
+            sessions.insert(createDocument("session", "expired").put("expiresAt", new Date(now - 1000)));
+            sessions.insert(createDocument("session", "active").put("expiresAt", new Date(now + 3600000)));
+            await().until(() -> sessions.size() == 1);
+            assertEquals("active", sessions.find().firstOrNull().get("session"));
+
+            // a time earlier than all the others is found by the next sweep
+            sessions.insert(createDocument("session", "ended").put("expiresAt", new Date(now - 500)));
+            await().until(() -> sessions.size() == 1);
+            assertEquals("active", sessions.find().firstOrNull().get("session"));
+        } finally {
+            ttlDb.close();
+        }
+    }
+
+    @Test
+    public void testTtlIndexInvalid() {
+        NitriteCollection collection = db.getCollection("ttl-index-invalid");
+        try {
+            collection.createIndex(indexOptions(IndexType.TTL), "expiresAt", "key");
+            fail("compound ttl index");
+        } catch (IndexingException e) {
+            assertFalse(collection.hasIndex("expiresAt", "key"));
+        }
+
+        collection.createIndex(indexOptions(IndexType.TTL), "expiresAt");
+        try {
+            collection.insert(createDocument("expiresAt", "tomorrow"));
+            fail("expiry time is not a date");
+        } catch (IndexingException e) {
+            assertEquals(0, collection.size());
+        }
+
+        collection.insert(createDocument("expiresAt", new Date()));
+        try {
+            collection.insert(createDocument("expiresAt", System.currentTimeMillis()));
+            fail("expiry time is not a date like the others");
+        } catch (IndexingException e) {
+            assertEquals(1, collection.size());
+        }
+
+        // an empty index takes the other kind of time
+        collection.clear();
+        collection.insert(createDocument("expiresAt", System.currentTimeMillis()));
+        assertEquals(1, collection.size());
+    }
+
+    @Test
+    public void testSubstringSearchIndex() {
+        NitriteCollection collection = db.getCollection("substring-search");
+        String[] bodies = {"walking home", "talking loudly", "the walker", "stalk and chalk", "a king", "sidewalk"};
+        for (int i = 0; i < bodies.length; i++) {
+            collection.insert(createDocument("n", i).put("body", bodies[i]));
+        }
+
+        IndexOptions indexOptions = indexOptions(IndexType.FULL_TEXT);
+        indexOptions.setSubstringSearch(true);
+        collection.createIndex(indexOptions, "body");
+        assertTrue(collection.listIndices().iterator().next().isSubstringSearch());
+
+        assertEquals(3, collection.find(where("body").text("*king")).size());
+        assertEquals(2, collection.find(where("body").text("*alk")).size());
+        assertEquals(5, collection.find(where("body").text("*alk*")).size());
+        assertEquals(0, collection.find(where("body").text("*xyz*")).size());
+        assertEquals(2, collection.find(where("body").text("wal*")).size());
+
+        // a substring shorter than a trigram is searched on all the terms
+        assertEquals(5, collection.find(where("body").text("*al*")).size());
+
+        // the dictionaries follow the terms of the index
+        collection.remove(where("n").eq(3));
+        assertEquals(1, collection.find(where("body").text("*alk")).size());
+        collection.update(where("n").eq(5), createDocument("body", "pavement"));
+        assertEquals(0, collection.find(where("body").text("*alk")).size());
+        assertEquals(3, collection.find(where("body").text("*alk*")).size());
+        assertEquals(1, collection.find(where("body").text("*ment")).size());
+
+        // creating the index without the option migrates it
+        collection.createIndex(indexOptions(IndexType.FULL_TEXT), "body");
+        assertFalse(collection.listIndices().iterator().next().isSubstringSearch());
+        assertFalse(db.getStore().hasMap("$nitrite_index|substring-search|body|Fulltext|trigram"));
+        assertEquals(3, collection.find(where("body").text("*alk*")).size());
+        assertEquals(3, collection.find(where("body").text("*king")).size());
+
+        // and creating it with the option again builds the dictionaries
+        collection.createIndex(indexOptions, "body");
+        assertTrue(collection.listIndices().iterator().next().isSubstringSearch());
+        assertTrue(db.getStore().hasMap("$nitrite_index|substring-search|body|Fulltext|trigram"));
+        assertEquals(3, collection.find(where("body").text("*alk*")).size());
+        assertEquals(1, collection.find(where("body").text("*ment")).size());
+    }
+
+    @Test(expected = IndexingException.class)
+    public void testSubstringSearchIndexInvalid() {
+        NitriteCollection collection = db.getCollection("substring-search-invalid");
+        IndexOptions indexOptions = indexOptions(IndexType.NON_UNIQUE);
+        indexOptions.setSubstringSearch(true);
+        collection.createIndex(indexOptions, "body");
+    }
+
+    @Test
+    public void testScoredTextIndex() {
+        NitriteCollection collection = db.getCollection("scored-text");
+        String[] bodies = {"apple banana", "apple apple apple banana cherry", "cherry date", "apple"};
+        for (int i = 0; i < bodies.length; i++) {
+            collection.insert(createDocument("n", i).put("body", bodies[i]));
+        }
+
+        IndexOptions indexOptions = indexOptions(IndexType.FULL_TEXT);
+        indexOptions.setScored(true);
+        collection.createIndex(indexOptions, "body");
+        assertTrue(collection.listIndices().iterator().next().isScored());
+
+        // a shorter document, or a more frequent term, ranks higher
+        assertEquals(Arrays.asList(3, 1, 0), numbersOf(collection.find(where("body").text("apple"))));
+        assertEquals(Integer.valueOf(1), collection.find(where("body").text("banana cherry"))
+            .firstOrNull().get("n", Integer.class));
+
+        // only the best ranked documents are kept for a limit
+        assertEquals(Arrays.asList(3, 1), numbersOf(collection.find(where("body").text("apple"),
+            FindOptions.limitBy(2))));
+        assertEquals(Collections.singletonList(1), numbersOf(collection.find(where("body").text("apple"),
+            FindOptions.skipBy(1).limit(1))));
+
+        // the scores follow the documents of the index
+        collection.remove(where("n").eq(3));
+        assertEquals(Arrays.asList(1, 0), numbersOf(collection.find(where("body").text("apple"))));
+        collection.update(where("n").eq(1), createDocument("body", "cherry"));
+        assertEquals(Collections.singletonList(0), numbersOf(collection.find(where("body").text("apple"))));
+
+        // creating the index without the option migrates it
+        collection.createIndex(indexOptions(IndexType.FULL_TEXT), "body");
+        assertFalse(collection.listIndices().iterator().next().isScored());
+        assertFalse(db.getStore().hasMap("$nitrite_index|scored-text|body|Fulltext|length"));
+        assertEquals(Integer.valueOf(0), collection.find(where("body").text("apple banana"),
+            FindOptions.limitBy(1)).firstOrNull().get("n", Integer.class));
+
+        // and creating it with the option again scores the documents
+        collection.createIndex(indexOptions, "body");
+        assertTrue(collection.listIndices().iterator().next().isScored());
+        assertTrue(db.getStore().hasMap("$nitrite_index|scored-text|body|Fulltext|length"));
+        assertEquals(Arrays.asList(1, 2), numbersOf(collection.find(where("body").text("cherry"))));
+    }
+
+    @Test(expected = IndexingException.class)
+    public void testScoredTextIndexInvalid() {
+        NitriteCollection collection = db.getCollection("scored-text-invalid");
+        IndexOptions indexOptions = indexOptions(IndexType.UNIQUE);
+        indexOptions.setScored(true);
+        collection.createIndex(indexOptions, "body");
+    }
+
+    private List<Integer> numbersOf(DocumentCursor cursor) {
+        List<Integer> numbers = new ArrayList<>();
+        for (Document document : cursor) {
+            numbers.add(document.get("n", Integer.class));
+        }
+        return numbers;
+    }
+
+    @Test
+    public void testPositionalTextIndex() {
+        NitriteCollection collection = db.getCollection("positional-text");
+        String[] bodies = {"the quick brown fox", "a brown quick fox", "quick and brown", "quick, brown fox"};
+        for (int i = 0; i < bodies.length; i++) {
+            collection.insert(createDocument("n", i).put("body", bodies[i]));
+        }
+        collection.insert(createDocument("n", 4).put("body", Arrays.asList("the quick", "brown fox")));
+
+        IndexOptions indexOptions = indexOptions(IndexType.FULL_TEXT);
+        indexOptions.setPositional(true);
+        collection.createIndex(indexOptions, "body");
+        assertTrue(collection.listIndices().iterator().next().isPositional());
+
+        // the words of a phrase must be next to each other and in order
+        DocumentCursor cursor = collection.find(where("body").text("\"quick brown\""),
+            FindOptions.orderBy("n", SortOrder.Ascending));
+        assertNull(cursor.getFindPlan().getCollectionScanFilter());
+        assertEquals(Arrays.asList(0, 3), numbersOf(cursor));
+        assertEquals(Collections.singletonList(1), numbersOf(collection.find(where("body").text("\"brown quick\""))));
+        assertEquals(5, collection.find(where("body").text("quick brown")).size());
+
+        // a stop word keeps its position, and a phrase never spans two items of an array
+        assertEquals(Collections.singletonList(2),
+            numbersOf(collection.find(where("body").text("\"quick and brown\""))));
+        assertEquals(0, collection.find(where("body").text("\"quick brown fox jumps\"")).size());
+
+        // the positions follow the documents of the index
+        collection.remove(where("n").eq(0));
+        collection.update(where("n").eq(2), createDocument("body", "very quick brown"));
+        assertEquals(Arrays.asList(2, 3), numbersOf(collection.find(where("body").text("\"quick brown\""),
+            FindOptions.orderBy("n", SortOrder.Ascending))));
+
+        // without the positions, the phrase is checked on each document having its words
+        collection.createIndex(indexOptions(IndexType.FULL_TEXT), "body");
+        assertFalse(collection.listIndices().iterator().next().isPositional());
+        cursor = collection.find(where("body").text("\"quick brown\""),
+            FindOptions.orderBy("n", SortOrder.Ascending));
+        assertNotNull(cursor.getFindPlan().getCollectionScanFilter());
+        assertEquals(Arrays.asList(2, 3), numbersOf(cursor));
+        assertEquals(Arrays.asList(3, 4), numbersOf(collection.find(where("body").text("\"brown fox\""),
+            FindOptions.orderBy("n", SortOrder.Ascending))));
+        assertFalse(db.getStore().hasMap("$nitrite_index|positional-text|body|Fulltext|position"));
+
+        // and creating it with the option again keeps the positions
+        collection.createIndex(indexOptions, "body");
+        assertTrue(collection.listIndices().iterator().next().isPositional());
+        assertTrue(db.getStore().hasMap("$nitrite_index|positional-text|body|Fulltext|position"));
+        cursor = collection.find(where("body").text("\"quick brown\""),
+            FindOptions.orderBy("n", SortOrder.Ascending));
+        assertNull(cursor.getFindPlan().getCollectionScanFilter());
+        assertEquals(Arrays.asList(2, 3), numbersOf(cursor));
+    }
+
+    @Test(expected = IndexingException.class)
+    public void testPositionalTextIndexInvalid() {
+        NitriteCollection collection = db.getCollection("positional-text-invalid");
+        IndexOptions indexOptions = indexOptions(IndexType.NON_UNIQUE);
+        indexOptions.setPositional(true);
+        collection.createIndex(indexOptions, "body");
+    }
+
+    @Test
+    public void testFuzzyTextSearch() {
+        NitriteCollection collection = db.getCollection("fuzzy-text");
+        String[] bodies = {"the quick brown fox", "a quack duck", "brown box", "sitting kitten", "a kitchen table"};
+        for (int i = 0; i < bodies.length; i++) {
+            collection.insert(createDocument("n", i).put("body", bodies[i]));
+        }
+        collection.createIndex(indexOptions(IndexType.FULL_TEXT), "body");
+
+        // the documents having a closer word rank higher
+        assertEquals(Arrays.asList(0, 2), numbersOf(collection.find(where("body").fuzzy("fox"))));
+        assertEquals(Arrays.asList(0, 1), numbersOf(collection.find(where("body").fuzzy("Quick"))));
+        assertEquals(Arrays.asList(4, 3), numbersOf(collection.find(where("body").fuzzy("kitchen"))));
+        assertEquals(Collections.singletonList(4), numbersOf(collection.find(where("body").fuzzy("kitchen", 1))));
+        assertEquals(0, collection.find(where("body").fuzzy("zebra")).size());
+        assertEquals(Collections.singletonList(0), numbersOf(collection.find(where("body").fuzzy("fox"),
+            FindOptions.limitBy(1))));
+
+        collection.remove(where("n").eq(0));
+        assertEquals(Collections.singletonList(2), numbersOf(collection.find(where("body").fuzzy("fox"))));
+    }
+
+    @Test(expected = FilterException.class)
+    public void testFuzzyTextSearchInvalid() {
+        NitriteCollection collection = db.getCollection("fuzzy-text-invalid");
+        collection.createIndex(indexOptions(IndexType.FULL_TEXT), "body");
+        collection.insert(createDocument("body", "the quick brown fox"));
+        collection.find(where("body").fuzzy("quick fox")).size();
+    }
+
+    @Test
+    public void testBackgroundIndexBuild() {
+        NitriteCollection collection = db.getCollection("background-index");
+        for (int i = 0; i < 20000; i++) {
+            collection.insert(createDocument("id", i).put("group", i % 10));
+        }
+
+        List<IndexBuildProgress> progress = new CopyOnWriteArrayList<>();
+        AtomicBoolean completed = new AtomicBoolean(false);
+        collection.subscribe(eventInfo -> {
+            if (eventInfo.getEventType() == EventType.IndexProgress) {
+                progress.add((IndexBuildProgress) eventInfo.getItem());
+            } else if (eventInfo.getEventType() == EventType.IndexEnd) {
+                completed.set(true);
+            }
+        });
+
+        IndexOptions indexOptions = indexOptions(IndexType.NON_UNIQUE);
+        indexOptions.setBackground(true);
+        collection.createIndex(indexOptions, "group");
+
+        // writes are not blocked while the index is built
+        for (int i = 20000; i < 20500; i++) {
+            collection.insert(createDocument("id", i).put("group", 3));
+        }
+        collection.update(where("id").lt(100), createDocument("group", 3));
+        collection.remove(where("id").gte(19900).and(where("id").lt(20000)));
+
+        // the last progress of the build reports all the documents indexed
+        await().until(() -> completed.get()
+            && progress.stream().anyMatch(indexProgress -> indexProgress.getPercentage() == 100.0));
+        assertFalse(collection.isIndexing("group"));
+
+        DocumentCursor cursor = collection.find(where("group").eq(3));
+        assertNotNull(cursor.getFindPlan().getIndexDescriptor());
+
+        long expected = collection.find().toList().stream()
+            .filter(document -> Integer.valueOf(3).equals(document.get("group"))).count();
+        assertEquals(2000 + 90 - 10 + 500, expected);
+        assertEquals(expected, cursor.size());
+    }
+
+    @Test
+    public void testFailedBackgroundIndexBuild() {
+        NitriteCollection collection = db.getCollection("failed-background-index");
+        for (int i = 0; i < 5000; i++) {
+            collection.insert(createDocument("id", i));
+        }
+        collection.insert(createDocument("id", 4999));
+
+        AtomicBoolean completed = new AtomicBoolean(false);
+        collection.subscribe(eventInfo -> {
+            if (eventInfo.getEventType() == EventType.IndexEnd) {
+                completed.set(true);
+            }
+        });
+
+        IndexOptions indexOptions = indexOptions(IndexType.UNIQUE);
+        indexOptions.setBackground(true);
+        collection.createIndex(indexOptions, "id");
+        await().until(completed::get);
+        assertFalse(collection.isIndexing("id"));
+
+        // the failure is reported by the index
+        IndexDescriptor indexDescriptor = collection.listIndices().iterator().next();
+        assertNotNull(indexDescriptor.getBuildError());
+
+        // the half built index is neither queried nor written
+        DocumentCursor cursor = collection.find(where("id").eq(4000));
+        assertNull(cursor.getFindPlan().getIndexDescriptor());
+        assertEquals(1, cursor.size());
+        assertEquals(5001, collection.find(where("id").gte(0)).size());
+        collection.insert(createDocument("id", 5000));
+        assertEquals(5002, collection.find(where("id").gte(0)).size());
+
+        // once the duplicate is gone, creating the index again builds it
+        collection.remove(where("id").eq(4999));
+        collection.insert(createDocument("id", 4999));
+        completed.set(false);
+        collection.createIndex(indexOptions, "id");
+        await().until(completed::get);
+
+        indexDescriptor = collection.listIndices().iterator().next();
+        assertNull(indexDescriptor.getBuildError());
+        cursor = collection.find(where("id").eq(4000));
+        assertNotNull(cursor.getFindPlan().getIndexDescriptor());
+        assertEquals(1, cursor.size());
+        assertEquals(5001, collection.find(where("id").gte(0)).size());
+    }
 }
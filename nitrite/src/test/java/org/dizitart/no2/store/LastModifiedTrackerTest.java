@@ -0,0 +1,132 @@
+package org.dizitart.no2.store;
+
+import org.dizitart.no2.common.meta.Attributes;
+import org.dizitart.no2.store.memory.InMemoryStore;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.awaitility.Awaitility.await;
+import static org.dizitart.no2.common.Constants.META_MAP_NAME;
+import static org.dizitart.no2.common.Constants.SCHEDULER_THREAD_NAME;
+import static org.junit.Assert.*;
+
+public class LastModifiedTrackerTest {
+    @Test
+    public void testMarkModifiedDefersWrite() {
+        InMemoryStore store = new InMemoryStore();
+        LastModifiedTracker tracker = new LastModifiedTracker(store, 0);
+        store.openMap("test", String.class, String.class);
+
+        tracker.markModified("test");
+        assertTrue(tracker.hasPendingChanges());
+        assertNull(metaMap(store).get("test"));
+
+        tracker.flush();
+        assertFalse(tracker.hasPendingChanges());
+        Attributes attributes = metaMap(store).get("test");
+        assertNotNull(attributes);
+        assertNotNull(attributes.get(Attributes.LAST_MODIFIED_TIME));
+    }
+
+    @Test
+    public void testRemoveMapDiscardsPendingChange() {
+        InMemoryStore store = new InMemoryStore();
+        NitriteMap<String, String> map = store.openMap("test", String.class, String.class);
+        map.put("a", "b");
+        assertTrue(store.getLastModifiedTracker().hasPendingChanges());
+
+        store.removeMap("test");
+        assertFalse(store.getLastModifiedTracker().hasPendingChanges());
+
+        store.commit();
+        assertNull(metaMap(store).get("test"));
+        store.close();
+    }
+
+    @Test
+    public void testBackgroundFlush() {
+        InMemoryStore store = new InMemoryStore();
+        LastModifiedTracker tracker = new LastModifiedTracker(store, 10);
+        store.openMap("test", String.class, String.class);
+
+        tracker.markModified("test");
+        await().until(() -> !tracker.hasPendingChanges());
+        assertNotNull(metaMap(store).get("test"));
+        tracker.close();
+    }
+
+    @Test
+    public void testBackgroundFlushStopsOnClose() {
+        InMemoryStore store = new InMemoryStore();
+        LastModifiedTracker tracker = new LastModifiedTracker(store, 10);
+        LastModifiedTracker otherTracker = new LastModifiedTracker(store, 10);
+        store.openMap("test", String.class, String.class);
+
+        tracker.markModified("test");
+        otherTracker.markModified("test");
+        assertTrue(tracker.isFlushScheduled());
+        assertTrue(otherTracker.isFlushScheduled());
+
+        // the trackers share the scheduler thread instead of starting their own
+        assertEquals(1, Thread.getAllStackTraces().keySet().stream()
+            .filter(thread -> SCHEDULER_THREAD_NAME.equals(thread.getName())).count());
+
+        tracker.close();
+        assertFalse(tracker.isFlushScheduled());
+        assertTrue(otherTracker.isFlushScheduled());
+
+        // a closed tracker does not flush in background anymore
+        tracker.markModified("test");
+        await().pollDelay(100, TimeUnit.MILLISECONDS).until(() -> true);
+        assertTrue(tracker.hasPendingChanges());
+        assertFalse(tracker.isFlushScheduled());
+        otherTracker.close();
+    }
+
+    @Test
+    public void testFlushHook() {
+        InMemoryStore store = new InMemoryStore();
+        LastModifiedTracker tracker = new LastModifiedTracker(store, 0);
+        store.openMap("test", String.class, String.class);
+
+        AtomicInteger flushes = new AtomicInteger();
+        Runnable flushHook = flushes::incrementAndGet;
+        tracker.addFlushHook(() -> {
+            throw new IllegalStateException("failed hook");
+        });
+        tracker.addFlushHook(flushHook);
+
+        // a hook runs even if no modification is pending, and a
+        // failed hook does not keep the others from running
+        tracker.flush();
+        assertEquals(1, flushes.get());
+
+        tracker.markModified("test");
+        tracker.flush();
+        assertEquals(2, flushes.get());
+        assertNotNull(metaMap(store).get("test"));
+
+        tracker.removeFlushHook(flushHook);
+        tracker.flush();
+        assertEquals(2, flushes.get());
+        tracker.close();
+    }
+
+    @Test
+    public void testStoreFlushOnCommit() {
+        InMemoryStore store = new InMemoryStore();
+        NitriteMap<String, String> map = store.openMap("test", String.class, String.class);
+        map.put("a", "b");
+        store.commit();
+
+        assertFalse(store.getLastModifiedTracker().hasPendingChanges());
+        assertNotNull(map.getAttributes().get(Attributes.LAST_MODIFIED_TIME));
+        store.close();
+    }
+
+    private NitriteMap<String, Attributes> metaMap(NitriteStore<?> store) {
+        return store.openMap(META_MAP_NAME, String.class, Attributes.class);
+    }
+}
@@ -1,9 +1,18 @@
 package org.dizitart.no2.store.memory;
 
+import org.dizitart.no2.common.RecordStream;
+import org.dizitart.no2.common.tuples.Pair;
 import org.dizitart.no2.exceptions.InvalidOperationException;
 import org.dizitart.no2.exceptions.ValidationException;
+import org.dizitart.no2.index.fulltext.LevenshteinAutomaton;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
 import static org.junit.Assert.*;
 
 public class InMemoryMapTest {
@@ -380,5 +389,60 @@ public class InMemoryMapTest {
         assertNull(actualInMemoryMap.getStore());
     }
 
-}
+    @Test
+    public void testRangeEntries() {
+        InMemoryMap<Integer, String> inMemoryMap = new InMemoryMap<>("", null);
+        for (int i = 1; i <= 5; i++) {
+            inMemoryMap.put(i, "Value" + i);
+        }
+
+        assertEquals(Arrays.asList(2, 3, 4), keys(inMemoryMap.entries(2, true, 4, true, false)));
+        assertEquals(Collections.singletonList(3), keys(inMemoryMap.entries(2, false, 4, false, false)));
+        assertEquals(Arrays.asList(4, 3, 2), keys(inMemoryMap.entries(2, true, 4, true, true)));
+        assertEquals(Arrays.asList(4, 5), keys(inMemoryMap.entries(3, false, null, false, false)));
+        assertEquals(Arrays.asList(2, 1), keys(inMemoryMap.entries(null, false, 3, false, true)));
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5), keys(inMemoryMap.entries(null, false, null, false, false)));
+        assertTrue(keys(inMemoryMap.entries(4, true, 2, true, false)).isEmpty());
+        assertTrue(keys(inMemoryMap.entries(3, true, 3, false, false)).isEmpty());
+        assertEquals("Value2", inMemoryMap.entries(2, true, 2, true, false).firstOrNull().getSecond());
+    }
+
+    @Test
+    public void testPrefixEntries() {
+        InMemoryMap<String, Integer> inMemoryMap = new InMemoryMap<>("", null);
+        List<String> terms = Arrays.asList("fo", "foo", "food", "fool", "for", "fop", "bar", "fz");
+        for (int i = 0; i < terms.size(); i++) {
+            inMemoryMap.put(terms.get(i), i);
+        }
+
+        List<String> keys = inMemoryMap.prefixEntries("foo").toList().stream()
+            .map(Pair::getFirst).collect(Collectors.toList());
+        assertEquals(Arrays.asList("foo", "food", "fool"), keys);
+        assertEquals(6, inMemoryMap.prefixEntries("fo").size());
+        assertTrue(inMemoryMap.prefixEntries("fox").isEmpty());
+        assertTrue(inMemoryMap.prefixEntries("zoo").isEmpty());
+    }
+
+    @Test
+    public void testMatchingEntries() {
+        InMemoryMap<String, Integer> inMemoryMap = new InMemoryMap<>("", null);
+        List<String> terms = Arrays.asList("fo", "foo", "food", "fool", "for", "fop", "bar", "fz");
+        for (int i = 0; i < terms.size(); i++) {
+            inMemoryMap.put(terms.get(i), i);
+        }
+
+        LevenshteinAutomaton automaton = new LevenshteinAutomaton("fz", 1);
+        List<String> visited = new ArrayList<>();
+        List<String> keys = inMemoryMap.matchingEntries(key -> visited.add(key) && automaton.accepts(key),
+            automaton::next).toList().stream().map(Pair::getFirst).collect(Collectors.toList());
+        assertEquals(Arrays.asList("fo", "fz"), keys);
 
+        // the keys which can not match are skipped
+        assertEquals(Arrays.asList("bar", "fo", "foo", "fz"), visited);
+        assertTrue(inMemoryMap.matchingEntries(key -> false, key -> null).isEmpty());
+    }
+
+    private List<Integer> keys(RecordStream<Pair<Integer, String>> entries) {
+        return entries.toList().stream().map(Pair::getFirst).collect(Collectors.toList());
+    }
+}